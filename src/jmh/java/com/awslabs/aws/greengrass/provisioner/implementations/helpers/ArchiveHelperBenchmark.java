@@ -0,0 +1,84 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.VirtualTarEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds an archive shaped like the ones the deployment helper writes, a large Greengrass core tarball read from
+ * disk plus a key, certificate, and run script for every device.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveHelperBenchmark {
+    @Param({"10", "200"})
+    public int devices;
+
+    @Param({"4", "32"})
+    public int coreMegabytes;
+
+    private BasicArchiveHelper basicArchiveHelper;
+    private List<VirtualTarEntry> virtualTarEntries;
+    private Path coreFile;
+    private Path outputFile;
+    private FileChannel outputChannel;
+
+    @Setup
+    public void setup() throws IOException {
+        basicArchiveHelper = new BasicArchiveHelper();
+
+        Random random = new Random(0);
+
+        byte[] coreBytes = new byte[coreMegabytes * 1024 * 1024];
+        random.nextBytes(coreBytes);
+        coreFile = Files.createTempFile("greengrass-core", ".tar.gz");
+        Files.write(coreFile, coreBytes);
+
+        virtualTarEntries = new ArrayList<>();
+        virtualTarEntries.add(basicArchiveHelper.createVirtualTarEntry("greengrass.tar.gz", coreFile, 0644));
+
+        for (int loop = 0; loop < devices; loop++) {
+            virtualTarEntries.add(basicArchiveHelper.createVirtualTarEntry("device" + loop + ".pem.key", randomBytes(random, 1679), 0644));
+            virtualTarEntries.add(basicArchiveHelper.createVirtualTarEntry("device" + loop + ".pem.crt", randomBytes(random, 1224), 0644));
+            virtualTarEntries.add(basicArchiveHelper.createVirtualTarEntry("run-device" + loop + ".sh", randomBytes(random, 160), 0755));
+        }
+
+        outputFile = Files.createTempFile("benchmark", ".tar");
+        outputChannel = FileChannel.open(outputFile, StandardOpenOption.WRITE);
+    }
+
+    private byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        outputChannel.close();
+        Files.deleteIfExists(outputFile);
+        Files.deleteIfExists(coreFile);
+    }
+
+    @Benchmark
+    public long tar() throws IOException {
+        outputChannel.position(0);
+        long length = basicArchiveHelper.tar(virtualTarEntries, outputChannel);
+        outputChannel.truncate(length);
+
+        return length;
+    }
+}
@@ -0,0 +1,55 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogEvent;
+import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogMessageType;
+import io.vavr.collection.Map;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeviceTesterHelperBenchmark {
+    private static final String[] LOG_MESSAGES = {
+            "[INFO] BasicGroupTestHelper: time=\"2019-01-10T08:55:01-05:00\" level=info msg=Running test case... testCaseId=ggc_version_check_test_1 deviceId=DUT executionId=52cf78b2-14df-11e9-919c-9801a78f161d suiteId=GGQ groupId=version",
+            "[INFO] BasicGroupTestHelper: time=\"2019-01-10T08:55:02-05:00\" level=info msg=Finished running test case... executionId=52cf78b2-14df-11e9-919c-9801a78f161d suiteId=GGQ groupId=version testCaseId=ggc_version_check_test_1 deviceId=DUT",
+            "[INFO] BasicGroupTestHelper: time=\"2019-01-10T08:55:02-05:00\" level=info msg=PASS deviceId=DUT executionId=52cf78b2-14df-11e9-919c-9801a78f161d suiteId=GGQ groupId=version testCaseId=ggc_version_check_test_1",
+            "[INFO] BasicGroupTestHelper: time=\"2019-01-10T08:55:20-05:00\" level=info msg=stop Greengrass executed successfully. testCaseId=ipd_test_1 deviceId=DUT executionId=52cf78b2-14df-11e9-919c-9801a78f161d suiteId=GGQ groupId=ipd",
+            "[INFO] BasicGroupTestHelper: time=\"2019-01-10T08:55:26-05:00\" level=info msg=Cleaning up resources... suiteId=GGQ groupId=ipd testCaseId=ipd_test_1 deviceId=DUT executionId=52cf78b2-14df-11e9-919c-9801a78f161d",
+            "[INFO] BasicGroupTestHelper: time=\"2019-01-10T08:55:27-05:00\" level=info msg=--- FAIL: TestIPD (10.28s) testCaseId=ipd_test_1 deviceId=DUT executionId=52cf78b2-14df-11e9-919c-9801a78f161d suiteId=GGQ groupId=ipd",
+            "[INFO] BasicGroupTestHelper: time=\"2019-01-10T09:18:31-05:00\" level=info msg=AWS IoT Device Tester report generated at the path: /tmp/devicetester_greengrass_linux/results/52cf78b2-14df-11e9-919c-9801a78f161d/awsiotdevicetester_report.xml poolId=DevicePool suiteId=GGQ executionId=52cf78b2-14df-11e9-919c-9801a78f161d",
+            "[INFO] BasicGroupTestHelper: time=\"2019-01-10T15:55:18-05:00\" level=info msg=Failing copying the busybox to target device. failed to create file at path busybox-armv7l: wait: remote command exited without exit status or exit signal executionId=259b115e-1519-11e9-ba64-9801a78f161d suiteId=GGQ groupId=dcm testCaseId=dcm_test_1 deviceId=DUT"};
+
+    private BasicDeviceTesterHelper basicDeviceTesterHelper;
+    private int index;
+
+    @Setup
+    public void setup() {
+        basicDeviceTesterHelper = new BasicDeviceTesterHelper();
+    }
+
+    private String nextLogMessage() {
+        // Cycle through the messages so the late matching message types are measured too
+        index = (index + 1) % LOG_MESSAGES.length;
+        return LOG_MESSAGES[index];
+    }
+
+    @Benchmark
+    public Map<String, String> extractValuesFromLogMessage() {
+        return basicDeviceTesterHelper.extractValuesFromLogMessage(nextLogMessage());
+    }
+
+    @Benchmark
+    public DeviceTesterLogEvent parse() {
+        return basicDeviceTesterHelper.parse(nextLogMessage());
+    }
+
+    @Benchmark
+    public DeviceTesterLogMessageType getLogMessageType() {
+        return basicDeviceTesterHelper.getLogMessageType(nextLogMessage());
+    }
+}
@@ -0,0 +1,73 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.greengrass.model.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GreengrassHelperBenchmark {
+    @Param({"10", "100"})
+    public int functions;
+
+    @Param({"GreengrassContainer", "NoContainer"})
+    public String defaultIsolationMode;
+
+    private BasicGreengrassHelper basicGreengrassHelper;
+    private Set<Function> functionSet;
+
+    @Setup
+    public void setup() {
+        BasicIoHelper basicIoHelper = new BasicIoHelper();
+
+        BasicGGConstants basicGGConstants = new BasicGGConstants();
+        basicGGConstants.ioHelper = basicIoHelper;
+
+        basicGreengrassHelper = new BasicGreengrassHelper();
+        basicGreengrassHelper.ggConstants = basicGGConstants;
+        basicGreengrassHelper.ggVariables = new BasicGGVariables() {
+            @Override
+            public FunctionIsolationMode getDefaultFunctionIsolationMode() {
+                return FunctionIsolationMode.fromValue(defaultIsolationMode);
+            }
+        };
+
+        functionSet = new HashSet<>();
+
+        // A third each of functions with no isolation mode, with container isolation, and without a container
+        for (int loop = 0; loop < functions; loop++) {
+            FunctionConfiguration.Builder functionConfigurationBuilder = FunctionConfiguration.builder()
+                    .memorySize(65536)
+                    .timeout(10)
+                    .pinned(true);
+
+            if (loop % 3 != 0) {
+                FunctionIsolationMode isolationMode = (loop % 3 == 1) ? FunctionIsolationMode.GREENGRASS_CONTAINER : FunctionIsolationMode.NO_CONTAINER;
+
+                functionConfigurationBuilder.environment(FunctionConfigurationEnvironment.builder()
+                        .execution(FunctionExecutionConfig.builder()
+                                .isolationMode(isolationMode)
+                                .build())
+                        .build());
+            }
+
+            functionSet.add(Function.builder()
+                    .id(basicIoHelper.getUuid())
+                    .functionArn("arn:aws:lambda:us-east-1:123456789012:function:function" + loop + ":PROD")
+                    .functionConfiguration(functionConfigurationBuilder.build())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public FunctionDefinitionVersion getFunctionDefinitionVersion() {
+        return basicGreengrassHelper.getFunctionDefinitionVersion(functionSet);
+    }
+}
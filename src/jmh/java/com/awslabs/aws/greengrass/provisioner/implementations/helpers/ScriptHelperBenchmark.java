@@ -0,0 +1,59 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScriptHelperBenchmark {
+    // The largest template and the one that is generated once per device
+    @Param({"shell/template.sh.in", "shell/run-python.sh.in"})
+    public String templatePath;
+
+    private BasicScriptHelper basicScriptHelper;
+    private ImmutableMap<String, String> variables;
+    private String template;
+
+    @Setup
+    public void setup() {
+        BasicResourceHelper basicResourceHelper = new BasicResourceHelper();
+        template = basicResourceHelper.resourceToString(templatePath);
+
+        basicScriptHelper = new BasicScriptHelper();
+
+        // The same variables innerGenerateRunScript fills in for a device run script
+        variables = ImmutableMap.<String, String>builder()
+                .put("SCRIPT_NAME", "device1.py")
+                .put("GG_SH", "gg.sh")
+                .put("DEVICE_THING_NAME", "device1")
+                .put("DEVICE_PUBLIC_CERTIFICATE", "ggd.device1.pem.crt")
+                .put("DEVICE_PRIVATE_KEY", "ggd.device1.pem.key")
+                .put("ROOT_CA", "root.ca.pem")
+                .put("CONFIG_FILE", "config.json")
+                .put("CORE_PUBLIC_CERTIFICATE", "core.crt")
+                .put("CORE_PRIVATE_KEY", "core.key")
+                .put("ENDPOINT", "abcdefghijklmn-ats.iot.us-east-1.amazonaws.com")
+                .put("START_SCRIPT", "start.sh")
+                .put("STOP_SCRIPT", "stop.sh")
+                .put("CLEAN_SCRIPT", "clean.sh")
+                .put("INSTALL_SCRIPT", "install.sh")
+                .put("GREENGRASS_DAEMON", "greengrassd")
+                .put("MONITOR_SCRIPT", "monitor.sh")
+                .put("SYSTEMD_SCRIPT", "greengrass.service")
+                .put("SYSTEMD_DESTINATION_PATH", BasicScriptHelper.LIB_SYSTEMD_SYSTEM_PATH)
+                .put("GG_BITS", "greengrass-linux-x86-64-1.7.0.tar.gz")
+                .put(BasicScriptHelper.GGD_PIP_DEPENDENCIES, "AWSIoTPythonSDK requests")
+                .build();
+    }
+
+    @Benchmark
+    public String replaceVariables() {
+        return basicScriptHelper.replaceVariables(variables, template);
+    }
+}
@@ -0,0 +1,91 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
+import com.awslabs.aws.greengrass.provisioner.data.conf.GGDConf;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.greengrass.model.Function;
+import software.amazon.awssdk.services.greengrass.model.Subscription;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubscriptionHelperBenchmark {
+    @Param({"10", "50"})
+    public int functions;
+
+    @Param({"10", "200"})
+    public int devices;
+
+    // Every function and device publishes and subscribes to this many of the shared topics
+    @Param({"5"})
+    public int topicsPerEndpoint;
+
+    @Param({"20"})
+    public int topics;
+
+    private BasicSubscriptionHelper basicSubscriptionHelper;
+    private Map<Function, FunctionConf> functionToConfMap;
+    private List<GGDConf> ggdConfs;
+
+    @Setup
+    public void setup() {
+        basicSubscriptionHelper = new BasicSubscriptionHelper();
+        basicSubscriptionHelper.iotHelper = new BasicIotHelper() {
+            @Override
+            public String getThingArn(String thingName) {
+                return "arn:aws:iot:us-east-1:123456789012:thing/" + thingName;
+            }
+        };
+        basicSubscriptionHelper.ioHelper = new BasicIoHelper();
+
+        // Fixed seed so every run measures the same fan-out
+        Random random = new Random(0);
+
+        functionToConfMap = new HashMap<>();
+
+        for (int loop = 0; loop < functions; loop++) {
+            Function function = Function.builder()
+                    .functionArn("arn:aws:lambda:us-east-1:123456789012:function:function" + loop + ":PROD")
+                    .build();
+
+            FunctionConf functionConf = FunctionConf.builder()
+                    .functionName("function" + loop)
+                    .inputTopics(randomTopics(random))
+                    .outputTopics(randomTopics(random))
+                    .build();
+
+            functionToConfMap.put(function, functionConf);
+        }
+
+        ggdConfs = new ArrayList<>();
+
+        for (int loop = 0; loop < devices; loop++) {
+            ggdConfs.add(GGDConf.builder()
+                    .thingName("device" + loop)
+                    .inputTopics(randomTopics(random))
+                    .outputTopics(randomTopics(random))
+                    .build());
+        }
+    }
+
+    private List<String> randomTopics(Random random) {
+        Set<String> randomTopics = new HashSet<>();
+
+        while (randomTopics.size() < Math.min(topicsPerEndpoint, topics)) {
+            randomTopics.add("sensors/topic" + random.nextInt(topics));
+        }
+
+        return new ArrayList<>(randomTopics);
+    }
+
+    @Benchmark
+    public List<Subscription> connectFunctionsAndDevices() {
+        return basicSubscriptionHelper.connectFunctionsAndDevices(functionToConfMap, ggdConfs);
+    }
+}
@@ -1,7 +1,16 @@
 package com.awslabs.aws.greengrass.provisioner;
 
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+import com.awslabs.aws.greengrass.provisioner.data.arguments.Arguments;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ArtifactCacheHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.AsyncSdkHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IotHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.Operation;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkMetricsHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SshSessionPoolHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.StartupReportHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.TraceHelper;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.ProvisionException;
@@ -10,14 +19,30 @@ import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.core.exception.SdkClientException;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 @Slf4j
 public class AwsGreengrassProvisioner implements Runnable {
     private static Optional<Injector> optionalInjector = Optional.empty();
+    // Providers so that only the operation that matches the arguments, and its dependencies, get created
     @Inject
-    Set<Operation> operations;
+    Map<String, Provider<Operation<?>>> operations;
+    @Inject
+    StartupReportHelper startupReportHelper;
+    @Inject
+    SdkMetricsHelper sdkMetricsHelper;
+    @Inject
+    TraceHelper traceHelper;
+    @Inject
+    SshSessionPoolHelper sshSessionPoolHelper;
+    @Inject
+    AsyncSdkHelper asyncSdkHelper;
+    @Inject
+    ArtifactCacheHelper artifactCacheHelper;
+    @Inject
+    IotHelper iotHelper;
     private String[] args;
 
     @Inject
@@ -65,19 +90,25 @@ public class AwsGreengrassProvisioner implements Runnable {
 
     public static Injector getInjector() {
         if (!optionalInjector.isPresent()) {
-            optionalInjector = Optional.of(Guice.createInjector(new AwsGreengrassProvisionerModule()));
+            long startTime = System.nanoTime();
+            Injector injector = Guice.createInjector(new AwsGreengrassProvisionerModule());
+            injector.getInstance(StartupReportHelper.class).setInjectorCreationNanos(System.nanoTime() - startTime);
+
+            optionalInjector = Optional.of(injector);
         }
 
         return optionalInjector.get();
     }
 
     public void run() {
-        Try.of(() -> operations.stream()
-                // Find an operation with arguments that match
+        Try.of(() -> operations.entrySet().stream()
+                // Find an operation with arguments that match, only then create it
+                .filter(entry -> Operation.matches(args, entry.getKey()))
+                .map(entry -> entry.getValue().get())
                 .filter(operation -> operation.matches(args))
                 .findFirst()
                 // Execute the operation
-                .map(operation -> operation.execute(args)))
+                .map(this::execute))
                 // If the operation fails then log the error
                 .onFailure(throwable -> log.error(throwable.getMessage()))
                 // If the operation succeeds make sure the result isn't empty. An empty result means that nothing was done.
@@ -85,6 +116,43 @@ public class AwsGreengrassProvisioner implements Runnable {
                 .get();
     }
 
+    private boolean execute(Operation<?> operation) {
+        String operationName = operation.getClass().getSimpleName();
+        startupReportHelper.logStartupReport(operationName);
+
+        TraceSpan traceSpan = traceHelper.startSpan(operationName);
+
+        try {
+            return parseAndExecute(operation);
+        } catch (RuntimeException e) {
+            traceSpan.failed(e.getMessage());
+            throw e;
+        } finally {
+            traceSpan.close();
+            sdkMetricsHelper.writeReport(operationName, traceSpan);
+            traceHelper.writeTrace(traceSpan);
+            // Pooled sessions are reused by later jobs in server mode, their threads would keep the JVM running after
+            //   the operation is finished
+            sshSessionPoolHelper.closeAll();
+            // In server mode the next job must see things, keys, and policies that were changed or deleted in between
+            iotHelper.clearCache();
+        }
+    }
+
+    private <T extends Arguments> boolean parseAndExecute(Operation<T> operation) {
+        T arguments = operation.getArgumentHelper().parseArguments(args);
+
+        // These apply to the whole process, in server mode they are taken from the arguments the server was started with
+        asyncSdkHelper.setAsync(arguments.asyncSdk);
+        artifactCacheHelper.setOffline(arguments.offline);
+        sdkMetricsHelper.setPrometheus(arguments.sdkMetricsPrometheus);
+        traceHelper.setFormats(arguments.traceFormats);
+
+        operation.executeOrDisplayHelp(arguments);
+
+        return true;
+    }
+
     public void logIfNoOperationSpecified(Optional<Boolean> success) {
         if (!success.isPresent()) {
             log.error("No operation specified");
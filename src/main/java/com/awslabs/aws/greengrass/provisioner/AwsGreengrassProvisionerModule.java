@@ -1,5 +1,6 @@
 package com.awslabs.aws.greengrass.provisioner;
 
+import com.awslabs.aws.greengrass.provisioner.data.arguments.*;
 import com.awslabs.aws.greengrass.provisioner.docker.BasicProgressHandler;
 import com.awslabs.aws.greengrass.provisioner.implementations.builders.BasicGradleBuilder;
 import com.awslabs.aws.greengrass.provisioner.implementations.builders.BasicMavenBuilder;
@@ -14,89 +15,130 @@ import com.awslabs.aws.greengrass.provisioner.interfaces.builders.NodeBuilder;
 import com.awslabs.aws.greengrass.provisioner.interfaces.builders.PythonBuilder;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.*;
 import com.google.inject.AbstractModule;
-import com.google.inject.multibindings.Multibinder;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.multibindings.MapBinder;
 import com.spotify.docker.client.ProgressHandler;
 import software.amazon.awssdk.regions.providers.AwsRegionProviderChain;
 import software.amazon.awssdk.regions.providers.DefaultAwsRegionProviderChain;
 import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 import software.amazon.awssdk.services.ecr.EcrClient;
+import software.amazon.awssdk.services.greengrass.GreengrassAsyncClient;
 import software.amazon.awssdk.services.greengrass.GreengrassClient;
 import software.amazon.awssdk.services.iam.IamClient;
+import software.amazon.awssdk.services.iot.IotAsyncClient;
 import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
 import software.amazon.awssdk.services.lambda.LambdaClient;
 import software.amazon.awssdk.services.sts.StsClient;
 
 public class AwsGreengrassProvisionerModule extends AbstractModule {
+    private final StartupReportHelper startupReportHelper = new BasicStartupReportHelper();
+
     @Override
     public void configure() {
-        // Create a bunch of providers for default clients that check for errors
-        bind(IotClient.class).toProvider(IotClientProvider.class);
-        bind(Ec2Client.class).toProvider(Ec2ClientProvider.class);
-        bind(IamClient.class).toProvider(IamClientProvider.class);
-        bind(StsClient.class).toProvider(StsClientProvider.class);
-        bind(GreengrassClient.class).toProvider(GreengrassClientProvider.class);
-        bind(LambdaClient.class).toProvider(LambdaClientProvider.class);
-        bind(CloudFormationClient.class).toProvider(CloudFormationClientProvider.class);
-        bind(EcrClient.class).toProvider(EcrClientProvider.class);
-        bind(AwsRegionProviderChain.class).toProvider(DefaultAwsRegionProviderChain::new);
+        // Counts every object the injector creates so the cold start cost is visible
+        bindListener(Matchers.any(), startupReportHelper);
+        bind(StartupReportHelper.class).toInstance(startupReportHelper);
+
+        // Create a bunch of providers for default clients that check for errors, the clients are thread-safe so they are shared
+        bind(IotClient.class).toProvider(IotClientProvider.class).in(Singleton.class);
+        bind(Ec2Client.class).toProvider(Ec2ClientProvider.class).in(Singleton.class);
+        bind(IamClient.class).toProvider(IamClientProvider.class).in(Singleton.class);
+        bind(StsClient.class).toProvider(StsClientProvider.class).in(Singleton.class);
+        bind(GreengrassClient.class).toProvider(GreengrassClientProvider.class).in(Singleton.class);
+        bind(LambdaClient.class).toProvider(LambdaClientProvider.class).in(Singleton.class);
+        bind(CloudFormationClient.class).toProvider(CloudFormationClientProvider.class).in(Singleton.class);
+        bind(EcrClient.class).toProvider(EcrClientProvider.class).in(Singleton.class);
+
+        // Asynchronous clients for the hot paths, these share one event loop and are only created in async mode
+        bind(IotAsyncClient.class).toProvider(IotAsyncClientProvider.class).in(Singleton.class);
+        bind(GreengrassAsyncClient.class).toProvider(GreengrassAsyncClientProvider.class).in(Singleton.class);
+        bind(LambdaAsyncClient.class).toProvider(LambdaAsyncClientProvider.class).in(Singleton.class);
+        bind(AwsRegionProviderChain.class).toProvider(DefaultAwsRegionProviderChain::new).in(Singleton.class);
 
-        bind(GGConstants.class).to(BasicGGConstants.class);
-        bind(PolicyHelper.class).to(BasicPolicyHelper.class);
-        bind(IoHelper.class).to(BasicIoHelper.class);
-        bind(JsonHelper.class).to(BasicJsonHelper.class);
-        bind(AwsHelper.class).to(BasicAwsHelper.class);
-        bind(ScriptHelper.class).to(BasicScriptHelper.class);
-        bind(GGVariables.class).to(BasicGGVariables.class);
-        bind(IotHelper.class).to(BasicIotHelper.class);
+        // Helpers are singletons so their caches, counters and locks are shared by everything in the run
+        bind(GGConstants.class).to(BasicGGConstants.class).in(Singleton.class);
+        bind(PolicyHelper.class).to(BasicPolicyHelper.class).in(Singleton.class);
+        bind(IoHelper.class).to(BasicIoHelper.class).in(Singleton.class);
+        bind(JsonHelper.class).to(BasicJsonHelper.class).in(Singleton.class);
+        bind(AwsHelper.class).to(BasicAwsHelper.class).in(Singleton.class);
+        bind(ScriptHelper.class).to(BasicScriptHelper.class).in(Singleton.class);
+        bind(GGVariables.class).to(BasicGGVariables.class).in(Singleton.class);
+        bind(IotHelper.class).to(BasicIotHelper.class).in(Singleton.class);
 
-        bind(ResourceHelper.class).to(BasicResourceHelper.class);
-        bind(ConfigFileHelper.class).to(BasicConfigFileHelper.class);
-        bind(GreengrassHelper.class).to(BasicGreengrassHelper.class);
-        bind(IamHelper.class).to(BasicIamHelper.class);
-        bind(LambdaHelper.class).to(BasicLambdaHelper.class);
-        bind(PythonBuilder.class).to(BasicPythonBuilder.class);
-        bind(NodeBuilder.class).to(BasicNodeBuilder.class);
-        bind(ProcessHelper.class).to(BasicProcessHelper.class);
-        bind(MavenBuilder.class).to(BasicMavenBuilder.class);
-        bind(GradleBuilder.class).to(BasicGradleBuilder.class);
-        bind(FunctionHelper.class).to(BasicFunctionHelper.class);
-        bind(ArchiveHelper.class).to(BasicArchiveHelper.class);
-        bind(GGDHelper.class).to(BasicGGDHelper.class);
-        bind(SubscriptionHelper.class).to(BasicSubscriptionHelper.class);
-        bind(GlobalDefaultHelper.class).to(BasicGlobalDefaultHelper.class);
-        bind(CloudFormationHelper.class).to(BasicCloudFormationHelper.class);
-        bind(LoggingHelper.class).to(BasicLoggingHelper.class);
-        bind(EnvironmentHelper.class).to(BasicEnvironmentHelper.class);
-        bind(ExecutorHelper.class).to(SingleThreadedExecutorHelper.class);
-        //bind(ExecutorHelper.class).to(ParallelExecutorHelper.class);
+        bind(ResourceHelper.class).to(BasicResourceHelper.class).in(Singleton.class);
+        bind(ConfigFileHelper.class).to(BasicConfigFileHelper.class).in(Singleton.class);
+        bind(GreengrassHelper.class).to(BasicGreengrassHelper.class).in(Singleton.class);
+        bind(GreengrassListingHelper.class).to(BasicGreengrassListingHelper.class).in(Singleton.class);
+        bind(IamHelper.class).to(BasicIamHelper.class).in(Singleton.class);
+        bind(LambdaHelper.class).to(BasicLambdaHelper.class).in(Singleton.class);
+        bind(BuildCacheHelper.class).to(BasicBuildCacheHelper.class).in(Singleton.class);
+        bind(PythonBuilder.class).to(BasicPythonBuilder.class).in(Singleton.class);
+        bind(NodeBuilder.class).to(BasicNodeBuilder.class).in(Singleton.class);
+        bind(ProcessHelper.class).to(BasicProcessHelper.class).in(Singleton.class);
+        bind(MavenBuilder.class).to(BasicMavenBuilder.class).in(Singleton.class);
+        bind(GradleBuilder.class).to(BasicGradleBuilder.class).in(Singleton.class);
+        bind(FunctionHelper.class).to(BasicFunctionHelper.class).in(Singleton.class);
+        bind(ArchiveHelper.class).to(BasicArchiveHelper.class).in(Singleton.class);
+        bind(GGDHelper.class).to(BasicGGDHelper.class).in(Singleton.class);
+        bind(SubscriptionHelper.class).to(BasicSubscriptionHelper.class).in(Singleton.class);
+        bind(GlobalDefaultHelper.class).to(BasicGlobalDefaultHelper.class).in(Singleton.class);
+        bind(CloudFormationHelper.class).to(BasicCloudFormationHelper.class).in(Singleton.class);
+        bind(LoggingHelper.class).to(BasicLoggingHelper.class).in(Singleton.class);
+        bind(EnvironmentHelper.class).to(BasicEnvironmentHelper.class).in(Singleton.class);
+        //bind(ExecutorHelper.class).to(SingleThreadedExecutorHelper.class);
+        bind(ExecutorHelper.class).to(ParallelExecutorHelper.class).in(Singleton.class);
+        bind(BuildLockHelper.class).to(BasicBuildLockHelper.class).in(Singleton.class);
+        bind(DeploymentPlanHelper.class).to(BasicDeploymentPlanHelper.class).in(Singleton.class);
+        bind(DeploymentStatusWaiterHelper.class).to(BasicDeploymentStatusWaiterHelper.class).in(Singleton.class);
+        bind(SshSessionPoolHelper.class).to(BasicSshSessionPoolHelper.class).in(Singleton.class);
+        bind(ArtifactCacheHelper.class).to(BasicArtifactCacheHelper.class).in(Singleton.class);
+        bind(DeviceTesterInstallHelper.class).to(BasicDeviceTesterInstallHelper.class).in(Singleton.class);
+        bind(CoreArtifactStoreHelper.class).to(BasicCoreArtifactStoreHelper.class).in(Singleton.class);
+        bind(AsyncSdkHelper.class).to(BasicAsyncSdkHelper.class).in(Singleton.class);
+        bind(SdkClientRegistryHelper.class).to(BasicSdkClientRegistryHelper.class).in(Singleton.class);
+        bind(SdkMetricsHelper.class).to(BasicSdkMetricsHelper.class).in(Singleton.class);
+        bind(TraceHelper.class).to(BasicTraceHelper.class).in(Singleton.class);
 
         // Argument helpers
-        bind(DeploymentArgumentHelper.class).to(BasicDeploymentArgumentHelper.class);
-        bind(UpdateArgumentHelper.class).to(BasicUpdateArgumentHelper.class);
-        bind(QueryArgumentHelper.class).to(BasicQueryArgumentHelper.class);
-        bind(TestArgumentHelper.class).to(BasicTestArgumentHelper.class);
+        bind(DeploymentArgumentHelper.class).to(BasicDeploymentArgumentHelper.class).in(Singleton.class);
+        bind(UpdateArgumentHelper.class).to(BasicUpdateArgumentHelper.class).in(Singleton.class);
+        bind(QueryArgumentHelper.class).to(BasicQueryArgumentHelper.class).in(Singleton.class);
+        bind(TestArgumentHelper.class).to(BasicTestArgumentHelper.class).in(Singleton.class);
+        bind(FleetArgumentHelper.class).to(BasicFleetArgumentHelper.class).in(Singleton.class);
+        bind(ServerArgumentHelper.class).to(BasicServerArgumentHelper.class).in(Singleton.class);
 
         // Centralized error handling for SDK errors
-        bind(SdkErrorHandler.class).to(BasicSdkErrorHandler.class);
+        bind(SdkErrorHandler.class).to(BasicSdkErrorHandler.class).in(Singleton.class);
 
-        bind(IdExtractor.class).to(BasicIdExtractor.class);
-        bind(ThreadHelper.class).to(BasicThreadHelper.class);
+        bind(IdExtractor.class).to(BasicIdExtractor.class).in(Singleton.class);
+        bind(ThreadHelper.class).to(BasicThreadHelper.class).in(Singleton.class);
         bind(ProgressHandler.class).to(BasicProgressHandler.class);
 
-        Multibinder<Operation> operationMultibinder = Multibinder.newSetBinder(binder(), Operation.class);
-        operationMultibinder.addBinding().to(BasicDeploymentHelper.class);
-        operationMultibinder.addBinding().to(BasicGroupQueryHelper.class);
-        operationMultibinder.addBinding().to(BasicGroupUpdateHelper.class);
-        operationMultibinder.addBinding().to(BasicGroupTestHelper.class);
+        // Operations are keyed by their required option so only the operation that was requested gets created
+        MapBinder<String, Operation<?>> operationMapBinder = MapBinder.newMapBinder(binder(), TypeLiteral.get(String.class), new TypeLiteral<Operation<?>>() {
+        });
+        operationMapBinder.addBinding(new DeploymentArguments().getRequiredOptionName()).to(DeploymentHelper.class);
+        operationMapBinder.addBinding(new QueryArguments().getRequiredOptionName()).to(GroupQueryHelper.class);
+        operationMapBinder.addBinding(new UpdateArguments().getRequiredOptionName()).to(GroupUpdateHelper.class);
+        operationMapBinder.addBinding(new TestArguments().getRequiredOptionName()).to(GroupTestHelper.class);
+        operationMapBinder.addBinding(new FleetArguments().getRequiredOptionName()).to(FleetHelper.class);
+        operationMapBinder.addBinding(new ServerArguments().getRequiredOptionName()).to(ServerHelper.class);
 
+        // Not singletons since they keep per-deployment and per-test run state
         bind(DeploymentHelper.class).to(BasicDeploymentHelper.class);
-        bind(GroupQueryHelper.class).to(BasicGroupQueryHelper.class);
-        bind(GroupUpdateHelper.class).to(BasicGroupUpdateHelper.class);
         bind(GroupTestHelper.class).to(BasicGroupTestHelper.class);
+        bind(GroupQueryHelper.class).to(BasicGroupQueryHelper.class).in(Singleton.class);
+        bind(GroupUpdateHelper.class).to(BasicGroupUpdateHelper.class).in(Singleton.class);
+        bind(FleetHelper.class).to(BasicFleetHelper.class).in(Singleton.class);
+        bind(ServerHelper.class).to(BasicServerHelper.class).in(Singleton.class);
+        bind(JobHelper.class).to(BasicJobHelper.class).in(Singleton.class);
 
-        bind(DeviceTesterHelper.class).to(BasicDeviceTesterHelper.class);
+        bind(DeviceTesterHelper.class).to(BasicDeviceTesterHelper.class).in(Singleton.class);
 
-        bind(ExceptionHelper.class).to(BasicExceptionHelper.class);
+        bind(ExceptionHelper.class).to(BasicExceptionHelper.class).in(Singleton.class);
     }
 }
@@ -0,0 +1,21 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BackoffPolicy {
+    @Builder.Default
+    private final long initialDelayMillis = 2000;
+
+    @Builder.Default
+    private final long maxDelayMillis = 20000;
+
+    @Builder.Default
+    private final double multiplier = 2.0;
+
+    // Fraction of each delay that is randomized, 0 disables jitter and 1 is "full jitter"
+    @Builder.Default
+    private final double jitter = 0.5;
+}
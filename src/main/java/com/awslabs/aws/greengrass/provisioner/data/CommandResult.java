@@ -0,0 +1,26 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CommandResult {
+    private final String command;
+
+    // -1 when the remote side did not report an exit status
+    private final int exitStatus;
+
+    private final long bytesRead;
+
+    private final long linesRead;
+
+    // Only the last lines of output, bounded by the tail size requested by the caller
+    private final List<String> tail;
+
+    public boolean isSuccessful() {
+        return exitStatus == 0;
+    }
+}
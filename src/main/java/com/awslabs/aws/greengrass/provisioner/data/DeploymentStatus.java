@@ -4,5 +4,6 @@ public enum DeploymentStatus {
     SUCCESSFUL,
     NEEDS_NEW_DEPLOYMENT,
     BUILDING,
-    FAILED
+    FAILED,
+    TIMED_OUT
 }
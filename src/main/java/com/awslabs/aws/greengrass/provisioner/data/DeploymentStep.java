@@ -0,0 +1,26 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.Singular;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A single node in a deployment plan. A step may only read the values it lists as inputs and must write every value
+ * it lists as an output. Steps that don't share inputs and outputs are free to run at the same time.
+ */
+@Data
+@Builder
+public class DeploymentStep {
+    private final String name;
+
+    @Singular
+    private final Set<String> inputs;
+
+    @Singular
+    private final Set<String> outputs;
+
+    private final Consumer<DeploymentStepContext> action;
+}
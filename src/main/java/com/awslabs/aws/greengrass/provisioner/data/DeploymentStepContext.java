@@ -0,0 +1,63 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared values for a deployment plan. Each step gets a view that only allows it to read its declared inputs and
+ * write its declared outputs so undeclared dependencies fail fast instead of racing.
+ */
+public class DeploymentStepContext {
+    private final Map<String, Object> values;
+    private final Optional<DeploymentStep> optionalDeploymentStep;
+
+    public DeploymentStepContext() {
+        this(new ConcurrentHashMap<>(), Optional.empty());
+    }
+
+    private DeploymentStepContext(Map<String, Object> values, Optional<DeploymentStep> optionalDeploymentStep) {
+        this.values = values;
+        this.optionalDeploymentStep = optionalDeploymentStep;
+    }
+
+    public DeploymentStepContext forStep(DeploymentStep deploymentStep) {
+        return new DeploymentStepContext(values, Optional.of(deploymentStep));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        if (optionalDeploymentStep.isPresent() && !optionalDeploymentStep.get().getInputs().contains(key)) {
+            throw new RuntimeException("Step [" + optionalDeploymentStep.get().getName() + "] read [" + key + "] without declaring it as an input");
+        }
+
+        if (!values.containsKey(key)) {
+            throw new RuntimeException("No value available for [" + key + "]");
+        }
+
+        return (T) values.get(key);
+    }
+
+    public DeploymentStepContext put(String key, Object value) {
+        if (optionalDeploymentStep.isPresent() && !optionalDeploymentStep.get().getOutputs().contains(key)) {
+            throw new RuntimeException("Step [" + optionalDeploymentStep.get().getName() + "] wrote [" + key + "] without declaring it as an output");
+        }
+
+        if (value == null) {
+            throw new RuntimeException("Value for [" + key + "] can not be NULL");
+        }
+
+        values.put(key, value);
+
+        return this;
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    public Set<String> keySet() {
+        return values.keySet();
+    }
+}
@@ -0,0 +1,27 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import io.vavr.control.Option;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * A Device Tester log line that has been tokenized and classified. Built once per line and shared with everything
+ * that needs to look at the line.
+ */
+@Data
+@Builder
+public class DeviceTesterLogEvent {
+    private final String logMessage;
+
+    private final DeviceTesterLogMessageType type;
+
+    // The value of the msg field
+    private final String message;
+
+    // All of the fields in the order they appeared, unmodifiable
+    private final Map<String, String> values;
+
+    private final Option<String> testCaseId;
+}
@@ -1,53 +1,135 @@
 package com.awslabs.aws.greengrass.provisioner.data;
 
+import java.util.*;
 import java.util.function.Function;
 
 public enum DeviceTesterLogMessageType {
-    CHECKING_GGC_VERSION(string -> string.equals("Checking whether version of Greengrass release is correct...")),
-    RUNNING(string -> string.equals("Running test case...")),
-    FINISHED(string -> string.equals("Finished running test case...")),
-    PASS(string -> string.equals("PASS")),
-    STARTING(string -> string.equals("Starting Greengrass...")),
-    START(string -> string.equals("start Greengrass executed successfully.")),
-    STOPPING(string -> string.equals("Stopping Greengrass...")),
-    STOP(string -> string.equals("stop Greengrass executed successfully.")),
-    PROVISIONING(string -> string.equals("Provisioning Greengrass...")),
-    FINISHED_PROVISIONING(string -> string.equals("Finished provisioning Greengrass.")),
-    CREATING_GGD(string -> string.equals("Creating GGD...")),
-    FINISHED_CREATING_GGD(string -> string.equals("Finished creating GGD...")),
-    PROVISIONING_GGD(string -> string.equals("Provisioning GGD...")),
-    FINISHED_PROVISIONING_GGD(string -> string.equals("Finished provisioning GGD.")),
-    CLEANING_UP(string -> string.equals("Cleaning up resources...")),
-    FAIL_WITHOUT_DURATION(string -> string.equals("FAIL")),
-    DEPLOYING_GROUP(string -> string.equals("Deploying group onto Greengrass core...")),
-    CREATING_GREENGRASS_LAMBDAS(string -> string.equals("Creating Greengrass Lambda(s)...")),
-    FINISHED_CREATING_GREENGRASS_LAMBDAS(string -> string.equals("Finished creating Greengrass Lambda(s).")),
-    CREATING_GREENGRASS_GROUP(string -> string.equals("Creating a Greengrass group...")),
-    FINISHED_DEPLOYING_GROUP(string -> string.equals("Finished deploying group onto Greengrass core.")),
-    RESTARTING_GREENGRASS(string -> string.equals("Restarting Greengrass...")),
-    RESTARTING_GREENGRASS_SUCCESSFUL(string -> string.equals("restart Greengrass executed successfully.")),
-    ERRORS_WHEN_CLEANING_UP_RESOURCES(string -> string.equals("Errors when cleaning up resources: ")),
-    RUNNING_GREENGRASS_ALREADY_INSTALLED(string -> string.equals("Running test with Greengrass already installed on your device at /greengrass...")),
-    COULD_NOT_FIND_GREENGRASS_RELEASE(string-> string.equals("Could not find Greengrass release in the location provided \"/greengrass\" on device under test. Please confirm that the correct location was provided.")),
+    CHECKING_GGC_VERSION(MatchType.EXACT, "Checking whether version of Greengrass release is correct..."),
+    RUNNING(MatchType.EXACT, "Running test case..."),
+    FINISHED(MatchType.EXACT, "Finished running test case..."),
+    PASS(MatchType.EXACT, "PASS"),
+    STARTING(MatchType.EXACT, "Starting Greengrass..."),
+    START(MatchType.EXACT, "start Greengrass executed successfully."),
+    STOPPING(MatchType.EXACT, "Stopping Greengrass..."),
+    STOP(MatchType.EXACT, "stop Greengrass executed successfully."),
+    PROVISIONING(MatchType.EXACT, "Provisioning Greengrass..."),
+    FINISHED_PROVISIONING(MatchType.EXACT, "Finished provisioning Greengrass."),
+    CREATING_GGD(MatchType.EXACT, "Creating GGD..."),
+    FINISHED_CREATING_GGD(MatchType.EXACT, "Finished creating GGD..."),
+    PROVISIONING_GGD(MatchType.EXACT, "Provisioning GGD..."),
+    FINISHED_PROVISIONING_GGD(MatchType.EXACT, "Finished provisioning GGD."),
+    CLEANING_UP(MatchType.EXACT, "Cleaning up resources..."),
+    FAIL_WITHOUT_DURATION(MatchType.EXACT, "FAIL"),
+    DEPLOYING_GROUP(MatchType.EXACT, "Deploying group onto Greengrass core..."),
+    CREATING_GREENGRASS_LAMBDAS(MatchType.EXACT, "Creating Greengrass Lambda(s)..."),
+    FINISHED_CREATING_GREENGRASS_LAMBDAS(MatchType.EXACT, "Finished creating Greengrass Lambda(s)."),
+    CREATING_GREENGRASS_GROUP(MatchType.EXACT, "Creating a Greengrass group..."),
+    FINISHED_DEPLOYING_GROUP(MatchType.EXACT, "Finished deploying group onto Greengrass core."),
+    RESTARTING_GREENGRASS(MatchType.EXACT, "Restarting Greengrass..."),
+    RESTARTING_GREENGRASS_SUCCESSFUL(MatchType.EXACT, "restart Greengrass executed successfully."),
+    ERRORS_WHEN_CLEANING_UP_RESOURCES(MatchType.EXACT, "Errors when cleaning up resources: "),
+    RUNNING_GREENGRASS_ALREADY_INSTALLED(MatchType.EXACT, "Running test with Greengrass already installed on your device at /greengrass..."),
+    COULD_NOT_FIND_GREENGRASS_RELEASE(MatchType.EXACT, "Could not find Greengrass release in the location provided \"/greengrass\" on device under test. Please confirm that the correct location was provided."),
     // Partial matches
-    FAIL_WITH_DURATION(string -> string.startsWith("--- FAIL: ")),
-    ALL_TESTS_FINISHED(string -> string.startsWith(Constants.ALL_TESTS_FINISHED_MESSAGE)),
-    REPORT_GENERATED(string -> string.startsWith(Constants.REPORT_GENERATED_MESSAGE)),
-    TEST_TIMED_OUT(string -> string.startsWith("Test timed out")),
-    TIMED_OUT(string -> string.startsWith("Timed out")),
-    UNKNOWN_FAILURE(string -> string.startsWith("Failing")),
-    XML_SYNTAX_ERROR(string -> string.startsWith("XML syntax error")),
+    FAIL_WITH_DURATION(MatchType.PREFIX, "--- FAIL: "),
+    ALL_TESTS_FINISHED(MatchType.PREFIX, Constants.ALL_TESTS_FINISHED_MESSAGE),
+    REPORT_GENERATED(MatchType.PREFIX, Constants.REPORT_GENERATED_MESSAGE),
+    TEST_TIMED_OUT(MatchType.PREFIX, "Test timed out"),
+    TIMED_OUT(MatchType.PREFIX, "Timed out"),
+    UNKNOWN_FAILURE(MatchType.PREFIX, "Failing"),
+    XML_SYNTAX_ERROR(MatchType.PREFIX, "XML syntax error"),
+    // Other matches
     CLEANING_UP_RESOURCES_FAILED(string -> string.startsWith("Cleaning ") && string.contains("failed with error")),
     STATUS_CODE_ERROR(string -> string.contains("status code") && string.contains("request id"));
 
+    // Built once so a message can be classified without trying every type, see classify
+    private static final Map<String, DeviceTesterLogMessageType> EXACT_MATCHES;
+    private static final Map<Character, List<DeviceTesterLogMessageType>> PREFIX_MATCHES_BY_FIRST_CHARACTER;
+    private static final List<DeviceTesterLogMessageType> OTHER_MATCHES;
+
+    static {
+        Map<String, DeviceTesterLogMessageType> exactMatches = new HashMap<>();
+        Map<Character, List<DeviceTesterLogMessageType>> prefixMatches = new HashMap<>();
+        List<DeviceTesterLogMessageType> otherMatches = new ArrayList<>();
+
+        // Declaration order is kept within each table so the first matching type still wins
+        for (DeviceTesterLogMessageType type : values()) {
+            if (type.matchType == MatchType.EXACT) {
+                exactMatches.putIfAbsent(type.text, type);
+            } else if (type.matchType == MatchType.PREFIX) {
+                prefixMatches.computeIfAbsent(type.text.charAt(0), key -> new ArrayList<>()).add(type);
+            } else {
+                otherMatches.add(type);
+            }
+        }
+
+        EXACT_MATCHES = Collections.unmodifiableMap(exactMatches);
+        PREFIX_MATCHES_BY_FIRST_CHARACTER = Collections.unmodifiableMap(prefixMatches);
+        OTHER_MATCHES = Collections.unmodifiableList(otherMatches);
+    }
+
+    private final MatchType matchType;
+    private final String text;
     private final Function<String, Boolean> matcher;
 
+    DeviceTesterLogMessageType(MatchType matchType, String text) {
+        this.matchType = matchType;
+        this.text = text;
+        this.matcher = null;
+    }
+
     DeviceTesterLogMessageType(Function<String, Boolean> matcher) {
+        this.matchType = MatchType.OTHER;
+        this.text = null;
         this.matcher = matcher;
     }
 
     public boolean matches(String string) {
-        return matcher.apply(string);
+        switch (matchType) {
+            case EXACT:
+                return string.equals(text);
+            case PREFIX:
+                return string.startsWith(text);
+            default:
+                return matcher.apply(string);
+        }
+    }
+
+    /**
+     * Finds the first message type, in declaration order, that matches the message. Exact matches are a single hash
+     * lookup and only the prefixes that start with the same character as the message are checked.
+     *
+     * @param message the value of the msg field
+     * @return the message type or Optional.empty if no type matches
+     */
+    public static Optional<DeviceTesterLogMessageType> classify(String message) {
+        DeviceTesterLogMessageType exactMatch = EXACT_MATCHES.get(message);
+
+        if (exactMatch != null) {
+            return Optional.of(exactMatch);
+        }
+
+        if (!message.isEmpty()) {
+            for (DeviceTesterLogMessageType type : PREFIX_MATCHES_BY_FIRST_CHARACTER.getOrDefault(message.charAt(0), Collections.emptyList())) {
+                if (message.startsWith(type.text)) {
+                    return Optional.of(type);
+                }
+            }
+        }
+
+        for (DeviceTesterLogMessageType type : OTHER_MATCHES) {
+            if (type.matcher.apply(message)) {
+                return Optional.of(type);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private enum MatchType {
+        EXACT,
+        PREFIX,
+        OTHER
     }
 
     public static class Constants {
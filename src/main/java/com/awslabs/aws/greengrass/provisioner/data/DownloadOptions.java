@@ -0,0 +1,35 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Optional;
+
+@Data
+@Builder
+public class DownloadOptions {
+    // Some CDNs require the referer to be filled in
+    @Builder.Default
+    private final Optional<String> referer = Optional.empty();
+
+    @Builder.Default
+    private final int connectTimeoutMillis = 30000;
+
+    @Builder.Default
+    private final int readTimeoutMillis = 60000;
+
+    // Number of ranges fetched at the same time
+    @Builder.Default
+    private final int parallelism = 4;
+
+    // Also the unit of resume, a range that was interrupted is fetched again from its start
+    @Builder.Default
+    private final long rangeSizeBytes = 8L * 1024L * 1024L;
+
+    // Smaller objects are fetched with a single request
+    @Builder.Default
+    private final long minimumRangedSizeBytes = 16L * 1024L * 1024L;
+
+    @Builder.Default
+    private final int maxAttemptsPerRange = 3;
+}
@@ -0,0 +1,10 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+public enum FileTransferMode {
+    // Plain scp, works everywhere
+    SCP,
+    // SFTP with pipelined writes, interrupted transfers resume from where they stopped
+    SFTP,
+    // Gzip on the fly and decompress on the remote side, for slow links
+    COMPRESSED
+}
@@ -0,0 +1,15 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FileTransferOptions {
+    @Builder.Default
+    private final FileTransferMode mode = FileTransferMode.SCP;
+
+    // Compare the SHA-256 hash of the remote file with the local file, requires sha256sum on the remote host
+    @Builder.Default
+    private final boolean verify = false;
+}
@@ -0,0 +1,38 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Optional;
+
+@Data
+@Builder
+public class FileTransferResult {
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final String localFilename;
+
+    private final String remoteFilename;
+
+    private final long bytes;
+
+    // Bytes that were already on the remote host from an earlier, interrupted transfer
+    private final long bytesResumed;
+
+    private final long durationNanos;
+
+    @Builder.Default
+    private final Optional<String> sha256 = Optional.empty();
+
+    public double getMegabytes() {
+        return bytes / BYTES_PER_MEGABYTE;
+    }
+
+    public double getMegabytesPerSecond() {
+        if (durationNanos == 0) {
+            return 0;
+        }
+
+        return ((bytes - bytesResumed) / BYTES_PER_MEGABYTE) / (durationNanos / 1_000_000_000.0);
+    }
+}
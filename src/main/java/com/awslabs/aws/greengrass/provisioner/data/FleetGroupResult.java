@@ -0,0 +1,21 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Optional;
+
+@Data
+@Builder
+public class FleetGroupResult {
+    private final String groupName;
+
+    @Builder.Default
+    private final Optional<String> error = Optional.empty();
+
+    private final long durationMillis;
+
+    public boolean isSuccessful() {
+        return !error.isPresent();
+    }
+}
@@ -0,0 +1,12 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class GroupDeployment {
+    private final String groupId;
+
+    private final String deploymentId;
+}
@@ -0,0 +1,104 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A request to run one operation in server mode, with its status, timing and the log lines written while it ran
+ */
+public class ProvisionerJob {
+    @Getter
+    private final String id;
+    @Getter
+    private final List<String> arguments;
+    @Getter
+    private final long submittedMillis = System.currentTimeMillis();
+    private final List<String> logLines = new ArrayList<>();
+    @Getter
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile long startedMillis;
+    private volatile long finishedMillis;
+    @Getter
+    private volatile Optional<String> error = Optional.empty();
+
+    public ProvisionerJob(String id, List<String> arguments) {
+        this.id = id;
+        this.arguments = Collections.unmodifiableList(new ArrayList<>(arguments));
+    }
+
+    public synchronized void started() {
+        startedMillis = System.currentTimeMillis();
+        status = JobStatus.RUNNING;
+    }
+
+    public synchronized void succeeded() {
+        finish(JobStatus.SUCCEEDED);
+    }
+
+    public synchronized void failed(String message) {
+        error = Optional.of(message);
+        finish(JobStatus.FAILED);
+    }
+
+    private void finish(JobStatus jobStatus) {
+        finishedMillis = System.currentTimeMillis();
+        status = jobStatus;
+        notifyAll();
+    }
+
+    public boolean isFinished() {
+        return (status == JobStatus.SUCCEEDED) || (status == JobStatus.FAILED);
+    }
+
+    /**
+     * How long the job waited for a worker, up to now if it is still waiting
+     *
+     * @return
+     */
+    public long getQueuedMillis() {
+        return (startedMillis == 0 ? System.currentTimeMillis() : startedMillis) - submittedMillis;
+    }
+
+    /**
+     * How long the job ran for, up to now if it is still running
+     *
+     * @return
+     */
+    public long getRunMillis() {
+        if (startedMillis == 0) {
+            return 0;
+        }
+
+        return (finishedMillis == 0 ? System.currentTimeMillis() : finishedMillis) - startedMillis;
+    }
+
+    public synchronized void addLogLine(String logLine) {
+        logLines.add(logLine);
+        notifyAll();
+    }
+
+    /**
+     * Returns the log lines starting at an index, waiting for new lines if there aren't any yet and the job is still
+     * running
+     *
+     * @param fromIndex
+     * @param timeoutMillis how long to wait for new lines
+     * @return an empty list if there were no new lines before the timeout or the job finished
+     * @throws InterruptedException
+     */
+    public synchronized List<String> getLogLines(int fromIndex, long timeoutMillis) throws InterruptedException {
+        if ((fromIndex >= logLines.size()) && !isFinished()) {
+            wait(timeoutMillis);
+        }
+
+        if (fromIndex >= logLines.size()) {
+            return Collections.emptyList();
+        }
+
+        return new ArrayList<>(logLines.subList(fromIndex, logLines.size()));
+    }
+}
@@ -0,0 +1,139 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Call counts, latency histogram, retries, throttling and payload sizes for one SDK operation, e.g.
+ * Greengrass.ListGroups
+ */
+public class SdkCallMetrics {
+    // Upper bounds of the latency histogram buckets, anything slower goes into a final overflow bucket
+    public static final long[] LATENCY_BUCKET_MILLIS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    @Getter
+    private final String service;
+    @Getter
+    private final String operation;
+    @Getter
+    private long calls;
+    @Getter
+    private long failures;
+    @Getter
+    private long retries;
+    @Getter
+    private long throttledAttempts;
+    @Getter
+    private long throttlingFailures;
+    @Getter
+    private long bytesSent;
+    @Getter
+    private long bytesReceived;
+    @Getter
+    private long totalLatencyMillis;
+    private final long[] latencyBuckets;
+
+    public SdkCallMetrics(String service, String operation) {
+        this.service = service;
+        this.operation = operation;
+        this.latencyBuckets = new long[LATENCY_BUCKET_MILLIS.length + 1];
+    }
+
+    public String getName() {
+        return String.join(".", service, operation);
+    }
+
+    public synchronized void record(long latencyMillis, int attempts, int throttledAttempts, long bytesSent, long bytesReceived) {
+        calls++;
+        retries += Math.max(0, attempts - 1);
+        this.throttledAttempts += throttledAttempts;
+        this.bytesSent += bytesSent;
+        this.bytesReceived += bytesReceived;
+        totalLatencyMillis += latencyMillis;
+        latencyBuckets[bucketIndex(latencyMillis)]++;
+    }
+
+    public synchronized void recordFailure(boolean throttled) {
+        failures++;
+
+        if (throttled) {
+            throttlingFailures++;
+        }
+    }
+
+    private int bucketIndex(long latencyMillis) {
+        for (int loop = 0; loop < LATENCY_BUCKET_MILLIS.length; loop++) {
+            if (latencyMillis <= LATENCY_BUCKET_MILLIS[loop]) {
+                return loop;
+            }
+        }
+
+        return LATENCY_BUCKET_MILLIS.length;
+    }
+
+    /**
+     * The number of calls in each latency bucket, the last entry is the overflow bucket
+     *
+     * @return
+     */
+    public synchronized long[] getLatencyBuckets() {
+        return Arrays.copyOf(latencyBuckets, latencyBuckets.length);
+    }
+
+    public synchronized long getAverageLatencyMillis() {
+        return calls == 0 ? 0 : totalLatencyMillis / calls;
+    }
+
+    /**
+     * Estimates a latency percentile from the histogram
+     *
+     * @param percentile between 0 and 100
+     * @return the upper bound of the bucket the percentile falls in, or -1 if it is in the overflow bucket
+     */
+    public synchronized long getLatencyPercentileMillis(double percentile) {
+        long target = (long) Math.ceil(calls * percentile / 100);
+        long seen = 0;
+
+        for (int loop = 0; loop < LATENCY_BUCKET_MILLIS.length; loop++) {
+            seen += latencyBuckets[loop];
+
+            if ((seen >= target) && (seen > 0)) {
+                return LATENCY_BUCKET_MILLIS[loop];
+            }
+        }
+
+        return calls == 0 ? 0 : -1;
+    }
+
+    public synchronized SdkCallMetrics copy() {
+        return minus(new SdkCallMetrics(service, operation));
+    }
+
+    /**
+     * The calls made since an earlier copy of these metrics was taken
+     *
+     * @param before
+     * @return
+     */
+    public synchronized SdkCallMetrics minus(SdkCallMetrics before) {
+        SdkCallMetrics difference = new SdkCallMetrics(service, operation);
+
+        synchronized (before) {
+            difference.calls = calls - before.calls;
+            difference.failures = failures - before.failures;
+            difference.retries = retries - before.retries;
+            difference.throttledAttempts = throttledAttempts - before.throttledAttempts;
+            difference.throttlingFailures = throttlingFailures - before.throttlingFailures;
+            difference.bytesSent = bytesSent - before.bytesSent;
+            difference.bytesReceived = bytesReceived - before.bytesReceived;
+            difference.totalLatencyMillis = totalLatencyMillis - before.totalLatencyMillis;
+
+            for (int loop = 0; loop < latencyBuckets.length; loop++) {
+                difference.latencyBuckets[loop] = latencyBuckets[loop] - before.latencyBuckets[loop];
+            }
+        }
+
+        return difference;
+    }
+}
@@ -0,0 +1,20 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.function.Function;
+
+@Data
+@Builder
+public class ThingProvisioningRequest {
+    private final String thingName;
+
+    // The name the keys and certificate are stored under in the group's credentials directory
+    private final String subName;
+
+    private final String policyName;
+
+    // Builds the policy document from the thing ARN, the ARN is only known after the thing is created
+    private final Function<String, String> policyDocumentBuilder;
+}
@@ -0,0 +1,86 @@
+package com.awslabs.aws.greengrass.provisioner.data;
+
+import lombok.Getter;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * One timed phase of an operation. Spans are closed with try-with-resources, a span's children are the phases and SDK
+ * calls that were started while it was open.
+ */
+public class TraceSpan implements AutoCloseable {
+    public static final String PHASE = "phase";
+    public static final String SDK = "sdk";
+    // Converts the monotonic clock to wall clock time for the trace files without losing the ordering of the spans
+    private static final long EPOCH_OFFSET_NANOS = (System.currentTimeMillis() * 1_000_000) - System.nanoTime();
+
+    @Getter
+    private final String name;
+    @Getter
+    private final String category;
+    @Getter
+    private final String traceId;
+    @Getter
+    private final String spanId;
+    @Getter
+    private final Optional<String> parentSpanId;
+    @Getter
+    private final String threadName = Thread.currentThread().getName();
+    @Getter
+    private final long threadId = Thread.currentThread().getId();
+    @Getter
+    private final long startNanos = System.nanoTime();
+    private final Consumer<TraceSpan> onClose;
+    private volatile long durationNanos = -1;
+    @Getter
+    private volatile Optional<String> error = Optional.empty();
+
+    public TraceSpan(String name, String category, String traceId, String spanId, Optional<String> parentSpanId, Consumer<TraceSpan> onClose) {
+        this.name = name;
+        this.category = category;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.onClose = onClose;
+    }
+
+    public void failed(String message) {
+        error = Optional.of(String.valueOf(message));
+    }
+
+    public boolean isFinished() {
+        return durationNanos >= 0;
+    }
+
+    /**
+     * How long the span was open, up to now if it is still open
+     *
+     * @return
+     */
+    public long getDurationNanos() {
+        return isFinished() ? durationNanos : System.nanoTime() - startNanos;
+    }
+
+    public long getEndNanos() {
+        return startNanos + getDurationNanos();
+    }
+
+    public long getStartEpochNanos() {
+        return EPOCH_OFFSET_NANOS + startNanos;
+    }
+
+    public long getEndEpochNanos() {
+        return EPOCH_OFFSET_NANOS + getEndNanos();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (isFinished()) {
+            return;
+        }
+
+        durationNanos = System.nanoTime() - startNanos;
+        onClose.accept(this);
+    }
+}
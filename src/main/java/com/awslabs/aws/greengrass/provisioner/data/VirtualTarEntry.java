@@ -2,20 +2,23 @@ package com.awslabs.aws.greengrass.provisioner.data;
 
 import lombok.Builder;
 import lombok.Data;
-import org.kamranzafar.jtar.TarEntry;
 
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
 
 @Data
 @Builder
 public class VirtualTarEntry {
-    private byte[] content;
-
     private String filename;
 
     private int permissions;
 
-    private TarEntry tarEntry;
+    private long size;
+
+    // Exactly one of these is present, file backed entries are copied straight from disk when the archive is written
+    @Builder.Default
+    private final Optional<byte[]> content = Optional.empty();
 
-    private InputStream inputStream;
+    @Builder.Default
+    private final Optional<Path> path = Optional.empty();
 }
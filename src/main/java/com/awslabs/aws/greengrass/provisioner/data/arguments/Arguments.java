@@ -1,10 +1,29 @@
 package com.awslabs.aws.greengrass.provisioner.data.arguments;
 
+import com.beust.jcommander.Parameter;
+
+import java.util.ArrayList;
+import java.util.List;
+
 public abstract class Arguments {
     final String LONG_GROUP_NAME_OPTION = "--group-name";
     final String SHORT_GROUP_NAME_OPTION = "-g";
     final String LONG_ARCHITECTURE_OPTION = "--arch";
     final String SHORT_ARCHITECTURE_OPTION = "-a";
+    private final String LONG_ASYNC_SDK_OPTION = "--async-sdk";
+    private final String LONG_OFFLINE_OPTION = "--offline";
+    private final String LONG_SDK_METRICS_PROMETHEUS_OPTION = "--sdk-metrics-prometheus";
+    private final String LONG_TRACE_OPTION = "--trace";
+
+    // Available in every mode, these configure helpers that are shared by the whole process
+    @Parameter(names = {LONG_ASYNC_SDK_OPTION}, description = "Send AWS requests with the asynchronous SDK clients")
+    public boolean asyncSdk;
+    @Parameter(names = {LONG_OFFLINE_OPTION}, description = "Only use downloaded artifacts that are already in the local cache")
+    public boolean offline;
+    @Parameter(names = {LONG_SDK_METRICS_PROMETHEUS_OPTION}, description = "Also write the SDK call metrics in the Prometheus text format")
+    public boolean sdkMetricsPrometheus;
+    @Parameter(names = {LONG_TRACE_OPTION}, description = "Write the trace of the operation in these formats (chrome, otlp, or chrome,otlp)")
+    public List<String> traceFormats = new ArrayList<>();
 
     abstract public String getRequiredOptionName();
 
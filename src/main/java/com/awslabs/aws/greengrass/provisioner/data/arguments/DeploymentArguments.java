@@ -23,6 +23,8 @@ public class DeploymentArguments extends Arguments {
     private final String LONG_NO_SYSTEMD_OPTION = "--no-systemd";
     private final String LONG_EC2_LAUNCH_OPTION = "--ec2-launch";
     private final String LONG_DOCKER_LAUNCH_OPTION = "--docker-launch";
+    private final String LONG_DEPLOYMENT_STATUS_MAX_DELAY_OPTION = "--deployment-status-max-delay";
+    private final int DEPLOYMENT_STATUS_MAX_DELAY_DEFAULT = 20;
     //    private static final String LONG_DOCKER_SCRIPT_OUTPUT_OPTION = "--docker-script";
 
     @Parameter(names = {LONG_ARCHITECTURE_OPTION, SHORT_ARCHITECTURE_OPTION}, description = "Architecture (X86_64, ARM32, ARM64)")
@@ -52,6 +54,8 @@ public class DeploymentArguments extends Arguments {
     public boolean ec2Launch;
     @Parameter(names = {LONG_DOCKER_LAUNCH_OPTION}, description = "Launch an this deployment in a Docker container locally")
     public boolean dockerLaunch;
+    @Parameter(names = {LONG_DEPLOYMENT_STATUS_MAX_DELAY_OPTION}, description = "The maximum number of seconds between deployment status checks (default: " + DEPLOYMENT_STATUS_MAX_DELAY_DEFAULT + ")")
+    public int deploymentStatusMaxDelay = DEPLOYMENT_STATUS_MAX_DELAY_DEFAULT;
     //    @Parameter(names = {LONG_DOCKER_SCRIPT_OUTPUT_OPTION}, description = "Generate a script to install Docker and run the Greengrass container [docker.GROUP_NAME.sh] (implies " + LONG_BUILD_CONTAINER_OPTION + ")")
     //    public boolean dockerScriptOutput;
     @Parameter(names = "--help", help = true)
@@ -0,0 +1,29 @@
+package com.awslabs.aws.greengrass.provisioner.data.arguments;
+
+import com.beust.jcommander.Parameter;
+import lombok.Getter;
+
+public class FleetArguments extends Arguments {
+    private final String LONG_FLEET_OPTION = "--fleet";
+    @Getter
+    private final String requiredOptionName = LONG_FLEET_OPTION;
+    private final String LONG_MANIFEST_OPTION = "--manifest";
+    private final String SHORT_MANIFEST_OPTION = "-m";
+    private final String LONG_MAX_CONCURRENT_GROUPS_OPTION = "--max-concurrent-groups";
+    private final int MAX_CONCURRENT_GROUPS_DEFAULT = 4;
+
+    @Parameter(names = {LONG_FLEET_OPTION}, description = "Deploy all of the groups listed in a fleet manifest")
+    public boolean fleet;
+    @Parameter(names = {LONG_MANIFEST_OPTION, SHORT_MANIFEST_OPTION}, description = "The location of the fleet manifest file")
+    public String manifestFilename;
+    @Parameter(names = {LONG_MAX_CONCURRENT_GROUPS_OPTION}, description = "The maximum number of groups to deploy at the same time (default: " + MAX_CONCURRENT_GROUPS_DEFAULT + ")")
+    public int maxConcurrentGroups = MAX_CONCURRENT_GROUPS_DEFAULT;
+    @Parameter(names = "--help", help = true)
+    @Getter
+    public boolean help;
+
+    @Override
+    public boolean isRequiredOptionSet() {
+        return fleet;
+    }
+}
@@ -0,0 +1,29 @@
+package com.awslabs.aws.greengrass.provisioner.data.arguments;
+
+import com.beust.jcommander.Parameter;
+import lombok.Getter;
+
+public class ServerArguments extends Arguments {
+    private final String LONG_SERVER_OPTION = "--server";
+    @Getter
+    private final String requiredOptionName = LONG_SERVER_OPTION;
+    private final String LONG_PORT_OPTION = "--port";
+    private final int PORT_DEFAULT = 8008;
+    private final String LONG_CONCURRENCY_OPTION = "--concurrency";
+    private final int CONCURRENCY_DEFAULT = 2;
+
+    @Parameter(names = {LONG_SERVER_OPTION}, description = "Keep running and accept deploy, query, update, and test jobs over a local HTTP API")
+    public boolean server;
+    @Parameter(names = {LONG_PORT_OPTION}, description = "The port to listen on, only connections from localhost are accepted (default: " + PORT_DEFAULT + ")")
+    public int port = PORT_DEFAULT;
+    @Parameter(names = {LONG_CONCURRENCY_OPTION}, description = "The maximum number of jobs to run at the same time (default: " + CONCURRENCY_DEFAULT + ")")
+    public int concurrency = CONCURRENCY_DEFAULT;
+    @Parameter(names = "--help", help = true)
+    @Getter
+    public boolean help;
+
+    @Override
+    public boolean isRequiredOptionSet() {
+        return server;
+    }
+}
@@ -0,0 +1,16 @@
+package com.awslabs.aws.greengrass.provisioner.data.conf;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class FleetGroupConf {
+    private String groupName;
+
+    private String deploymentConfig;
+
+    private List<String> arguments;
+}
@@ -6,6 +6,7 @@ import com.awslabs.aws.greengrass.provisioner.interfaces.ExceptionHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGVariables;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.ProgressHandler;
 import com.spotify.docker.client.exceptions.DockerException;
@@ -44,6 +45,8 @@ public class GreengrassDockerHelper extends AbstractDockerHelper {
     GGVariables ggVariables;
     @Inject
     IoHelper ioHelper;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
     @Getter
     @Inject
     ExceptionHelper exceptionHelper;
@@ -69,9 +72,7 @@ public class GreengrassDockerHelper extends AbstractDockerHelper {
 
     @Override
     protected EcrClient getEcrClient() {
-        return EcrClient.builder()
-                .region(Region.US_WEST_2)
-                .build();
+        return sdkClientRegistryHelper.getClient(EcrClient.class, Region.US_WEST_2, EcrClient::builder);
     }
 
     @Override
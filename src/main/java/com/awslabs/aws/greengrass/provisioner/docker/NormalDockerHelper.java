@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.services.ecr.EcrClient;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 
 @Slf4j
 public class NormalDockerHelper extends AbstractDockerHelper {
@@ -17,7 +18,7 @@ public class NormalDockerHelper extends AbstractDockerHelper {
     NormalDockerClientProvider normalDockerClientProvider;
 
     @Inject
-    EcrClient ecrClient;
+    Provider<EcrClient> ecrClientProvider;
     @Inject
     ProgressHandler progressHandler;
     @Getter
@@ -44,7 +45,7 @@ public class NormalDockerHelper extends AbstractDockerHelper {
     }
 
     protected EcrClient getEcrClient() {
-        return ecrClient;
+        return ecrClientProvider.get();
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.awslabs.aws.greengrass.provisioner.docker.interfaces;
 
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.ecr.EcrClient;
 import software.amazon.awssdk.services.ecr.model.AuthorizationData;
@@ -7,11 +8,12 @@ import software.amazon.awssdk.services.ecr.model.GetAuthorizationTokenRequest;
 import software.amazon.awssdk.services.ecr.model.GetAuthorizationTokenResponse;
 
 import javax.inject.Inject;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 public class GreengrassDockerClientProvider implements DockerClientProvider {
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
+
     @Inject
     public GreengrassDockerClientProvider() {
     }
@@ -23,18 +25,14 @@ public class GreengrassDockerClientProvider implements DockerClientProvider {
 
     @Override
     public AuthorizationData getAuthorizationData() {
-        Optional<List<String>> optionalRegistryIds = Optional.of(Arrays.asList(new String[]{"216483018798"}));
-        GetAuthorizationTokenRequest.Builder getAuthorizationTokenRequestBuilder = GetAuthorizationTokenRequest.builder();
-        optionalRegistryIds.ifPresent(getAuthorizationTokenRequestBuilder::registryIds);
-        GetAuthorizationTokenRequest getAuthorizationTokenRequest = getAuthorizationTokenRequestBuilder.build();
+        // The token works for every registry the caller has access to, the registry ID parameter is deprecated
+        GetAuthorizationTokenRequest getAuthorizationTokenRequest = GetAuthorizationTokenRequest.builder().build();
         GetAuthorizationTokenResponse getAuthorizationTokenResponse = getEcrClient().getAuthorizationToken(getAuthorizationTokenRequest);
         List<AuthorizationData> authorizationDataList = getAuthorizationTokenResponse.authorizationData();
         return authorizationDataList.get(0);
     }
 
     private EcrClient getEcrClient() {
-        return EcrClient.builder()
-                .region(Region.US_WEST_2)
-                .build();
+        return sdkClientRegistryHelper.getClient(EcrClient.class, Region.US_WEST_2, EcrClient::builder);
     }
 }
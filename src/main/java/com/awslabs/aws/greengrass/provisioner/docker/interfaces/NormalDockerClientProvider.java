@@ -6,11 +6,12 @@ import software.amazon.awssdk.services.ecr.model.GetAuthorizationTokenRequest;
 import software.amazon.awssdk.services.ecr.model.GetAuthorizationTokenResponse;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import java.util.List;
 
 public class NormalDockerClientProvider implements DockerClientProvider {
     @Inject
-    EcrClient ecrClient;
+    Provider<EcrClient> ecrClientProvider;
 
     @Inject
     public NormalDockerClientProvider() {
@@ -24,7 +25,7 @@ public class NormalDockerClientProvider implements DockerClientProvider {
     @Override
     public AuthorizationData getAuthorizationData() {
         GetAuthorizationTokenRequest getAuthorizationTokenRequest = GetAuthorizationTokenRequest.builder().build();
-        GetAuthorizationTokenResponse getAuthorizationTokenResponse = ecrClient.getAuthorizationToken(getAuthorizationTokenRequest);
+        GetAuthorizationTokenResponse getAuthorizationTokenResponse = ecrClientProvider.get().getAuthorizationToken(getAuthorizationTokenRequest);
         List<AuthorizationData> authorizationDataList = getAuthorizationTokenResponse.authorizationData();
         return authorizationDataList.get(0);
     }
@@ -2,6 +2,7 @@ package com.awslabs.aws.greengrass.provisioner.implementations.builders;
 
 import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
 import com.awslabs.aws.greengrass.provisioner.interfaces.builders.GradleBuilder;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.BuildLockHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ExecutorHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.LoggingHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ProcessHelper;
@@ -14,12 +15,22 @@ import org.gradle.tooling.ProjectConnection;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 public class BasicGradleBuilder implements GradleBuilder {
     public static final String BUILD_GRADLE = "build.gradle";
+    public static final String SETTINGS_GRADLE = "settings.gradle";
+    // project(':x').projectDir = new File(settingsDir, '../x'), file('../x') and new File('../x') are all relative to the settings directory
+    private static final Pattern PROJECT_DIR_PATTERN = Pattern.compile("projectDir\\s*=\\s*(?:new\\s+File|file)\\s*\\(\\s*(?:(?:settingsDir|rootDir)\\s*,\\s*)?['\"]([^'\"]+)['\"]");
+    private static final Pattern INCLUDE_PATTERN = Pattern.compile("(includeFlat|includeBuild)\\s*\\(?([^\\n)]*)");
+    private static final Pattern QUOTED_PATTERN = Pattern.compile("['\"]([^'\"]+)['\"]");
     @Inject
     ProcessHelper processHelper;
     @Inject
@@ -28,6 +39,8 @@ public class BasicGradleBuilder implements GradleBuilder {
     ResourceHelper resourceHelper;
     @Inject
     ExecutorHelper executorHelper;
+    @Inject
+    BuildLockHelper buildLockHelper;
 
     @Inject
     public BasicGradleBuilder() {
@@ -63,9 +76,52 @@ public class BasicGradleBuilder implements GradleBuilder {
         return false;
     }
 
+    @Override
+    public Set<Path> getIncludedProjectDirectories(FunctionConf functionConf) {
+        Path functionDirectory = new File(getGradleBuildPath(functionConf)).toPath().toAbsolutePath().normalize();
+        Path settingsGradle = functionDirectory.resolve(SETTINGS_GRADLE);
+
+        Set<Path> includedProjectDirectories = new HashSet<>();
+
+        if (!settingsGradle.toFile().exists()) {
+            return includedProjectDirectories;
+        }
+
+        String settings = Try.of(() -> new String(Files.readAllBytes(settingsGradle))).get();
+
+        Matcher projectDirMatcher = PROJECT_DIR_PATTERN.matcher(settings);
+
+        while (projectDirMatcher.find()) {
+            includedProjectDirectories.add(functionDirectory.resolve(projectDirMatcher.group(1)).normalize());
+        }
+
+        Matcher includeMatcher = INCLUDE_PATTERN.matcher(settings);
+
+        while (includeMatcher.find()) {
+            // includeFlat names are siblings of the settings directory, includeBuild names are paths relative to it
+            Path base = includeMatcher.group(1).equals("includeFlat") ? functionDirectory.getParent() : functionDirectory;
+            Matcher quotedMatcher = QUOTED_PATTERN.matcher(includeMatcher.group(2));
+
+            while (quotedMatcher.find()) {
+                includedProjectDirectories.add(base.resolve(quotedMatcher.group(1)).normalize());
+            }
+        }
+
+        // Only directories outside of the function are shared with other functions
+        includedProjectDirectories.removeIf(path -> path.startsWith(functionDirectory) || !path.toFile().isDirectory());
+
+        return includedProjectDirectories;
+    }
+
     @Override
     public void buildJavaFunctionIfNecessary(FunctionConf functionConf) {
-        runGradle(Optional.of(new File(getGradleBuildPath(functionConf))), Optional.ofNullable(functionConf.getFunctionName()));
+        File gradleBuildPath = new File(getGradleBuildPath(functionConf));
+
+        Set<Path> buildDirectories = new HashSet<>(getIncludedProjectDirectories(functionConf));
+        buildDirectories.add(gradleBuildPath.toPath());
+
+        buildLockHelper.runLocked(functionConf.getFunctionName(), buildDirectories,
+                () -> runGradle(Optional.of(gradleBuildPath), Optional.ofNullable(functionConf.getFunctionName())));
     }
 
     @Override
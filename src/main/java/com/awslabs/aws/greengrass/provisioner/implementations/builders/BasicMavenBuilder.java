@@ -2,6 +2,7 @@ package com.awslabs.aws.greengrass.provisioner.implementations.builders;
 
 import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
 import com.awslabs.aws.greengrass.provisioner.interfaces.builders.MavenBuilder;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.BuildLockHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ExecutorHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.LoggingHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ProcessHelper;
@@ -12,8 +13,12 @@ import org.apache.maven.shared.invoker.*;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 public class BasicMavenBuilder implements MavenBuilder {
@@ -50,6 +55,7 @@ public class BasicMavenBuilder implements MavenBuilder {
     public static final String M_2_HOME_KEY = "M2_HOME";
     public static final String NO_COMPILER_ERROR = "No compiler is provided in this environment.";
     public static final String VERSION_OPTION = "--version";
+    private static final Pattern PARENT_RELATIVE_PATH_PATTERN = Pattern.compile("<parent>.*?<relativePath>\\s*([^<\\s]+)\\s*</relativePath>.*?</parent>", Pattern.DOTALL);
 
     @Inject
     ProcessHelper processHelper;
@@ -59,6 +65,8 @@ public class BasicMavenBuilder implements MavenBuilder {
     ResourceHelper resourceHelper;
     @Inject
     ExecutorHelper executorHelper;
+    @Inject
+    BuildLockHelper buildLockHelper;
 
     @Inject
     public BasicMavenBuilder() {
@@ -132,7 +140,29 @@ public class BasicMavenBuilder implements MavenBuilder {
     }
 
     private void runMaven(FunctionConf functionConf, List<String> goals) {
-        runMaven(Optional.of(new File(getPomXmlPath(functionConf))), Optional.ofNullable(functionConf.getFunctionName()), goals, Optional.empty());
+        File pomXml = new File(getPomXmlPath(functionConf));
+
+        // A parent project referenced by a relative path is built along with the function
+        Set<Path> buildDirectories = new HashSet<>();
+        buildDirectories.add(pomXml.toPath().toAbsolutePath().getParent());
+        getParentProjectDirectory(pomXml).ifPresent(buildDirectories::add);
+
+        buildLockHelper.runLocked(functionConf.getFunctionName(), buildDirectories,
+                () -> runMaven(Optional.of(pomXml), Optional.ofNullable(functionConf.getFunctionName()), goals, Optional.empty()));
+    }
+
+    private Optional<Path> getParentProjectDirectory(File pomXml) {
+        String pom = Try.of(() -> new String(Files.readAllBytes(pomXml.toPath()))).get();
+        Matcher matcher = PARENT_RELATIVE_PATH_PATTERN.matcher(pom);
+
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+
+        Path parentPath = pomXml.toPath().toAbsolutePath().getParent().resolve(matcher.group(1)).normalize();
+
+        // The relative path can point at the parent pom.xml or the directory that contains it
+        return Optional.of(parentPath.toFile().isDirectory() ? parentPath : parentPath.getParent());
     }
 
     @Override
@@ -168,13 +198,11 @@ public class BasicMavenBuilder implements MavenBuilder {
         Optional<Integer> exitVal = processHelper.getOutputFromProcess(log, processBuilder, true, Optional.of(stdoutStrings::add), Optional.of(stderrStrings::add));
 
         if (!exitVal.isPresent()) {
-            log.error("Fatal error trying to launch Maven.  This may be a bug in the provisioner.");
-            System.exit(1);
+            throw new RuntimeException("Fatal error trying to launch Maven.  This may be a bug in the provisioner.");
         }
 
         if (exitVal.get() != 0) {
-            log.error("Couldn't find Maven in path.  Install Maven and try again.");
-            System.exit(1);
+            throw new RuntimeException("Couldn't find Maven in path.  Install Maven and try again.");
         }
 
         Optional<String> m2Home = getM2HomeFromStdout(stdoutStrings);
@@ -185,8 +213,7 @@ public class BasicMavenBuilder implements MavenBuilder {
         }
 
         if (!m2Home.isPresent()) {
-            log.error("M2_HOME not specified.  Set M2_HOME and try again.");
-            System.exit(1);
+            throw new RuntimeException("M2_HOME not specified.  Set M2_HOME and try again.");
         }
 
         invoker.setMavenHome(new File(m2Home.get()));
@@ -223,8 +250,7 @@ public class BasicMavenBuilder implements MavenBuilder {
                     .findFirst();
 
             if (noCompilerString.isPresent()) {
-                log.error("No compiler found.  You may need to install the JDK.");
-                System.exit(1);
+                throw new RuntimeException("No compiler found.  You may need to install the JDK.");
             }
 
             printDebugInfo(outputList, errorList);
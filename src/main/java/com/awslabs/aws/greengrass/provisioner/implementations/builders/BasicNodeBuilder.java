@@ -82,8 +82,7 @@ public class BasicNodeBuilder implements NodeBuilder {
             Optional<Integer> exitVal = processHelper.getOutputFromProcess(log, processBuilder, true, Optional.of(stdoutStrings::add), Optional.of(stderrStrings::add));
 
             if (!exitVal.isPresent() || exitVal.get() != 0) {
-                log.error("Failed to install Node dependency.  Make sure Node and npm are installed and on your path.");
-                System.exit(1);
+                throw new RuntimeException("Failed to install Node dependency.  Make sure Node and npm are installed and on your path.");
             }
         }
     }
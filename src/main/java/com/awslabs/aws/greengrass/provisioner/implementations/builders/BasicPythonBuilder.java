@@ -117,8 +117,7 @@ public class BasicPythonBuilder implements PythonBuilder {
             Optional<Integer> exitVal = processHelper.getOutputFromProcess(log, processBuilder, true, Optional.of(stdoutStrings::add), Optional.of(stderrStrings::add));
 
             if (!exitVal.isPresent() || exitVal.get() != 0) {
-                log.error("Failed to install Python dependency.  Make sure Python and pip are installed and on your path.");
-                System.exit(1);
+                throw new RuntimeException("Failed to install Python dependency.  Make sure Python and pip are installed and on your path.");
             }
         }
     }
@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
 import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
 
@@ -9,6 +10,8 @@ import javax.inject.Inject;
 public class CloudFormationClientProvider implements SafeProvider<CloudFormationClient> {
     @Inject
     SdkErrorHandler sdkErrorHandler;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
 
     @Inject
     public CloudFormationClientProvider() {
@@ -20,6 +23,6 @@ public class CloudFormationClientProvider implements SafeProvider<CloudFormation
     }
 
     public CloudFormationClient unsafeGet() {
-        return CloudFormationClient.create();
+        return sdkClientRegistryHelper.getClient(CloudFormationClient.class, CloudFormationClient::builder);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 
@@ -9,6 +10,8 @@ import javax.inject.Inject;
 public class Ec2ClientProvider implements SafeProvider<Ec2Client> {
     @Inject
     SdkErrorHandler sdkErrorHandler;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
 
     @Inject
     public Ec2ClientProvider() {
@@ -20,6 +23,6 @@ public class Ec2ClientProvider implements SafeProvider<Ec2Client> {
     }
 
     public Ec2Client unsafeGet() {
-        return Ec2Client.create();
+        return sdkClientRegistryHelper.getClient(Ec2Client.class, Ec2Client::builder);
     }
 }
@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
 import software.amazon.awssdk.services.ecr.EcrClient;
 
@@ -9,6 +10,8 @@ import javax.inject.Inject;
 public class EcrClientProvider implements SafeProvider<EcrClient> {
     @Inject
     SdkErrorHandler sdkErrorHandler;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
 
     @Inject
     public EcrClientProvider() {
@@ -20,6 +23,6 @@ public class EcrClientProvider implements SafeProvider<EcrClient> {
     }
 
     public EcrClient unsafeGet() {
-        return EcrClient.create();
+        return sdkClientRegistryHelper.getClient(EcrClient.class, EcrClient::builder);
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.AsyncSdkHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
+import software.amazon.awssdk.services.greengrass.GreengrassAsyncClient;
+
+import javax.inject.Inject;
+
+public class GreengrassAsyncClientProvider implements SafeProvider<GreengrassAsyncClient> {
+    // The Greengrass control plane APIs have low TPS limits too
+    private static final int MAX_CONCURRENCY = 8;
+
+    @Inject
+    SdkErrorHandler sdkErrorHandler;
+    @Inject
+    AsyncSdkHelper asyncSdkHelper;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
+
+    @Inject
+    public GreengrassAsyncClientProvider() {
+    }
+
+    @Override
+    public GreengrassAsyncClient get() {
+        return safeGet(sdkErrorHandler);
+    }
+
+    public GreengrassAsyncClient unsafeGet() {
+        return sdkClientRegistryHelper.getClient(GreengrassAsyncClient.class, () -> GreengrassAsyncClient.builder()
+                .httpClientBuilder(asyncSdkHelper.getHttpClientBuilder(MAX_CONCURRENCY)));
+    }
+}
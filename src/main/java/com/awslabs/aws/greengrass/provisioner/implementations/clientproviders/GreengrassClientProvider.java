@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
 import software.amazon.awssdk.services.greengrass.GreengrassClient;
 
@@ -9,6 +10,8 @@ import javax.inject.Inject;
 public class GreengrassClientProvider implements SafeProvider<GreengrassClient> {
     @Inject
     SdkErrorHandler sdkErrorHandler;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
 
     @Inject
     public GreengrassClientProvider() {
@@ -20,6 +23,6 @@ public class GreengrassClientProvider implements SafeProvider<GreengrassClient>
     }
 
     public GreengrassClient unsafeGet() {
-        return GreengrassClient.create();
+        return sdkClientRegistryHelper.getClient(GreengrassClient.class, GreengrassClient::builder);
     }
 }
\ No newline at end of file
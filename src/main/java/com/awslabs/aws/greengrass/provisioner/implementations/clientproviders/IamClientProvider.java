@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.iam.IamClient;
@@ -10,6 +11,8 @@ import javax.inject.Inject;
 public class IamClientProvider implements SafeProvider<IamClient> {
     @Inject
     SdkErrorHandler sdkErrorHandler;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
 
     @Inject
     public IamClientProvider() {
@@ -21,8 +24,6 @@ public class IamClientProvider implements SafeProvider<IamClient> {
     }
 
     public IamClient unsafeGet() {
-        return IamClient.builder()
-                .region(Region.AWS_GLOBAL)
-                .build();
+        return sdkClientRegistryHelper.getClient(IamClient.class, Region.AWS_GLOBAL, IamClient::builder);
     }
 }
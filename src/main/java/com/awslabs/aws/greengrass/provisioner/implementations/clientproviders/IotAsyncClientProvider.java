@@ -0,0 +1,35 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.AsyncSdkHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
+import software.amazon.awssdk.services.iot.IotAsyncClient;
+
+import javax.inject.Inject;
+
+public class IotAsyncClientProvider implements SafeProvider<IotAsyncClient> {
+    // AWS IoT control plane APIs are throttled at 10-15 TPS, more connections than this only adds retries
+    private static final int MAX_CONCURRENCY = 8;
+
+    @Inject
+    SdkErrorHandler sdkErrorHandler;
+    @Inject
+    AsyncSdkHelper asyncSdkHelper;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
+
+    @Inject
+    public IotAsyncClientProvider() {
+    }
+
+    @Override
+    public IotAsyncClient get() {
+        return safeGet(sdkErrorHandler);
+    }
+
+    public IotAsyncClient unsafeGet() {
+        return sdkClientRegistryHelper.getClient(IotAsyncClient.class, () -> IotAsyncClient.builder()
+                .httpClientBuilder(asyncSdkHelper.getHttpClientBuilder(MAX_CONCURRENCY)));
+    }
+}
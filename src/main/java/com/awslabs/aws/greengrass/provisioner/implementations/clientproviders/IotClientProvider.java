@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
 import software.amazon.awssdk.services.iot.IotClient;
 
@@ -9,6 +10,8 @@ import javax.inject.Inject;
 public class IotClientProvider implements SafeProvider<IotClient> {
     @Inject
     SdkErrorHandler sdkErrorHandler;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
 
     @Inject
     public IotClientProvider() {
@@ -20,6 +23,6 @@ public class IotClientProvider implements SafeProvider<IotClient> {
     }
 
     public IotClient unsafeGet() {
-        return IotClient.create();
+        return sdkClientRegistryHelper.getClient(IotClient.class, IotClient::builder);
     }
 }
\ No newline at end of file
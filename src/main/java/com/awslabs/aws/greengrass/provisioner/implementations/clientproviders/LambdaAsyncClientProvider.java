@@ -0,0 +1,35 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.AsyncSdkHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
+
+import javax.inject.Inject;
+
+public class LambdaAsyncClientProvider implements SafeProvider<LambdaAsyncClient> {
+    // Lambda control plane APIs are throttled per account, uploads are large so a few connections are plenty
+    private static final int MAX_CONCURRENCY = 4;
+
+    @Inject
+    SdkErrorHandler sdkErrorHandler;
+    @Inject
+    AsyncSdkHelper asyncSdkHelper;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
+
+    @Inject
+    public LambdaAsyncClientProvider() {
+    }
+
+    @Override
+    public LambdaAsyncClient get() {
+        return safeGet(sdkErrorHandler);
+    }
+
+    public LambdaAsyncClient unsafeGet() {
+        return sdkClientRegistryHelper.getClient(LambdaAsyncClient.class, () -> LambdaAsyncClient.builder()
+                .httpClientBuilder(asyncSdkHelper.getHttpClientBuilder(MAX_CONCURRENCY)));
+    }
+}
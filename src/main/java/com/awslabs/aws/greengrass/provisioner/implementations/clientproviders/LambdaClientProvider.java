@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
 import software.amazon.awssdk.services.lambda.LambdaClient;
 
@@ -9,6 +10,8 @@ import javax.inject.Inject;
 public class LambdaClientProvider implements SafeProvider<LambdaClient> {
     @Inject
     SdkErrorHandler sdkErrorHandler;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
 
     @Inject
     public LambdaClientProvider() {
@@ -20,6 +23,6 @@ public class LambdaClientProvider implements SafeProvider<LambdaClient> {
     }
 
     public LambdaClient unsafeGet() {
-        return LambdaClient.create();
+        return sdkClientRegistryHelper.getClient(LambdaClient.class, LambdaClient::builder);
     }
 }
@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.clientproviders;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SafeProvider;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkErrorHandler;
 import software.amazon.awssdk.services.sts.StsClient;
 
@@ -9,6 +10,8 @@ import javax.inject.Inject;
 public class StsClientProvider implements SafeProvider<StsClient> {
     @Inject
     SdkErrorHandler sdkErrorHandler;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
 
     @Inject
     public StsClientProvider() {
@@ -20,6 +23,6 @@ public class StsClientProvider implements SafeProvider<StsClient> {
     }
 
     public StsClient unsafeGet() {
-        return StsClient.create();
+        return sdkClientRegistryHelper.getClient(StsClient.class, StsClient::builder);
     }
 }
\ No newline at end of file
@@ -2,12 +2,19 @@ package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 
 import com.awslabs.aws.greengrass.provisioner.data.VirtualTarEntry;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ArchiveHelper;
+import io.vavr.control.Try;
+import org.kamranzafar.jtar.TarConstants;
 import org.kamranzafar.jtar.TarEntry;
 import org.kamranzafar.jtar.TarHeader;
-import org.kamranzafar.jtar.TarOutputStream;
 
 import javax.inject.Inject;
-import java.io.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,55 +34,101 @@ public class BasicArchiveHelper implements ArchiveHelper {
     }
 
     @Override
-    public VirtualTarEntry createVirtualTarEntry(String filename, byte[] content, int permissions) {
-        TarEntry tarEntry = new TarEntry(TarHeader.createHeader(filename, content.length, System.currentTimeMillis() / 1000, false, permissions));
+    public void addVirtualTarEntry(Optional<List<VirtualTarEntry>> virtualTarEntries, String filename, Path path, int permissions) {
+        if (!virtualTarEntries.isPresent()) {
+            // This makes it safe to attempt to add entries to archives the user hasn't requested without crashing
+            return;
+        }
 
-        InputStream inputStream;
+        virtualTarEntries.get().add(createVirtualTarEntry(filename, path, permissions));
+    }
 
-        inputStream = new ByteArrayInputStream(content);
+    @Override
+    public VirtualTarEntry createVirtualTarEntry(String filename, byte[] content, int permissions) {
+        return VirtualTarEntry.builder()
+                .filename(filename)
+                .permissions(permissions)
+                .size(content.length)
+                .content(Optional.of(content))
+                .build();
+    }
+
+    @Override
+    public VirtualTarEntry createVirtualTarEntry(String filename, Path path, int permissions) {
+        // The size goes in the header so it is fixed when the entry is created
+        long size = Try.of(() -> Files.size(path)).get();
 
         return VirtualTarEntry.builder()
-                .content(content)
                 .filename(filename)
                 .permissions(permissions)
-                .tarEntry(tarEntry)
-                .inputStream(inputStream)
+                .size(size)
+                .path(Optional.of(path))
                 .build();
     }
 
     @Override
-    public Optional<ByteArrayOutputStream> tar(Optional<List<VirtualTarEntry>> virtualTarEntryList) throws IOException {
-        if (!virtualTarEntryList.isPresent()) {
-            // This makes it safe to attempt to build archives the user hasn't requested without crashing
-            return Optional.empty();
+    public long tar(List<VirtualTarEntry> virtualTarEntries, WritableByteChannel writableByteChannel) throws IOException {
+        long bytesWritten = 0;
+
+        for (VirtualTarEntry virtualTarEntry : virtualTarEntries) {
+            bytesWritten += writeHeader(virtualTarEntry, writableByteChannel);
+
+            if (virtualTarEntry.getContent().isPresent()) {
+                bytesWritten += writeFully(ByteBuffer.wrap(virtualTarEntry.getContent().get()), writableByteChannel);
+            } else {
+                bytesWritten += transferFully(virtualTarEntry, writableByteChannel);
+            }
+
+            // Entry data is padded out to a full block
+            int remainder = (int) (virtualTarEntry.getSize() % TarConstants.DATA_BLOCK);
+
+            if (remainder != 0) {
+                bytesWritten += writeFully(ByteBuffer.allocate(TarConstants.DATA_BLOCK - remainder), writableByteChannel);
+            }
         }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // Two empty blocks mark the end of the archive
+        bytesWritten += writeFully(ByteBuffer.allocate(TarConstants.EOF_BLOCK), writableByteChannel);
 
-        // Create a TarOutputStream
-        TarOutputStream out = new TarOutputStream(baos);
+        return bytesWritten;
+    }
 
-        // Loop through all of the entries and write them into the byte array output stream
-        for (VirtualTarEntry virtualTarEntry : virtualTarEntryList.get()) {
-            // Put the tar entry/header information for this file (does not write the content!)
-            out.putNextEntry(virtualTarEntry.getTarEntry());
+    private long writeHeader(VirtualTarEntry virtualTarEntry, WritableByteChannel writableByteChannel) throws IOException {
+        TarEntry tarEntry = new TarEntry(TarHeader.createHeader(virtualTarEntry.getFilename(), virtualTarEntry.getSize(), System.currentTimeMillis() / 1000, false, virtualTarEntry.getPermissions()));
 
-            // Grab the file and write its actual contents to the stream
-            BufferedInputStream origin = new BufferedInputStream(virtualTarEntry.getInputStream());
-            
-            int count;
-            byte data[] = new byte[2048];
+        byte[] header = new byte[TarConstants.HEADER_BLOCK];
+        tarEntry.writeEntryHeader(header);
 
-            while ((count = origin.read(data)) != -1) {
-                out.write(data, 0, count);
-            }
+        return writeFully(ByteBuffer.wrap(header), writableByteChannel);
+    }
+
+    private long writeFully(ByteBuffer byteBuffer, WritableByteChannel writableByteChannel) throws IOException {
+        long bytesWritten = 0;
 
-            out.flush();
-            origin.close();
+        while (byteBuffer.hasRemaining()) {
+            bytesWritten += writableByteChannel.write(byteBuffer);
         }
 
-        out.close();
+        return bytesWritten;
+    }
+
+    private long transferFully(VirtualTarEntry virtualTarEntry, WritableByteChannel writableByteChannel) throws IOException {
+        Path path = virtualTarEntry.getPath().get();
+        long size = virtualTarEntry.getSize();
+
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (fileChannel.size() < size) {
+                throw new RuntimeException("File [" + path + "] was truncated after it was added to the archive");
+            }
 
-        return Optional.of(baos);
+            long position = 0;
+
+            // transferTo can move less than requested so keep going until the whole entry is written
+            while (position < size) {
+                position += fileChannel.transferTo(position, size - position, writableByteChannel);
+            }
+
+            return position;
+        }
     }
 }
@@ -0,0 +1,294 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.DownloadOptions;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ArtifactCacheHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class BasicArtifactCacheHelper implements ArtifactCacheHelper {
+    private static final String METADATA_SUFFIX = ".properties";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final String URL_KEY = "url";
+    private static final String ETAG_KEY = "etag";
+    private static final String LAST_MODIFIED_KEY = "lastModified";
+    private static final String SHA256_KEY = "sha256";
+    private static final int CONNECT_TIMEOUT_MILLISECONDS = 30000;
+    private static final int READ_TIMEOUT_MILLISECONDS = 60000;
+    // Long enough to cover a deployment, short enough that a long running server picks up new artifacts
+    private static final long MAX_AGE_MILLISECONDS = 10 * 60 * 1000;
+
+    @Inject
+    GGConstants ggConstants;
+    @Inject
+    IoHelper ioHelper;
+
+    // How long a validated copy is used before it is revalidated with the server again
+    long maxAgeMilliseconds = MAX_AGE_MILLISECONDS;
+
+    // URLs that have been validated in this process, keyed by URL. In flight requests are here too so that concurrent
+    //   callers wait for the same download.
+    private final Map<String, Validation> artifacts = new ConcurrentHashMap<>();
+    private final AtomicInteger downloads = new AtomicInteger();
+    private final AtomicInteger revalidations = new AtomicInteger();
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile boolean offline = false;
+
+    @Inject
+    public BasicArtifactCacheHelper() {
+    }
+
+    @Override
+    public Path get(String url, Optional<String> optionalReferer) {
+        removeIfExpired(url);
+
+        Validation newValidation = new Validation();
+        Validation existingValidation = artifacts.putIfAbsent(url, newValidation);
+
+        if (existingValidation != null) {
+            hits.incrementAndGet();
+            return Try.of(existingValidation.future::join)
+                    .getOrElseThrow(throwable -> new RuntimeException("Fetching [" + url + "] failed", throwable.getCause()));
+        }
+
+        Try<Path> result = Try.of(() -> fetch(url, optionalReferer));
+
+        if (result.isFailure()) {
+            // Let the next caller try again
+            artifacts.remove(url, newValidation);
+            newValidation.future.completeExceptionally(result.getCause());
+        } else {
+            newValidation.validatedAtMilliseconds = System.currentTimeMillis();
+            newValidation.future.complete(result.get());
+        }
+
+        return result.get();
+    }
+
+    private void removeIfExpired(String url) {
+        Validation validation = artifacts.get(url);
+
+        // Requests that are still in flight are never expired
+        if ((validation == null) || !validation.future.isDone()) {
+            return;
+        }
+
+        if ((System.currentTimeMillis() - validation.validatedAtMilliseconds) >= maxAgeMilliseconds) {
+            artifacts.remove(url, validation);
+        }
+    }
+
+    @Override
+    public byte[] getBytes(String url) {
+        return Try.of(() -> Files.readAllBytes(get(url))).get();
+    }
+
+    private Path fetch(String url, Optional<String> optionalReferer) throws Exception {
+        Path cacheDirectory = Paths.get(ggConstants.getArtifactCacheDirectory());
+        Files.createDirectories(cacheDirectory);
+
+        String cacheKey = sha256(url.getBytes(StandardCharsets.UTF_8));
+        Path artifactPath = cacheDirectory.resolve(cacheKey);
+        Path metadataPath = cacheDirectory.resolve(cacheKey + METADATA_SUFFIX);
+
+        // Anything that doesn't match its recorded hash is treated as missing
+        Optional<Properties> optionalMetadata = readMetadata(artifactPath, metadataPath);
+
+        if (offline) {
+            if (!optionalMetadata.isPresent()) {
+                throw new RuntimeException("Offline mode is enabled and [" + url + "] is not in the artifact cache");
+            }
+
+            log.debug("Offline mode, using cached copy of [" + url + "]");
+            return artifactPath;
+        }
+
+        Try<Path> result = Try.of(() -> revalidateOrDownload(url, optionalReferer, artifactPath, metadataPath, optionalMetadata));
+
+        if (result.isFailure() && optionalMetadata.isPresent()) {
+            log.warn("Could not revalidate [" + url + "], using the cached copy [" + result.getCause().getMessage() + "]");
+            return artifactPath;
+        }
+
+        return result.get();
+    }
+
+    private Path revalidateOrDownload(String url, Optional<String> optionalReferer, Path artifactPath, Path metadataPath, Optional<Properties> optionalMetadata) throws Exception {
+        HttpURLConnection httpURLConnection = (HttpURLConnection) new URL(url).openConnection();
+        httpURLConnection.setConnectTimeout(CONNECT_TIMEOUT_MILLISECONDS);
+        httpURLConnection.setReadTimeout(READ_TIMEOUT_MILLISECONDS);
+        optionalReferer.ifPresent(referer -> httpURLConnection.setRequestProperty("Referer", referer));
+
+        optionalMetadata.ifPresent(metadata -> {
+            Optional.ofNullable(metadata.getProperty(ETAG_KEY)).ifPresent(etag -> httpURLConnection.setRequestProperty("If-None-Match", etag));
+            Optional.ofNullable(metadata.getProperty(LAST_MODIFIED_KEY)).ifPresent(lastModified -> httpURLConnection.setRequestProperty("If-Modified-Since", lastModified));
+        });
+
+        try {
+            int responseCode = httpURLConnection.getResponseCode();
+
+            if ((responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) && optionalMetadata.isPresent()) {
+                revalidations.incrementAndGet();
+                log.debug("Cached copy of [" + url + "] is still current");
+                return artifactPath;
+            }
+
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new RuntimeException("Downloading [" + url + "] failed with HTTP status [" + responseCode + "]");
+            }
+
+            log.info("Downloading [" + url + "] to the artifact cache");
+
+            // Download then rename so other threads and processes never see a partially written entry
+            Path tempPath;
+            String sha256;
+
+            if (isLargeAndRanged(httpURLConnection)) {
+                // Large objects go through the ranged downloader, its partial file has a fixed name so it can resume
+                httpURLConnection.disconnect();
+                tempPath = artifactPath.resolveSibling(artifactPath.getFileName() + PARTIAL_SUFFIX);
+                ioHelper.download(url, tempPath.toFile(), DownloadOptions.builder().referer(optionalReferer).build());
+                sha256 = sha256(tempPath);
+            } else {
+                tempPath = Files.createTempFile(artifactPath.getParent(), artifactPath.getFileName().toString(), TEMP_SUFFIX);
+                MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+                try (InputStream inputStream = new DigestInputStream(httpURLConnection.getInputStream(), messageDigest)) {
+                    Files.copy(inputStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                sha256 = Hex.encodeHexString(messageDigest.digest()).toLowerCase();
+            }
+
+            Properties metadata = new Properties();
+            metadata.setProperty(URL_KEY, url);
+            metadata.setProperty(SHA256_KEY, sha256);
+            Optional.ofNullable(httpURLConnection.getHeaderField("ETag")).ifPresent(etag -> metadata.setProperty(ETAG_KEY, etag));
+            Optional.ofNullable(httpURLConnection.getHeaderField("Last-Modified")).ifPresent(lastModified -> metadata.setProperty(LAST_MODIFIED_KEY, lastModified));
+
+            Files.move(tempPath, artifactPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeMetadata(metadataPath, metadata);
+
+            downloads.incrementAndGet();
+
+            return artifactPath;
+        } finally {
+            httpURLConnection.disconnect();
+        }
+    }
+
+    private boolean isLargeAndRanged(HttpURLConnection httpURLConnection) {
+        return "bytes".equalsIgnoreCase(httpURLConnection.getHeaderField("Accept-Ranges")) &&
+                (httpURLConnection.getContentLengthLong() >= DownloadOptions.builder().build().getMinimumRangedSizeBytes());
+    }
+
+    private Optional<Properties> readMetadata(Path artifactPath, Path metadataPath) {
+        if (!Files.isRegularFile(artifactPath) || !Files.isRegularFile(metadataPath)) {
+            return Optional.empty();
+        }
+
+        Properties metadata = new Properties();
+
+        if (Try.withResources(() -> Files.newInputStream(metadataPath)).of(inputStream -> load(metadata, inputStream)).isFailure()) {
+            return Optional.empty();
+        }
+
+        String expectedSha256 = metadata.getProperty(SHA256_KEY);
+        String actualSha256 = Try.of(() -> sha256(artifactPath)).getOrNull();
+
+        if ((expectedSha256 == null) || !expectedSha256.equals(actualSha256)) {
+            log.warn("Cached copy of [" + metadata.getProperty(URL_KEY) + "] is corrupt, it will be downloaded again");
+            return Optional.empty();
+        }
+
+        return Optional.of(metadata);
+    }
+
+    private Void load(Properties properties, InputStream inputStream) throws IOException {
+        properties.load(inputStream);
+        return null;
+    }
+
+    private void writeMetadata(Path metadataPath, Properties metadata) throws IOException {
+        Path tempPath = Files.createTempFile(metadataPath.getParent(), metadataPath.getFileName().toString(), TEMP_SUFFIX);
+
+        try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+            metadata.store(outputStream, null);
+        }
+
+        Files.move(tempPath, metadataPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private String sha256(byte[] bytes) throws Exception {
+        return Hex.encodeHexString(MessageDigest.getInstance("SHA-256").digest(bytes)).toLowerCase();
+    }
+
+    private String sha256(Path path) throws Exception {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] buffer = new byte[65536];
+            int length;
+
+            while ((length = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, length);
+            }
+        }
+
+        return Hex.encodeHexString(messageDigest.digest()).toLowerCase();
+    }
+
+    @Override
+    public boolean isOffline() {
+        return offline;
+    }
+
+    @Override
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    @Override
+    public int getDownloads() {
+        return downloads.get();
+    }
+
+    @Override
+    public int getRevalidations() {
+        return revalidations.get();
+    }
+
+    @Override
+    public int getHits() {
+        return hits.get();
+    }
+
+    private static class Validation {
+        private final CompletableFuture<Path> future = new CompletableFuture<>();
+        private volatile long validatedAtMilliseconds;
+    }
+}
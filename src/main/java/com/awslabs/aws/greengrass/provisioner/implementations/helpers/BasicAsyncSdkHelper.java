@@ -0,0 +1,69 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.AsyncSdkHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.JobHelper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+@Slf4j
+public class BasicAsyncSdkHelper implements AsyncSdkHelper {
+    // The event loop only moves bytes, a couple of threads can keep hundreds of requests in flight
+    private static final int EVENT_LOOP_THREADS = 2;
+    // Requests can queue for a connection for a long time when a whole fleet is being provisioned
+    private static final Duration CONNECTION_ACQUISITION_TIMEOUT = Duration.ofMinutes(10);
+    private static final int MAX_PENDING_CONNECTION_ACQUIRES = 100000;
+
+    private volatile boolean async = false;
+    @Getter(lazy = true)
+    private final SdkEventLoopGroup sdkEventLoopGroup = createSdkEventLoopGroup();
+
+    @Inject
+    JobHelper jobHelper;
+
+    @Inject
+    public BasicAsyncSdkHelper() {
+    }
+
+    private SdkEventLoopGroup createSdkEventLoopGroup() {
+        log.debug("Starting the SDK event loop with [" + EVENT_LOOP_THREADS + "] threads");
+
+        ThreadFactory threadFactory = new ThreadFactoryImpl(BasicAsyncSdkHelper.class.getSimpleName());
+
+        return SdkEventLoopGroup.builder()
+                .numberOfThreads(EVENT_LOOP_THREADS)
+                .threadFactory(runnable -> {
+                    // Don't keep the JVM alive just for the event loop, and don't tie it to the job that started it
+                    Thread thread = threadFactory.newThread(jobHelper.withoutJob(runnable));
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                .build();
+    }
+
+    @Override
+    public boolean isAsync() {
+        return async;
+    }
+
+    @Override
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    @Override
+    public SdkAsyncHttpClient.Builder<?> getHttpClientBuilder(int maxConcurrency) {
+        return NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(getSdkEventLoopGroup())
+                .maxConcurrency(maxConcurrency)
+                .maxPendingConnectionAcquires(MAX_PENDING_CONNECTION_ACQUIRES)
+                .connectionAcquisitionTimeout(CONNECTION_ACQUISITION_TIMEOUT);
+    }
+}
@@ -0,0 +1,322 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.SDK;
+import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.BuildCacheHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.BuildLockHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.FunctionHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.LoggingHelper;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import software.amazon.awssdk.services.lambda.model.Runtime;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+public class BasicBuildCacheHelper implements BuildCacheHelper {
+    // Top level entries that are build output, or don't change the deployment package
+    private static final List<String> EXCLUDED_TOP_LEVEL_ENTRIES = Arrays.asList("build", ".gradle", ".git", FunctionHelper.FUNCTION_CONF);
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Lists the files each build wrote to its function directory, keyed by the hash of the directory path
+    private static final String BUILD_OUTPUTS_DIRECTORY = "outputs";
+
+    @Inject
+    GGConstants ggConstants;
+    @Inject
+    LoggingHelper loggingHelper;
+    @Inject
+    IoHelper ioHelper;
+    @Inject
+    BuildLockHelper buildLockHelper;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger evictions = new AtomicInteger();
+
+    @Inject
+    public BasicBuildCacheHelper() {
+    }
+
+    @Override
+    public String getCacheKey(FunctionConf functionConf, Runtime runtime, Optional<SDK> sdk, Set<Path> sharedProjectDirectories) {
+        return Try.of(() -> innerGetCacheKey(functionConf, runtime, sdk, sharedProjectDirectories)).get();
+    }
+
+    private String innerGetCacheKey(FunctionConf functionConf, Runtime runtime, Optional<SDK> sdk, Set<Path> sharedProjectDirectories) throws Exception {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+        update(messageDigest, runtime.toString());
+        update(messageDigest, sdk.map(SDK::getFullSdkFilename).orElse(""));
+        update(messageDigest, sdk.flatMap(SDK::getHash).orElse(""));
+
+        for (String dependency : functionConf.getDependencies()) {
+            update(messageDigest, dependency);
+        }
+
+        // Builders copy the SDK and install dependencies into the function directory, only the source files are hashed
+        Set<String> buildOutputs = getBuildOutputs(functionConf.getBuildDirectory());
+        update(messageDigest, functionConf.getBuildDirectory(), functionConf.getFunctionName() + ".zip", buildOutputs);
+
+        List<Path> sortedSharedProjectDirectories = sharedProjectDirectories.stream()
+                .sorted()
+                .collect(Collectors.toList());
+
+        for (Path sharedProjectDirectory : sortedSharedProjectDirectories) {
+            update(messageDigest, sharedProjectDirectory.getFileName().toString());
+            update(messageDigest, sharedProjectDirectory, "", Collections.emptySet());
+        }
+
+        return Hex.encodeHexString(messageDigest.digest()).toLowerCase();
+    }
+
+    private void update(MessageDigest messageDigest, Path buildDirectory, String archiveName, Set<String> buildOutputs) throws IOException {
+        for (Path path : getSourceFiles(buildDirectory, archiveName)) {
+            String relativePath = getRelativePath(buildDirectory, path);
+
+            if (buildOutputs.contains(relativePath)) {
+                continue;
+            }
+
+            update(messageDigest, relativePath);
+            update(messageDigest, Files.isExecutable(path) ? "x" : "-");
+            update(messageDigest, Files.size(path));
+
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                byte[] buffer = new byte[65536];
+                int length;
+
+                while ((length = inputStream.read(buffer)) != -1) {
+                    messageDigest.update(buffer, 0, length);
+                }
+            }
+        }
+    }
+
+    private List<Path> getSourceFiles(Path buildDirectory, String archiveName) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(buildDirectory)) {
+            return pathStream
+                    .filter(Files::isRegularFile)
+                    .filter(path -> !isExcluded(buildDirectory, archiveName, path))
+                    // Sorted so the key doesn't depend on the order the file system returns entries in
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private String getRelativePath(Path buildDirectory, Path path) {
+        // Paths always use forward slashes so the same tree gets the same key on every platform
+        return buildDirectory.relativize(path).toString().replace('\\', '/');
+    }
+
+    private Set<String> getBuildOutputs(Path buildDirectory) throws Exception {
+        Path buildOutputsPath = getBuildOutputsPath(buildDirectory);
+
+        if (!Files.isRegularFile(buildOutputsPath)) {
+            return Collections.emptySet();
+        }
+
+        return new HashSet<>(Files.readAllLines(buildOutputsPath, StandardCharsets.UTF_8));
+    }
+
+    private Void putBuildOutputs(Path buildDirectory, Map<Path, String> before) throws Exception {
+        // Anything the build created or rewrote is build output, even if the next build writes the same bytes
+        Set<String> buildOutputs = new TreeSet<>(getBuildOutputs(buildDirectory));
+
+        getSnapshot(buildDirectory).entrySet().stream()
+                .filter(entry -> !entry.getValue().equals(before.get(entry.getKey())))
+                .map(entry -> getRelativePath(buildDirectory, entry.getKey()))
+                .forEach(buildOutputs::add);
+
+        Path buildOutputsPath = getBuildOutputsPath(buildDirectory);
+        Files.createDirectories(buildOutputsPath.getParent());
+
+        Path tempPath = Files.createTempFile(buildOutputsPath.getParent(), buildOutputsPath.getFileName().toString(), TEMP_SUFFIX);
+        Files.write(tempPath, buildOutputs, StandardCharsets.UTF_8);
+        Files.move(tempPath, buildOutputsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return null;
+    }
+
+    private Path getBuildOutputsPath(Path buildDirectory) throws Exception {
+        String directoryKey = Hex.encodeHexString(MessageDigest.getInstance("SHA-256")
+                .digest(buildDirectory.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8)));
+
+        return getCacheDirectory().resolve(BUILD_OUTPUTS_DIRECTORY).resolve(directoryKey);
+    }
+
+    private Map<Path, String> getSnapshot(Path buildDirectory) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(buildDirectory)) {
+            return pathStream
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toMap(path -> path, path -> Try.of(() -> Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis()).get()));
+        }
+    }
+
+    private boolean isExcluded(Path buildDirectory, String archiveName, Path path) {
+        String topLevelEntry = buildDirectory.relativize(path).getName(0).toString();
+
+        return EXCLUDED_TOP_LEVEL_ENTRIES.contains(topLevelEntry) || topLevelEntry.equals(archiveName);
+    }
+
+    private void update(MessageDigest messageDigest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        // Length prefixed so adjacent values can't run together
+        update(messageDigest, bytes.length);
+        messageDigest.update(bytes);
+    }
+
+    private void update(MessageDigest messageDigest, long value) {
+        messageDigest.update(ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+    }
+
+    @Override
+    public Optional<Path> getCachedArchive(String cacheKey) {
+        Path cachedArchive = getCacheDirectory().resolve(cacheKey);
+
+        if (!Files.isRegularFile(cachedArchive)) {
+            return Optional.empty();
+        }
+
+        // The modification time doubles as the last access time for eviction
+        Try.of(() -> Files.setLastModifiedTime(cachedArchive, FileTime.fromMillis(System.currentTimeMillis()))).get();
+
+        return Optional.of(cachedArchive);
+    }
+
+    @Override
+    public void putArchive(String cacheKey, Path archivePath) {
+        Try.of(() -> innerPutArchive(cacheKey, archivePath)).get();
+    }
+
+    private Void innerPutArchive(String cacheKey, Path archivePath) throws IOException {
+        Path cacheDirectory = getCacheDirectory();
+        Files.createDirectories(cacheDirectory);
+
+        // Copy then rename so other threads and processes never see a partially written entry
+        Path tempPath = Files.createTempFile(cacheDirectory, cacheKey, TEMP_SUFFIX);
+        Files.copy(archivePath, tempPath, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tempPath, cacheDirectory.resolve(cacheKey), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        evictIfNecessary(cacheKey);
+
+        return null;
+    }
+
+    private synchronized void evictIfNecessary(String newestCacheKey) throws IOException {
+        List<Path> entries;
+
+        try (Stream<Path> pathStream = Files.list(getCacheDirectory())) {
+            entries = pathStream
+                    .filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .sorted(Comparator.comparing((Path path) -> Try.of(() -> Files.getLastModifiedTime(path)).getOrElse(FileTime.fromMillis(0))))
+                    .collect(Collectors.toList());
+        }
+
+        long totalSize = 0;
+
+        for (Path entry : entries) {
+            totalSize += Try.of(() -> Files.size(entry)).getOrElse(0L);
+        }
+
+        long maxSize = ggConstants.getFunctionCacheMaxSizeInBytes();
+
+        // Least recently used first, never evict the entry that was just added
+        for (Path entry : entries) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+
+            if (entry.getFileName().toString().equals(newestCacheKey)) {
+                continue;
+            }
+
+            long size = Files.size(entry);
+
+            if (Files.deleteIfExists(entry)) {
+                totalSize -= size;
+                evictions.incrementAndGet();
+                log.debug("Evicted [" + entry.getFileName() + "] from the function build cache");
+            }
+        }
+    }
+
+    @Override
+    public String buildIfNecessary(FunctionConf functionConf, Runtime runtime, Optional<SDK> sdk, Set<Path> sharedProjectDirectories, String archivePath, Runnable build) {
+        // Builds write to the function directory, other groups in fleet mode may be building the same function
+        Set<Path> buildDirectories = new HashSet<>(sharedProjectDirectories);
+        buildDirectories.add(functionConf.getBuildDirectory());
+
+        return buildLockHelper.runLocked(functionConf.getFunctionName(), buildDirectories,
+                () -> innerBuildIfNecessary(functionConf, runtime, sdk, sharedProjectDirectories, archivePath, build));
+    }
+
+    private String innerBuildIfNecessary(FunctionConf functionConf, Runtime runtime, Optional<SDK> sdk, Set<Path> sharedProjectDirectories, String archivePath, Runnable build) {
+        // The key must be calculated before the build since builders add files to the build directory
+        String cacheKey = getCacheKey(functionConf, runtime, sdk, sharedProjectDirectories);
+        Optional<Path> cachedArchive = getCachedArchive(cacheKey);
+
+        if (cachedArchive.isPresent()) {
+            hits.incrementAndGet();
+            loggingHelper.logInfoWithName(log, functionConf.getFunctionName(), "Using cached deployment package [" + cacheKey.substring(0, 12) + "], skipping build");
+
+            Path destination = Paths.get(archivePath);
+            Try.of(() -> Files.createDirectories(destination.toAbsolutePath().getParent())).get();
+            Try.of(() -> Files.copy(cachedArchive.get(), destination, StandardCopyOption.REPLACE_EXISTING)).get();
+        } else {
+            misses.incrementAndGet();
+
+            Map<Path, String> before = Try.of(() -> getSnapshot(functionConf.getBuildDirectory())).get();
+
+            build.run();
+
+            putArchive(cacheKey, Paths.get(archivePath));
+            Try.of(() -> putBuildOutputs(functionConf.getBuildDirectory(), before)).get();
+        }
+
+        // The archive path is overwritten by the next build of this function, the caller uploads from its own copy
+        return Try.of(() -> copyToTempFile(functionConf, archivePath)).get();
+    }
+
+    private String copyToTempFile(FunctionConf functionConf, String archivePath) throws IOException {
+        String extension = archivePath.substring(archivePath.lastIndexOf('.'));
+        Path tempPath = ioHelper.getTempFile(functionConf.getFunctionName() + "-", extension).toPath();
+        Files.copy(Paths.get(archivePath), tempPath, StandardCopyOption.REPLACE_EXISTING);
+
+        return tempPath.toString();
+    }
+
+    private Path getCacheDirectory() {
+        return Paths.get(ggConstants.getFunctionCacheDirectory());
+    }
+
+    @Override
+    public int getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public int getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public int getEvictions() {
+        return evictions.get();
+    }
+}
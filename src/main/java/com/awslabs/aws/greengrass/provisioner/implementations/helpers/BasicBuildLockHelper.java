@@ -0,0 +1,59 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.BuildLockHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.LoggingHelper;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class BasicBuildLockHelper implements BuildLockHelper {
+    private final Map<Path, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Inject
+    LoggingHelper loggingHelper;
+
+    @Inject
+    public BasicBuildLockHelper() {
+    }
+
+    @Override
+    public <T> T runLocked(String name, Set<Path> directories, Supplier<T> build) {
+        // Always lock in the same order so two builds that share more than one directory can't deadlock
+        List<ReentrantLock> orderedLocks = directories.stream()
+                .map(path -> path.toAbsolutePath().normalize())
+                .distinct()
+                .sorted()
+                .map(path -> lock(name, path))
+                .collect(Collectors.toList());
+
+        try {
+            return build.get();
+        } finally {
+            List<ReentrantLock> reversedLocks = new ArrayList<>(orderedLocks);
+            Collections.reverse(reversedLocks);
+            reversedLocks.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private ReentrantLock lock(String name, Path path) {
+        ReentrantLock reentrantLock = locks.computeIfAbsent(path, key -> new ReentrantLock());
+
+        if (!reentrantLock.tryLock()) {
+            loggingHelper.logInfoWithName(log, name, "Waiting for another build using [" + path + "] to finish");
+            reentrantLock.lock();
+        }
+
+        return reentrantLock;
+    }
+}
@@ -9,6 +9,7 @@ import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
 import software.amazon.awssdk.services.cloudformation.model.*;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -17,7 +18,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BasicCloudFormationHelper implements CloudFormationHelper {
     @Inject
-    CloudFormationClient cloudFormationClient;
+    Provider<CloudFormationClient> cloudFormationClientProvider;
     @Inject
     IoHelper ioHelper;
 
@@ -88,7 +89,7 @@ public class BasicCloudFormationHelper implements CloudFormationHelper {
                 .templateBody(ioHelper.readFileAsString(functionConf.getCfTemplate()))
                 .build();
 
-        cloudFormationClient.updateStack(updateStackRequest);
+        cloudFormationClientProvider.get().updateStack(updateStackRequest);
 
         return Optional.of(finalStackName);
     }
@@ -99,7 +100,7 @@ public class BasicCloudFormationHelper implements CloudFormationHelper {
     }
 
     private Boolean createStack(CreateStackRequest createStackRequest, String finalStackName) {
-        CreateStackResponse createStackResponse = cloudFormationClient.createStack(createStackRequest);
+        CreateStackResponse createStackResponse = cloudFormationClientProvider.get().createStack(createStackRequest);
 
         log.info("CloudFormation stack launched [" + finalStackName + ", " + createStackResponse.stackId() + "]");
 
@@ -111,7 +112,7 @@ public class BasicCloudFormationHelper implements CloudFormationHelper {
         DescribeStacksRequest describeStacksRequest = DescribeStacksRequest.builder()
                 .stackName(stackName)
                 .build();
-        DescribeStacksResponse describeStacksResponse = cloudFormationClient.describeStacks(describeStacksRequest);
+        DescribeStacksResponse describeStacksResponse = cloudFormationClientProvider.get().describeStacks(describeStacksRequest);
 
         StackStatus stackStatus = describeStacksResponse.stacks().get(0).stackStatus();
 
@@ -133,7 +134,7 @@ public class BasicCloudFormationHelper implements CloudFormationHelper {
 
             ioHelper.sleep(10000);
 
-            describeStacksResponse = cloudFormationClient.describeStacks(describeStacksRequest);
+            describeStacksResponse = cloudFormationClientProvider.get().describeStacks(describeStacksRequest);
             stackStatus = describeStacksResponse.stacks().get(0).stackStatus();
         }
 
@@ -0,0 +1,177 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.CoreArtifactStoreHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class BasicCoreArtifactStoreHelper implements CoreArtifactStoreHelper {
+    private static final String SIDECAR_SUFFIX = ".properties";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String SIZE_KEY = "size";
+    private static final String LAST_MODIFIED_KEY = "lastModified";
+    private static final String SHA1_KEY = "sha1";
+    // Large enough that a core release is hashed from a single mapping
+    private static final long MAXIMUM_MAPPING_SIZE = 256L * 1024L * 1024L;
+
+    @Inject
+    GGConstants ggConstants;
+
+    // Files that have been verified in this process, keyed by filename
+    private final Map<String, Path> verifiedPaths = new ConcurrentHashMap<>();
+    private final AtomicInteger hashesCalculated = new AtomicInteger();
+    private final AtomicInteger hashesReused = new AtomicInteger();
+
+    @Inject
+    public BasicCoreArtifactStoreHelper() {
+    }
+
+    @Override
+    public Path get(String filename, URL url, Optional<String> optionalExpectedSha1) {
+        // Many groups in one run share the same release, only the first one pays for the check
+        return verifiedPaths.computeIfAbsent(filename, key -> Try.of(() -> getVerifiedPath(filename, url, optionalExpectedSha1)).get());
+    }
+
+    private Path getVerifiedPath(String filename, URL url, Optional<String> optionalExpectedSha1) throws Exception {
+        Path storeDirectory = Paths.get(ggConstants.getCoreArtifactStoreDirectory());
+        Files.createDirectories(storeDirectory);
+
+        Path path = getLocalPath(filename, url, storeDirectory);
+        Path sidecarPath = storeDirectory.resolve(filename + SIDECAR_SUFFIX);
+
+        String sha1 = getSha1(path, sidecarPath);
+
+        if (optionalExpectedSha1.isPresent() && !optionalExpectedSha1.get().equalsIgnoreCase(sha1)) {
+            // Forget the hash so a replacement file is checked again
+            Files.deleteIfExists(sidecarPath);
+            throw new RuntimeException("The Greengrass software [" + path + "] is corrupt, its SHA-1 is [" + sha1 + "] but it should be [" + optionalExpectedSha1.get() + "]. Please download it from the Greengrass console again.");
+        }
+
+        return path;
+    }
+
+    private Path getLocalPath(String filename, URL url, Path storeDirectory) throws Exception {
+        if ("file".equals(url.getProtocol())) {
+            return Paths.get(url.toURI());
+        }
+
+        // Resources in the JAR can't be transferred directly so they are copied out, once
+        Path path = storeDirectory.resolve(filename);
+
+        if (Files.isRegularFile(path)) {
+            return path;
+        }
+
+        log.info("Copying [" + filename + "] to [" + storeDirectory + "]");
+
+        Path tempPath = Files.createTempFile(storeDirectory, filename, TEMP_SUFFIX);
+
+        try (InputStream inputStream = url.openStream()) {
+            Files.copy(inputStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return path;
+    }
+
+    private String getSha1(Path path, Path sidecarPath) throws Exception {
+        String size = String.valueOf(Files.size(path));
+        String lastModified = String.valueOf(Files.getLastModifiedTime(path).toMillis());
+
+        Optional<Properties> optionalSidecar = readSidecar(sidecarPath);
+
+        if (optionalSidecar.isPresent() &&
+                size.equals(optionalSidecar.get().getProperty(SIZE_KEY)) &&
+                lastModified.equals(optionalSidecar.get().getProperty(LAST_MODIFIED_KEY)) &&
+                (optionalSidecar.get().getProperty(SHA1_KEY) != null)) {
+            hashesReused.incrementAndGet();
+            return optionalSidecar.get().getProperty(SHA1_KEY);
+        }
+
+        String sha1 = sha1(path);
+        hashesCalculated.incrementAndGet();
+
+        Properties sidecar = new Properties();
+        sidecar.setProperty(SIZE_KEY, size);
+        sidecar.setProperty(LAST_MODIFIED_KEY, lastModified);
+        sidecar.setProperty(SHA1_KEY, sha1);
+        writeSidecar(sidecarPath, sidecar);
+
+        return sha1;
+    }
+
+    private String sha1(Path path) throws Exception {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+
+        // Hash straight from the page cache instead of copying the file through a heap buffer
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(MAXIMUM_MAPPING_SIZE, size - position);
+                MappedByteBuffer mappedByteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                messageDigest.update(mappedByteBuffer);
+                position += length;
+            }
+        }
+
+        return Hex.encodeHexString(messageDigest.digest()).toLowerCase();
+    }
+
+    private Optional<Properties> readSidecar(Path sidecarPath) {
+        if (!Files.isRegularFile(sidecarPath)) {
+            return Optional.empty();
+        }
+
+        Properties sidecar = new Properties();
+
+        return Try.withResources(() -> Files.newInputStream(sidecarPath))
+                .of(inputStream -> load(sidecar, inputStream))
+                .map(ignored -> sidecar)
+                .toJavaOptional();
+    }
+
+    private Void load(Properties properties, InputStream inputStream) throws IOException {
+        properties.load(inputStream);
+        return null;
+    }
+
+    private void writeSidecar(Path sidecarPath, Properties sidecar) throws IOException {
+        Path tempPath = Files.createTempFile(sidecarPath.getParent(), sidecarPath.getFileName().toString(), TEMP_SUFFIX);
+
+        try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+            sidecar.store(outputStream, null);
+        }
+
+        Files.move(tempPath, sidecarPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public int getHashesCalculated() {
+        return hashesCalculated.get();
+    }
+
+    @Override
+    public int getHashesReused() {
+        return hashesReused.get();
+    }
+}
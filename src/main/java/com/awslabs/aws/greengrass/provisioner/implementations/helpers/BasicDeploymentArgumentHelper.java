@@ -156,6 +156,10 @@ public class BasicDeploymentArgumentHelper implements DeploymentArgumentHelper {
             throw new RuntimeException("A deployment configuration file name is required");
         }
 
+        if (deploymentArguments.deploymentStatusMaxDelay < 1) {
+            throw new RuntimeException("The maximum deployment status delay must be at least 1 second");
+        }
+
         if (deploymentArguments.buildContainer) {
             if (!normalDockerHelper.getDockerfileForArchitecture(deploymentArguments.architecture).exists()) {
                 throw new RuntimeException("No dockerfile exists for architecture [" + deploymentArguments.architecture.toString() + "]");
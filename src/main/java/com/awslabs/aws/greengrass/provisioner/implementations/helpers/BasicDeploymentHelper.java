@@ -1,8 +1,15 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 
 import com.awslabs.aws.greengrass.provisioner.data.Architecture;
+import com.awslabs.aws.greengrass.provisioner.data.BackoffPolicy;
 import com.awslabs.aws.greengrass.provisioner.data.DeploymentStatus;
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStep;
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStepContext;
+import com.awslabs.aws.greengrass.provisioner.data.FileTransferMode;
+import com.awslabs.aws.greengrass.provisioner.data.FileTransferOptions;
+import com.awslabs.aws.greengrass.provisioner.data.GroupDeployment;
 import com.awslabs.aws.greengrass.provisioner.data.KeysAndCertificate;
+import com.awslabs.aws.greengrass.provisioner.data.ThingProvisioningRequest;
 import com.awslabs.aws.greengrass.provisioner.data.VirtualTarEntry;
 import com.awslabs.aws.greengrass.provisioner.data.arguments.DeploymentArguments;
 import com.awslabs.aws.greengrass.provisioner.data.conf.DeploymentConf;
@@ -23,6 +30,7 @@ import com.jcraft.jsch.Session;
 import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.exceptions.DockerException;
 import com.typesafe.config.*;
+import io.vavr.CheckedFunction1;
 import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.regions.Region;
@@ -36,10 +44,16 @@ import software.amazon.awssdk.services.iam.model.Role;
 import software.amazon.awssdk.services.iot.model.CreateRoleAliasResponse;
 
 import javax.inject.Inject;
-import java.io.ByteArrayOutputStream;
+import javax.inject.Provider;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -62,12 +76,57 @@ public class BasicDeploymentHelper implements DeploymentHelper {
     private static final String SSH_TIMED_OUT_MESSAGE = "SSH connection timed out, instance may still be starting up...";
     private static final String SSH_CONNECTION_REFUSED_MESSAGE = "SSH connection refused, instance may still be starting up...";
     private static final String SSH_ERROR_MESSAGE = "There was an SSH error [{}]";
+    private static final FileTransferOptions EC2_BOOTSTRAP_FILE_TRANSFER_OPTIONS = FileTransferOptions.builder()
+            .mode(FileTransferMode.SFTP)
+            .verify(true)
+            .build();
+
+    // Deployment plan values
+    private static final String GREENGRASS_SERVICE_ROLE = "greengrassServiceRole";
+    private static final String GREENGRASS_ROLE = "greengrassRole";
+    private static final String CREATE_ROLE_ALIAS_RESPONSE = "createRoleAliasResponse";
+    private static final String GROUP_ID = "groupId";
+    private static final String CORE_THING_ARN = "coreThingArn";
+    private static final String CORE_KEYS_AND_CERTIFICATE = "coreKeysAndCertificate";
+    private static final String CORE_POLICY_CREATED = "corePolicyCreated";
+    private static final String CORE_POLICY_ATTACHED = "corePolicyAttached";
+    private static final String CORE_THING_PRINCIPAL_ATTACHED = "coreThingPrincipalAttached";
+    private static final String GROUP_ROLE_ASSOCIATED = "groupRoleAssociated";
+    private static final String CORE_DEFINITION_VERSION_ARN = "coreDefinitionVersionArn";
+    private static final String LOGGER_DEFINITION_VERSION_ARN = "loggerDefinitionVersionArn";
+    private static final String LAMBDA_ROLE = "lambdaRole";
+    private static final String DEFAULT_ENVIRONMENT = "defaultEnvironment";
+    private static final String FUNCTION_CONFS = "functionConfs";
+    private static final String FUNCTIONS_RUNNING_AS_ROOT = "functionsRunningAsRoot";
+    private static final String CLOUD_FORMATION_STACKS_LAUNCHED = "cloudFormationStacksLaunched";
+    private static final String FUNCTION_TO_CONF_MAP = "functionToConfMap";
+    private static final String RESOURCE_DEFINITION_VERSION_ARN = "resourceDefinitionVersionArn";
+    private static final String FUNCTION_DEFINITION_VERSION_ARN = "functionDefinitionVersionArn";
+    private static final String GGD_THINGS_CREATED = "ggdThingsCreated";
+    private static final String CONNECTED_SHADOW_THINGS = "connectedShadowThings";
+    private static final String GGD_PIP_DEPENDENCIES = "ggdPipDependencies";
+    private static final String SUBSCRIPTIONS = "subscriptions";
+    private static final String ALL_THING_NAMES = "allThingNames";
+    private static final String DEVICE_DEFINITION_VERSION_ARN = "deviceDefinitionVersionArn";
+    private static final String SUBSCRIPTION_DEFINITION_VERSION_ARN = "subscriptionDefinitionVersionArn";
+    private static final String GROUP_VERSION_ID = "groupVersionId";
+
+    private static final long DEPLOYMENT_TIMEOUT_MINUTES = 5;
+    // IAM changes can take a while to propagate, a shorter wait just leads to another failed deployment
+    private static final BackoffPolicy IAM_SETTLE_BACKOFF = BackoffPolicy.builder()
+            .initialDelayMillis(30000)
+            .maxDelayMillis(30000)
+            .multiplier(1.0)
+            .jitter(0)
+            .build();
 
     private final int normalFilePermissions = 0644;
     private final int scriptPermissions = 0755;
     @Inject
     ConfigFileHelper configFileHelper;
     @Inject
+    TraceHelper traceHelper;
+    @Inject
     AwsHelper awsHelper;
     @Inject
     ScriptHelper scriptHelper;
@@ -108,7 +167,7 @@ public class BasicDeploymentHelper implements DeploymentHelper {
     @Inject
     BasicProgressHandler basicProgressHandler;
     @Inject
-    Ec2Client ec2Client;
+    Provider<Ec2Client> ec2ClientProvider;
     @Inject
     GlobalDefaultHelper globalDefaultHelper;
     @Inject
@@ -117,6 +176,20 @@ public class BasicDeploymentHelper implements DeploymentHelper {
     DeploymentArgumentHelper deploymentArgumentHelper;
     @Inject
     ExceptionHelper exceptionHelper;
+    @Inject
+    DeploymentPlanHelper deploymentPlanHelper;
+    @Inject
+    DeploymentStatusWaiterHelper deploymentStatusWaiterHelper;
+    @Inject
+    GreengrassListingHelper greengrassListingHelper;
+    @Inject
+    BuildCacheHelper buildCacheHelper;
+    @Inject
+    LambdaHelper lambdaHelper;
+    @Inject
+    ArtifactCacheHelper artifactCacheHelper;
+    @Inject
+    CoreArtifactStoreHelper coreArtifactStoreHelper;
 
     private Optional<List<VirtualTarEntry>> installScriptVirtualTarEntries = Optional.empty();
     private Optional<List<VirtualTarEntry>> oemVirtualTarEntries = Optional.empty();
@@ -208,17 +281,19 @@ public class BasicDeploymentHelper implements DeploymentHelper {
      * @return
      */
     @Override
-    public Void createAndWaitForDeployment(Optional<Role> greengrassServiceRole, Optional<Role> greengrassRole, String groupId, String groupVersionId) {
+    public Void createAndWaitForDeployment(Optional<Role> greengrassServiceRole, Optional<Role> greengrassRole, String groupId, String groupVersionId, BackoffPolicy deploymentStatusBackoff) {
         log.info("Creating a deployment");
         log.info("Group ID [" + groupId + "]");
         log.info("Group version ID [" + groupVersionId + "]");
         String initialDeploymentId = greengrassHelper.createDeployment(groupId, groupVersionId);
         log.info("Deployment created [" + initialDeploymentId + "]");
 
-        Optional<DeploymentStatus> optionalDeploymentStatus = threadHelper.timeLimitTask(getDeploymentStatusCallable(greengrassServiceRole, greengrassRole, groupId, groupVersionId, initialDeploymentId), 5, TimeUnit.MINUTES);
+        long deadlineNanoTime = System.nanoTime() + TimeUnit.MINUTES.toNanos(DEPLOYMENT_TIMEOUT_MINUTES);
+
+        DeploymentStatus deploymentStatus = getDeploymentStatus(greengrassServiceRole, greengrassRole, groupId, groupVersionId, initialDeploymentId, deploymentStatusBackoff, deadlineNanoTime);
 
-        if (!optionalDeploymentStatus.isPresent() || !optionalDeploymentStatus.get().equals(DeploymentStatus.SUCCESSFUL)) {
-            throw new RuntimeException("Deployment failed");
+        if (!deploymentStatus.equals(DeploymentStatus.SUCCESSFUL)) {
+            throw new RuntimeException("Deployment failed [" + deploymentStatus + "]");
         }
 
         log.info("Deployment successful");
@@ -226,66 +301,74 @@ public class BasicDeploymentHelper implements DeploymentHelper {
         return null;
     }
 
-    private Callable<DeploymentStatus> getDeploymentStatusCallable(Optional<Role> greengrassServiceRole, Optional<Role> greengrassRole, String groupId, String groupVersionId, String initialDeploymentId) {
-        return () -> getDeploymentStatus(greengrassServiceRole, greengrassRole, groupId, groupVersionId, initialDeploymentId);
-    }
-
-    private DeploymentStatus getDeploymentStatus(Optional<Role> greengrassServiceRole, Optional<Role> greengrassRole, String groupId, String groupVersionId, String initialDeploymentId) {
-        DeploymentStatus deploymentStatus;
-
+    private DeploymentStatus getDeploymentStatus(Optional<Role> greengrassServiceRole, Optional<Role> greengrassRole, String groupId, String groupVersionId, String initialDeploymentId, BackoffPolicy deploymentStatusBackoff, long deadlineNanoTime) {
         String deploymentId = initialDeploymentId;
+        int iamAttempts = 0;
 
         while (true) {
             //////////////////////////////////////////////
             // Wait for the deployment status to change //
             //////////////////////////////////////////////
 
-            deploymentStatus = greengrassHelper.waitForDeploymentStatusToChange(groupId, deploymentId);
+            GroupDeployment groupDeployment = GroupDeployment.builder()
+                    .groupId(groupId)
+                    .deploymentId(deploymentId)
+                    .build();
 
-            if (deploymentStatus.equals(DeploymentStatus.NEEDS_NEW_DEPLOYMENT)) {
-                if (greengrassServiceRole.isPresent() && greengrassRole.isPresent()) {
-                    log.warn("There was a problem with IAM roles, attempting a new deployment");
+            DeploymentStatus deploymentStatus = deploymentStatusWaiterHelper.waitFor(groupDeployment, deploymentStatusBackoff, deadlineNanoTime);
 
-                    // Disassociate roles
-                    log.warn("Disassociating Greengrass service role");
-                    greengrassHelper.disassociateServiceRoleFromAccount();
-                    log.warn("Disassociating role from group");
-                    greengrassHelper.disassociateRoleFromGroup(groupId);
+            if (!deploymentStatus.equals(DeploymentStatus.NEEDS_NEW_DEPLOYMENT)) {
+                // SUCCESSFUL, FAILED, or TIMED_OUT
+                return deploymentStatus;
+            }
 
-                    log.warn("Letting IAM settle...");
+            if (!greengrassServiceRole.isPresent() || !greengrassRole.isPresent()) {
+                log.error("Deployment failed due to IAM issue.");
+                return DeploymentStatus.FAILED;
+            }
 
-                    ioHelper.sleep(30000);
+            log.warn("There was a problem with IAM roles, attempting a new deployment");
 
-                    // Reassociate roles
-                    log.warn("Reassociating Greengrass service role");
-                    associateServiceRoleToAccount(greengrassServiceRole.get());
-                    log.warn("Reassociating Greengrass group role");
-                    associateRoleToGroup(greengrassRole.get(), groupId);
+            // Disassociate roles
+            log.warn("Disassociating Greengrass service role");
+            greengrassHelper.disassociateServiceRoleFromAccount();
+            log.warn("Disassociating role from group");
+            greengrassHelper.disassociateRoleFromGroup(groupId);
 
-                    log.warn("Letting IAM settle...");
+            if (!letIamSettle(iamAttempts++, deadlineNanoTime)) {
+                return DeploymentStatus.TIMED_OUT;
+            }
 
-                    ioHelper.sleep(30000);
+            // Reassociate roles
+            log.warn("Reassociating Greengrass service role");
+            associateServiceRoleToAccount(greengrassServiceRole.get());
+            log.warn("Reassociating Greengrass group role");
+            associateRoleToGroup(greengrassRole.get(), groupId);
 
-                    log.warn("Trying another deployment");
-                    deploymentId = greengrassHelper.createDeployment(groupId, groupVersionId);
-                    log.warn("Deployment created [" + deploymentId + "]");
+            if (!letIamSettle(iamAttempts++, deadlineNanoTime)) {
+                return DeploymentStatus.TIMED_OUT;
+            }
 
-                    log.warn("Letting deployment settle...");
+            // The waiter delays its first status check so the new deployment gets time to settle
+            log.warn("Trying another deployment");
+            deploymentId = greengrassHelper.createDeployment(groupId, groupVersionId);
+            log.warn("Deployment created [" + deploymentId + "]");
+        }
+    }
 
-                    ioHelper.sleep(30000);
-                } else {
-                    log.error("Deployment failed due to IAM issue.");
-                    return DeploymentStatus.FAILED;
-                }
-            } else if (deploymentStatus.equals(DeploymentStatus.BUILDING)) {
-                ioHelper.sleep(5000);
-            }
+    private boolean letIamSettle(int attempt, long deadlineNanoTime) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanoTime - System.nanoTime());
+        long delayMillis = deploymentStatusWaiterHelper.getDelayMillis(IAM_SETTLE_BACKOFF, attempt);
 
-            if (deploymentStatus.equals(DeploymentStatus.FAILED) ||
-                    deploymentStatus.equals(DeploymentStatus.SUCCESSFUL)) {
-                return deploymentStatus;
-            }
+        if (delayMillis >= remainingMillis) {
+            log.error("Not enough time left to let IAM settle before the deployment deadline");
+            return false;
         }
+
+        log.warn("Letting IAM settle for " + delayMillis + " ms...");
+        ioHelper.sleep((int) delayMillis);
+
+        return true;
     }
 
     @Override
@@ -313,160 +396,11 @@ public class BasicDeploymentHelper implements DeploymentHelper {
         DeploymentConf deploymentConf = Try.of(() -> getDeploymentConf(deploymentArguments.deploymentConfigFilename, deploymentArguments.groupName))
                 .get();
 
-        // Create the service role
-        Role greengrassServiceRole = createServiceRole(deploymentConf);
-
-        // Create the role for the core
-        Role greengrassRole = createGreengrassRole(deploymentConf);
-
-        ///////////////////////////
-        // Create the role alias //
-        ///////////////////////////
-
-        CreateRoleAliasResponse createRoleAliasResponse = iotHelper.createRoleAliasIfNecessary(greengrassServiceRole, GREENGRASS_SERVICE_ROLE_NAME);
-
-        ///////////////////////////////////////////////////
-        // Create an AWS Greengrass Group and get its ID //
-        ///////////////////////////////////////////////////
-
         if (greengrassHelper.groupExists(deploymentArguments.groupName) &&
                 deploymentArguments.ec2Launch) {
             throw new RuntimeException("Group [" + deploymentArguments.groupName + "] already exists, cannot launch another EC2 instance for this group.  You can update the group configuration by not specifying the EC2 launch option.");
         }
 
-        log.info("Creating a Greengrass group, if necessary");
-        String groupId = greengrassHelper.createGroupIfNecessary(deploymentArguments.groupName);
-
-        ////////////////////////////////////
-        // Create things and certificates //
-        ////////////////////////////////////
-
-        log.info("Creating core thing");
-        String coreThingName = ggVariables.getCoreThingName(deploymentArguments.groupName);
-        String coreThingArn = iotHelper.createThing(coreThingName);
-
-        //////////////////////////////////
-        // Create or reuse certificates //
-        //////////////////////////////////
-
-        log.info("Getting keys and certificate for core thing");
-        KeysAndCertificate coreKeysAndCertificate = iotHelper.createOrLoadKeysAndCertificate(groupId, CORE_SUB_NAME);
-
-        String coreCertificateArn = coreKeysAndCertificate.getCertificateArn();
-
-        //////////////////////////////////
-        // Policy creation for the core //
-        //////////////////////////////////
-
-        log.info("Creating and attaching policies to core");
-        iotHelper.createPolicyIfNecessary(ggVariables.getCorePolicyName(deploymentArguments.groupName), deploymentConf.getCorePolicy());
-        iotHelper.attachPrincipalPolicy(ggVariables.getCorePolicyName(deploymentArguments.groupName), coreCertificateArn);
-        iotHelper.attachThingPrincipal(ggVariables.getCoreThingName(deploymentArguments.groupName), coreCertificateArn);
-
-        ////////////////////////////////////////////////
-        // Associate the Greengrass role to the group //
-        ////////////////////////////////////////////////
-
-        associateRoleToGroup(greengrassRole, groupId);
-
-        ////////////////////////////////////////////
-        // Create a core definition and a version //
-        ////////////////////////////////////////////
-
-        log.info("Creating core definition");
-        String coreDefinitionVersionArn = greengrassHelper.createCoreDefinitionAndVersion(ggVariables.getCoreDefinitionName(deploymentArguments.groupName), coreCertificateArn, coreThingArn);
-
-        //////////////////////////////////////////////
-        // Create a logger definition and a version //
-        //////////////////////////////////////////////
-
-        log.info("Creating logger definition");
-        String loggerDefinitionVersionArn = greengrassHelper.createDefaultLoggerDefinitionAndVersion();
-
-        //////////////////////////////////////////////
-        // Create the Lambda role for the functions //
-        //////////////////////////////////////////////
-
-        log.info("Creating Lambda role");
-        Role lambdaRole = iamHelper.createRoleIfNecessary(deploymentConf.getLambdaRoleName(), deploymentConf.getLambdaRoleAssumeRolePolicy());
-
-        ////////////////////////////////////////////////////////
-        // Start building the subscription and function lists //
-        ////////////////////////////////////////////////////////
-
-        List<Subscription> subscriptions = new ArrayList<>();
-
-        ///////////////////////////////////////////////////
-        // Find enabled functions and their mapping info //
-        ///////////////////////////////////////////////////
-
-        Map<String, String> defaultEnvironment = environmentHelper.getDefaultEnvironment(groupId, coreThingName, coreThingArn, deploymentArguments.groupName);
-
-        List<FunctionConf> functionConfs = functionHelper.getFunctionConfObjects(defaultEnvironment, deploymentConf);
-
-        ////////////////////////////////////////////////////
-        // Determine if any functions need to run as root //
-        ////////////////////////////////////////////////////
-
-        boolean functionsRunningAsRoot = functionConfs.stream()
-                .filter(functionConf -> (functionConf.getUid() == 0) || (functionConf.getGid() == 0))
-                .anyMatch(functionConf -> !functionConf.isGreengrassContainer());
-
-        if (functionsRunningAsRoot) {
-            log.warn("At least one function was detected that is configured to run outside of the Greengrass container as root");
-        }
-
-        ////////////////////////////////////////////////////////////////////////////
-        // Determine if any functions are running inside the Greengrass container //
-        ////////////////////////////////////////////////////////////////////////////
-
-        List<String> functionsRunningInGreengrassContainer = functionConfs.stream()
-                .filter(functionConf -> functionConf.isGreengrassContainer())
-                .map(FunctionConf::getFunctionName)
-                .collect(Collectors.toList());
-
-
-        ////////////////////////////////////////////////////////////////////////////////////////////////
-        // Check if Docker launching was specified with functions running in the Greengrass container //
-        ////////////////////////////////////////////////////////////////////////////////////////////////
-
-        if (deploymentArguments.dockerLaunch && !functionsRunningInGreengrassContainer.isEmpty()) {
-            log.error("The following functions are marked to run in the Greengrass container:");
-
-            functionsRunningInGreengrassContainer.stream()
-                    .forEach(name -> log.error("  " + name));
-
-            log.error("When running in Docker all functions must be running without the Greengrass container.");
-            log.error("Set the greengrassContainer option to false in the functions.default.conf and/or the individual function configurations and try again.");
-            System.exit(1);
-        }
-
-        /////////////////////////////////////////////////////
-        // Launch any CloudFormation templates we've found //
-        /////////////////////////////////////////////////////
-
-        List<String> cloudFormationStacksLaunched = functionConfs.stream()
-                .map(functionConf -> cloudFormationHelper.deployCloudFormationTemplate(defaultEnvironment, deploymentArguments.groupName, functionConf))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
-
-        /////////////////////////
-        // Build the functions //
-        /////////////////////////
-
-        // Get a list of the buildable functions
-        List<BuildableFunction> buildableFunctions = functionHelper.getBuildableFunctions(functionConfs, lambdaRole);
-
-        // Install Java dependencies if necessary
-        buildableFunctions.stream()
-                .filter(buildableFunction -> buildableFunction instanceof BuildableJavaMavenFunction)
-                .findFirst()
-                .ifPresent(buildableFunction -> functionHelper.installJavaDependencies());
-
-        // Get the map of functions to function configuration (builds functions and publishes them to Lambda)
-        Map<Function, FunctionConf> functionToConfMap = functionHelper.buildFunctionsAndGenerateMap(buildableFunctions);
-
         ///////////////////////////////////////////
         // Find GGD configs and its mapping info //
         ///////////////////////////////////////////
@@ -477,155 +411,39 @@ public class BasicDeploymentHelper implements DeploymentHelper {
             ggdConfs.add(ggdHelper.getGGDConf(deploymentArguments.groupName, ggd));
         }
 
-        ////////////////////////////
-        // Set up local resources //
-        ////////////////////////////
-
-        log.info("Creating resource definition");
-        String resourceDefinitionVersionArn = greengrassHelper.createResourceDefinitionVersion(functionConfs);
-
-        /////////////////////////////////////////////////////////////////////////
-        // Build the function definition for the Lambda function and a version //
-        /////////////////////////////////////////////////////////////////////////
-
-        log.info("Creating function definition");
-        String functionDefinitionVersionArn = greengrassHelper.createFunctionDefinitionVersion(ImmutableSet.copyOf(functionToConfMap.keySet()));
-
-        //////////////////////////////////////////////////
-        // Create all of the things from the GGD config //
-        //////////////////////////////////////////////////
-
-        Set<String> thingArns = new HashSet<>();
-
-        log.info("Creating Greengrass device things");
-
-        Set<String> thingNames = ggdConfs.stream().map(GGDConf::getThingName).collect(Collectors.toSet());
-
-        for (String thingName : thingNames) {
-            String deviceThingArn = iotHelper.createThing(thingName);
-            thingArns.add(deviceThingArn);
-
-            String ggdThingName = getGgdThingName(thingName);
-            String ggdPolicyName = String.join("_", ggdThingName, "Policy");
-
-            log.info("- Creating keys and certificate for Greengrass device thing [" + thingName + "]");
-            KeysAndCertificate deviceKeysAndCertificate = iotHelper.createOrLoadKeysAndCertificate(groupId, ggdThingName);
-
-            String deviceCertificateArn = deviceKeysAndCertificate.getCertificateArn();
-
-            log.info("Creating and attaching policies to Greengrass device thing");
-            iotHelper.createPolicyIfNecessary(ggdPolicyName, policyHelper.buildDevicePolicyDocument(deviceThingArn));
-            iotHelper.attachPrincipalPolicy(ggdPolicyName, deviceCertificateArn);
-            iotHelper.attachThingPrincipal(thingName, deviceCertificateArn);
-        }
-
-        //////////////////////////////////////////////////////
-        // Connection functions to cloud, GGDs, and shadows //
-        //////////////////////////////////////////////////////
-
-        subscriptions.addAll(functionToConfMap.entrySet().stream()
-                .flatMap(entry -> subscriptionHelper.createCloudSubscriptionsForArn(
-                        entry.getValue().getFromCloudSubscriptions(),
-                        entry.getValue().getToCloudSubscriptions(),
-                        entry.getKey().functionArn()).stream())
-                .collect(Collectors.toList()));
-
-        subscriptions.addAll(subscriptionHelper.connectFunctionsAndDevices(functionToConfMap, ggdConfs));
-        subscriptions.addAll(subscriptionHelper.connectFunctionsToShadows(functionToConfMap));
-
-        //////////////////////////////////////////////////////
-        // Get a list of all of the connected thing shadows //
-        //////////////////////////////////////////////////////
-
-        Set<String> connectedShadowThings = new HashSet<>();
-
-        for (FunctionConf functionConf : functionToConfMap.values()) {
-            connectedShadowThings.addAll(functionConf.getConnectedShadows());
-
-            for (String connectedShadow : functionConf.getConnectedShadows()) {
-                // Make sure all of the connected shadows exist
-                iotHelper.createThing(connectedShadow);
-            }
-        }
-
-        for (GGDConf ggdConf : ggdConfs) {
-            connectedShadowThings.addAll(ggdConf.getConnectedShadows());
-        }
-
-        List<Device> devices = new ArrayList<>();
-
-        thingNames.addAll(connectedShadowThings);
-
-        for (String thingName : thingNames) {
-            devices.add(greengrassHelper.getDevice(thingName));
-        }
-
-        ////////////////////////////////////////////
-        // Get a list of all GGD PIP dependencies //
-        ////////////////////////////////////////////
-
-        Set<String> ggdPipDependencies = ggdConfs.stream()
-                .flatMap(ggdConf -> ggdConf.getDependencies().stream())
-                .collect(Collectors.toSet());
-
-        ///////////////////////////////////////
-        // Connect GGDs to cloud and shadows //
-        ///////////////////////////////////////
-
-        for (GGDConf ggdConf : ggdConfs) {
-            String deviceThingArn = iotHelper.getThingArn(ggdConf.getThingName());
-            subscriptions.addAll(subscriptionHelper.createCloudSubscriptionsForArn(ggdConf.getFromCloudSubscriptions(), ggdConf.getToCloudSubscriptions(), deviceThingArn));
-
-            for (String connectedShadow : ggdConf.getConnectedShadows()) {
-                subscriptions.addAll(subscriptionHelper.createShadowSubscriptions(deviceThingArn, connectedShadow));
-            }
-        }
-
-        //////////////////////////////////
-        // Connection functions and GGD //
-        //////////////////////////////////
-
-        log.info("Creating device definition");
-        String deviceDefinitionVersionArn = greengrassHelper.createDeviceDefinitionAndVersion(ggVariables.getDeviceDefinitionName(deploymentArguments.groupName), devices);
-
-        //////////////////////////////////////////////////////
-        // Create the subscription definition from our list //
-        //////////////////////////////////////////////////////
-
-        log.info("Creating subscription definition");
-        String subscriptionDefinitionVersionArn = greengrassHelper.createSubscriptionDefinitionAndVersion(subscriptions);
+        /////////////////////////////////////////////////////////////////////
+        // Run the deployment plan, independent steps run at the same time //
+        /////////////////////////////////////////////////////////////////////
 
-        ////////////////////////////////////
-        // Create a minimal group version //
-        ////////////////////////////////////
-
-        log.info("Creating group version");
+        // Each step is traced as a child of this span
+        DeploymentStepContext deploymentStepContext = traceHelper.trace("Deployment plan", () ->
+                deploymentPlanHelper.run(new DeploymentStepContext(), getDeploymentSteps(deploymentArguments, deploymentConf, ggdConfs)));
 
-        GroupVersion groupVersion = GroupVersion.builder()
-                .coreDefinitionVersionArn(coreDefinitionVersionArn)
-                .functionDefinitionVersionArn(functionDefinitionVersionArn)
-                .subscriptionDefinitionVersionArn(subscriptionDefinitionVersionArn)
-                .deviceDefinitionVersionArn(deviceDefinitionVersionArn)
-                .loggerDefinitionVersionArn(loggerDefinitionVersionArn)
-                .resourceDefinitionVersionArn(resourceDefinitionVersionArn)
-                .build();
+        Role greengrassServiceRole = deploymentStepContext.get(GREENGRASS_SERVICE_ROLE);
+        Role greengrassRole = deploymentStepContext.get(GREENGRASS_ROLE);
+        String groupId = deploymentStepContext.get(GROUP_ID);
+        String groupVersionId = deploymentStepContext.get(GROUP_VERSION_ID);
+        List<String> cloudFormationStacksLaunched = deploymentStepContext.get(CLOUD_FORMATION_STACKS_LAUNCHED);
 
-        String groupVersionId = greengrassHelper.createGroupVersion(groupId, groupVersion);
+        log.info("Greengrass listings [" + greengrassListingHelper.getPagesFetched() + "] pages fetched, [" + greengrassListingHelper.getIndexHits() + "] lookups served from the index");
+        log.info("Function build cache [" + buildCacheHelper.getHits() + "] hits, [" + buildCacheHelper.getMisses() + "] misses, [" + buildCacheHelper.getEvictions() + "] evictions");
+        log.info("Lambda functions [" + lambdaHelper.getFunctionsSkipped() + "] unchanged and skipped, [" + lambdaHelper.getBytesUploaded() + "] bytes of code uploaded");
 
         /////////////////////////////////////////////
         // Do all of the output file related stuff //
         /////////////////////////////////////////////
 
-        buildOutputFiles(deploymentArguments,
-                createRoleAliasResponse,
-                groupId,
-                coreThingName,
-                coreThingArn,
-                coreKeysAndCertificate,
-                ggdConfs,
-                thingNames,
-                ggdPipDependencies,
-                functionsRunningAsRoot);
+        traceHelper.trace("Output files", () ->
+                buildOutputFiles(deploymentArguments,
+                        deploymentStepContext.get(CREATE_ROLE_ALIAS_RESPONSE),
+                        groupId,
+                        ggVariables.getCoreThingName(deploymentArguments.groupName),
+                        deploymentStepContext.get(CORE_THING_ARN),
+                        deploymentStepContext.get(CORE_KEYS_AND_CERTIFICATE),
+                        ggdConfs,
+                        deploymentStepContext.get(ALL_THING_NAMES),
+                        deploymentStepContext.get(GGD_PIP_DEPENDENCIES),
+                        deploymentStepContext.get(FUNCTIONS_RUNNING_AS_ROOT)));
 
         //////////////////////////////////////////////////
         // Start building the EC2 instance if necessary //
@@ -635,7 +453,8 @@ public class BasicDeploymentHelper implements DeploymentHelper {
 
         if (deploymentArguments.ec2Launch) {
             log.info("Launching EC2 instance");
-            optionalInstanceId = launchEc2Instance(deploymentArguments.groupName);
+
+            optionalInstanceId = traceHelper.trace("EC2 launch", () -> launchEc2Instance(deploymentArguments.groupName));
 
             if (!optionalInstanceId.isPresent()) {
                 // Something went wrong, bail out
@@ -665,30 +484,37 @@ public class BasicDeploymentHelper implements DeploymentHelper {
             ioHelper.writeFile(tempDockerfile.toString(), dockerfileTemplate.getBytes());
             tempDockerfile.deleteOnExit();
 
-            try (DockerClient dockerClient = greengrassDockerClientProvider.get()) {
-                log.info("Building container");
-
-                String imageId = dockerClient.build(new File(currentDirectory).toPath(),
-                        basicProgressHandler,
-                        DockerClient.BuildParam.dockerfile(tempDockerfile.toPath()));
-
-                dockerClient.tag(imageId, imageName);
-                pushContainerIfNecessary(deploymentArguments, imageId);
-            } catch (DockerException e) {
-                log.error("Container build failed");
-                throw new RuntimeException(e);
-            } catch (InterruptedException e) {
-                log.error("Container build failed");
-                throw new RuntimeException(e);
-            } catch (IOException e) {
-                log.error("Container build failed");
-                throw new RuntimeException(e);
-            }
+            traceHelper.trace("Container build", () -> {
+                try (DockerClient dockerClient = greengrassDockerClientProvider.get()) {
+                    log.info("Building container");
+
+                    String imageId = dockerClient.build(new File(currentDirectory).toPath(),
+                            basicProgressHandler,
+                            DockerClient.BuildParam.dockerfile(tempDockerfile.toPath()));
+
+                    dockerClient.tag(imageId, imageName);
+                    pushContainerIfNecessary(deploymentArguments, imageId);
+                } catch (DockerException e) {
+                    log.error("Container build failed");
+                    throw new RuntimeException(e);
+                } catch (InterruptedException e) {
+                    log.error("Container build failed");
+                    throw new RuntimeException(e);
+                } catch (IOException e) {
+                    log.error("Container build failed");
+                    throw new RuntimeException(e);
+                }
+            });
         }
 
+        BackoffPolicy deploymentStatusBackoff = BackoffPolicy.builder()
+                .maxDelayMillis(TimeUnit.SECONDS.toMillis(deploymentArguments.deploymentStatusMaxDelay))
+                .build();
+
         // Create a deployment and wait for it to succeed.  Return if it fails.
-        Try.of(() -> createAndWaitForDeployment(Optional.of(greengrassServiceRole), Optional.of(greengrassRole), groupId, groupVersionId))
-                .get();
+        traceHelper.trace("Deployment", () ->
+                Try.of(() -> createAndWaitForDeployment(Optional.of(greengrassServiceRole), Optional.of(greengrassRole), groupId, groupVersionId, deploymentStatusBackoff))
+                        .get());
 
         //////////////////////////////////////////////
         // Launch the Docker container if necessary //
@@ -696,8 +522,11 @@ public class BasicDeploymentHelper implements DeploymentHelper {
 
         if (deploymentArguments.dockerLaunch) {
             log.info("Launching Docker container");
-            greengrassDockerHelper.pullImage(ggConstants.getOfficialGreengrassDockerImage());
-            greengrassDockerHelper.createAndStartContainer(ggConstants.getOfficialGreengrassDockerImage(), deploymentArguments.groupName);
+
+            traceHelper.trace("Docker launch", () -> {
+                greengrassDockerHelper.pullImage(ggConstants.getOfficialGreengrassDockerImage());
+                greengrassDockerHelper.createAndStartContainer(ggConstants.getOfficialGreengrassDockerImage(), deploymentArguments.groupName);
+            });
         }
 
         ///////////////////////////////////////////////////////
@@ -711,7 +540,7 @@ public class BasicDeploymentHelper implements DeploymentHelper {
                     .instanceIds(instanceId)
                     .build();
 
-            DescribeInstancesResponse describeInstancesResponse = ec2Client.describeInstances(describeInstancesRequest);
+            DescribeInstancesResponse describeInstancesResponse = ec2ClientProvider.get().describeInstances(describeInstancesRequest);
 
             Optional<Reservation> optionalReservation = describeInstancesResponse.reservations().stream().findFirst();
 
@@ -751,7 +580,8 @@ public class BasicDeploymentHelper implements DeploymentHelper {
 
             Session session = optionalSession.get();
 
-            threadHelper.timeLimitTask(getCopyAndBootstrapCallable(deploymentArguments, publicIpAddress, user, session), 5, TimeUnit.MINUTES);
+            traceHelper.trace("EC2 bootstrap", () ->
+                    threadHelper.timeLimitTask(getCopyAndBootstrapCallable(deploymentArguments, publicIpAddress, user, session), 5, TimeUnit.MINUTES));
         }
 
         //////////////////////////////////////////////////////////////////////////
@@ -759,12 +589,518 @@ public class BasicDeploymentHelper implements DeploymentHelper {
         //////////////////////////////////////////////////////////////////////////
 
         if (cloudFormationStacksLaunched.size() != 0) {
-            waitForStacksToLaunch(cloudFormationStacksLaunched);
+            traceHelper.trace("CloudFormation stacks", () -> waitForStacksToLaunch(cloudFormationStacksLaunched));
         }
 
         return null;
     }
 
+    /**
+     * Builds the steps needed to create a group version.  Each step declares the values it needs and the values it
+     * creates so that steps that don't depend on each other (e.g. the logger definition, the Lambda role, and the core
+     * thing) can run at the same time.
+     *
+     * @param deploymentArguments
+     * @param deploymentConf
+     * @param ggdConfs
+     * @return
+     */
+    private List<DeploymentStep> getDeploymentSteps(DeploymentArguments deploymentArguments, DeploymentConf deploymentConf, List<GGDConf> ggdConfs) {
+        String groupName = deploymentArguments.groupName;
+        String coreThingName = ggVariables.getCoreThingName(groupName);
+        String corePolicyName = ggVariables.getCorePolicyName(groupName);
+        Set<String> ggdThingNames = ggdConfs.stream().map(GGDConf::getThingName).collect(Collectors.toSet());
+
+        List<DeploymentStep> deploymentSteps = new ArrayList<>();
+
+        // Create the service role
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Greengrass service role")
+                .output(GREENGRASS_SERVICE_ROLE)
+                .action(context -> context.put(GREENGRASS_SERVICE_ROLE, createServiceRole(deploymentConf)))
+                .build());
+
+        // Create the role for the core
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Greengrass role")
+                .output(GREENGRASS_ROLE)
+                .action(context -> context.put(GREENGRASS_ROLE, createGreengrassRole(deploymentConf)))
+                .build());
+
+        ///////////////////////////
+        // Create the role alias //
+        ///////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Role alias")
+                .input(GREENGRASS_SERVICE_ROLE)
+                .output(CREATE_ROLE_ALIAS_RESPONSE)
+                .action(context -> context.put(CREATE_ROLE_ALIAS_RESPONSE, iotHelper.createRoleAliasIfNecessary(context.get(GREENGRASS_SERVICE_ROLE), GREENGRASS_SERVICE_ROLE_NAME)))
+                .build());
+
+        ///////////////////////////////////////////////////
+        // Create an AWS Greengrass Group and get its ID //
+        ///////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Group")
+                .output(GROUP_ID)
+                .action(context -> {
+                    log.info("Creating a Greengrass group, if necessary");
+                    context.put(GROUP_ID, greengrassHelper.createGroupIfNecessary(groupName));
+                })
+                .build());
+
+        ////////////////////////////////////
+        // Create things and certificates //
+        ////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Core thing")
+                .output(CORE_THING_ARN)
+                .action(context -> {
+                    log.info("Creating core thing");
+                    context.put(CORE_THING_ARN, iotHelper.createThing(coreThingName));
+                })
+                .build());
+
+        //////////////////////////////////
+        // Create or reuse certificates //
+        //////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Core keys and certificate")
+                .input(GROUP_ID)
+                .output(CORE_KEYS_AND_CERTIFICATE)
+                .action(context -> {
+                    log.info("Getting keys and certificate for core thing");
+                    context.put(CORE_KEYS_AND_CERTIFICATE, iotHelper.createOrLoadKeysAndCertificate(context.get(GROUP_ID), CORE_SUB_NAME));
+                })
+                .build());
+
+        //////////////////////////////////
+        // Policy creation for the core //
+        //////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Core policy")
+                .output(CORE_POLICY_CREATED)
+                .action(context -> {
+                    log.info("Creating core policy");
+                    iotHelper.createPolicyIfNecessary(corePolicyName, deploymentConf.getCorePolicy());
+                    context.put(CORE_POLICY_CREATED, true);
+                })
+                .build());
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Core policy attachment")
+                .input(CORE_POLICY_CREATED)
+                .input(CORE_KEYS_AND_CERTIFICATE)
+                .output(CORE_POLICY_ATTACHED)
+                .action(context -> {
+                    log.info("Attaching policy to core");
+                    KeysAndCertificate coreKeysAndCertificate = context.get(CORE_KEYS_AND_CERTIFICATE);
+                    iotHelper.attachPrincipalPolicy(corePolicyName, coreKeysAndCertificate.getCertificateArn());
+                    context.put(CORE_POLICY_ATTACHED, true);
+                })
+                .build());
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Core thing principal attachment")
+                .input(CORE_THING_ARN)
+                .input(CORE_KEYS_AND_CERTIFICATE)
+                .output(CORE_THING_PRINCIPAL_ATTACHED)
+                .action(context -> {
+                    KeysAndCertificate coreKeysAndCertificate = context.get(CORE_KEYS_AND_CERTIFICATE);
+                    iotHelper.attachThingPrincipal(coreThingName, coreKeysAndCertificate.getCertificateArn());
+                    context.put(CORE_THING_PRINCIPAL_ATTACHED, true);
+                })
+                .build());
+
+        ////////////////////////////////////////////////
+        // Associate the Greengrass role to the group //
+        ////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Group role association")
+                .input(GREENGRASS_ROLE)
+                .input(GROUP_ID)
+                .output(GROUP_ROLE_ASSOCIATED)
+                .action(context -> {
+                    associateRoleToGroup(context.get(GREENGRASS_ROLE), context.get(GROUP_ID));
+                    context.put(GROUP_ROLE_ASSOCIATED, true);
+                })
+                .build());
+
+        ////////////////////////////////////////////
+        // Create a core definition and a version //
+        ////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Core definition")
+                .input(CORE_THING_ARN)
+                .input(CORE_KEYS_AND_CERTIFICATE)
+                .output(CORE_DEFINITION_VERSION_ARN)
+                .action(context -> {
+                    log.info("Creating core definition");
+                    KeysAndCertificate coreKeysAndCertificate = context.get(CORE_KEYS_AND_CERTIFICATE);
+                    context.put(CORE_DEFINITION_VERSION_ARN, greengrassHelper.createCoreDefinitionAndVersion(ggVariables.getCoreDefinitionName(groupName), coreKeysAndCertificate.getCertificateArn(), context.get(CORE_THING_ARN)));
+                })
+                .build());
+
+        //////////////////////////////////////////////
+        // Create a logger definition and a version //
+        //////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Logger definition")
+                .output(LOGGER_DEFINITION_VERSION_ARN)
+                .action(context -> {
+                    log.info("Creating logger definition");
+                    context.put(LOGGER_DEFINITION_VERSION_ARN, greengrassHelper.createDefaultLoggerDefinitionAndVersion());
+                })
+                .build());
+
+        //////////////////////////////////////////////
+        // Create the Lambda role for the functions //
+        //////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Lambda role")
+                .output(LAMBDA_ROLE)
+                .action(context -> {
+                    log.info("Creating Lambda role");
+                    context.put(LAMBDA_ROLE, iamHelper.createRoleIfNecessary(deploymentConf.getLambdaRoleName(), deploymentConf.getLambdaRoleAssumeRolePolicy()));
+                })
+                .build());
+
+        ///////////////////////////////////////////////////
+        // Find enabled functions and their mapping info //
+        ///////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Function configuration")
+                .input(GROUP_ID)
+                .input(CORE_THING_ARN)
+                .output(DEFAULT_ENVIRONMENT)
+                .output(FUNCTION_CONFS)
+                .output(FUNCTIONS_RUNNING_AS_ROOT)
+                .action(context -> getFunctionConfs(deploymentArguments, deploymentConf, coreThingName, context))
+                .build());
+
+        /////////////////////////////////////////////////////
+        // Launch any CloudFormation templates we've found //
+        /////////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("CloudFormation templates")
+                .input(DEFAULT_ENVIRONMENT)
+                .input(FUNCTION_CONFS)
+                .output(CLOUD_FORMATION_STACKS_LAUNCHED)
+                .action(context -> {
+                    Map<String, String> defaultEnvironment = context.get(DEFAULT_ENVIRONMENT);
+                    List<FunctionConf> functionConfs = context.get(FUNCTION_CONFS);
+
+                    context.put(CLOUD_FORMATION_STACKS_LAUNCHED, functionConfs.stream()
+                            .map(functionConf -> cloudFormationHelper.deployCloudFormationTemplate(defaultEnvironment, groupName, functionConf))
+                            .filter(Optional::isPresent)
+                            .map(Optional::get)
+                            .collect(Collectors.toList()));
+                })
+                .build());
+
+        /////////////////////////
+        // Build the functions //
+        /////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Functions")
+                .input(FUNCTION_CONFS)
+                .input(LAMBDA_ROLE)
+                .output(FUNCTION_TO_CONF_MAP)
+                .action(context -> {
+                    // Get a list of the buildable functions
+                    List<BuildableFunction> buildableFunctions = functionHelper.getBuildableFunctions(context.get(FUNCTION_CONFS), context.get(LAMBDA_ROLE));
+
+                    // Install Java dependencies if necessary
+                    buildableFunctions.stream()
+                            .filter(buildableFunction -> buildableFunction instanceof BuildableJavaMavenFunction)
+                            .findFirst()
+                            .ifPresent(buildableFunction -> functionHelper.installJavaDependencies());
+
+                    // Get the map of functions to function configuration (builds functions and publishes them to Lambda)
+                    context.put(FUNCTION_TO_CONF_MAP, functionHelper.buildFunctionsAndGenerateMap(buildableFunctions));
+                })
+                .build());
+
+        ////////////////////////////
+        // Set up local resources //
+        ////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Resource definition")
+                .input(FUNCTION_CONFS)
+                .output(RESOURCE_DEFINITION_VERSION_ARN)
+                .action(context -> {
+                    log.info("Creating resource definition");
+                    context.put(RESOURCE_DEFINITION_VERSION_ARN, greengrassHelper.createResourceDefinitionVersion(context.get(FUNCTION_CONFS)));
+                })
+                .build());
+
+        /////////////////////////////////////////////////////////////////////////
+        // Build the function definition for the Lambda function and a version //
+        /////////////////////////////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Function definition")
+                .input(FUNCTION_TO_CONF_MAP)
+                .output(FUNCTION_DEFINITION_VERSION_ARN)
+                .action(context -> {
+                    log.info("Creating function definition");
+                    Map<Function, FunctionConf> functionToConfMap = context.get(FUNCTION_TO_CONF_MAP);
+                    context.put(FUNCTION_DEFINITION_VERSION_ARN, greengrassHelper.createFunctionDefinitionVersion(ImmutableSet.copyOf(functionToConfMap.keySet())));
+                })
+                .build());
+
+        //////////////////////////////////////////////////
+        // Create all of the things from the GGD config //
+        //////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Greengrass device things")
+                .input(GROUP_ID)
+                .output(GGD_THINGS_CREATED)
+                .action(context -> {
+                    createGgdThings(context.get(GROUP_ID), ggdThingNames);
+                    context.put(GGD_THINGS_CREATED, true);
+                })
+                .build());
+
+        //////////////////////////////////////////////////////
+        // Get a list of all of the connected thing shadows //
+        //////////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Connected shadow things")
+                .input(FUNCTION_TO_CONF_MAP)
+                .output(CONNECTED_SHADOW_THINGS)
+                .action(context -> {
+                    Map<Function, FunctionConf> functionToConfMap = context.get(FUNCTION_TO_CONF_MAP);
+                    Set<String> connectedShadowThings = new HashSet<>();
+
+                    for (FunctionConf functionConf : functionToConfMap.values()) {
+                        connectedShadowThings.addAll(functionConf.getConnectedShadows());
+
+                        for (String connectedShadow : functionConf.getConnectedShadows()) {
+                            // Make sure all of the connected shadows exist
+                            iotHelper.createThing(connectedShadow);
+                        }
+                    }
+
+                    for (GGDConf ggdConf : ggdConfs) {
+                        connectedShadowThings.addAll(ggdConf.getConnectedShadows());
+                    }
+
+                    context.put(CONNECTED_SHADOW_THINGS, connectedShadowThings);
+                })
+                .build());
+
+        ////////////////////////////////////////////
+        // Get a list of all GGD PIP dependencies //
+        ////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("GGD PIP dependencies")
+                .output(GGD_PIP_DEPENDENCIES)
+                .action(context -> context.put(GGD_PIP_DEPENDENCIES, ggdConfs.stream()
+                        .flatMap(ggdConf -> ggdConf.getDependencies().stream())
+                        .collect(Collectors.toSet())))
+                .build());
+
+        //////////////////////////////////////////////////////
+        // Connection functions to cloud, GGDs, and shadows //
+        //////////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Subscriptions")
+                .input(FUNCTION_TO_CONF_MAP)
+                .input(GGD_THINGS_CREATED)
+                .output(SUBSCRIPTIONS)
+                .action(context -> {
+                    Map<Function, FunctionConf> functionToConfMap = context.get(FUNCTION_TO_CONF_MAP);
+                    List<Subscription> subscriptions = new ArrayList<>();
+
+                    subscriptions.addAll(functionToConfMap.entrySet().stream()
+                            .flatMap(entry -> subscriptionHelper.createCloudSubscriptionsForArn(
+                                    entry.getValue().getFromCloudSubscriptions(),
+                                    entry.getValue().getToCloudSubscriptions(),
+                                    entry.getKey().functionArn()).stream())
+                            .collect(Collectors.toList()));
+
+                    subscriptions.addAll(subscriptionHelper.connectFunctionsAndDevices(functionToConfMap, ggdConfs));
+                    subscriptions.addAll(subscriptionHelper.connectFunctionsToShadows(functionToConfMap));
+
+                    ///////////////////////////////////////
+                    // Connect GGDs to cloud and shadows //
+                    ///////////////////////////////////////
+
+                    for (GGDConf ggdConf : ggdConfs) {
+                        String deviceThingArn = iotHelper.getThingArn(ggdConf.getThingName());
+                        subscriptions.addAll(subscriptionHelper.createCloudSubscriptionsForArn(ggdConf.getFromCloudSubscriptions(), ggdConf.getToCloudSubscriptions(), deviceThingArn));
+
+                        for (String connectedShadow : ggdConf.getConnectedShadows()) {
+                            subscriptions.addAll(subscriptionHelper.createShadowSubscriptions(deviceThingArn, connectedShadow));
+                        }
+                    }
+
+                    context.put(SUBSCRIPTIONS, subscriptions);
+                })
+                .build());
+
+        //////////////////////////////////
+        // Connection functions and GGD //
+        //////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Device definition")
+                .input(CONNECTED_SHADOW_THINGS)
+                .input(GGD_THINGS_CREATED)
+                .output(ALL_THING_NAMES)
+                .output(DEVICE_DEFINITION_VERSION_ARN)
+                .action(context -> {
+                    Set<String> thingNames = new HashSet<>(ggdThingNames);
+                    thingNames.addAll(context.get(CONNECTED_SHADOW_THINGS));
+
+                    List<Device> devices = new ArrayList<>();
+
+                    for (String thingName : thingNames) {
+                        devices.add(greengrassHelper.getDevice(thingName));
+                    }
+
+                    log.info("Creating device definition");
+                    context.put(ALL_THING_NAMES, thingNames);
+                    context.put(DEVICE_DEFINITION_VERSION_ARN, greengrassHelper.createDeviceDefinitionAndVersion(ggVariables.getDeviceDefinitionName(groupName), devices));
+                })
+                .build());
+
+        //////////////////////////////////////////////////////
+        // Create the subscription definition from our list //
+        //////////////////////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Subscription definition")
+                .input(SUBSCRIPTIONS)
+                .output(SUBSCRIPTION_DEFINITION_VERSION_ARN)
+                .action(context -> {
+                    log.info("Creating subscription definition");
+                    context.put(SUBSCRIPTION_DEFINITION_VERSION_ARN, greengrassHelper.createSubscriptionDefinitionAndVersion(context.get(SUBSCRIPTIONS)));
+                })
+                .build());
+
+        ////////////////////////////////////
+        // Create a minimal group version //
+        ////////////////////////////////////
+
+        deploymentSteps.add(DeploymentStep.builder()
+                .name("Group version")
+                .input(GROUP_ID)
+                .input(CORE_DEFINITION_VERSION_ARN)
+                .input(FUNCTION_DEFINITION_VERSION_ARN)
+                .input(SUBSCRIPTION_DEFINITION_VERSION_ARN)
+                .input(DEVICE_DEFINITION_VERSION_ARN)
+                .input(LOGGER_DEFINITION_VERSION_ARN)
+                .input(RESOURCE_DEFINITION_VERSION_ARN)
+                // Ordering only, the core must be fully set up before the group version is created
+                .input(CORE_POLICY_ATTACHED)
+                .input(CORE_THING_PRINCIPAL_ATTACHED)
+                .input(GROUP_ROLE_ASSOCIATED)
+                .output(GROUP_VERSION_ID)
+                .action(context -> {
+                    log.info("Creating group version");
+
+                    GroupVersion groupVersion = GroupVersion.builder()
+                            .coreDefinitionVersionArn(context.get(CORE_DEFINITION_VERSION_ARN))
+                            .functionDefinitionVersionArn(context.get(FUNCTION_DEFINITION_VERSION_ARN))
+                            .subscriptionDefinitionVersionArn(context.get(SUBSCRIPTION_DEFINITION_VERSION_ARN))
+                            .deviceDefinitionVersionArn(context.get(DEVICE_DEFINITION_VERSION_ARN))
+                            .loggerDefinitionVersionArn(context.get(LOGGER_DEFINITION_VERSION_ARN))
+                            .resourceDefinitionVersionArn(context.get(RESOURCE_DEFINITION_VERSION_ARN))
+                            .build();
+
+                    context.put(GROUP_VERSION_ID, greengrassHelper.createGroupVersion(context.get(GROUP_ID), groupVersion));
+                })
+                .build());
+
+        return deploymentSteps;
+    }
+
+    private void getFunctionConfs(DeploymentArguments deploymentArguments, DeploymentConf deploymentConf, String coreThingName, DeploymentStepContext context) {
+        Map<String, String> defaultEnvironment = environmentHelper.getDefaultEnvironment(context.get(GROUP_ID), coreThingName, context.get(CORE_THING_ARN), deploymentArguments.groupName);
+
+        List<FunctionConf> functionConfs = functionHelper.getFunctionConfObjects(defaultEnvironment, deploymentConf);
+
+        ////////////////////////////////////////////////////
+        // Determine if any functions need to run as root //
+        ////////////////////////////////////////////////////
+
+        boolean functionsRunningAsRoot = functionConfs.stream()
+                .filter(functionConf -> (functionConf.getUid() == 0) || (functionConf.getGid() == 0))
+                .anyMatch(functionConf -> !functionConf.isGreengrassContainer());
+
+        if (functionsRunningAsRoot) {
+            log.warn("At least one function was detected that is configured to run outside of the Greengrass container as root");
+        }
+
+        ////////////////////////////////////////////////////////////////////////////
+        // Determine if any functions are running inside the Greengrass container //
+        ////////////////////////////////////////////////////////////////////////////
+
+        List<String> functionsRunningInGreengrassContainer = functionConfs.stream()
+                .filter(functionConf -> functionConf.isGreengrassContainer())
+                .map(FunctionConf::getFunctionName)
+                .collect(Collectors.toList());
+
+
+        ////////////////////////////////////////////////////////////////////////////////////////////////
+        // Check if Docker launching was specified with functions running in the Greengrass container //
+        ////////////////////////////////////////////////////////////////////////////////////////////////
+
+        if (deploymentArguments.dockerLaunch && !functionsRunningInGreengrassContainer.isEmpty()) {
+            log.error("The following functions are marked to run in the Greengrass container:");
+
+            functionsRunningInGreengrassContainer.stream()
+                    .forEach(name -> log.error("  " + name));
+
+            log.error("When running in Docker all functions must be running without the Greengrass container.");
+            log.error("Set the greengrassContainer option to false in the functions.default.conf and/or the individual function configurations and try again.");
+            throw new RuntimeException("Functions running in the Greengrass container can not be launched in Docker");
+        }
+
+        context.put(DEFAULT_ENVIRONMENT, defaultEnvironment);
+        context.put(FUNCTION_CONFS, functionConfs);
+        context.put(FUNCTIONS_RUNNING_AS_ROOT, functionsRunningAsRoot);
+    }
+
+    private void createGgdThings(String groupId, Set<String> thingNames) {
+        List<ThingProvisioningRequest> thingProvisioningRequests = thingNames.stream()
+                .map(this::getThingProvisioningRequest)
+                .collect(Collectors.toList());
+
+        log.info("Creating things, keys and certificates, and policies for [" + thingNames.size() + "] Greengrass device(s)");
+        iotHelper.provisionThings(groupId, thingProvisioningRequests);
+    }
+
+    private ThingProvisioningRequest getThingProvisioningRequest(String thingName) {
+        String ggdThingName = getGgdThingName(thingName);
+
+        return ThingProvisioningRequest.builder()
+                .thingName(thingName)
+                .subName(ggdThingName)
+                .policyName(String.join("_", ggdThingName, "Policy"))
+                .policyDocumentBuilder(policyHelper::buildDevicePolicyDocument)
+                .build();
+    }
+
     @Override
     public ArgumentHelper<DeploymentArguments> getArgumentHelper() {
         return deploymentArgumentHelper;
@@ -783,8 +1119,9 @@ public class BasicDeploymentHelper implements DeploymentHelper {
         String filename = String.join(".", "gg", deploymentArguments.groupName, "sh");
         String localFilename = String.join("/", "build", filename);
         String remoteFilename = filename;
-        log.info("Copying bootstrap script to instance via scp...");
-        ioHelper.sendFile(session, localFilename, remoteFilename);
+        log.info("Copying bootstrap script to instance via SFTP...");
+        // Verified and resumable, EC2 instances always have an SFTP server and sha256sum
+        ioHelper.sendFile(session, localFilename, remoteFilename, EC2_BOOTSTRAP_FILE_TRANSFER_OPTIONS);
         ioHelper.runCommand(session, String.join(" ", "chmod", "+x", "./" + remoteFilename));
         log.info("Running bootstrap script on instance in screen, connect to the instance [" + user + "@" + publicIpAddress + "] and run 'screen -r' to see the progress");
         runCommandInScreen(session, String.join(" ", "./" + remoteFilename, "--now"));
@@ -805,7 +1142,7 @@ public class BasicDeploymentHelper implements DeploymentHelper {
                         Filter.builder().name("state").values("available").build())
                 .build();
 
-        DescribeImagesResponse describeImagesResponse = ec2Client.describeImages(describeImagesRequest);
+        DescribeImagesResponse describeImagesResponse = ec2ClientProvider.get().describeImages(describeImagesRequest);
         Optional<Image> optionalImage = describeImagesResponse.images().stream().findFirst();
 
         if (!optionalImage.isPresent()) {
@@ -813,7 +1150,7 @@ public class BasicDeploymentHelper implements DeploymentHelper {
             return Optional.empty();
         }
 
-        DescribeKeyPairsResponse describeKeyPairsResponse = ec2Client.describeKeyPairs();
+        DescribeKeyPairsResponse describeKeyPairsResponse = ec2ClientProvider.get().describeKeyPairs();
         Optional<KeyPairInfo> optionalKeyPairInfo = describeKeyPairsResponse.keyPairs().stream().sorted(Comparator.comparing(KeyPairInfo::keyName)).findFirst();
 
         if (!optionalKeyPairInfo.isPresent()) {
@@ -841,14 +1178,14 @@ public class BasicDeploymentHelper implements DeploymentHelper {
                 .description("Security group for Greengrass Core [" + instanceTagName + "]")
                 .build();
 
-        ec2Client.createSecurityGroup(createSecurityGroupRequest);
+        ec2ClientProvider.get().createSecurityGroup(createSecurityGroupRequest);
 
         AuthorizeSecurityGroupIngressRequest authorizeSecurityGroupIngressRequest = AuthorizeSecurityGroupIngressRequest.builder()
                 .groupName(securityGroupName)
                 .ipPermissions(sshPermission)
                 .build();
 
-        ec2Client.authorizeSecurityGroupIngress(authorizeSecurityGroupIngressRequest);
+        ec2ClientProvider.get().authorizeSecurityGroupIngress(authorizeSecurityGroupIngressRequest);
 
         RunInstancesRequest run_request = RunInstancesRequest.builder()
                 .imageId(image.imageId())
@@ -859,7 +1196,7 @@ public class BasicDeploymentHelper implements DeploymentHelper {
                 .securityGroups(securityGroupName)
                 .build();
 
-        RunInstancesResponse response = ec2Client.runInstances(run_request);
+        RunInstancesResponse response = ec2ClientProvider.get().runInstances(run_request);
 
         Optional<String> optionalInstanceId = response.instances().stream().findFirst().map(Instance::instanceId);
 
@@ -900,7 +1237,7 @@ public class BasicDeploymentHelper implements DeploymentHelper {
         Optional<Boolean> status = Optional.empty();
 
         while (!status.isPresent()) {
-            status = Try.of(() -> Optional.of(ec2Client.createTags(tag_request) != null))
+            status = Try.of(() -> Optional.of(ec2ClientProvider.get().createTags(tag_request) != null))
                     .recover(Ec2Exception.class, this::recoverFromEc2Exception)
                     .get();
         }
@@ -1000,9 +1337,10 @@ public class BasicDeploymentHelper implements DeploymentHelper {
         /////////////////////////
 
         log.info("Getting root CA");
-        installScriptVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(installScriptVirtualTarEntries, ggConstants.getRootCaName(), ioHelper.download(ggConstants.getRootCaUrl()).getBytes(), normalFilePermissions));
-        oemVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(oemVirtualTarEntries, String.join("/", ggConstants.getCertsDirectoryPrefix(), ggConstants.getRootCaName()), ioHelper.download(ggConstants.getRootCaUrl()).getBytes(), normalFilePermissions));
-        ggdVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(ggdVirtualTarEntries, ggConstants.getRootCaName(), ioHelper.download(ggConstants.getRootCaUrl()).getBytes(), normalFilePermissions));
+        byte[] rootCa = artifactCacheHelper.getBytes(ggConstants.getRootCaUrl());
+        installScriptVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(installScriptVirtualTarEntries, ggConstants.getRootCaName(), rootCa, normalFilePermissions));
+        oemVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(oemVirtualTarEntries, String.join("/", ggConstants.getCertsDirectoryPrefix(), ggConstants.getRootCaName()), rootCa, normalFilePermissions));
+        ggdVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(ggdVirtualTarEntries, ggConstants.getRootCaName(), rootCa, normalFilePermissions));
 
         //////////////////////////////////////////////////////////////////////////////////////////////////////////////////
         // Add some extra files to the OEM deployment so that Docker based deployments can do a redeployment on startup //
@@ -1041,8 +1379,8 @@ public class BasicDeploymentHelper implements DeploymentHelper {
                     mainScript = file;
                 }
 
-                installScriptVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(installScriptVirtualTarEntries, file.getPath(), ioHelper.readFile(file), scriptPermissions));
-                ggdVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(ggdVirtualTarEntries, file.getPath(), ioHelper.readFile(file), scriptPermissions));
+                installScriptVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(installScriptVirtualTarEntries, file.getPath(), file.toPath(), scriptPermissions));
+                ggdVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(ggdVirtualTarEntries, file.getPath(), file.toPath(), scriptPermissions));
             }
 
             if (mainScript == null) {
@@ -1064,39 +1402,47 @@ public class BasicDeploymentHelper implements DeploymentHelper {
         if (installScriptVirtualTarEntries.isPresent()) {
             log.info("Adding Greengrass binary to archive");
             URL architectureUrl = getArchitectureUrl(deploymentArguments);
-            installScriptVirtualTarEntries.ifPresent(a -> archiveHelper.addVirtualTarEntry(installScriptVirtualTarEntries, architecture.get().getFilename(), ioHelper.readFile(architectureUrl), normalFilePermissions));
-
-            log.info("Building script [" + ggShScriptName + "]");
-            ByteArrayOutputStream ggScriptTemplate = new ByteArrayOutputStream();
-
-            Try.of(() -> writePayload(ggdPipDependencies, ggScriptTemplate)).get();
+            // The archive helper copies the Greengrass software straight from disk instead of loading it into memory
+            Path architecturePath = coreArtifactStoreHelper.get(architecture.get().getFilename(), architectureUrl, Optional.of(architecture.get().getHash()));
+            archiveHelper.addVirtualTarEntry(installScriptVirtualTarEntries, architecture.get().getFilename(), architecturePath, normalFilePermissions);
 
             log.info("Writing script [" + ggShScriptName + "]");
-            ioHelper.writeFile(ggShScriptName, ggScriptTemplate.toByteArray());
-            ioHelper.makeExecutable(ggShScriptName);
+            writeArchive(ggShScriptName, fileChannel -> writePayload(ggdPipDependencies, fileChannel));
         }
 
         if (oemVirtualTarEntries.isPresent()) {
             String oemArchiveName = ggVariables.getOemArchiveName(deploymentArguments.groupName);
             log.info("Writing OEM file [" + oemArchiveName + "]");
-            ioHelper.writeFile(oemArchiveName, getByteArrayOutputStream(oemVirtualTarEntries).get().toByteArray());
-            ioHelper.makeExecutable(oemArchiveName);
+            writeArchive(oemArchiveName, fileChannel -> archiveHelper.tar(oemVirtualTarEntries.get(), fileChannel));
         }
 
         if (ggdVirtualTarEntries.isPresent()) {
             String ggdArchiveName = ggVariables.getGgdArchiveName(deploymentArguments.groupName);
             log.info("Writing GGD file [" + ggdArchiveName + "]");
-            ioHelper.writeFile(ggdArchiveName, getByteArrayOutputStream(ggdVirtualTarEntries).get().toByteArray());
-            ioHelper.makeExecutable(ggdArchiveName);
+            writeArchive(ggdArchiveName, fileChannel -> archiveHelper.tar(ggdVirtualTarEntries.get(), fileChannel));
         }
     }
 
-    public Void writePayload(Set<String> ggdPipDependencies, ByteArrayOutputStream ggScriptTemplate) throws IOException {
-        ggScriptTemplate.write(scriptHelper.generateGgScript(ggdPipDependencies).getBytes());
-        ggScriptTemplate.write("PAYLOAD:\n".getBytes());
-        ggScriptTemplate.write(getByteArrayOutputStream(installScriptVirtualTarEntries).get().toByteArray());
+    private void writeArchive(String filename, CheckedFunction1<FileChannel, Long> archiveWriter) {
+        long bytesWritten = Try.withResources(() -> FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+                .of(archiveWriter)
+                .get();
 
-        return null;
+        log.info("Wrote [" + bytesWritten + "] bytes to [" + filename + "]");
+
+        ioHelper.makeWritable(filename);
+        ioHelper.makeExecutable(filename);
+    }
+
+    public long writePayload(Set<String> ggdPipDependencies, WritableByteChannel writableByteChannel) throws IOException {
+        ByteBuffer script = ByteBuffer.wrap((scriptHelper.generateGgScript(ggdPipDependencies) + "PAYLOAD:\n").getBytes());
+        long bytesWritten = 0;
+
+        while (script.hasRemaining()) {
+            bytesWritten += writableByteChannel.write(script);
+        }
+
+        return bytesWritten + archiveHelper.tar(installScriptVirtualTarEntries.get(), writableByteChannel);
     }
 
     public void pushContainerIfNecessary(DeploymentArguments deploymentArguments, String imageId) throws InterruptedException {
@@ -1177,14 +1523,6 @@ public class BasicDeploymentHelper implements DeploymentHelper {
                 .forEach(cloudFormationHelper::waitForStackToLaunch);
     }
 
-    public Optional<ByteArrayOutputStream> getByteArrayOutputStream
-            (Optional<List<VirtualTarEntry>> virtualTarEntries) {
-        Optional<ByteArrayOutputStream> baos;
-
-        return Try.of(() -> archiveHelper.tar(virtualTarEntries))
-                .get();
-    }
-
     /**
      * Create IAM resources and configuration required for Greengrass
      *
@@ -1218,8 +1556,7 @@ public class BasicDeploymentHelper implements DeploymentHelper {
         Optional<URL> architectureUrlOptional = architecture.map(Architecture::getResourceUrl).orElse(Optional.empty());
 
         if (architecture.isPresent() && !architectureUrlOptional.isPresent()) {
-            log.error("The GG software for your architecture [" + architecture.get().getFilename() + "] is not available, please download it from the Greengrass console and put it in the [" + architecture.get().getDIST() + "] directory");
-            System.exit(3);
+            throw new RuntimeException("The GG software for your architecture [" + architecture.get().getFilename() + "] is not available, please download it from the Greengrass console and put it in the [" + architecture.get().getDIST() + "] directory");
         }
 
         return architectureUrlOptional.get();
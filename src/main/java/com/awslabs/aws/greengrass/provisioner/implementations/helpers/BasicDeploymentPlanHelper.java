@@ -0,0 +1,247 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStep;
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStepContext;
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.DeploymentPlanHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.LoggingHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.TraceHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
+
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class BasicDeploymentPlanHelper implements DeploymentPlanHelper {
+    private static final int MAX_CONCURRENT_STEPS = 8;
+
+    @Inject
+    LoggingHelper loggingHelper;
+    @Inject
+    TraceHelper traceHelper;
+
+    @Inject
+    public BasicDeploymentPlanHelper() {
+    }
+
+    @Override
+    public DeploymentStepContext run(DeploymentStepContext deploymentStepContext, List<DeploymentStep> deploymentSteps) {
+        Map<String, DeploymentStep> producers = getProducers(deploymentStepContext, deploymentSteps);
+        Map<DeploymentStep, Set<DeploymentStep>> dependencies = getDependencies(deploymentStepContext, deploymentSteps, producers);
+        List<DeploymentStep> orderedSteps = getExecutionOrder(deploymentSteps, dependencies);
+
+        Map<String, StepTiming> stepTimings = new ConcurrentHashMap<>();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        Map<DeploymentStep, CompletableFuture<Void>> futures = new HashMap<>();
+
+        int threads = Math.max(1, Math.min(MAX_CONCURRENT_STEPS, deploymentSteps.size()));
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, new ThreadFactoryImpl(BasicDeploymentPlanHelper.class.getSimpleName()));
+
+        long planStartTime = System.nanoTime();
+        // The steps run on the pool so they are traced under the span that was open when the plan started
+        Optional<TraceSpan> parentSpan = traceHelper.getCurrentSpan();
+
+        try {
+            for (DeploymentStep deploymentStep : orderedSteps) {
+                CompletableFuture<?>[] dependencyFutures = dependencies.get(deploymentStep).stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+
+                // If any dependency fails this step is skipped since allOf completes exceptionally
+                CompletableFuture<Void> future = CompletableFuture.allOf(dependencyFutures)
+                        .thenRunAsync(() -> runStep(deploymentStepContext, deploymentStep, planStartTime, stepTimings, firstFailure, parentSpan), executorService);
+
+                futures.put(deploymentStep, future);
+            }
+
+            futures.values().forEach(this::waitQuietly);
+        } finally {
+            executorService.shutdown();
+        }
+
+        logTimings(orderedSteps, stepTimings, System.nanoTime() - planStartTime, threads);
+
+        Throwable throwable = firstFailure.get();
+
+        if (throwable != null) {
+            if (throwable instanceof RuntimeException) {
+                throw (RuntimeException) throwable;
+            }
+
+            throw new RuntimeException(throwable);
+        }
+
+        return deploymentStepContext;
+    }
+
+    private void waitQuietly(CompletableFuture<Void> future) {
+        // Failures are recorded when the step runs, failures here are only from skipped dependents
+        try {
+            future.join();
+        } catch (CompletionException | CancellationException e) {
+            // Ignore
+        }
+    }
+
+    private void runStep(DeploymentStepContext deploymentStepContext, DeploymentStep deploymentStep, long planStartTime, Map<String, StepTiming> stepTimings, AtomicReference<Throwable> firstFailure, Optional<TraceSpan> parentSpan) {
+        if (firstFailure.get() != null) {
+            // Don't start new work after something has failed
+            throw new CancellationException();
+        }
+
+        long stepStartTime = System.nanoTime();
+        TraceSpan traceSpan = traceHelper.startSpan(deploymentStep.getName(), parentSpan);
+
+        try {
+            deploymentStep.getAction().accept(deploymentStepContext.forStep(deploymentStep));
+
+            for (String output : deploymentStep.getOutputs()) {
+                if (!deploymentStepContext.contains(output)) {
+                    throw new RuntimeException("Step [" + deploymentStep.getName() + "] did not produce its declared output [" + output + "]");
+                }
+            }
+        } catch (Throwable throwable) {
+            log.error("Step [" + deploymentStep.getName() + "] failed [" + throwable.getMessage() + "]");
+            traceSpan.failed(throwable.getMessage());
+            firstFailure.compareAndSet(null, throwable);
+            throw throwable;
+        } finally {
+            traceSpan.close();
+            long stepEndTime = System.nanoTime();
+            stepTimings.put(deploymentStep.getName(), new StepTiming(stepStartTime - planStartTime, stepEndTime - stepStartTime));
+        }
+
+        loggingHelper.logInfoWithName(log, deploymentStep.getName(), "Completed in " + toMillis(stepTimings.get(deploymentStep.getName()).duration) + " ms");
+    }
+
+    private Map<String, DeploymentStep> getProducers(DeploymentStepContext deploymentStepContext, List<DeploymentStep> deploymentSteps) {
+        Map<String, DeploymentStep> producers = new HashMap<>();
+        Set<String> stepNames = new HashSet<>();
+
+        for (DeploymentStep deploymentStep : deploymentSteps) {
+            if (!stepNames.add(deploymentStep.getName())) {
+                throw new RuntimeException("Duplicate deployment step name [" + deploymentStep.getName() + "]");
+            }
+
+            for (String output : deploymentStep.getOutputs()) {
+                if (deploymentStepContext.contains(output)) {
+                    throw new RuntimeException("Step [" + deploymentStep.getName() + "] declares output [" + output + "] which is already present in the context");
+                }
+
+                DeploymentStep existingProducer = producers.put(output, deploymentStep);
+
+                if (existingProducer != null) {
+                    throw new RuntimeException("Output [" + output + "] is produced by both [" + existingProducer.getName() + "] and [" + deploymentStep.getName() + "]");
+                }
+            }
+        }
+
+        return producers;
+    }
+
+    private Map<DeploymentStep, Set<DeploymentStep>> getDependencies(DeploymentStepContext deploymentStepContext, List<DeploymentStep> deploymentSteps, Map<String, DeploymentStep> producers) {
+        Map<DeploymentStep, Set<DeploymentStep>> dependencies = new HashMap<>();
+
+        for (DeploymentStep deploymentStep : deploymentSteps) {
+            Set<DeploymentStep> stepDependencies = new HashSet<>();
+
+            for (String input : deploymentStep.getInputs()) {
+                if (deploymentStepContext.contains(input)) {
+                    // Available before the plan started
+                    continue;
+                }
+
+                DeploymentStep producer = producers.get(input);
+
+                if (producer == null) {
+                    throw new RuntimeException("Step [" + deploymentStep.getName() + "] requires [" + input + "] but no step produces it");
+                }
+
+                stepDependencies.add(producer);
+            }
+
+            dependencies.put(deploymentStep, stepDependencies);
+        }
+
+        return dependencies;
+    }
+
+    private List<DeploymentStep> getExecutionOrder(List<DeploymentStep> deploymentSteps, Map<DeploymentStep, Set<DeploymentStep>> dependencies) {
+        // Kahn's algorithm, keeps the declaration order for steps that are ready at the same time
+        Map<DeploymentStep, Integer> remainingDependencies = new HashMap<>();
+        Map<DeploymentStep, List<DeploymentStep>> dependents = new HashMap<>();
+
+        for (DeploymentStep deploymentStep : deploymentSteps) {
+            remainingDependencies.put(deploymentStep, dependencies.get(deploymentStep).size());
+
+            for (DeploymentStep dependency : dependencies.get(deploymentStep)) {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(deploymentStep);
+            }
+        }
+
+        Deque<DeploymentStep> ready = deploymentSteps.stream()
+                .filter(deploymentStep -> remainingDependencies.get(deploymentStep) == 0)
+                .collect(Collectors.toCollection(ArrayDeque::new));
+
+        List<DeploymentStep> orderedSteps = new ArrayList<>();
+
+        while (!ready.isEmpty()) {
+            DeploymentStep deploymentStep = ready.removeFirst();
+            orderedSteps.add(deploymentStep);
+
+            for (DeploymentStep dependent : dependents.getOrDefault(deploymentStep, Collections.emptyList())) {
+                if (remainingDependencies.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.addLast(dependent);
+                }
+            }
+        }
+
+        if (orderedSteps.size() != deploymentSteps.size()) {
+            String stepsInCycle = deploymentSteps.stream()
+                    .filter(deploymentStep -> !orderedSteps.contains(deploymentStep))
+                    .map(DeploymentStep::getName)
+                    .collect(Collectors.joining(", "));
+
+            throw new RuntimeException("Deployment steps have a circular dependency [" + stepsInCycle + "]");
+        }
+
+        return orderedSteps;
+    }
+
+    private void logTimings(List<DeploymentStep> orderedSteps, Map<String, StepTiming> stepTimings, long planDuration, int threads) {
+        long totalStepTime = stepTimings.values().stream()
+                .mapToLong(stepTiming -> stepTiming.duration)
+                .sum();
+
+        log.info("Deployment plan timings (" + threads + " threads):");
+
+        orderedSteps.stream()
+                .filter(deploymentStep -> stepTimings.containsKey(deploymentStep.getName()))
+                .sorted(Comparator.comparingLong(deploymentStep -> stepTimings.get(deploymentStep.getName()).offset))
+                .forEach(deploymentStep -> logTiming(deploymentStep.getName(), stepTimings.get(deploymentStep.getName())));
+
+        log.info("Deployment plan finished in " + toMillis(planDuration) + " ms, " + toMillis(totalStepTime) + " ms of step time across " + stepTimings.size() + " of " + orderedSteps.size() + " steps");
+    }
+
+    private void logTiming(String name, StepTiming stepTiming) {
+        log.info(String.format("  %-40s start +%6d ms, took %6d ms", name, toMillis(stepTiming.offset), toMillis(stepTiming.duration)));
+    }
+
+    private long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static class StepTiming {
+        private final long offset;
+        private final long duration;
+
+        StepTiming(long offset, long duration) {
+            this.offset = offset;
+            this.duration = duration;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.BackoffPolicy;
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStatus;
+import com.awslabs.aws.greengrass.provisioner.data.GroupDeployment;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.DeploymentStatusWaiterHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GreengrassHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.JobHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.LoggingHelper;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
+
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class BasicDeploymentStatusWaiterHelper implements DeploymentStatusWaiterHelper {
+    private final List<WatchedDeployment> watchedDeployments = new ArrayList<>();
+    private final AtomicLong polls = new AtomicLong();
+    private final ThreadFactoryImpl threadFactory = new ThreadFactoryImpl(BasicDeploymentStatusWaiterHelper.class.getSimpleName());
+    private boolean pollerRunning = false;
+
+    @Inject
+    GreengrassHelper greengrassHelper;
+    @Inject
+    LoggingHelper loggingHelper;
+    @Inject
+    JobHelper jobHelper;
+
+    @Inject
+    public BasicDeploymentStatusWaiterHelper() {
+    }
+
+    @Override
+    public CompletableFuture<DeploymentStatus> watch(GroupDeployment groupDeployment, BackoffPolicy backoffPolicy, long deadlineNanoTime) {
+        WatchedDeployment watchedDeployment = new WatchedDeployment(groupDeployment, backoffPolicy, deadlineNanoTime);
+        // The poller is shared by every job, polls log to the job that is waiting for the deployment
+        watchedDeployment.pollTask = jobHelper.withCurrentJob(() -> pollDeployment(watchedDeployment));
+
+        // Give the service a moment before the first poll, deployments are never done immediately
+        watchedDeployment.nextPollNanoTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getDelayMillis(backoffPolicy, 0));
+
+        synchronized (watchedDeployments) {
+            watchedDeployments.add(watchedDeployment);
+
+            if (!pollerRunning) {
+                pollerRunning = true;
+                threadFactory.newThread(jobHelper.withoutJob(this::poll)).start();
+            } else {
+                // Wake the poller up in case this deployment is due before the one it is sleeping on
+                watchedDeployments.notifyAll();
+            }
+        }
+
+        return watchedDeployment.future;
+    }
+
+    @Override
+    public Map<GroupDeployment, DeploymentStatus> waitForAll(Collection<GroupDeployment> groupDeployments, BackoffPolicy backoffPolicy, long deadlineNanoTime) {
+        Map<GroupDeployment, CompletableFuture<DeploymentStatus>> futures = groupDeployments.stream()
+                .collect(Collectors.toMap(groupDeployment -> groupDeployment,
+                        groupDeployment -> watch(groupDeployment, backoffPolicy, deadlineNanoTime),
+                        (first, second) -> first,
+                        LinkedHashMap::new));
+
+        Map<GroupDeployment, DeploymentStatus> results = new LinkedHashMap<>();
+        futures.forEach((groupDeployment, future) -> results.put(groupDeployment, future.join()));
+
+        return results;
+    }
+
+    @Override
+    public long getDelayMillis(BackoffPolicy backoffPolicy, int attempt) {
+        double delay = backoffPolicy.getInitialDelayMillis() * Math.pow(backoffPolicy.getMultiplier(), attempt);
+        delay = Math.min(delay, backoffPolicy.getMaxDelayMillis());
+
+        double jitter = Math.max(0, Math.min(1, backoffPolicy.getJitter()));
+
+        // Keep part of the delay fixed and randomize the rest so groups deployed together don't poll in lockstep
+        return (long) (delay * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    @Override
+    public long getPolls() {
+        return polls.get();
+    }
+
+    private void poll() {
+        while (true) {
+            List<WatchedDeployment> dueDeployments;
+
+            synchronized (watchedDeployments) {
+                if (watchedDeployments.isEmpty()) {
+                    pollerRunning = false;
+                    return;
+                }
+
+                long now = System.nanoTime();
+
+                long nextWakeUp = watchedDeployments.stream()
+                        .mapToLong(watchedDeployment -> Math.min(watchedDeployment.nextPollNanoTime, watchedDeployment.deadlineNanoTime))
+                        .min()
+                        .getAsLong();
+
+                if (nextWakeUp - now > 0) {
+                    long waitMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextWakeUp - now));
+                    Try.run(() -> watchedDeployments.wait(waitMillis));
+                    continue;
+                }
+
+                dueDeployments = watchedDeployments.stream()
+                        .filter(watchedDeployment -> (watchedDeployment.nextPollNanoTime - now <= 0) || (watchedDeployment.deadlineNanoTime - now <= 0))
+                        .collect(Collectors.toList());
+            }
+
+            // Poll outside of the lock so new deployments can be registered while the requests are in flight
+            dueDeployments.forEach(watchedDeployment -> Try.run(watchedDeployment.pollTask::run)
+                    .onFailure(watchedDeployment.future::completeExceptionally));
+
+            synchronized (watchedDeployments) {
+                watchedDeployments.removeIf(watchedDeployment -> watchedDeployment.future.isDone());
+            }
+        }
+    }
+
+    private void pollDeployment(WatchedDeployment watchedDeployment) {
+        GroupDeployment groupDeployment = watchedDeployment.groupDeployment;
+        String name = groupDeployment.getDeploymentId();
+
+        if (watchedDeployment.deadlineNanoTime - System.nanoTime() <= 0) {
+            loggingHelper.logInfoWithName(log, name, "Gave up waiting for the deployment after " + watchedDeployment.attempts + " status checks");
+            watchedDeployment.future.complete(DeploymentStatus.TIMED_OUT);
+            return;
+        }
+
+        polls.incrementAndGet();
+        watchedDeployment.attempts++;
+
+        Try<DeploymentStatus> deploymentStatusTry = Try.of(() -> greengrassHelper.getDeploymentStatus(groupDeployment.getGroupId(), groupDeployment.getDeploymentId()));
+
+        if (deploymentStatusTry.isFailure()) {
+            // Transient errors (throttling, network) are retried like any other non-final status
+            log.warn("- [" + name + "] - Failed to get the deployment status [" + deploymentStatusTry.getCause().getMessage() + "]");
+        } else if (!deploymentStatusTry.get().equals(DeploymentStatus.BUILDING)) {
+            watchedDeployment.future.complete(deploymentStatusTry.get());
+            return;
+        } else {
+            loggingHelper.logInfoWithName(log, name, "Deployment is being built...");
+        }
+
+        long delayMillis = getDelayMillis(watchedDeployment.backoffPolicy, watchedDeployment.attempts);
+        watchedDeployment.nextPollNanoTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    }
+
+    private static class WatchedDeployment {
+        private final GroupDeployment groupDeployment;
+        private final BackoffPolicy backoffPolicy;
+        private final long deadlineNanoTime;
+        private final CompletableFuture<DeploymentStatus> future = new CompletableFuture<>();
+        private Runnable pollTask;
+        // Only updated by the poller thread once the deployment is registered
+        private long nextPollNanoTime;
+        private int attempts = 0;
+
+        WatchedDeployment(GroupDeployment groupDeployment, BackoffPolicy backoffPolicy, long deadlineNanoTime) {
+            this.groupDeployment = groupDeployment;
+            this.backoffPolicy = backoffPolicy;
+            this.deadlineNanoTime = deadlineNanoTime;
+        }
+    }
+}
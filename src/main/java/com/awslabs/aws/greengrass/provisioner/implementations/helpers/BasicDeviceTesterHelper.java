@@ -1,10 +1,9 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 
+import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogEvent;
 import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogMessageType;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.DeviceTesterHelper;
-import io.vavr.Tuple2;
-import io.vavr.Tuple3;
-import io.vavr.collection.List;
+import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.Map;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
@@ -12,9 +11,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
 
 import java.time.Duration;
-import java.util.AbstractMap;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,8 +22,8 @@ import static io.vavr.API.*;
 
 @Slf4j
 public class BasicDeviceTesterHelper implements DeviceTesterHelper {
-    private static final String KEY_PATTERN = "[a-zA-Z]+=";
-    private static final List<DeviceTesterLogMessageType> IGNORED_MESSAGE_TYPES = List.of(
+    private static final Pattern DURATION_PATTERN = Pattern.compile("\\([0-9]+\\.[0-9]+s\\)");
+    private static final Set<DeviceTesterLogMessageType> IGNORED_MESSAGE_TYPES = EnumSet.of(
             DeviceTesterLogMessageType.CHECKING_GGC_VERSION,
             DeviceTesterLogMessageType.FINISHED_PROVISIONING,
             DeviceTesterLogMessageType.CREATING_GGD,
@@ -43,12 +43,12 @@ public class BasicDeviceTesterHelper implements DeviceTesterHelper {
             DeviceTesterLogMessageType.FINISHED_DEPLOYING_GROUP,
             DeviceTesterLogMessageType.RESTARTING_GREENGRASS,
             DeviceTesterLogMessageType.RESTARTING_GREENGRASS_SUCCESSFUL);
-    private static final List<DeviceTesterLogMessageType> INFO_MESSAGE_TYPES = List.of(
+    private static final Set<DeviceTesterLogMessageType> INFO_MESSAGE_TYPES = EnumSet.of(
             DeviceTesterLogMessageType.ALL_TESTS_FINISHED,
             DeviceTesterLogMessageType.REPORT_GENERATED);
-    private static final List<DeviceTesterLogMessageType> WARN_MESSAGE_TYPES = List.of(
+    private static final Set<DeviceTesterLogMessageType> WARN_MESSAGE_TYPES = EnumSet.of(
             DeviceTesterLogMessageType.CLEANING_UP_RESOURCES_FAILED);
-    private static final List<DeviceTesterLogMessageType> ERROR_MESSAGE_TYPES = List.of(
+    private static final Set<DeviceTesterLogMessageType> ERROR_MESSAGE_TYPES = EnumSet.of(
             DeviceTesterLogMessageType.ERRORS_WHEN_CLEANING_UP_RESOURCES,
             DeviceTesterLogMessageType.UNKNOWN_FAILURE,
             DeviceTesterLogMessageType.TIMED_OUT,
@@ -58,35 +58,36 @@ public class BasicDeviceTesterHelper implements DeviceTesterHelper {
             DeviceTesterLogMessageType.STATUS_CODE_ERROR);
 
     @Override
-    public DeviceTesterLogMessageType getLogMessageType(String logMessage) {
-        Map<String, String> values = extractValuesFromLogMessage(logMessage);
-        Option<String> optionalMessage = values.get(MESSAGE_FIELD_NAME);
+    public DeviceTesterLogEvent parse(String logMessage) {
+        java.util.Map<String, String> values = tokenize(logMessage);
+        String message = values.get(MESSAGE_FIELD_NAME);
 
-        if (optionalMessage.isEmpty()) {
+        if (message == null) {
             throw new RuntimeException("Could not find msg field in log message");
         }
 
-        String message = optionalMessage.get();
-
-        // Find the first message type that matches this string
-        Optional<DeviceTesterLogMessageType> optionalDeviceTesterLogMessageType = Arrays.stream(DeviceTesterLogMessageType.values())
-                .filter(type -> type.matches(message))
-                .findFirst();
+        Optional<DeviceTesterLogMessageType> optionalDeviceTesterLogMessageType = DeviceTesterLogMessageType.classify(message);
 
         if (!optionalDeviceTesterLogMessageType.isPresent()) {
             // No match was found, throw an exception immediately
             throw new RuntimeException(String.format("No match for log message [%s]", logMessage));
         }
 
-        return optionalDeviceTesterLogMessageType.get();
+        return DeviceTesterLogEvent.builder()
+                .logMessage(logMessage)
+                .type(optionalDeviceTesterLogMessageType.get())
+                .message(message)
+                .values(Collections.unmodifiableMap(values))
+                .testCaseId(Option.of(values.get(TEST_CASE_ID)))
+                .build();
     }
 
     @Override
-    public void log(String logMessage) {
-        DeviceTesterLogMessageType deviceTesterLogMessageType = getLogMessageType(logMessage);
-        Map<String, String> values = extractValuesFromLogMessage(logMessage);
-        String message = values.get(MESSAGE_FIELD_NAME).get();
-        Option<String> optionalTestCaseId = getOptionalTestCaseId(values);
+    public void log(DeviceTesterLogEvent deviceTesterLogEvent) {
+        String logMessage = deviceTesterLogEvent.getLogMessage();
+        DeviceTesterLogMessageType deviceTesterLogMessageType = deviceTesterLogEvent.getType();
+        String message = deviceTesterLogEvent.getMessage();
+        Option<String> optionalTestCaseId = deviceTesterLogEvent.getTestCaseId();
 
         log.debug(logMessage);
 
@@ -185,8 +186,7 @@ public class BasicDeviceTesterHelper implements DeviceTesterHelper {
     }
 
     private Optional<Duration> extractDurationFromFailureMessage(String logMessage) {
-        Pattern pattern = Pattern.compile("\\([0-9]+\\.[0-9]+s\\)");
-        Matcher matcher = pattern.matcher(logMessage);
+        Matcher matcher = DURATION_PATTERN.matcher(logMessage);
 
         if (!matcher.find()) {
             return Optional.empty();
@@ -207,68 +207,107 @@ public class BasicDeviceTesterHelper implements DeviceTesterHelper {
 
     @Override
     public Map<String, String> extractValuesFromLogMessage(String logMessage) {
-        // Find the indexes of the names of the log message values
-        Pattern pattern = Pattern.compile(KEY_PATTERN);
-        Matcher matcher = pattern.matcher(logMessage);
-
-        // Start with an empty list
-        List<Tuple2<Integer, Integer>> startAndEndLocations = List.empty();
+        return LinkedHashMap.ofAll(tokenize(logMessage));
+    }
 
-        // Loop through all of the matches
-        while (matcher.find()) {
-            // Store the start and end of the name so it can be extracted later
-            startAndEndLocations = startAndEndLocations.append(new Tuple2(matcher.start(), matcher.end()));
+    /**
+     * Splits a logfmt style line into its fields in a single pass. Keys are runs of letters followed by "=" at the start
+     * of the line or after a space. Values may be double quoted, otherwise they run up to the space before the next
+     * key so that unquoted messages with spaces in them are kept together.
+     */
+    private java.util.Map<String, String> tokenize(String logMessage) {
+        java.util.Map<String, String> values = new java.util.LinkedHashMap<>();
+        int length = logMessage.length();
+        int keyStart = findNextKey(logMessage, 0);
+
+        while (keyStart >= 0) {
+            int keyEnd = logMessage.indexOf('=', keyStart);
+            String key = logMessage.substring(keyStart, keyEnd);
+            int valueStart = keyEnd + 1;
+
+            if ((valueStart < length) && (logMessage.charAt(valueStart) == '"')) {
+                int closingQuote = findClosingQuote(logMessage, valueStart + 1);
+                values.put(key, unquote(logMessage, valueStart + 1, closingQuote));
+                keyStart = findNextKey(logMessage, Math.min(closingQuote + 1, length));
+                continue;
+            }
+
+            int nextKeyStart = findNextKey(logMessage, valueStart);
+
+            // Only the single separating space is dropped, some message types end with a space
+            int valueEnd = (nextKeyStart < 0) ? length : nextKeyStart - 1;
+            values.put(key, logMessage.substring(valueStart, Math.max(valueStart, valueEnd)));
+            keyStart = nextKeyStart;
         }
 
-        // Add a final entry to the list so we can easily find the end of the last value
-        startAndEndLocations = startAndEndLocations.append(new Tuple2(logMessage.length() - 1, 0));
+        return values;
+    }
+
+    private int findNextKey(String logMessage, int fromIndex) {
+        int length = logMessage.length();
 
-        // Create a list of the locations that's easier to work with (key start, key end, value end)
-        List<Tuple3<Integer, Integer, Integer>> finalLocations = List.empty();
+        for (int index = fromIndex; index < length; index++) {
+            if ((index != 0) && (logMessage.charAt(index - 1) != ' ')) {
+                continue;
+            }
 
-        // Map the values in the original list to the final location list
-        for (int loop = 0; loop < startAndEndLocations.length() - 1; loop++) {
-            Tuple2<Integer, Integer> currentLocation = startAndEndLocations.get(loop);
-            Tuple2<Integer, Integer> nextLocation = startAndEndLocations.get(loop + 1);
+            int keyEnd = index;
 
-            int keyStart = currentLocation._1;
-            int keyEnd = currentLocation._2;
-            int valueEnd = nextLocation._1;
+            while ((keyEnd < length) && isKeyCharacter(logMessage.charAt(keyEnd))) {
+                keyEnd++;
+            }
 
-            Tuple3<Integer, Integer, Integer> finalLocation = new Tuple3(keyStart, keyEnd, valueEnd);
-            finalLocations = finalLocations.append(finalLocation);
+            if ((keyEnd > index) && (keyEnd < length) && (logMessage.charAt(keyEnd) == '=')) {
+                return index;
+            }
         }
 
-        Map<String, String> values = finalLocations.toStream()
-                .map(tuple3 -> tupleToKeyValue(logMessage, tuple3))
-                .toMap(AbstractMap.SimpleEntry::getKey, AbstractMap.SimpleEntry::getValue);
+        return -1;
+    }
+
+    private boolean isKeyCharacter(char character) {
+        return ((character >= 'a') && (character <= 'z')) || ((character >= 'A') && (character <= 'Z'));
+    }
+
+    private int findClosingQuote(String logMessage, int fromIndex) {
+        int length = logMessage.length();
 
-        // Is there a time value?
-        Option<String> optionalTime = values.get("time");
+        for (int index = fromIndex; index < length; index++) {
+            char character = logMessage.charAt(index);
 
-        if (optionalTime.isEmpty()) {
-            // No, just return everything as is
-            return values;
+            if (character == '\\') {
+                // Skip the escaped character
+                index++;
+            } else if (character == '"') {
+                return index;
+            }
         }
 
-        // Yes, clean up the time a bit
-        String time = optionalTime.get();
+        // Unterminated, treat the rest of the line as the value
+        return length;
+    }
+
+    private String unquote(String logMessage, int start, int end) {
+        int firstBackslash = logMessage.indexOf('\\', start);
 
-        // Remove double quotes
-        time = time.substring(1, time.length() - 1);
+        if ((firstBackslash < 0) || (firstBackslash >= end)) {
+            // Nothing escaped, no need to copy character by character
+            return logMessage.substring(start, end);
+        }
 
-        // Convert to a date and back to a string to get better formatting
-        // time = LocalDateTime.parse(time).toString();
+        StringBuilder stringBuilder = new StringBuilder(end - start);
 
-        values.put("time", time);
+        for (int index = start; index < end; index++) {
+            char character = logMessage.charAt(index);
 
-        return values;
-    }
+            if ((character == '\\') && (index + 1 < end)) {
+                index++;
+                character = logMessage.charAt(index);
+            }
 
-    private AbstractMap.SimpleEntry<String, String> tupleToKeyValue(String logMessage, Tuple3<Integer, Integer, Integer> tuple3) {
-        String key = logMessage.substring(tuple3._1, tuple3._2 - 1);
-        String value = logMessage.substring(tuple3._2, tuple3._3 - 1);
+            stringBuilder.append(character);
+        }
 
-        return new AbstractMap.SimpleEntry<>(key, value);
+        return stringBuilder.toString();
     }
 }
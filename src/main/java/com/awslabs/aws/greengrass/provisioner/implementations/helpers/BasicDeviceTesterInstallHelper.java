@@ -0,0 +1,175 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.DeviceTesterInstallHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+public class BasicDeviceTesterInstallHelper implements DeviceTesterInstallHelper {
+    private static final String CONFIGS_DIRECTORY = "configs";
+    private static final String RESULTS_DIRECTORY = "results";
+    private static final String BIN_DIRECTORY = "bin";
+
+    @Inject
+    GGConstants ggConstants;
+    @Inject
+    IoHelper ioHelper;
+
+    @Inject
+    public BasicDeviceTesterInstallHelper() {
+    }
+
+    @Override
+    public File getWorkingDirectory(File deviceTesterZip) {
+        Path installPath = Try.of(() -> getInstallPath(deviceTesterZip)).get();
+        Path workingPath = Try.of(() -> Files.createTempDirectory("devicetester")).get();
+
+        Try.run(() -> createWorkingDirectory(installPath, workingPath)).get();
+
+        log.info("Device Tester working directory is [{}]", workingPath);
+
+        return workingPath.toFile();
+    }
+
+    @Override
+    public void deleteWorkingDirectory(File workingDirectory) {
+        // Symbolic links are not followed by the walk so only the links themselves are deleted
+        Try.run(() -> Files.walkFileTree(workingDirectory.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException exception) throws IOException {
+                if (exception != null) {
+                    throw exception;
+                }
+
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        }))
+                .onFailure(throwable -> log.warn("Could not delete the Device Tester working directory [{}] [{}]", workingDirectory, throwable.getMessage()));
+    }
+
+    private Path getInstallPath(File deviceTesterZip) throws IOException {
+        Path installDirectory = Paths.get(ggConstants.getDeviceTesterInstallDirectory()).toAbsolutePath();
+        Files.createDirectories(installDirectory);
+
+        // Keyed by the contents so a new version, or a local archive with the same name, gets its own install
+        String hash = ioHelper.calcSHA256(deviceTesterZip);
+        Path installPath = installDirectory.resolve(hash);
+
+        if (Files.isDirectory(installPath)) {
+            log.info("Using the installed copy of Device Tester in [{}]", installPath);
+            return installPath;
+        }
+
+        log.info("Installing Device Tester to [{}] ...", installPath);
+
+        // Extract then rename so a partially extracted install is never used, even if two runs race to install it
+        Path tempPath = Files.createTempDirectory(installDirectory, hash + ".");
+
+        try {
+            ioHelper.extractZip(deviceTesterZip, tempPath, filename -> filename);
+
+            Try<Void> moveResult = Try.run(() -> Files.move(tempPath, installPath, StandardCopyOption.ATOMIC_MOVE));
+
+            if (moveResult.isFailure()) {
+                if (!Files.isDirectory(installPath)) {
+                    throw new RuntimeException("Could not install Device Tester to [" + installPath + "]", moveResult.getCause());
+                }
+
+                log.debug("Device Tester was installed by another run");
+            }
+        } finally {
+            if (Files.exists(tempPath)) {
+                FileUtils.deleteDirectory(tempPath.toFile());
+            }
+        }
+
+        return installPath;
+    }
+
+    private void createWorkingDirectory(Path installPath, Path workingPath) throws IOException {
+        // The archive has a single top level directory that contains everything else
+        for (Path topLevelPath : list(installPath)) {
+            Path workingTopLevelPath = workingPath.resolve(topLevelPath.getFileName().toString());
+
+            if (!Files.isDirectory(topLevelPath)) {
+                link(topLevelPath, workingTopLevelPath);
+                continue;
+            }
+
+            Files.createDirectories(workingTopLevelPath);
+
+            for (Path path : list(topLevelPath)) {
+                String name = path.getFileName().toString();
+                Path workingChildPath = workingTopLevelPath.resolve(name);
+
+                if (name.equals(CONFIGS_DIRECTORY)) {
+                    // Rewritten by every run
+                    FileUtils.copyDirectory(path.toFile(), workingChildPath.toFile());
+                } else if (name.equals(RESULTS_DIRECTORY)) {
+                    // Written by every run
+                    Files.createDirectories(workingChildPath);
+                } else if (name.equals(BIN_DIRECTORY) && Files.isDirectory(path)) {
+                    // Device Tester finds its configs relative to its own location. A symlink would point it back at
+                    //   the shared install so the binaries are hard linked instead.
+                    Files.createDirectories(workingChildPath);
+
+                    for (Path binary : list(path)) {
+                        hardLink(binary, workingChildPath.resolve(binary.getFileName().toString()));
+                    }
+                } else {
+                    link(path, workingChildPath);
+                }
+            }
+        }
+    }
+
+    private List<Path> list(Path path) throws IOException {
+        try (Stream<Path> stream = Files.list(path)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    private void link(Path target, Path link) throws IOException {
+        if (Try.run(() -> Files.createSymbolicLink(link, target)).isSuccess()) {
+            return;
+        }
+
+        // Symbolic links need extra privileges on Windows
+        copy(target, link);
+    }
+
+    private void hardLink(Path existing, Path link) throws IOException {
+        if (Try.run(() -> Files.createLink(link, existing)).isSuccess()) {
+            return;
+        }
+
+        copy(existing, link);
+    }
+
+    private void copy(Path source, Path destination) throws IOException {
+        if (Files.isDirectory(source)) {
+            FileUtils.copyDirectory(source.toFile(), destination.toFile());
+        } else {
+            Files.copy(source, destination, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+}
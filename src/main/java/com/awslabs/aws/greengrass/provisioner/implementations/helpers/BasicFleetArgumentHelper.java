@@ -0,0 +1,53 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.arguments.FleetArguments;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.FleetArgumentHelper;
+import com.beust.jcommander.JCommander;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+
+@Slf4j
+public class BasicFleetArgumentHelper implements FleetArgumentHelper {
+    @Inject
+    public BasicFleetArgumentHelper() {
+    }
+
+    @Override
+    public void displayUsage() {
+        FleetArguments fleetArguments = new FleetArguments();
+
+        JCommander.newBuilder()
+                .addObject(fleetArguments)
+                .build()
+                .usage();
+    }
+
+    @Override
+    public FleetArguments parseArguments(String[] args) {
+        FleetArguments fleetArguments = new FleetArguments();
+
+        JCommander.newBuilder()
+                .addObject(fleetArguments)
+                .build()
+                .parse(args);
+
+        if (!fleetArguments.isRequiredOptionSet()) {
+            throw new RuntimeException("This is not a fleet request");
+        }
+
+        if (fleetArguments.help) {
+            return fleetArguments;
+        }
+
+        if (fleetArguments.manifestFilename == null) {
+            throw new RuntimeException("A fleet manifest file name is required");
+        }
+
+        if (fleetArguments.maxConcurrentGroups < 1) {
+            throw new RuntimeException("The maximum number of concurrent groups must be at least 1");
+        }
+
+        return fleetArguments;
+    }
+}
@@ -0,0 +1,250 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.FleetGroupResult;
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+import com.awslabs.aws.greengrass.provisioner.data.arguments.DeploymentArguments;
+import com.awslabs.aws.greengrass.provisioner.data.arguments.FleetArguments;
+import com.awslabs.aws.greengrass.provisioner.data.conf.FleetGroupConf;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.*;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class BasicFleetHelper implements FleetHelper {
+    private static final String SHORT_GROUP_NAME_OPTION = "-g";
+    private static final String SHORT_DEPLOYMENT_CONFIG_OPTION = "-d";
+
+    @Inject
+    FleetArgumentHelper fleetArgumentHelper;
+    @Inject
+    LoggingHelper loggingHelper;
+    @Inject
+    IamHelper iamHelper;
+    @Inject
+    IotHelper iotHelper;
+    @Inject
+    GreengrassListingHelper greengrassListingHelper;
+    @Inject
+    BuildCacheHelper buildCacheHelper;
+    @Inject
+    LambdaHelper lambdaHelper;
+    @Inject
+    DeploymentStatusWaiterHelper deploymentStatusWaiterHelper;
+    @Inject
+    ArtifactCacheHelper artifactCacheHelper;
+    @Inject
+    CoreArtifactStoreHelper coreArtifactStoreHelper;
+    @Inject
+    SdkClientRegistryHelper sdkClientRegistryHelper;
+    @Inject
+    TraceHelper traceHelper;
+    // Each group needs its own deployment helper since it keeps per-deployment state
+    @Inject
+    Provider<DeploymentHelper> deploymentHelperProvider;
+
+    @Inject
+    public BasicFleetHelper() {
+    }
+
+    @Override
+    public Void execute(FleetArguments fleetArguments) {
+        List<FleetGroupConf> fleetGroupConfs = getFleetGroupConfs(fleetArguments.manifestFilename);
+
+        List<FleetGroupResult> fleetGroupResults = deployFleet(fleetGroupConfs, fleetArguments.maxConcurrentGroups);
+
+        long failures = fleetGroupResults.stream()
+                .filter(fleetGroupResult -> !fleetGroupResult.isSuccessful())
+                .count();
+
+        if (failures != 0) {
+            throw new RuntimeException(failures + " of " + fleetGroupResults.size() + " groups failed to deploy");
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<FleetGroupConf> getFleetGroupConfs(String manifestFilename) {
+        File manifestFile = new File(manifestFilename);
+
+        if (!manifestFile.exists()) {
+            throw new RuntimeException("The specified fleet manifest file [" + manifestFilename + "] does not exist.");
+        }
+
+        Config config = ConfigFactory.parseFile(manifestFile).resolve();
+
+        // Arguments in the top level list are added to every group
+        List<String> defaultArguments = getStringListOrEmpty(config, "fleet.arguments");
+
+        List<FleetGroupConf> fleetGroupConfs = config.getConfigList("fleet.groups").stream()
+                .map(groupConfig -> getFleetGroupConf(groupConfig, defaultArguments))
+                .collect(Collectors.toList());
+
+        Set<String> uniqueGroupNames = fleetGroupConfs.stream()
+                .map(FleetGroupConf::getGroupName)
+                .collect(Collectors.toSet());
+
+        if (uniqueGroupNames.size() != fleetGroupConfs.size()) {
+            throw new RuntimeException("The fleet manifest contains duplicate group names");
+        }
+
+        return fleetGroupConfs;
+    }
+
+    private FleetGroupConf getFleetGroupConf(Config groupConfig, List<String> defaultArguments) {
+        List<String> arguments = new ArrayList<>(defaultArguments);
+        arguments.addAll(getStringListOrEmpty(groupConfig, "arguments"));
+
+        return FleetGroupConf.builder()
+                .groupName(groupConfig.getString("groupName"))
+                .deploymentConfig(groupConfig.getString("deploymentConfig"))
+                .arguments(arguments)
+                .build();
+    }
+
+    private List<String> getStringListOrEmpty(Config config, String path) {
+        return Try.of(() -> config.getStringList(path))
+                .recover(ConfigException.Missing.class, throwable -> Collections.emptyList())
+                .get();
+    }
+
+    @Override
+    public List<FleetGroupResult> deployFleet(List<FleetGroupConf> fleetGroupConfs, int maxConcurrentGroups) {
+        if (fleetGroupConfs.isEmpty()) {
+            log.warn("The fleet manifest does not contain any groups");
+            return Collections.emptyList();
+        }
+
+        // Warm up the shared lookups once so the groups don't all race to do them
+        log.info("Deploying [" + fleetGroupConfs.size() + "] groups, up to [" + maxConcurrentGroups + "] at a time, in account [" + iamHelper.getAccountId() + "] with endpoint [" + iotHelper.getEndpoint() + "]");
+
+        // The groups deploy on a thread pool so they are traced under the fleet's span
+        Optional<TraceSpan> parentSpan = traceHelper.getCurrentSpan();
+
+        List<Callable<FleetGroupResult>> deployments = fleetGroupConfs.stream()
+                .map(fleetGroupConf -> (Callable<FleetGroupResult>) () -> deployGroup(fleetGroupConf, parentSpan))
+                .collect(Collectors.toList());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(maxConcurrentGroups, fleetGroupConfs.size()), new ThreadFactoryImpl(BasicFleetHelper.class.getSimpleName()));
+
+        long startTime = System.nanoTime();
+
+        List<FleetGroupResult> fleetGroupResults = Try.of(() -> executorService.invokeAll(deployments))
+                .andFinally(executorService::shutdown)
+                .get()
+                .stream()
+                .map(future -> Try.of(future::get).get())
+                .collect(Collectors.toList());
+
+        logSummary(fleetGroupResults, System.nanoTime() - startTime);
+
+        return fleetGroupResults;
+    }
+
+    private FleetGroupResult deployGroup(FleetGroupConf fleetGroupConf, Optional<TraceSpan> parentSpan) {
+        String groupName = fleetGroupConf.getGroupName();
+        loggingHelper.logInfoWithName(log, groupName, "Starting deployment");
+
+        long startTime = System.nanoTime();
+
+        Try<Void> result;
+
+        try (TraceSpan traceSpan = traceHelper.startSpan("Group " + groupName, parentSpan)) {
+            result = Try.of(() -> innerDeployGroup(fleetGroupConf))
+                    .onFailure(throwable -> traceSpan.failed(throwable.getMessage()));
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        if (result.isSuccess()) {
+            loggingHelper.logInfoWithName(log, groupName, "Deployment succeeded in " + durationMillis + " ms");
+
+            return FleetGroupResult.builder()
+                    .groupName(groupName)
+                    .durationMillis(durationMillis)
+                    .build();
+        }
+
+        String error = String.valueOf(result.getCause().getMessage());
+        log.error("- [" + groupName + "] - Deployment failed in " + durationMillis + " ms [" + error + "]");
+
+        return FleetGroupResult.builder()
+                .groupName(groupName)
+                .error(Optional.of(error))
+                .durationMillis(durationMillis)
+                .build();
+    }
+
+    private Void innerDeployGroup(FleetGroupConf fleetGroupConf) {
+        List<String> args = new ArrayList<>();
+        args.add(SHORT_GROUP_NAME_OPTION);
+        args.add(fleetGroupConf.getGroupName());
+        args.add(SHORT_DEPLOYMENT_CONFIG_OPTION);
+        args.add(fleetGroupConf.getDeploymentConfig());
+        args.addAll(fleetGroupConf.getArguments());
+
+        DeploymentHelper deploymentHelper = deploymentHelperProvider.get();
+        DeploymentArguments deploymentArguments = deploymentHelper.getArgumentHelper().parseArguments(args.toArray(new String[args.size()]));
+
+        return deploymentHelper.execute(deploymentArguments);
+    }
+
+    private void logSummary(List<FleetGroupResult> fleetGroupResults, long durationNanos) {
+        List<FleetGroupResult> failures = fleetGroupResults.stream()
+                .filter(fleetGroupResult -> !fleetGroupResult.isSuccessful())
+                .collect(Collectors.toList());
+
+        double minutes = durationNanos / (double) TimeUnit.MINUTES.toNanos(1);
+        long successes = fleetGroupResults.size() - failures.size();
+
+        log.info("Fleet deployment results:");
+        fleetGroupResults.forEach(fleetGroupResult -> log.info(String.format("  %-40s %-9s %8d ms",
+                fleetGroupResult.getGroupName(),
+                fleetGroupResult.isSuccessful() ? "SUCCEEDED" : "FAILED",
+                fleetGroupResult.getDurationMillis())));
+
+        log.info(String.format("[%d] groups succeeded, [%d] failed in %.1f seconds (%.2f groups/minute)",
+                successes,
+                failures.size(),
+                minutes * 60,
+                minutes == 0 ? 0 : successes / minutes));
+
+        log.info("Greengrass listings [" + greengrassListingHelper.getPagesFetched() + "] pages fetched, [" + greengrassListingHelper.getIndexHits() + "] lookups served from the index");
+        log.info("Function build cache [" + buildCacheHelper.getHits() + "] hits, [" + buildCacheHelper.getMisses() + "] misses, [" + buildCacheHelper.getEvictions() + "] evictions");
+        log.info("Lambda functions [" + lambdaHelper.getFunctionsSkipped() + "] unchanged and skipped, [" + lambdaHelper.getBytesUploaded() + "] bytes of code uploaded");
+        log.info("Deployment status [" + deploymentStatusWaiterHelper.getPolls() + "] checks");
+        log.info("Artifact cache [" + artifactCacheHelper.getHits() + "] hits, [" + artifactCacheHelper.getRevalidations() + "] revalidated, [" + artifactCacheHelper.getDownloads() + "] downloaded");
+        log.info("Greengrass software [" + coreArtifactStoreHelper.getHashesCalculated() + "] hashed, [" + coreArtifactStoreHelper.getHashesReused() + "] verified from the stored hash");
+        log.info("SDK clients [" + sdkClientRegistryHelper.getClientsCreated() + "] created, [" + sdkClientRegistryHelper.getConnectionsOpened() + "] connections opened, [" + sdkClientRegistryHelper.getTlsHandshakes() + "] TLS handshakes");
+
+        failures.forEach(failure -> log.error("- [" + failure.getGroupName() + "] - " + failure.getError().get()));
+    }
+
+    @Override
+    public ArgumentHelper<FleetArguments> getArgumentHelper() {
+        return fleetArgumentHelper;
+    }
+
+    @Override
+    public FleetArguments getArguments() {
+        return new FleetArguments();
+    }
+}
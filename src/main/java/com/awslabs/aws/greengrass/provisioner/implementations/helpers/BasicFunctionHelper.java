@@ -3,6 +3,7 @@ package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 import com.awslabs.aws.greengrass.provisioner.data.LambdaFunctionArnInfo;
 import com.awslabs.aws.greengrass.provisioner.data.LambdaFunctionArnInfoAndFunctionConf;
 import com.awslabs.aws.greengrass.provisioner.data.Language;
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
 import com.awslabs.aws.greengrass.provisioner.data.conf.DeploymentConf;
 import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
 import com.awslabs.aws.greengrass.provisioner.data.functions.*;
@@ -51,6 +52,8 @@ public class BasicFunctionHelper implements FunctionHelper {
     GGConstants ggConstants;
     @Inject
     GGVariables ggVariables;
+    @Inject
+    TraceHelper traceHelper;
 
     @Inject
     public BasicFunctionHelper() {
@@ -513,6 +516,7 @@ public class BasicFunctionHelper implements FunctionHelper {
         // Get a list of all the build steps we will call
         List<Callable<LambdaFunctionArnInfoAndFunctionConf>> buildSteps = getCallableBuildSteps(buildableFunctions);
 
+        // Each step builds and then uploads its function so uploads overlap with builds that are still running
         List<LambdaFunctionArnInfoAndFunctionConf> lambdaFunctionArnInfoAndFunctionConfs = executorHelper.run(log, buildSteps);
 
         // Were there any errors?
@@ -526,7 +530,7 @@ public class BasicFunctionHelper implements FunctionHelper {
             errors.stream()
                     .forEach(this::logErrorInLambdaFunction);
 
-            System.exit(1);
+            throw new RuntimeException("Errors detected in Lambda functions");
         }
 
         // Convert the alias ARNs into variables to be put in the environment of each function
@@ -574,33 +578,46 @@ public class BasicFunctionHelper implements FunctionHelper {
 
     public List<Callable<LambdaFunctionArnInfoAndFunctionConf>> getCallableBuildSteps(List<BuildableFunction> buildableFunctions) {
         List<Callable<LambdaFunctionArnInfoAndFunctionConf>> buildSteps = new ArrayList<>();
+        // The steps run on a thread pool so they are traced under the span that was open when they were created
+        Optional<TraceSpan> parentSpan = traceHelper.getCurrentSpan();
 
         buildSteps.addAll(buildableFunctions.stream()
                 .filter(buildableFunction -> buildableFunction instanceof BuildableJavaMavenFunction)
-                .map(buildableFunction ->
-                        (Callable<LambdaFunctionArnInfoAndFunctionConf>) () -> createFunction((BuildableJavaMavenFunction) buildableFunction))
+                .map(buildableFunction -> traceBuildStep(parentSpan, buildableFunction,
+                        () -> createFunction((BuildableJavaMavenFunction) buildableFunction)))
                 .collect(Collectors.toList()));
 
         buildSteps.addAll(buildableFunctions.stream()
                 .filter(buildableFunction -> buildableFunction instanceof BuildableJavaGradleFunction)
-                .map(buildableFunction ->
-                        (Callable<LambdaFunctionArnInfoAndFunctionConf>) () -> createFunction((BuildableJavaGradleFunction) buildableFunction))
+                .map(buildableFunction -> traceBuildStep(parentSpan, buildableFunction,
+                        () -> createFunction((BuildableJavaGradleFunction) buildableFunction)))
                 .collect(Collectors.toList()));
 
         buildSteps.addAll(buildableFunctions.stream()
                 .filter(buildableFunction -> buildableFunction instanceof BuildablePythonFunction)
-                .map(buildableFunction ->
-                        (Callable<LambdaFunctionArnInfoAndFunctionConf>) () -> createFunction((BuildablePythonFunction) buildableFunction))
+                .map(buildableFunction -> traceBuildStep(parentSpan, buildableFunction,
+                        () -> createFunction((BuildablePythonFunction) buildableFunction)))
                 .collect(Collectors.toList()));
 
         buildSteps.addAll(buildableFunctions.stream()
                 .filter(buildableFunction -> buildableFunction instanceof BuildableNodeFunction)
-                .map(buildableFunction ->
-                        (Callable<LambdaFunctionArnInfoAndFunctionConf>) () -> createFunction((BuildableNodeFunction) buildableFunction))
+                .map(buildableFunction -> traceBuildStep(parentSpan, buildableFunction,
+                        () -> createFunction((BuildableNodeFunction) buildableFunction)))
                 .collect(Collectors.toList()));
         return buildSteps;
     }
 
+    private Callable<LambdaFunctionArnInfoAndFunctionConf> traceBuildStep(Optional<TraceSpan> parentSpan, BuildableFunction buildableFunction, Callable<LambdaFunctionArnInfoAndFunctionConf> buildStep) {
+        return () -> {
+            try (TraceSpan traceSpan = traceHelper.startSpan("Function " + buildableFunction.getFunctionConf().getFunctionName(), parentSpan)) {
+                LambdaFunctionArnInfoAndFunctionConf lambdaFunctionArnInfoAndFunctionConf = buildStep.call();
+                lambdaFunctionArnInfoAndFunctionConf.getError().ifPresent(traceSpan::failed);
+
+                return lambdaFunctionArnInfoAndFunctionConf;
+            }
+        };
+    }
+
     @Override
     public void installJavaDependencies() {
         mavenBuilder.installDependencies();
@@ -35,6 +35,16 @@ public class BasicGGConstants implements GGConstants {
     @Getter
     private final String buildDirectory = "build";
     @Getter
+    private final String functionCacheDirectory = "build/function-cache";
+    @Getter
+    private final long functionCacheMaxSizeInBytes = 1024L * 1024L * 1024L;
+    @Getter
+    private final String artifactCacheDirectory = "build/artifact-cache";
+    @Getter
+    private final String deviceTesterInstallDirectory = "build/device-tester";
+    @Getter
+    private final String coreArtifactStoreDirectory = "build/core-artifacts";
+    @Getter
     private final String certsDirectoryPrefix = "certs";
     @Getter
     private final String configDirectoryPrefix = "config";
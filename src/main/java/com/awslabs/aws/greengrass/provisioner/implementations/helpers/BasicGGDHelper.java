@@ -43,17 +43,14 @@ public class BasicGGDHelper implements GGDHelper {
 
         return Try.of(() -> innerGetGgdConf(groupName, ggdName, ggdConfigFile, scriptPath, ggdConfBuilder))
                 .onFailure(throwable -> Match(throwable).of(
-                        Case($(instanceOf(ConfigException.Missing.class)), this::logErrorAndExit),
+                        Case($(instanceOf(ConfigException.Missing.class)), this::logErrorAndThrow),
                         Case($(), exceptionHelper::rethrowAsRuntimeException)))
                 .get();
     }
 
-    private Void logErrorAndExit(ConfigException.Missing throwable) {
+    private Void logErrorAndThrow(ConfigException.Missing throwable) {
         log.error(throwable.getMessage());
-        log.error("The configuration file for the GGD may be missing");
-        System.exit(1);
-
-        return null;
+        throw new RuntimeException("The configuration file for the GGD may be missing", throwable);
     }
 
     private GGDConf innerGetGgdConf(String groupName, String ggdName, File ggdConfigFile, File scriptPath, GGDConf.GGDConfBuilder ggdConfBuilder) {
@@ -10,13 +10,16 @@ import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.*;
 import com.google.common.collect.ImmutableSet;
 import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.greengrass.GreengrassAsyncClient;
 import software.amazon.awssdk.services.greengrass.GreengrassClient;
 import software.amazon.awssdk.services.greengrass.model.*;
 import software.amazon.awssdk.services.iam.model.Role;
 import software.amazon.awssdk.services.iot.model.ResourceNotFoundException;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,7 +31,11 @@ public class BasicGreengrassHelper implements GreengrassHelper {
     public static final String SUCCESS = "Success";
     public static final String BUILDING = "Building";
     @Inject
-    GreengrassClient greengrassClient;
+    Provider<GreengrassClient> greengrassClientProvider;
+    @Inject
+    Provider<GreengrassAsyncClient> greengrassAsyncClientProvider;
+    @Inject
+    AsyncSdkHelper asyncSdkHelper;
     @Inject
     IoHelper ioHelper;
     @Inject
@@ -39,6 +46,8 @@ public class BasicGreengrassHelper implements GreengrassHelper {
     GGVariables ggVariables;
     @Inject
     IdExtractor idExtractor;
+    @Inject
+    GreengrassListingHelper greengrassListingHelper;
 
     @Inject
     public BasicGreengrassHelper() {
@@ -50,33 +59,18 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .roleArn(role.arn())
                 .build();
 
-        greengrassClient.associateServiceRoleToAccount(associateServiceRoleToAccountRequest);
+        greengrassClientProvider.get().associateServiceRoleToAccount(associateServiceRoleToAccountRequest);
     }
 
     @Override
     public Optional<GroupInformation> getGroupInformation(String groupNameOrGroupId) {
-        ListGroupsRequest listGroupsRequest = ListGroupsRequest.builder().build();
-
-        ListGroupsResponse listGroupsResponse;
-
-        do {
-            listGroupsResponse = greengrassClient.listGroups(listGroupsRequest);
+        Optional<GroupInformation> optionalGroupInformation = greengrassListingHelper.getGroupInformation(groupNameOrGroupId);
 
-            for (GroupInformation groupInformation : listGroupsResponse.groups()) {
-                if (groupInformation.name().equals(groupNameOrGroupId)) {
-                    return Optional.ofNullable(groupInformation);
-                }
-
-                if (groupInformation.id().equals(groupNameOrGroupId)) {
-                    return Optional.ofNullable(groupInformation);
-                }
-            }
-
-            listGroupsRequest = ListGroupsRequest.builder().nextToken(listGroupsResponse.nextToken()).build();
-        } while (listGroupsResponse.nextToken() != null);
+        if (!optionalGroupInformation.isPresent()) {
+            log.warn("No group was found with name or ID [" + groupNameOrGroupId + "]");
+        }
 
-        log.warn("No group was found with name or ID [" + groupNameOrGroupId + "]");
-        return Optional.empty();
+        return optionalGroupInformation;
     }
 
     private Optional<String> getGroupId(String groupName) {
@@ -86,51 +80,15 @@ public class BasicGreengrassHelper implements GreengrassHelper {
     }
 
     private String getCoreDefinitionId(String coreDefinitionName) {
-        ListCoreDefinitionsRequest listCoreDefinitionsRequest = ListCoreDefinitionsRequest.builder().build();
-
-        ListCoreDefinitionsResponse listCoreDefinitionsResponse;
-
-        do {
-            listCoreDefinitionsResponse = greengrassClient.listCoreDefinitions(listCoreDefinitionsRequest);
-
-            for (DefinitionInformation definitionInformation : listCoreDefinitionsResponse.definitions()) {
-                if (definitionInformation.name() == null) {
-                    continue;
-                }
-
-                if (definitionInformation.name().equals(coreDefinitionName)) {
-                    return definitionInformation.id();
-                }
-            }
-
-            listCoreDefinitionsRequest = ListCoreDefinitionsRequest.builder().nextToken(listCoreDefinitionsResponse.nextToken()).build();
-        } while (listCoreDefinitionsResponse.nextToken() != null);
-
-        return null;
+        return greengrassListingHelper.getCoreDefinitionInformation(coreDefinitionName)
+                .map(DefinitionInformation::id)
+                .orElse(null);
     }
 
     private String getDeviceDefinitionId(String deviceDefinitionName) {
-        ListDeviceDefinitionsRequest listDeviceDefinitionsRequest = ListDeviceDefinitionsRequest.builder().build();
-
-        ListDeviceDefinitionsResponse listDeviceDefinitionsResponse;
-
-        do {
-            listDeviceDefinitionsResponse = greengrassClient.listDeviceDefinitions(listDeviceDefinitionsRequest);
-
-            for (DefinitionInformation definitionInformation : listDeviceDefinitionsResponse.definitions()) {
-                if (definitionInformation.name() == null) {
-                    continue;
-                }
-
-                if (definitionInformation.name().equals(deviceDefinitionName)) {
-                    return definitionInformation.id();
-                }
-            }
-
-            listDeviceDefinitionsRequest = ListDeviceDefinitionsRequest.builder().nextToken(listDeviceDefinitionsResponse.nextToken()).build();
-        } while (listDeviceDefinitionsResponse.nextToken() != null);
-
-        return null;
+        return greengrassListingHelper.getDeviceDefinitionInformation(deviceDefinitionName)
+                .map(DefinitionInformation::id)
+                .orElse(null);
     }
 
     @Override
@@ -147,7 +105,17 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .name(groupName)
                 .build();
 
-        CreateGroupResponse createGroupResponse = greengrassClient.createGroup(createGroupRequest);
+        CreateGroupResponse createGroupResponse = greengrassClientProvider.get().createGroup(createGroupRequest);
+
+        greengrassListingHelper.putGroupInformation(GroupInformation.builder()
+                .arn(createGroupResponse.arn())
+                .creationTimestamp(createGroupResponse.creationTimestamp())
+                .id(createGroupResponse.id())
+                .lastUpdatedTimestamp(createGroupResponse.lastUpdatedTimestamp())
+                .latestVersion(createGroupResponse.latestVersion())
+                .latestVersionArn(createGroupResponse.latestVersionArn())
+                .name(createGroupResponse.name())
+                .build());
 
         return createGroupResponse.id();
     }
@@ -166,23 +134,23 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .roleArn(greengrassRole.arn())
                 .build();
 
-        greengrassClient.associateRoleToGroup(associateRoleToGroupRequest);
+        greengrassClientProvider.get().associateRoleToGroup(associateRoleToGroupRequest);
     }
 
     @Override
     public String createCoreDefinitionAndVersion(String coreDefinitionName, String coreCertificateArn, String coreThingArn) {
-        String uuid = ioHelper.getUuid();
+        return asyncSdkHelper.join(createCoreDefinitionAndVersionAsync(coreDefinitionName, coreCertificateArn, coreThingArn));
+    }
 
-        String coreDefinitionId = getCoreDefinitionId(coreDefinitionName);
+    @Override
+    public CompletableFuture<String> createCoreDefinitionAndVersionAsync(String coreDefinitionName, String coreCertificateArn, String coreThingArn) {
+        String uuid = ioHelper.getUuid();
 
-        if (coreDefinitionId == null) {
-            CreateCoreDefinitionRequest createCoreDefinitionRequest = CreateCoreDefinitionRequest.builder()
-                    .name(coreDefinitionName)
-                    .build();
+        Optional<String> optionalCoreDefinitionId = Optional.ofNullable(getCoreDefinitionId(coreDefinitionName));
 
-            CreateCoreDefinitionResponse createCoreDefinitionResponse = greengrassClient.createCoreDefinition(createCoreDefinitionRequest);
-            coreDefinitionId = createCoreDefinitionResponse.id();
-        }
+        CompletableFuture<String> coreDefinitionIdFuture = optionalCoreDefinitionId.isPresent() ?
+                CompletableFuture.completedFuture(optionalCoreDefinitionId.get()) :
+                createCoreDefinition(coreDefinitionName);
 
         Core core = Core.builder()
                 .certificateArn(coreCertificateArn)
@@ -191,13 +159,34 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .thingArn(coreThingArn)
                 .build();
 
-        CreateCoreDefinitionVersionRequest createCoreDefinitionVersionRequest = CreateCoreDefinitionVersionRequest.builder()
-                .coreDefinitionId(coreDefinitionId)
-                .cores(core)
+        return coreDefinitionIdFuture.thenCompose(coreDefinitionId -> {
+            CreateCoreDefinitionVersionRequest createCoreDefinitionVersionRequest = CreateCoreDefinitionVersionRequest.builder()
+                    .coreDefinitionId(coreDefinitionId)
+                    .cores(core)
+                    .build();
+
+            return asyncSdkHelper.call(createCoreDefinitionVersionRequest, request -> greengrassClientProvider.get().createCoreDefinitionVersion(request), request -> greengrassAsyncClientProvider.get().createCoreDefinitionVersion(request));
+        }).thenApply(CreateCoreDefinitionVersionResponse::arn);
+    }
+
+    private CompletableFuture<String> createCoreDefinition(String coreDefinitionName) {
+        CreateCoreDefinitionRequest createCoreDefinitionRequest = CreateCoreDefinitionRequest.builder()
+                .name(coreDefinitionName)
                 .build();
 
-        CreateCoreDefinitionVersionResponse createCoreDefinitionVersionResponse = greengrassClient.createCoreDefinitionVersion(createCoreDefinitionVersionRequest);
-        return createCoreDefinitionVersionResponse.arn();
+        return asyncSdkHelper.call(createCoreDefinitionRequest, request -> greengrassClientProvider.get().createCoreDefinition(request), request -> greengrassAsyncClientProvider.get().createCoreDefinition(request)).thenApply(createCoreDefinitionResponse -> {
+            greengrassListingHelper.putCoreDefinitionInformation(DefinitionInformation.builder()
+                    .arn(createCoreDefinitionResponse.arn())
+                    .creationTimestamp(createCoreDefinitionResponse.creationTimestamp())
+                    .id(createCoreDefinitionResponse.id())
+                    .lastUpdatedTimestamp(createCoreDefinitionResponse.lastUpdatedTimestamp())
+                    .latestVersion(createCoreDefinitionResponse.latestVersion())
+                    .latestVersionArn(createCoreDefinitionResponse.latestVersionArn())
+                    .name(createCoreDefinitionResponse.name())
+                    .build());
+
+            return createCoreDefinitionResponse.id();
+        });
     }
 
     @Override
@@ -304,6 +293,21 @@ public class BasicGreengrassHelper implements GreengrassHelper {
 
     @Override
     public String createFunctionDefinitionVersion(Set<Function> functions) {
+        return asyncSdkHelper.join(createFunctionDefinitionVersionAsync(functions));
+    }
+
+    @Override
+    public CompletableFuture<String> createFunctionDefinitionVersionAsync(Set<Function> functions) {
+        CreateFunctionDefinitionRequest createFunctionDefinitionRequest = CreateFunctionDefinitionRequest.builder()
+                .name(DEFAULT)
+                .initialVersion(getFunctionDefinitionVersion(functions))
+                .build();
+
+        return asyncSdkHelper.call(createFunctionDefinitionRequest, request -> greengrassClientProvider.get().createFunctionDefinition(request), request -> greengrassAsyncClientProvider.get().createFunctionDefinition(request))
+                .thenApply(CreateFunctionDefinitionResponse::latestVersionArn);
+    }
+
+    FunctionDefinitionVersion getFunctionDefinitionVersion(Set<Function> functions) {
         functions = functions.stream()
                 .filter(function -> !function.functionArn().equals(ggConstants.getGgIpDetectorArn()))
                 .collect(Collectors.toSet());
@@ -373,14 +377,7 @@ public class BasicGreengrassHelper implements GreengrassHelper {
 
         functionDefinitionVersionBuilder.functions(allFunctions);
 
-        CreateFunctionDefinitionRequest createFunctionDefinitionRequest = CreateFunctionDefinitionRequest.builder()
-                .name(DEFAULT)
-                .initialVersion(functionDefinitionVersionBuilder.build())
-                .build();
-
-        CreateFunctionDefinitionResponse createFunctionDefinitionResponse = greengrassClient.createFunctionDefinition(createFunctionDefinitionRequest);
-
-        return createFunctionDefinitionResponse.latestVersionArn();
+        return functionDefinitionVersionBuilder.build();
     }
 
     private java.util.function.Function<Function, Function> getScrubFunctionForNoContainerFunction() {
@@ -401,28 +398,54 @@ public class BasicGreengrassHelper implements GreengrassHelper {
 
     @Override
     public String createDeviceDefinitionAndVersion(String deviceDefinitionName, List<Device> devices) {
-        String deviceDefinitionId = getDeviceDefinitionId(deviceDefinitionName);
+        return asyncSdkHelper.join(createDeviceDefinitionAndVersionAsync(deviceDefinitionName, devices));
+    }
+
+    @Override
+    public CompletableFuture<String> createDeviceDefinitionAndVersionAsync(String deviceDefinitionName, List<Device> devices) {
+        Optional<String> optionalDeviceDefinitionId = Optional.ofNullable(getDeviceDefinitionId(deviceDefinitionName));
 
-        if (deviceDefinitionId == null) {
-            CreateDeviceDefinitionRequest createDeviceDefinitionRequest = CreateDeviceDefinitionRequest.builder()
-                    .name(deviceDefinitionName)
+        CompletableFuture<String> deviceDefinitionIdFuture = optionalDeviceDefinitionId.isPresent() ?
+                CompletableFuture.completedFuture(optionalDeviceDefinitionId.get()) :
+                createDeviceDefinition(deviceDefinitionName);
+
+        return deviceDefinitionIdFuture.thenCompose(deviceDefinitionId -> {
+            CreateDeviceDefinitionVersionRequest createDeviceDefinitionVersionRequest = CreateDeviceDefinitionVersionRequest.builder()
+                    .deviceDefinitionId(deviceDefinitionId)
+                    .devices(devices)
                     .build();
 
-            CreateDeviceDefinitionResponse createDeviceDefinitionResponse = greengrassClient.createDeviceDefinition(createDeviceDefinitionRequest);
-            deviceDefinitionId = createDeviceDefinitionResponse.id();
-        }
+            return asyncSdkHelper.call(createDeviceDefinitionVersionRequest, request -> greengrassClientProvider.get().createDeviceDefinitionVersion(request), request -> greengrassAsyncClientProvider.get().createDeviceDefinitionVersion(request));
+        }).thenApply(CreateDeviceDefinitionVersionResponse::arn);
+    }
 
-        CreateDeviceDefinitionVersionRequest createDeviceDefinitionVersionRequest = CreateDeviceDefinitionVersionRequest.builder()
-                .deviceDefinitionId(deviceDefinitionId)
-                .devices(devices)
+    private CompletableFuture<String> createDeviceDefinition(String deviceDefinitionName) {
+        CreateDeviceDefinitionRequest createDeviceDefinitionRequest = CreateDeviceDefinitionRequest.builder()
+                .name(deviceDefinitionName)
                 .build();
 
-        CreateDeviceDefinitionVersionResponse createDeviceDefinitionVersionResponse = greengrassClient.createDeviceDefinitionVersion(createDeviceDefinitionVersionRequest);
-        return createDeviceDefinitionVersionResponse.arn();
+        return asyncSdkHelper.call(createDeviceDefinitionRequest, request -> greengrassClientProvider.get().createDeviceDefinition(request), request -> greengrassAsyncClientProvider.get().createDeviceDefinition(request)).thenApply(createDeviceDefinitionResponse -> {
+            greengrassListingHelper.putDeviceDefinitionInformation(DefinitionInformation.builder()
+                    .arn(createDeviceDefinitionResponse.arn())
+                    .creationTimestamp(createDeviceDefinitionResponse.creationTimestamp())
+                    .id(createDeviceDefinitionResponse.id())
+                    .lastUpdatedTimestamp(createDeviceDefinitionResponse.lastUpdatedTimestamp())
+                    .latestVersion(createDeviceDefinitionResponse.latestVersion())
+                    .latestVersionArn(createDeviceDefinitionResponse.latestVersionArn())
+                    .name(createDeviceDefinitionResponse.name())
+                    .build());
+
+            return createDeviceDefinitionResponse.id();
+        });
     }
 
     @Override
     public String createSubscriptionDefinitionAndVersion(List<Subscription> subscriptions) {
+        return asyncSdkHelper.join(createSubscriptionDefinitionAndVersionAsync(subscriptions));
+    }
+
+    @Override
+    public CompletableFuture<String> createSubscriptionDefinitionAndVersionAsync(List<Subscription> subscriptions) {
         SubscriptionDefinitionVersion subscriptionDefinitionVersion = SubscriptionDefinitionVersion.builder()
                 .subscriptions(subscriptions)
                 .build();
@@ -432,12 +455,17 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .initialVersion(subscriptionDefinitionVersion)
                 .build();
 
-        CreateSubscriptionDefinitionResponse createSubscriptionDefinitionResponse = greengrassClient.createSubscriptionDefinition(createSubscriptionDefinitionRequest);
-        return createSubscriptionDefinitionResponse.latestVersionArn();
+        return asyncSdkHelper.call(createSubscriptionDefinitionRequest, request -> greengrassClientProvider.get().createSubscriptionDefinition(request), request -> greengrassAsyncClientProvider.get().createSubscriptionDefinition(request))
+                .thenApply(CreateSubscriptionDefinitionResponse::latestVersionArn);
     }
 
     @Override
     public String createDefaultLoggerDefinitionAndVersion() {
+        return asyncSdkHelper.join(createDefaultLoggerDefinitionAndVersionAsync());
+    }
+
+    @Override
+    public CompletableFuture<String> createDefaultLoggerDefinitionAndVersionAsync() {
         Logger lambdaLogger = Logger.builder()
                 .id(ioHelper.getUuid())
                 .component(LoggerComponent.LAMBDA)
@@ -480,9 +508,8 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .initialVersion(loggerDefinitionVersion)
                 .build();
 
-        CreateLoggerDefinitionResponse createLoggerDefinitionResponse = greengrassClient.createLoggerDefinition(createLoggerDefinitionRequest);
-
-        return createLoggerDefinitionResponse.latestVersionArn();
+        return asyncSdkHelper.call(createLoggerDefinitionRequest, request -> greengrassClientProvider.get().createLoggerDefinition(request), request -> greengrassAsyncClientProvider.get().createLoggerDefinition(request))
+                .thenApply(CreateLoggerDefinitionResponse::latestVersionArn);
     }
 
     @Override
@@ -518,7 +545,17 @@ public class BasicGreengrassHelper implements GreengrassHelper {
         // When an ARN in the new version is NULL we take it from the current version.  This allows us to do updates more easily.
         createGroupVersionRequest = mergeCurrentAndNewVersion(newGroupVersion, currentGroupVersion, createGroupVersionRequest.toBuilder());
 
-        CreateGroupVersionResponse createGroupVersionResponse = greengrassClient.createGroupVersion(createGroupVersionRequest);
+        CreateGroupVersionResponse createGroupVersionResponse = greengrassClientProvider.get().createGroupVersion(createGroupVersionRequest);
+
+        if (optionalGroupInformation.isPresent()) {
+            // The latest version changed, keep the index up to date so the next update merges with this version
+            greengrassListingHelper.putGroupInformation(optionalGroupInformation.get().toBuilder()
+                    .latestVersion(createGroupVersionResponse.version())
+                    .latestVersionArn(createGroupVersionResponse.arn())
+                    .build());
+        } else {
+            greengrassListingHelper.invalidateGroups();
+        }
 
         return createGroupVersionResponse.version();
     }
@@ -565,26 +602,29 @@ public class BasicGreengrassHelper implements GreengrassHelper {
 
     @Override
     public String createDeployment(String groupId, String groupVersionId) {
+        return asyncSdkHelper.join(createDeploymentAsync(groupId, groupVersionId));
+    }
+
+    @Override
+    public CompletableFuture<String> createDeploymentAsync(String groupId, String groupVersionId) {
         CreateDeploymentRequest createDeploymentRequest = CreateDeploymentRequest.builder()
                 .groupId(groupId)
                 .groupVersionId(groupVersionId)
                 .deploymentType(DeploymentType.NEW_DEPLOYMENT)
                 .build();
 
-        CreateDeploymentResponse createDeploymentResponse = greengrassClient.createDeployment(createDeploymentRequest);
-        return createDeploymentResponse.deploymentId();
+        return asyncSdkHelper.call(createDeploymentRequest, request -> greengrassClientProvider.get().createDeployment(request), request -> greengrassAsyncClientProvider.get().createDeployment(request))
+                .thenApply(CreateDeploymentResponse::deploymentId);
     }
 
     @Override
-    public DeploymentStatus waitForDeploymentStatusToChange(String groupId, String deploymentId) {
+    public DeploymentStatus getDeploymentStatus(String groupId, String deploymentId) {
         GetDeploymentStatusRequest getDeploymentStatusRequest = GetDeploymentStatusRequest.builder()
                 .groupId(groupId)
                 .deploymentId(deploymentId)
                 .build();
 
-        log.info("Checking deployment status...");
-
-        GetDeploymentStatusResponse getDeploymentStatusResponse = greengrassClient.getDeploymentStatus(getDeploymentStatusRequest);
+        GetDeploymentStatusResponse getDeploymentStatusResponse = greengrassClientProvider.get().getDeploymentStatus(getDeploymentStatusRequest);
         String deploymentStatus = getDeploymentStatusResponse.deploymentStatus();
 
         if (deploymentStatus.equals(IN_PROGRESS) || deploymentStatus.equals(SUCCESS)) {
@@ -626,7 +666,6 @@ public class BasicGreengrassHelper implements GreengrassHelper {
 
             return DeploymentStatus.NEEDS_NEW_DEPLOYMENT;
         } else if (deploymentStatus.equals(BUILDING)) {
-            log.info("Deployment is being built...");
             return DeploymentStatus.BUILDING;
         }
 
@@ -637,6 +676,11 @@ public class BasicGreengrassHelper implements GreengrassHelper {
 
     @Override
     public String createResourceDefinitionVersion(List<FunctionConf> functionConfs) {
+        return asyncSdkHelper.join(createResourceDefinitionVersionAsync(functionConfs));
+    }
+
+    @Override
+    public CompletableFuture<String> createResourceDefinitionVersionAsync(List<FunctionConf> functionConfs) {
         List<Resource> resources = new ArrayList<>();
 
         for (FunctionConf functionConf : functionConfs) {
@@ -713,9 +757,8 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .name(ioHelper.getUuid())
                 .build();
 
-        CreateResourceDefinitionResponse createResourceDefinitionResponse = greengrassClient.createResourceDefinition(createResourceDefinitionRequest);
-
-        return createResourceDefinitionResponse.latestVersionArn();
+        return asyncSdkHelper.call(createResourceDefinitionRequest, request -> greengrassClientProvider.get().createResourceDefinition(request), request -> greengrassAsyncClientProvider.get().createResourceDefinition(request))
+                .thenApply(CreateResourceDefinitionResponse::latestVersionArn);
     }
 
     private void validateResourceDefinitionVersion(ResourceDefinitionVersion resourceDefinitionVersion) {
@@ -874,12 +917,12 @@ public class BasicGreengrassHelper implements GreengrassHelper {
 
     @Override
     public void disassociateServiceRoleFromAccount() {
-        greengrassClient.disassociateServiceRoleFromAccount(DisassociateServiceRoleFromAccountRequest.builder().build());
+        greengrassClientProvider.get().disassociateServiceRoleFromAccount(DisassociateServiceRoleFromAccountRequest.builder().build());
     }
 
     @Override
     public void disassociateRoleFromGroup(String groupId) {
-        greengrassClient.disassociateRoleFromGroup(DisassociateRoleFromGroupRequest.builder()
+        greengrassClientProvider.get().disassociateRoleFromGroup(DisassociateRoleFromGroupRequest.builder()
                 .groupId(groupId)
                 .build());
     }
@@ -891,7 +934,7 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .groupVersionId(groupInformation.latestVersion())
                 .build();
 
-        GetGroupVersionResponse groupVersionResponse = greengrassClient.getGroupVersion(getGroupVersionRequest);
+        GetGroupVersionResponse groupVersionResponse = greengrassClientProvider.get().getGroupVersion(getGroupVersionRequest);
 
         return groupVersionResponse;
     }
@@ -915,7 +958,7 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .functionDefinitionVersionId(idExtractor.extractVersionId(functionDefinitionVersionArn))
                 .build();
 
-        GetFunctionDefinitionVersionResponse getFunctionDefinitionVersionResponse = greengrassClient.getFunctionDefinitionVersion(getFunctionDefinitionVersionRequest);
+        GetFunctionDefinitionVersionResponse getFunctionDefinitionVersionResponse = greengrassClientProvider.get().getFunctionDefinitionVersion(getFunctionDefinitionVersionRequest);
 
         FunctionDefinitionVersion functionDefinition = getFunctionDefinitionVersionResponse.definition();
         List<Function> functions = functionDefinition.functions();
@@ -934,7 +977,7 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .deviceDefinitionVersionId(idExtractor.extractVersionId(deviceDefinitionVersionArn))
                 .build();
 
-        GetDeviceDefinitionVersionResponse getDeviceDefinitionVersionResponse = greengrassClient.getDeviceDefinitionVersion(getDeviceDefinitionVersionRequest);
+        GetDeviceDefinitionVersionResponse getDeviceDefinitionVersionResponse = greengrassClientProvider.get().getDeviceDefinitionVersion(getDeviceDefinitionVersionRequest);
 
         DeviceDefinitionVersion deviceDefinition = getDeviceDefinitionVersionResponse.definition();
         List<Device> devices = deviceDefinition.devices();
@@ -953,7 +996,7 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .subscriptionDefinitionVersionId(idExtractor.extractVersionId(subscriptionDefinitionVersionArn))
                 .build();
 
-        GetSubscriptionDefinitionVersionResponse getSubscriptionDefinitionVersionResponse = greengrassClient.getSubscriptionDefinitionVersion(getSubscriptionDefinitionVersionRequest);
+        GetSubscriptionDefinitionVersionResponse getSubscriptionDefinitionVersionResponse = greengrassClientProvider.get().getSubscriptionDefinitionVersion(getSubscriptionDefinitionVersionRequest);
 
         SubscriptionDefinitionVersion subscriptionDefinition = getSubscriptionDefinitionVersionResponse.definition();
         List<Subscription> subscriptions = subscriptionDefinition.subscriptions();
@@ -967,7 +1010,7 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .groupId(groupInformation.id())
                 .build();
 
-        ListGroupCertificateAuthoritiesResponse listGroupCertificateAuthoritiesResponse = greengrassClient.listGroupCertificateAuthorities(listGroupCertificateAuthoritiesRequest);
+        ListGroupCertificateAuthoritiesResponse listGroupCertificateAuthoritiesResponse = greengrassClientProvider.get().listGroupCertificateAuthorities(listGroupCertificateAuthoritiesRequest);
 
         if (listGroupCertificateAuthoritiesResponse.groupCertificateAuthorities().size() != 1) {
             log.error("Currently we do not support multiple group CAs");
@@ -979,7 +1022,7 @@ public class BasicGreengrassHelper implements GreengrassHelper {
                 .certificateAuthorityId(listGroupCertificateAuthoritiesResponse.groupCertificateAuthorities().get(0).groupCertificateAuthorityId())
                 .build();
 
-        GetGroupCertificateAuthorityResponse getGroupCertificateAuthorityResponse = greengrassClient.getGroupCertificateAuthority(getGroupCertificateAuthorityRequest);
+        GetGroupCertificateAuthorityResponse getGroupCertificateAuthorityResponse = greengrassClientProvider.get().getGroupCertificateAuthority(getGroupCertificateAuthorityRequest);
 
         return getGroupCertificateAuthorityResponse;
     }
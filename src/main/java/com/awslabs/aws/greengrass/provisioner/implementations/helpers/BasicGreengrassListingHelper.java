@@ -0,0 +1,211 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GreengrassListingHelper;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.greengrass.GreengrassClient;
+import software.amazon.awssdk.services.greengrass.model.*;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Slf4j
+public class BasicGreengrassListingHelper implements GreengrassListingHelper {
+    @Inject
+    Provider<GreengrassClient> greengrassClientProvider;
+
+    // Long enough to cover a deployment, short enough that server mode jobs don't see groups deleted long ago
+    private static final long MAX_AGE_MILLISECONDS = 5 * 60 * 1000;
+
+    // How long the index is used before it is listed again from the first page
+    long maxAgeMilliseconds = MAX_AGE_MILLISECONDS;
+
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicInteger indexHits = new AtomicInteger();
+
+    private final PagedIndex<GroupInformation> groups = new PagedIndex<>(this::listGroups, GroupInformation::name, GroupInformation::id);
+    private final PagedIndex<DefinitionInformation> coreDefinitions = new PagedIndex<>(this::listCoreDefinitions, DefinitionInformation::name, DefinitionInformation::id);
+    private final PagedIndex<DefinitionInformation> deviceDefinitions = new PagedIndex<>(this::listDeviceDefinitions, DefinitionInformation::name, DefinitionInformation::id);
+
+    @Inject
+    public BasicGreengrassListingHelper() {
+    }
+
+    @Override
+    public Optional<GroupInformation> getGroupInformation(String groupNameOrGroupId) {
+        // Groups can be looked up by name or ID, definitions are only looked up by name
+        return groups.find(groupNameOrGroupId, true);
+    }
+
+    @Override
+    public Optional<DefinitionInformation> getCoreDefinitionInformation(String coreDefinitionName) {
+        return coreDefinitions.find(coreDefinitionName, false);
+    }
+
+    @Override
+    public Optional<DefinitionInformation> getDeviceDefinitionInformation(String deviceDefinitionName) {
+        return deviceDefinitions.find(deviceDefinitionName, false);
+    }
+
+    @Override
+    public void putGroupInformation(GroupInformation groupInformation) {
+        groups.put(groupInformation);
+    }
+
+    @Override
+    public void putCoreDefinitionInformation(DefinitionInformation definitionInformation) {
+        coreDefinitions.put(definitionInformation);
+    }
+
+    @Override
+    public void putDeviceDefinitionInformation(DefinitionInformation definitionInformation) {
+        deviceDefinitions.put(definitionInformation);
+    }
+
+    @Override
+    public void invalidateGroups() {
+        groups.clear();
+    }
+
+    @Override
+    public void invalidateCoreDefinitions() {
+        coreDefinitions.clear();
+    }
+
+    @Override
+    public void invalidateDeviceDefinitions() {
+        deviceDefinitions.clear();
+    }
+
+    @Override
+    public int getPagesFetched() {
+        return pagesFetched.get();
+    }
+
+    @Override
+    public int getIndexHits() {
+        return indexHits.get();
+    }
+
+    private Tuple2<List<GroupInformation>, String> listGroups(String nextToken) {
+        ListGroupsResponse listGroupsResponse = greengrassClientProvider.get().listGroups(ListGroupsRequest.builder().nextToken(nextToken).build());
+
+        return Tuple.of(listGroupsResponse.groups(), listGroupsResponse.nextToken());
+    }
+
+    private Tuple2<List<DefinitionInformation>, String> listCoreDefinitions(String nextToken) {
+        ListCoreDefinitionsResponse listCoreDefinitionsResponse = greengrassClientProvider.get().listCoreDefinitions(ListCoreDefinitionsRequest.builder().nextToken(nextToken).build());
+
+        return Tuple.of(listCoreDefinitionsResponse.definitions(), listCoreDefinitionsResponse.nextToken());
+    }
+
+    private Tuple2<List<DefinitionInformation>, String> listDeviceDefinitions(String nextToken) {
+        ListDeviceDefinitionsResponse listDeviceDefinitionsResponse = greengrassClientProvider.get().listDeviceDefinitions(ListDeviceDefinitionsRequest.builder().nextToken(nextToken).build());
+
+        return Tuple.of(listDeviceDefinitionsResponse.definitions(), listDeviceDefinitionsResponse.nextToken());
+    }
+
+    /**
+     * A listing that is fetched one page at a time.  Lookups that miss the index continue from the last page fetched
+     * so each page is only requested once while entries are being found.  A miss once every page has been fetched, or
+     * any lookup once the index is older than the maximum age, rebuilds the index from the first page since entries
+     * may have been created, renamed or deleted since the listing was read.
+     */
+    private class PagedIndex<T> {
+        private final Function<String, Tuple2<List<T>, String>> pageFetcher;
+        private final Function<T, String> nameExtractor;
+        private final Function<T, String> idExtractor;
+        private final Map<String, T> byName = new HashMap<>();
+        private final Map<String, T> byId = new HashMap<>();
+        private String nextToken = null;
+        private boolean complete = false;
+        private long listedAtMillis = System.currentTimeMillis();
+
+        PagedIndex(Function<String, Tuple2<List<T>, String>> pageFetcher, Function<T, String> nameExtractor, Function<T, String> idExtractor) {
+            this.pageFetcher = pageFetcher;
+            this.nameExtractor = nameExtractor;
+            this.idExtractor = idExtractor;
+        }
+
+        synchronized Optional<T> find(String nameOrId, boolean matchId) {
+            if ((System.currentTimeMillis() - listedAtMillis) >= maxAgeMilliseconds) {
+                clear();
+            }
+
+            Optional<T> optionalValue = lookup(nameOrId, matchId);
+
+            if (optionalValue.isPresent()) {
+                indexHits.incrementAndGet();
+                return optionalValue;
+            }
+
+            if (complete) {
+                clear();
+            }
+
+            while (!complete) {
+                Tuple2<List<T>, String> page = pageFetcher.apply(nextToken);
+                pagesFetched.incrementAndGet();
+
+                // Keep the first entry when names are duplicated, that is the entry a linear scan would have found
+                page._1.forEach(this::index);
+
+                nextToken = page._2;
+                complete = (nextToken == null);
+
+                optionalValue = lookup(nameOrId, matchId);
+
+                if (optionalValue.isPresent()) {
+                    return optionalValue;
+                }
+            }
+
+            return Optional.empty();
+        }
+
+        synchronized void put(T value) {
+            String name = nameExtractor.apply(value);
+
+            if (name != null) {
+                byName.put(name, value);
+            }
+
+            byId.put(idExtractor.apply(value), value);
+        }
+
+        synchronized void clear() {
+            byName.clear();
+            byId.clear();
+            nextToken = null;
+            complete = false;
+            listedAtMillis = System.currentTimeMillis();
+        }
+
+        private void index(T value) {
+            String name = nameExtractor.apply(value);
+
+            if (name != null) {
+                byName.putIfAbsent(name, value);
+            }
+
+            byId.putIfAbsent(idExtractor.apply(value), value);
+        }
+
+        private Optional<T> lookup(String nameOrId, boolean matchId) {
+            T value = byName.get(nameOrId);
+
+            if ((value == null) && matchId) {
+                value = byId.get(nameOrId);
+            }
+
+            return Optional.ofNullable(value);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 
 import com.awslabs.aws.greengrass.provisioner.data.Architecture;
+import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogEvent;
 import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogMessageType;
 import com.awslabs.aws.greengrass.provisioner.data.arguments.TestArguments;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.*;
@@ -11,6 +12,7 @@ import io.vavr.collection.List;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.SystemUtils;
 import software.amazon.awssdk.services.greengrass.model.GetGroupVersionResponse;
 import software.amazon.awssdk.services.greengrass.model.GroupInformation;
@@ -26,7 +28,6 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -69,6 +70,12 @@ public class BasicGroupTestHelper implements GroupTestHelper {
     ProcessHelper processHelper;
     @Inject
     DeviceTesterHelper deviceTesterHelper;
+    @Inject
+    SshSessionPoolHelper sshSessionPoolHelper;
+    @Inject
+    ArtifactCacheHelper artifactCacheHelper;
+    @Inject
+    DeviceTesterInstallHelper deviceTesterInstallHelper;
     private Option<String> optionalCurrentRunningTest = Option.none();
 
     @Inject
@@ -116,195 +123,186 @@ public class BasicGroupTestHelper implements GroupTestHelper {
 
             if (deviceTesterLocation.isFile()) {
                 // It's the archive, we need to extract it
-                deviceTesterDirectory = Try.of(() -> extractDeviceTester(deviceTesterLocation)).get();
+                deviceTesterDirectory = extractDeviceTester(deviceTesterLocation);
             }
         } else {
-            File deviceTesterZip = Try.of(() -> ioHelper.getTempFile("devicetester", "zip")).get();
-            log.info("Downloading Device Tester to [{}] ...", deviceTesterZip.getAbsolutePath());
+            log.info("Getting Device Tester ...");
             // CloudFront requires the referer to be filled in
-            Try.of(() -> ioHelper.download(urlForDeviceTester, deviceTesterZip, Optional.of("https://aws.amazon.com/greengrass/device-tester/"))).get();
-            deviceTesterDirectory = Try.of(() -> extractDeviceTester(deviceTesterZip)).get();
+            File deviceTesterZip = artifactCacheHelper.get(urlForDeviceTester, Optional.of("https://aws.amazon.com/greengrass/device-tester/")).toFile();
+            deviceTesterDirectory = extractDeviceTester(deviceTesterZip);
         }
 
-        // Create the <AWS Account #>.<Region>.CoreAndGroupInfo.json file for /var/lib/GGQ on the device
         log.info("Download and extraction of Device Tester is complete");
 
-        // Connect to the device under test via SSH
-        Session session = null;
-
         try {
-            session = getSshSession(testArguments, true);
-
-            // Create a final version of this variable so it can be used in lambdas
-            final Session finalSession = session;
-
-            // Clear out the GGQ directory
-            if (testArguments.clean) {
-                log.info("Cleaning the {} directory", VAR_LIB_GGQ);
-                Try.of(() -> ioHelper.runCommand(finalSession, String.join(" ", "sudo rm -rf", VAR_LIB_GGQ))).get();
-            } else if (testArguments.generateConfig) {
-                log.info("Generating the {} config", VAR_LIB_GGQ);
-                // Copy the <AWS Account #>.<Region>.CoreAndGroupInfo.json to /var/lib/GGQ on the device
-                Try.of(() -> ioHelper.runCommand(finalSession, String.join(" ", "sudo mkdir -p", VAR_LIB_GGQ))).get();
-
-                Try.of(() -> ioHelper.runCommand(finalSession, String.join(" ", "sudo chmod 777", VAR_LIB_GGQ))).get();
-
-                File coreAndGroupInfoJsonTemp = Try.of(() -> ioHelper.getTempFile("CoreAndGroupInfoJson", "tmp")).get();
-                coreAndGroupInfoJsonTemp.deleteOnExit();
-
-                String coreAndGroupInfoJson = generateCoreAndGroupInfoJson(groupInformation);
-                ioHelper.writeFile(coreAndGroupInfoJsonTemp, coreAndGroupInfoJson.getBytes());
-
-                String remoteCoreAndGroupInfoFilename = String.join("/",
-                        VAR_LIB_GGQ,
-                        String.join(".",
-                                iamHelper.getAccountId(),
-                                awsHelper.getCurrentRegion().toString(),
-                                "CoreAndGroupInfo",
-                                "json"));
-
-                Try.of(() -> ioHelper.sendFile(finalSession, coreAndGroupInfoJsonTemp.getAbsolutePath(), remoteCoreAndGroupInfoFilename)).get();
-            } else {
-                log.info("Not cleaning or generating the config in {}", VAR_LIB_GGQ);
-            }
-
-            // Stop Greengrass if it is running already
-            log.info("Stopping Greengrass if it is running");
-            Try.of(() -> ioHelper.runCommand(finalSession, "sudo systemctl stop greengrass")).get();
-            Try.of(() -> ioHelper.runCommand(finalSession, "/greengrass/ggc/core/greengrassd stop")).get();
-
-            // Create the config.json for the local configs directory
-            String localConfigJson = createLocalConfigJson();
-
-            // Create the device.json for the local configs directory
-            String localDeviceJson = createLocalDeviceJson(testArguments.deviceUnderTest, testArguments.user, testArguments.privateKeyPath, testArguments.architecture);
-
-            List<File> topLevelFiles = List.of(deviceTesterDirectory.listFiles());
-
-            if (topLevelFiles.size() != 1) {
-                throw new RuntimeException("Extracted more files than expected, could not find configs directory");
-            }
-
-            deviceTesterDirectory = topLevelFiles.single();
-
-            Path configsPath = deviceTesterDirectory.toPath().resolve("configs");
-
-            if (!configsPath.toFile().exists()) {
-                throw new RuntimeException("Could not find configs directory");
+            return runDeviceTester(testArguments, groupInformation, deviceTesterDirectory, testStartLocalDateTime);
+        } finally {
+            // The results have been moved to the output directory, everything else links to the shared install
+            if (deviceTesterDirectory != null) {
+                deviceTesterInstallHelper.deleteWorkingDirectory(deviceTesterDirectory);
             }
+        }
+    }
 
-            // Copy config.json to the local configs directory
-            ioHelper.writeFile(configsPath.resolve("config.json").toAbsolutePath().toString(), localConfigJson.getBytes());
-
-            // Copy device.json to the local configs directory
-            ioHelper.writeFile(configsPath.resolve("device.json").toAbsolutePath().toString(), localDeviceJson.getBytes());
+    private Void runDeviceTester(TestArguments testArguments, GroupInformation groupInformation, File deviceTesterDirectory, LocalDateTime testStartLocalDateTime) {
+        // Create the <AWS Account #>.<Region>.CoreAndGroupInfo.json file for /var/lib/GGQ on the device
 
-            Path deviceTesterPath = deviceTesterDirectory.toPath();
+        // Connect to the device under test via SSH, the session stays in the pool for later runs against this device
+        final Session finalSession = getSshSession(testArguments, true);
+
+        // Clear out the GGQ directory
+        if (testArguments.clean) {
+            log.info("Cleaning the {} directory", VAR_LIB_GGQ);
+            runCommands(finalSession, List.of(String.join(" ", "sudo rm -rf", VAR_LIB_GGQ)));
+        } else if (testArguments.generateConfig) {
+            log.info("Generating the {} config", VAR_LIB_GGQ);
+            // Copy the <AWS Account #>.<Region>.CoreAndGroupInfo.json to /var/lib/GGQ on the device
+            runCommands(finalSession, List.of(
+                    String.join(" ", "sudo mkdir -p", VAR_LIB_GGQ),
+                    String.join(" ", "sudo chmod 777", VAR_LIB_GGQ)));
+
+            File coreAndGroupInfoJsonTemp = Try.of(() -> ioHelper.getTempFile("CoreAndGroupInfoJson", "tmp")).get();
+            coreAndGroupInfoJsonTemp.deleteOnExit();
+
+            String coreAndGroupInfoJson = generateCoreAndGroupInfoJson(groupInformation);
+            ioHelper.writeFile(coreAndGroupInfoJsonTemp, coreAndGroupInfoJson.getBytes());
+
+            String remoteCoreAndGroupInfoFilename = String.join("/",
+                    VAR_LIB_GGQ,
+                    String.join(".",
+                            iamHelper.getAccountId(),
+                            awsHelper.getCurrentRegion().toString(),
+                            "CoreAndGroupInfo",
+                            "json"));
+
+            Try.of(() -> ioHelper.sendFile(finalSession, coreAndGroupInfoJsonTemp.getAbsolutePath(), remoteCoreAndGroupInfoFilename)).get();
+        } else {
+            log.info("Not cleaning or generating the config in {}", VAR_LIB_GGQ);
+        }
 
-            // Look for all of the binaries in subdirectories and make them executable
-            Try.of(() -> java.nio.file.Files.walk(deviceTesterPath.resolve("tests"))).get()
-                    .map(path -> path.toAbsolutePath().toString())
-                    .filter(path -> path.matches(".*/bin/[^/]+$"))
-                    .forEach(ioHelper::makeExecutable);
+        // Stop Greengrass if it is running already and execute some cleanup commands to prevent test failures, all
+        //   in one round trip
+        log.info("Stopping Greengrass if it is running and cleaning up after previous runs");
+        runCommands(finalSession, List.of(
+                "sudo systemctl stop greengrass",
+                "/greengrass/ggc/core/greengrassd stop",
+                // Prevent "File exists" error on ipd_test_1 and ipd_test_2 if the test ran previously
+                "sudo ip address del 172.0.0.2/32 dev lo",
+                // Kill any existing proxies left over from previous runs
+                getKillRemoteProcessesBySearchStringCommand(PROXY_SEARCH_STRING),
+                // Kill any existing daemons left over from previous runs
+                getKillRemoteProcessesBySearchStringCommand(DAEMON_SEARCH_STRING),
+                // Kill any existing tail commands we may have started in previous runs
+                getKillRemoteProcessesBySearchStringCommand(TAIL_FOLLOW_COMMAND),
+                // Remove the existing runtime.log
+                String.join(" ", "sudo rm -f", FULL_RUNTIME_LOG_PATH)));
+
+        // Create the config.json for the local configs directory
+        String localConfigJson = createLocalConfigJson();
+
+        // Create the device.json for the local configs directory
+        String localDeviceJson = createLocalDeviceJson(testArguments.deviceUnderTest, testArguments.user, testArguments.privateKeyPath, testArguments.architecture);
+
+        List<File> topLevelFiles = List.of(deviceTesterDirectory.listFiles());
+
+        if (topLevelFiles.size() != 1) {
+            throw new RuntimeException("Extracted more files than expected, could not find configs directory");
+        }
 
-            // Execute some cleanup commands to prevent test failures
+        deviceTesterDirectory = topLevelFiles.single();
 
-            // Prevent "File exists" error on ipd_test_1 and ipd_test_2 if the test ran previously
-            Try.of(() -> ioHelper.runCommand(finalSession, "sudo ip address del 172.0.0.2/32 dev lo")).get();
+        Path configsPath = deviceTesterDirectory.toPath().resolve("configs");
 
-            // Find the binary and execute it
-            List<File> mainExecutables = List.of(deviceTesterDirectory.toPath().resolve("bin").toFile().listFiles());
+        if (!configsPath.toFile().exists()) {
+            throw new RuntimeException("Could not find configs directory");
+        }
 
-            if (mainExecutables.size() != 1) {
-                throw new RuntimeException("Could not locate the Device Tester binary");
-            }
+        // Copy config.json to the local configs directory
+        ioHelper.writeFile(configsPath.resolve("config.json").toAbsolutePath().toString(), localConfigJson.getBytes());
 
-            File mainExecutable = mainExecutables.single();
-            ioHelper.makeExecutable(mainExecutable.getAbsolutePath());
+        // Copy device.json to the local configs directory
+        ioHelper.writeFile(configsPath.resolve("device.json").toAbsolutePath().toString(), localDeviceJson.getBytes());
 
-            File executionDirectory = mainExecutable.getParentFile().getParentFile();
+        // Executable bits on the test binaries are restored from the archive when it is extracted
 
-            List<String> deviceTesterAndArguments = List.of(
-                    "./bin/" + mainExecutable.getName(),
-                    "run-suite",
-                    "--suite-id",
-                    "GGQ_1",
-                    "--pool-id",
-                    DEVICE_POOL_ID);
+        // Find the binary and execute it
+        List<File> mainExecutables = List.of(deviceTesterDirectory.toPath().resolve("bin").toFile().listFiles());
 
-            ProcessBuilder deviceTesterProcessBuilder = processHelper.getProcessBuilder(deviceTesterAndArguments.asJava())
-                    .directory(executionDirectory);
+        if (mainExecutables.size() != 1) {
+            throw new RuntimeException("Could not locate the Device Tester binary");
+        }
 
-            Instant testStart = Instant.now();
-            java.util.HashMap<String, Try> testStatus = new java.util.HashMap<>();
-            java.util.List<Tuple3<String, Integer, Integer>> testLogIndex = new ArrayList<>();
-            java.util.List<String> reportLocations = new ArrayList<>();
+        File mainExecutable = mainExecutables.single();
+        ioHelper.makeExecutable(mainExecutable.getAbsolutePath());
 
-            // Kill any existing proxies left over from previous runs
-            killRemoteProcessesBySearchString(finalSession, PROXY_SEARCH_STRING);
+        File executionDirectory = mainExecutable.getParentFile().getParentFile();
 
-            // Kill any existing daemons left over from previous runs
-            killRemoteProcessesBySearchString(finalSession, DAEMON_SEARCH_STRING);
+        List<String> deviceTesterAndArguments = List.of(
+                "./bin/" + mainExecutable.getName(),
+                "run-suite",
+                "--suite-id",
+                "GGQ_1",
+                "--pool-id",
+                DEVICE_POOL_ID);
 
-            // Kill any existing tail commands we may have started in previous runs
-            killRemoteProcessesBySearchString(finalSession, TAIL_FOLLOW_COMMAND);
+        ProcessBuilder deviceTesterProcessBuilder = processHelper.getProcessBuilder(deviceTesterAndArguments.asJava())
+                .directory(executionDirectory);
 
-            // Remove the existing runtime.log
-            Try.of(() -> ioHelper.runCommand(finalSession, String.join(" ", "sudo rm -f", FULL_RUNTIME_LOG_PATH))).get();
+        Instant testStart = Instant.now();
+        java.util.HashMap<String, Try> testStatus = new java.util.HashMap<>();
+        java.util.List<Tuple3<String, Integer, Integer>> testLogIndex = new ArrayList<>();
+        java.util.List<String> reportLocations = new ArrayList<>();
 
-            // Start device tester
-            Optional<Integer> exitVal = processHelper.getOutputFromProcess(log, deviceTesterProcessBuilder, true,
-                    Optional.of(stdoutLogMessage -> handleLogMessage(stdoutLogMessage, testStatus, reportLocations)),
-                    Optional.of(stderrLogMessage -> handleLogMessage(stderrLogMessage, testStatus, reportLocations)));
+        // Start device tester
+        Optional<Integer> exitVal = processHelper.getOutputFromProcess(log, deviceTesterProcessBuilder, true,
+                Optional.of(stdoutLogMessage -> handleLogMessage(stdoutLogMessage, testStatus, reportLocations)),
+                Optional.of(stderrLogMessage -> handleLogMessage(stderrLogMessage, testStatus, reportLocations)));
 
-            Instant testEnd = Instant.now();
+        Instant testEnd = Instant.now();
 
-            Duration testDuration = Duration.between(testStart, testEnd);
+        Duration testDuration = Duration.between(testStart, testEnd);
 
-            log.info("Test duration: [{}]", testDuration);
+        log.info("Test duration: [{}]", testDuration);
 
-            exitVal.ifPresent(this::logIfDeviceTesterExitedWithError);
+        exitVal.ifPresent(this::logIfDeviceTesterExitedWithError);
 
-            java.util.List<String> testNames = testStatus.entrySet()
-                    .stream()
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
+        java.util.List<String> testNames = testStatus.entrySet()
+                .stream()
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
 
-            java.util.List<String> passingTests = testStatus.entrySet()
-                    .stream()
-                    .filter(entry -> entry.getValue().isSuccess())
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
+        java.util.List<String> passingTests = testStatus.entrySet()
+                .stream()
+                .filter(entry -> entry.getValue().isSuccess())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
 
-            java.util.List<String> failingTests = testStatus.entrySet()
-                    .stream()
-                    .filter(entry -> entry.getValue().isFailure())
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
+        java.util.List<String> failingTests = testStatus.entrySet()
+                .stream()
+                .filter(entry -> entry.getValue().isFailure())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
 
-            log.info("Tests executed: ");
+        log.info("Tests executed: ");
 
-            testNames.stream().forEach(log::info);
+        testNames.stream().forEach(log::info);
 
-            log.info("Tests passed: ");
+        log.info("Tests passed: ");
 
-            passingTests.stream().forEach(log::info);
+        passingTests.stream().forEach(log::info);
 
-            log.warn("Tests failed: ");
+        log.warn("Tests failed: ");
 
-            failingTests.stream().forEach(log::warn);
+        failingTests.stream().forEach(log::warn);
 
-            // Move the results to the requested location
-            String groupName = testArguments.groupName;
-            String outputDirectory = String.join("/", testArguments.outputDirectory,
-                    String.join("-", groupName, testStartLocalDateTime.toString()));
-            new File(outputDirectory).mkdirs();
+        // Move the results to the requested location
+        String groupName = testArguments.groupName;
+        String outputDirectory = String.join("/", testArguments.outputDirectory,
+                String.join("-", groupName, testStartLocalDateTime.toString()));
+        new File(outputDirectory).mkdirs();
 
-            reportLocations.stream().findFirst().ifPresent(path ->
-                    Try.of(() -> moveParentDirectory(path, outputDirectory)));
-        } finally {
-            safeDisconnect(session);
-        }
+        reportLocations.stream().findFirst().ifPresent(path ->
+                Try.of(() -> moveParentDirectory(path, outputDirectory)).get());
 
         return null;
     }
@@ -313,23 +311,30 @@ public class BasicGroupTestHelper implements GroupTestHelper {
         File parentFile = new File(path).getParentFile();
         File resultsDirectory = new File(String.join("/", outputDirectory, "results"));
         log.info("Moving results to [{}]", resultsDirectory.getAbsolutePath());
-        Files.move(parentFile.toPath(), resultsDirectory.toPath());
+        // The working directory is deleted after the run and is usually on another file system so this may be a copy
+        FileUtils.moveDirectory(parentFile, resultsDirectory);
 
         return null;
     }
 
-    public void killRemoteProcessesBySearchString(Session finalSession, String searchString) {
-        Try.of(() -> ioHelper.runCommand(finalSession, "ps ax | grep '" + searchString + "' | awk '{ print $1 }' | xargs sudo kill -9")).get();
+    private String getKillRemoteProcessesBySearchStringCommand(String searchString) {
+        return "ps ax | grep '" + searchString + "' | awk '{ print $1 }' | xargs sudo kill -9";
     }
 
-    private void safeDisconnect(Session session) {
-        Try.of(() -> {
-            session.disconnect();
-            return Optional.empty();
-        }).getOrElse(Optional.empty());
+    private void runCommands(Session session, List<String> commands) {
+        // These commands are all idempotent cleanup, failures are expected when there is nothing to clean up
+        java.util.List<Integer> exitStatuses = Try.of(() -> ioHelper.runCommands(session, commands.asJava())).get();
+
+        for (int index = 0; index < commands.size(); index++) {
+            log.debug("Exit status [" + exitStatuses.get(index) + "] for [" + commands.get(index) + "]");
+        }
     }
 
     private Session getSshSession(TestArguments testArguments, boolean logConnection) {
+        return sshSessionPoolHelper.getSession(testArguments.deviceUnderTest, testArguments.user, () -> connectSshSession(testArguments, logConnection));
+    }
+
+    private Session connectSshSession(TestArguments testArguments, boolean logConnection) {
         Optional<Session> optionalSession = threadHelper.timeLimitTask(
                 ioHelper.getSshSessionTask(testArguments.deviceUnderTest,
                         testArguments.user,
@@ -381,13 +386,9 @@ public class BasicGroupTestHelper implements GroupTestHelper {
     }
     */
 
-    private File extractDeviceTester(File deviceTesterZip) throws IOException {
-        File deviceTesterDirectory = Files.createTempDirectory(UUID.randomUUID().toString()).toFile();
-        deviceTesterDirectory.deleteOnExit();
-        log.info("Extracting Device Tester to [{}] ...", deviceTesterDirectory.getAbsolutePath());
-        Path deviceTesterPath = deviceTesterDirectory.toPath();
-        Try.of(() -> ioHelper.extractZip(deviceTesterZip, deviceTesterPath, filename -> filename)).get();
-        return deviceTesterDirectory;
+    private File extractDeviceTester(File deviceTesterZip) {
+        log.info("Preparing Device Tester ...");
+        return deviceTesterInstallHelper.getWorkingDirectory(deviceTesterZip);
     }
 
     private void logIfDeviceTesterExitedWithError(Integer value) {
@@ -399,13 +400,14 @@ public class BasicGroupTestHelper implements GroupTestHelper {
     private void handleLogMessage(String logMessage,
                                   java.util.HashMap<String, Try> testStatus,
                                   java.util.List<String> reportLocations) {
-        deviceTesterHelper.log(logMessage);
+        // Parse the line once and share the result with everything that needs it
+        DeviceTesterLogEvent deviceTesterLogEvent = deviceTesterHelper.parse(logMessage);
 
-        DeviceTesterLogMessageType logMessageType = deviceTesterHelper.getLogMessageType(logMessage);
+        deviceTesterHelper.log(deviceTesterLogEvent);
 
-        io.vavr.collection.Map<String, String> values = deviceTesterHelper.extractValuesFromLogMessage(logMessage);
+        DeviceTesterLogMessageType logMessageType = deviceTesterLogEvent.getType();
 
-        Option<String> optionalTestCaseId = deviceTesterHelper.getOptionalTestCaseId(values);
+        Option<String> optionalTestCaseId = deviceTesterLogEvent.getTestCaseId();
 
         if (logMessageType.equals(DeviceTesterLogMessageType.RUNNING)) {
             // A test started
@@ -431,14 +433,14 @@ public class BasicGroupTestHelper implements GroupTestHelper {
         }
 
         if (logMessageType.equals(DeviceTesterLogMessageType.ALL_TESTS_FINISHED)) {
-            String message = deviceTesterHelper.extractValuesFromLogMessage(logMessage).get(DeviceTesterHelper.MESSAGE_FIELD_NAME).get();
+            String message = deviceTesterLogEvent.getMessage();
             String aggregatedReportLocation = message.substring(DeviceTesterLogMessageType.Constants.ALL_TESTS_FINISHED_MESSAGE.length());
             reportLocations.add(aggregatedReportLocation);
             return;
         }
 
         if (logMessageType.equals(DeviceTesterLogMessageType.REPORT_GENERATED)) {
-            String message = deviceTesterHelper.extractValuesFromLogMessage(logMessage).get(DeviceTesterHelper.MESSAGE_FIELD_NAME).get();
+            String message = deviceTesterLogEvent.getMessage();
             String reportLocation = message.substring(DeviceTesterLogMessageType.Constants.REPORT_GENERATED_MESSAGE.length());
             reportLocations.add(reportLocation);
             return;
@@ -11,6 +11,7 @@ import software.amazon.awssdk.services.lambda.model.GetFunctionResponse;
 import software.amazon.awssdk.services.lambda.model.PublishVersionResponse;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -23,8 +24,9 @@ public class BasicGroupUpdateHelper implements GroupUpdateHelper {
     GreengrassHelper greengrassHelper;
     @Inject
     SubscriptionHelper subscriptionHelper;
+    // Each update needs its own deployment helper since it keeps per-deployment state
     @Inject
-    DeploymentHelper deploymentHelper;
+    Provider<DeploymentHelper> deploymentHelperProvider;
     @Inject
     IotHelper iotHelper;
     @Inject
@@ -198,7 +200,7 @@ public class BasicGroupUpdateHelper implements GroupUpdateHelper {
             };
         }
 
-        Try.of(() -> deploymentHelper.createAndWaitForDeployment(Optional.empty(), Optional.empty(), groupId, groupVersionId))
+        Try.of(() -> deploymentHelperProvider.get().createAndWaitForDeployment(Optional.empty(), Optional.empty(), groupId, groupVersionId))
                 .onSuccess(successHandler)
                 .get();
     }
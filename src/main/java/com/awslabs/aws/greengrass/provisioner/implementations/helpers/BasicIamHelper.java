@@ -2,6 +2,7 @@ package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IamHelper;
 import io.vavr.control.Try;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.services.iam.IamClient;
 import software.amazon.awssdk.services.iam.model.*;
@@ -9,13 +10,16 @@ import software.amazon.awssdk.services.sts.StsClient;
 import software.amazon.awssdk.services.sts.model.GetCallerIdentityRequest;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 
 @Slf4j
 public class BasicIamHelper implements IamHelper {
     @Inject
-    IamClient iamClient;
+    Provider<IamClient> iamClientProvider;
     @Inject
-    StsClient stsClient;
+    Provider<StsClient> stsClientProvider;
+    @Getter(lazy = true)
+    private final String accountId = describeAccountId();
 
     @Inject
     public BasicIamHelper() {
@@ -24,7 +28,7 @@ public class BasicIamHelper implements IamHelper {
     private Role getRole(String name) {
         GetRoleRequest getRoleRequest = GetRoleRequest.builder().roleName(name).build();
 
-        return Try.of(() -> iamClient.getRole(getRoleRequest).role())
+        return Try.of(() -> iamClientProvider.get().getRole(getRoleRequest).role())
                 .recover(NoSuchEntityException.class, throwable -> null)
                 .get();
     }
@@ -40,7 +44,7 @@ public class BasicIamHelper implements IamHelper {
                     .policyDocument(assumeRolePolicyDocument)
                     .build();
 
-            iamClient.updateAssumeRolePolicy(updateAssumeRolePolicyRequest);
+            iamClientProvider.get().updateAssumeRolePolicy(updateAssumeRolePolicyRequest);
 
             return existingRole;
         }
@@ -51,7 +55,7 @@ public class BasicIamHelper implements IamHelper {
                 .assumeRolePolicyDocument(assumeRolePolicyDocument)
                 .build();
 
-        CreateRoleResponse createRoleResponse = iamClient.createRole(createRoleRequest);
+        CreateRoleResponse createRoleResponse = iamClientProvider.get().createRole(createRoleRequest);
 
         return createRoleResponse.role();
     }
@@ -63,11 +67,10 @@ public class BasicIamHelper implements IamHelper {
                 .policyArn(policyArn)
                 .build();
 
-        iamClient.attachRolePolicy(attachRolePolicyRequest);
+        iamClientProvider.get().attachRolePolicy(attachRolePolicyRequest);
     }
 
-    @Override
-    public String getAccountId() {
-        return stsClient.getCallerIdentity(GetCallerIdentityRequest.builder().build()).account();
+    private String describeAccountId() {
+        return stsClientProvider.get().getCallerIdentity(GetCallerIdentityRequest.builder().build()).account();
     }
 }
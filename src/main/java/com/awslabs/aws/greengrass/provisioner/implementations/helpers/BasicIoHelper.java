@@ -1,35 +1,60 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 
+import com.awslabs.aws.greengrass.provisioner.data.CommandResult;
+import com.awslabs.aws.greengrass.provisioner.data.DownloadOptions;
+import com.awslabs.aws.greengrass.provisioner.data.FileTransferMode;
+import com.awslabs.aws.greengrass.provisioner.data.FileTransferOptions;
+import com.awslabs.aws.greengrass.provisioner.data.FileTransferResult;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GlobalDefaultHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
 import com.jcraft.jsch.*;
 import io.vavr.control.Try;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
 
 import javax.inject.Inject;
 import java.io.*;
+import java.net.HttpURLConnection;
 import java.net.URL;
-import java.net.URLConnection;
 import java.net.UnknownHostException;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Properties;
-import java.util.concurrent.Callable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 public class BasicIoHelper implements IoHelper {
+    private static final int COMMAND_OUTPUT_BUFFER_SIZE = 65536;
+    private static final int EXIT_STATUS_TIMEOUT_MILLISECONDS = 5000;
+    private static final int FILE_TRANSFER_BUFFER_SIZE = 65536;
+    private static final int SFTP_BULK_REQUESTS = 64;
+    private static final int EXECUTABLE_MODE_BITS = 0111;
+    private static final String PARTIAL_FILE_SUFFIX = ".part";
+    private static final String BATCH_EXIT_STATUS_MARKER = "GGP-EXIT-STATUS";
+    private static final String DOWNLOAD_STATE_SUFFIX = ".download";
+    private static final String DOWNLOAD_STATE_URL = "url";
+    private static final String DOWNLOAD_STATE_LENGTH = "length";
+    private static final String DOWNLOAD_STATE_RANGE_SIZE = "rangeSize";
+    private static final String DOWNLOAD_STATE_VALIDATOR = "validator";
+    private static final String DOWNLOAD_STATE_COMPLETED_RANGES = "completedRanges";
+
     @Inject
     GlobalDefaultHelper globalDefaultHelper;
+    // Scanning ~/.ssh and parsing the keys is only done once, the identities are shared by every session
+    @Getter(lazy = true)
+    private final JSch jschWithPrivateKeysLoaded = loadJschWithPrivateKeys();
 
     @Override
     public List<String> getPrivateKeyFilesForSsh() throws IOException {
@@ -49,40 +74,121 @@ public class BasicIoHelper implements IoHelper {
 
     @Override
     public Void extractZip(File zipFile, Path destinationPath, Function<String, String> filenameTrimmer) throws IOException {
-        return extractZip(new FileInputStream(zipFile), destinationPath, filenameTrimmer);
+        Path normalizedDestinationPath = destinationPath.toAbsolutePath().normalize();
+
+        // Create the base path if necessary
+        Files.createDirectories(normalizedDestinationPath);
+
+        // The central directory gives random access to every entry so they can be inflated independently
+        try (ZipFile zip = ZipFile.builder().setFile(zipFile).get()) {
+            List<ZipArchiveEntry> fileEntries = new ArrayList<>();
+
+            for (ZipArchiveEntry entry : Collections.list(zip.getEntriesInPhysicalOrder())) {
+                Path path = getExtractionPath(normalizedDestinationPath, filenameTrimmer.apply(entry.getName()));
+
+                if (entry.isDirectory()) {
+                    Files.createDirectories(path);
+                } else {
+                    fileEntries.add(entry);
+                }
+            }
+
+            AtomicInteger skipped = new AtomicInteger();
+            ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), fileEntries.size())), new ThreadFactoryImpl(BasicIoHelper.class.getSimpleName()));
+
+            try {
+                CompletableFuture<?>[] futures = fileEntries.stream()
+                        .map(entry -> CompletableFuture.runAsync(() -> {
+                            Path path = getExtractionPath(normalizedDestinationPath, filenameTrimmer.apply(entry.getName()));
+
+                            if (!Try.of(() -> extractZipEntry(zip, entry, path)).get()) {
+                                skipped.incrementAndGet();
+                            }
+
+                            if ((entry.getPlatform() == ZipArchiveEntry.PLATFORM_UNIX) && ((entry.getUnixMode() & EXECUTABLE_MODE_BITS) != 0)) {
+                                makeExecutable(path.toString());
+                            }
+                        }, executorService))
+                        .toArray(CompletableFuture[]::new);
+
+                Try.run(() -> CompletableFuture.allOf(futures).join())
+                        .getOrElseThrow(throwable -> new RuntimeException("Extracting [" + zipFile + "] failed", throwable.getCause()));
+            } finally {
+                executorService.shutdownNow();
+            }
+
+            log.debug("Extracted [" + (fileEntries.size() - skipped.get()) + "] files from [" + zipFile + "], [" + skipped.get() + "] were already up to date");
+        }
+
+        return null;
     }
 
     @Override
     public Void extractZip(InputStream zipInputStream, Path destinationPath, Function<String, String> filenameTrimmer) throws IOException {
-        ZipInputStream zis = new ZipInputStream(zipInputStream);
-        ZipEntry entry;
+        // Random access needs a file, spooling the stream is much cheaper than inflating the entries one at a time
+        File tempFile = File.createTempFile("extract", ".zip");
 
-        // Create the base path if necessary
-        new File(destinationPath.toString()).mkdirs();
+        try (InputStream inputStream = zipInputStream) {
+            Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
 
-        // Extract the entire SDK to where we are doing our build
-        while ((entry = zis.getNextEntry()) != null) {
-            String filename = entry.getName();
-            filename = filenameTrimmer.apply(filename);
-            String path = String.join("/", destinationPath.toString(), filename);
+            return extractZip(tempFile, destinationPath, filenameTrimmer);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
 
-            if (entry.isDirectory()) {
-                new File(path).mkdirs();
-            } else {
-                File newFile = new File(path);
-                FileOutputStream fileOutputStream = new FileOutputStream(newFile);
-                int length;
-                byte[] buffer = new byte[8192];
+    private Path getExtractionPath(Path destinationPath, String filename) {
+        Path path = destinationPath.resolve(filename).normalize();
 
-                while ((length = zis.read(buffer)) > 0) {
-                    fileOutputStream.write(buffer, 0, length);
-                }
+        if (!path.startsWith(destinationPath)) {
+            throw new RuntimeException("Zip entry [" + filename + "] would be extracted outside of [" + destinationPath + "]");
+        }
+
+        return path;
+    }
+
+    /**
+     * Inflates a single entry unless a file with the same size and CRC is already there
+     *
+     * @return true if the entry was written, false if the existing file was kept
+     */
+    private boolean extractZipEntry(ZipFile zip, ZipArchiveEntry entry, Path path) throws IOException {
+        if (isUnchanged(entry, path)) {
+            return false;
+        }
 
-                fileOutputStream.close();
+        Files.createDirectories(path.getParent());
+
+        try (InputStream inputStream = zip.getInputStream(entry);
+             OutputStream outputStream = Files.newOutputStream(path)) {
+            byte[] buffer = new byte[FILE_TRANSFER_BUFFER_SIZE];
+            int length;
+
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
             }
         }
 
-        return null;
+        return true;
+    }
+
+    private boolean isUnchanged(ZipArchiveEntry entry, Path path) throws IOException {
+        if ((entry.getCrc() == -1) || !Files.isRegularFile(path) || (Files.size(path) != entry.getSize())) {
+            return false;
+        }
+
+        CRC32 crc32 = new CRC32();
+
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] buffer = new byte[FILE_TRANSFER_BUFFER_SIZE];
+            int length;
+
+            while ((length = inputStream.read(buffer)) != -1) {
+                crc32.update(buffer, 0, length);
+            }
+        }
+
+        return crc32.getValue() == entry.getCrc();
     }
 
     @Override
@@ -94,20 +200,223 @@ public class BasicIoHelper implements IoHelper {
 
     @Override
     public Void download(String url, File file, Optional<String> optionalReferer) throws IOException {
-        // From: http://stackoverflow.com/a/921400
-        URL website = new URL(url);
-        URLConnection urlConnection = website.openConnection();
-        optionalReferer.ifPresent(referer -> urlConnection.setRequestProperty("Referer", referer));
-        InputStream inputStream = urlConnection.getInputStream();
-        ReadableByteChannel rbc = Channels.newChannel(inputStream);
-        FileOutputStream fos = new FileOutputStream(file);
-        fos.getChannel().transferFrom(rbc, 0, Long.MAX_VALUE);
+        return download(url, file, DownloadOptions.builder().referer(optionalReferer).build());
+    }
+
+    @Override
+    public Void download(String url, File file, DownloadOptions downloadOptions) throws IOException {
+        HttpURLConnection probe = openConnection(url, downloadOptions);
+        probe.setRequestMethod("HEAD");
+
+        long contentLength;
+        boolean acceptsRanges;
+        String validator;
+
+        try {
+            if (probe.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                // Some servers don't support HEAD, a plain GET will report any real problem
+                downloadWithSingleRequest(url, file, downloadOptions);
+                return null;
+            }
+
+            contentLength = probe.getContentLengthLong();
+            acceptsRanges = "bytes".equalsIgnoreCase(probe.getHeaderField("Accept-Ranges"));
+            validator = Optional.ofNullable(probe.getHeaderField("ETag"))
+                    .orElse(Optional.ofNullable(probe.getHeaderField("Last-Modified")).orElse(""));
+        } finally {
+            probe.disconnect();
+        }
+
+        if (!acceptsRanges || (contentLength < downloadOptions.getMinimumRangedSizeBytes())) {
+            downloadWithSingleRequest(url, file, downloadOptions);
+            return null;
+        }
+
+        downloadRanges(url, file, contentLength, validator, downloadOptions);
 
         return null;
     }
 
-    @Override
-    public JSch getJschWithPrivateKeysLoaded() {
+    private HttpURLConnection openConnection(String url, DownloadOptions downloadOptions) throws IOException {
+        HttpURLConnection httpURLConnection = (HttpURLConnection) new URL(url).openConnection();
+        httpURLConnection.setConnectTimeout(downloadOptions.getConnectTimeoutMillis());
+        httpURLConnection.setReadTimeout(downloadOptions.getReadTimeoutMillis());
+        downloadOptions.getReferer().ifPresent(referer -> httpURLConnection.setRequestProperty("Referer", referer));
+
+        return httpURLConnection;
+    }
+
+    private void downloadWithSingleRequest(String url, File file, DownloadOptions downloadOptions) throws IOException {
+        HttpURLConnection httpURLConnection = openConnection(url, downloadOptions);
+
+        try (InputStream inputStream = httpURLConnection.getInputStream()) {
+            Files.copy(inputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            httpURLConnection.disconnect();
+        }
+    }
+
+    /**
+     * Fetches the object in fixed size ranges, several at a time, and writes each one straight to its position in the
+     * file. Completed ranges are recorded in a sidecar file so an interrupted download only fetches what is missing
+     * when it is started again.
+     */
+    private void downloadRanges(String url, File file, long contentLength, String validator, DownloadOptions downloadOptions) throws IOException {
+        long rangeSize = downloadOptions.getRangeSizeBytes();
+        int rangeCount = (int) ((contentLength + rangeSize - 1) / rangeSize);
+
+        Path statePath = Paths.get(file.getPath() + DOWNLOAD_STATE_SUFFIX);
+        Properties state = new Properties();
+        state.setProperty(DOWNLOAD_STATE_URL, url);
+        state.setProperty(DOWNLOAD_STATE_LENGTH, String.valueOf(contentLength));
+        state.setProperty(DOWNLOAD_STATE_RANGE_SIZE, String.valueOf(rangeSize));
+        state.setProperty(DOWNLOAD_STATE_VALIDATOR, validator);
+
+        Set<Integer> completedRanges = ConcurrentHashMap.newKeySet();
+        completedRanges.addAll(loadCompletedRanges(statePath, state, file, contentLength));
+
+        if (!completedRanges.isEmpty()) {
+            log.info("Resuming download of [" + url + "], [" + completedRanges.size() + "] of [" + rangeCount + "] ranges already downloaded");
+        }
+
+        List<Integer> remainingRanges = IntStream.range(0, rangeCount)
+                .filter(index -> !completedRanges.contains(index))
+                .boxed()
+                .collect(Collectors.toList());
+
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (completedRanges.isEmpty()) {
+                // Preallocate so every range can be written at its final position
+                fileChannel.truncate(0);
+                fileChannel.write(ByteBuffer.wrap(new byte[1]), contentLength - 1);
+            }
+
+            ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(downloadOptions.getParallelism(), remainingRanges.size())), new ThreadFactoryImpl(BasicIoHelper.class.getSimpleName()));
+
+            try {
+                CompletableFuture<?>[] futures = remainingRanges.stream()
+                        .map(index -> CompletableFuture.runAsync(() -> {
+                            fetchRangeWithRetries(url, fileChannel, index, contentLength, validator, downloadOptions);
+                            completedRanges.add(index);
+                            saveDownloadState(statePath, state, completedRanges);
+                        }, executorService))
+                        .toArray(CompletableFuture[]::new);
+
+                Try.run(() -> CompletableFuture.allOf(futures).join())
+                        .getOrElseThrow(throwable -> new RuntimeException("Download of [" + url + "] failed, it will resume from [" + completedRanges.size() + "] of [" + rangeCount + "] ranges next time", throwable.getCause()));
+            } finally {
+                executorService.shutdownNow();
+            }
+
+            fileChannel.force(false);
+        }
+
+        Files.deleteIfExists(statePath);
+    }
+
+    private Set<Integer> loadCompletedRanges(Path statePath, Properties expectedState, File file, long contentLength) {
+        if (!Files.isRegularFile(statePath) || (file.length() != contentLength)) {
+            return Collections.emptySet();
+        }
+
+        Properties state = new Properties();
+
+        if (Try.withResources(() -> Files.newInputStream(statePath)).of(inputStream -> loadProperties(state, inputStream)).isFailure()) {
+            return Collections.emptySet();
+        }
+
+        for (String key : expectedState.stringPropertyNames()) {
+            if (!expectedState.getProperty(key).equals(state.getProperty(key))) {
+                // A different object or the object changed, start again
+                return Collections.emptySet();
+            }
+        }
+
+        return Arrays.stream(state.getProperty(DOWNLOAD_STATE_COMPLETED_RANGES, "").split(","))
+                .filter(value -> !value.isEmpty())
+                .map(Integer::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    private Void loadProperties(Properties properties, InputStream inputStream) throws IOException {
+        properties.load(inputStream);
+        return null;
+    }
+
+    private synchronized void saveDownloadState(Path statePath, Properties state, Set<Integer> completedRanges) {
+        state.setProperty(DOWNLOAD_STATE_COMPLETED_RANGES, completedRanges.stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+
+        Try.run(() -> {
+            Path tempPath = Paths.get(statePath.toString() + ".tmp");
+
+            try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                state.store(outputStream, null);
+            }
+
+            Files.move(tempPath, statePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }).get();
+    }
+
+    private void fetchRangeWithRetries(String url, FileChannel fileChannel, int index, long contentLength, String validator, DownloadOptions downloadOptions) {
+        Try<Void> result = Try.failure(new IllegalStateException("No attempts were made"));
+
+        for (int attempt = 1; (attempt <= downloadOptions.getMaxAttemptsPerRange()) && result.isFailure(); attempt++) {
+            if (attempt > 1) {
+                log.debug("Retrying range [" + index + "] of [" + url + "], attempt [" + attempt + "] [" + result.getCause().getMessage() + "]");
+            }
+
+            result = Try.of(() -> fetchRange(url, fileChannel, index, contentLength, validator, downloadOptions));
+        }
+
+        result.get();
+    }
+
+    private Void fetchRange(String url, FileChannel fileChannel, int index, long contentLength, String validator, DownloadOptions downloadOptions) throws IOException {
+        long start = index * downloadOptions.getRangeSizeBytes();
+        long end = Math.min(contentLength, start + downloadOptions.getRangeSizeBytes()) - 1;
+
+        HttpURLConnection httpURLConnection = openConnection(url, downloadOptions);
+        httpURLConnection.setRequestProperty("Range", "bytes=" + start + "-" + end);
+
+        if (!validator.isEmpty()) {
+            // The server sends the whole object instead of the range if it has changed since the download started
+            httpURLConnection.setRequestProperty("If-Range", validator);
+        }
+
+        try {
+            if (httpURLConnection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+                throw new RuntimeException("Expected a partial response for bytes [" + start + "-" + end + "] of [" + url + "] but received HTTP status [" + httpURLConnection.getResponseCode() + "], the object may have changed");
+            }
+
+            long position = start;
+
+            try (InputStream inputStream = httpURLConnection.getInputStream()) {
+                byte[] buffer = new byte[FILE_TRANSFER_BUFFER_SIZE];
+                int length;
+
+                while ((length = inputStream.read(buffer)) != -1) {
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, (int) Math.min(length, end + 1 - position));
+
+                    while (byteBuffer.hasRemaining()) {
+                        position += fileChannel.write(byteBuffer, position);
+                    }
+                }
+            }
+
+            if (position != end + 1) {
+                throw new RuntimeException("Received [" + (position - start) + "] bytes for bytes [" + start + "-" + end + "] of [" + url + "]");
+            }
+
+            return null;
+        } finally {
+            httpURLConnection.disconnect();
+        }
+    }
+
+    private JSch loadJschWithPrivateKeys() {
         JSch jsch = new JSch();
 
         List<String> privateKeyFiles = Try.of(() -> getPrivateKeyFilesForSsh()).get();
@@ -215,46 +524,299 @@ public class BasicIoHelper implements IoHelper {
 
     @Override
     public String runCommand(Session session, String command, Optional<Consumer<String>> optionalStringConsumer) throws JSchException, IOException {
-        Channel channel = session.openChannel("exec");
-        ((ChannelExec) channel).setCommand(command);
-
         StringBuilder stringBuilder = new StringBuilder();
-        StringBuilder lineStringBuilder = new StringBuilder();
+
+        runCommand(session, command, line -> {
+            stringBuilder.append(line).append('\n');
+            optionalStringConsumer.ifPresent(consumer -> consumer.accept(line));
+        }, 0);
+
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public CommandResult runCommand(Session session, String command, Consumer<String> lineConsumer, int tailLines) throws JSchException, IOException {
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        channel.setCommand(command);
+
+        try (CountingInputStream commandOutput = new CountingInputStream(channel.getInputStream())) {
+            channel.connect();
+
+            Deque<String> tail = new ArrayDeque<>();
+            long linesRead = readLines(commandOutput, line -> {
+                lineConsumer.accept(line);
+                addToTail(tail, line, tailLines);
+            });
+
+            return CommandResult.builder()
+                    .command(command)
+                    .exitStatus(waitForExitStatus(channel))
+                    .bytesRead(commandOutput.getCount())
+                    .linesRead(linesRead)
+                    .tail(Collections.unmodifiableList(new ArrayList<>(tail)))
+                    .build();
+        } finally {
+            channel.disconnect();
+        }
+    }
+
+    @Override
+    public List<Integer> runCommands(Session session, List<String> commands) throws JSchException, IOException {
+        // The script is sent on stdin so the shell's own command line doesn't contain the commands, otherwise commands
+        //   that search the process list (e.g. kill by name) would find and kill the shell running the batch
+        String marker = String.join("-", BATCH_EXIT_STATUS_MARKER, getUuid());
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        channel.setCommand("sh -s");
+
+        List<Integer> exitStatuses = new ArrayList<>();
 
         try (InputStream commandOutput = channel.getInputStream()) {
             channel.connect();
-            int readByte = commandOutput.read();
 
-            while (readByte != 0xffffffff) {
-                char character = (char) readByte;
-                readByte = commandOutput.read();
+            // Closing stdin tells the shell that the script is complete
+            try (OutputStream script = channel.getOutputStream()) {
+                script.write(getBatchScript(commands, marker).getBytes(StandardCharsets.UTF_8));
+            }
+
+            readLines(commandOutput, line -> {
+                if (line.startsWith(marker)) {
+                    exitStatuses.add(Integer.valueOf(line.substring(marker.length()).trim()));
+                } else {
+                    log.debug(line);
+                }
+            });
+        } finally {
+            channel.disconnect();
+        }
+
+        // Commands that never reported back (e.g. the connection dropped) have no exit status
+        while (exitStatuses.size() < commands.size()) {
+            exitStatuses.add(-1);
+        }
+
+        return exitStatuses;
+    }
+
+    String getBatchScript(List<String> commands, String marker) {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (String command : commands) {
+            // Commands get their own stdin so they can't read the rest of the script
+            stringBuilder.append("{ ").append(command).append("\n} < /dev/null\n");
+            stringBuilder.append("echo \"").append(marker).append(" $?\"\n");
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Decodes the stream as UTF-8 and hands each line to the consumer, "\r" characters are dropped
+     *
+     * @return the number of lines read
+     */
+    long readLines(InputStream inputStream, Consumer<String> lineConsumer) throws IOException {
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        char[] buffer = new char[COMMAND_OUTPUT_BUFFER_SIZE];
+        StringBuilder lineStringBuilder = new StringBuilder();
+        long linesRead = 0;
+        int length;
 
-                stringBuilder.append(character);
+        while ((length = reader.read(buffer)) != -1) {
+            int lineStart = 0;
+
+            for (int index = 0; index < length; index++) {
+                char character = buffer[index];
 
                 if (character == '\r') {
                     // Throw away \r
+                    lineStringBuilder.append(buffer, lineStart, index - lineStart);
+                    lineStart = index + 1;
                 } else if (character == '\n') {
-                    String line = lineStringBuilder.toString();
-                    optionalStringConsumer.ifPresent(consumer -> consumer.accept(line));
-                    lineStringBuilder = new StringBuilder();
-                } else {
-                    lineStringBuilder.append(character);
+                    lineStringBuilder.append(buffer, lineStart, index - lineStart);
+                    lineStart = index + 1;
+
+                    lineConsumer.accept(lineStringBuilder.toString());
+                    lineStringBuilder.setLength(0);
+                    linesRead++;
                 }
             }
-        } finally {
-            channel.disconnect();
+
+            lineStringBuilder.append(buffer, lineStart, length - lineStart);
         }
 
-        return stringBuilder.toString();
+        if (lineStringBuilder.length() != 0) {
+            // Output that doesn't end with a newline
+            lineConsumer.accept(lineStringBuilder.toString());
+            linesRead++;
+        }
+
+        return linesRead;
+    }
+
+    private void addToTail(Deque<String> tail, String line, int tailLines) {
+        if (tailLines <= 0) {
+            return;
+        }
+
+        if (tail.size() == tailLines) {
+            tail.removeFirst();
+        }
+
+        tail.addLast(line);
+    }
+
+    private int waitForExitStatus(Channel channel) {
+        // The exit status arrives with the channel close which can lag slightly behind the end of the output
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(EXIT_STATUS_TIMEOUT_MILLISECONDS);
+
+        while (!channel.isClosed() && (System.nanoTime() < deadline)) {
+            sleep(10);
+        }
+
+        return channel.getExitStatus();
     }
 
     @Override
     public Void sendFile(Session session, String localFilename, String remoteFilename) throws JSchException, IOException {
+        sendFile(session, localFilename, remoteFilename, FileTransferOptions.builder().build());
+
+        return null;
+    }
+
+    @Override
+    public FileTransferResult sendFile(Session session, String localFilename, String remoteFilename, FileTransferOptions fileTransferOptions) throws JSchException, IOException {
+        File localFile = new File(localFilename);
+        long startTime = System.nanoTime();
+        long bytesResumed = 0;
+
+        Optional<String> optionalSha256 = fileTransferOptions.isVerify() ? Optional.of(calcSHA256(localFile)) : Optional.empty();
+
+        switch (fileTransferOptions.getMode()) {
+            case SFTP:
+                // SFTP transfers are verified before the partial file is renamed
+                bytesResumed = sendFileWithSftp(session, localFile, remoteFilename, optionalSha256);
+                break;
+            case COMPRESSED:
+                sendFileCompressed(session, localFile, remoteFilename);
+                break;
+            default:
+                sendFileWithScp(session, localFilename, remoteFilename);
+        }
+
+        if (optionalSha256.isPresent() && !FileTransferMode.SFTP.equals(fileTransferOptions.getMode())) {
+            verifyRemoteFile(session, remoteFilename, optionalSha256.get());
+        }
+
+        FileTransferResult fileTransferResult = FileTransferResult.builder()
+                .localFilename(localFilename)
+                .remoteFilename(remoteFilename)
+                .bytes(localFile.length())
+                .bytesResumed(bytesResumed)
+                .durationNanos(System.nanoTime() - startTime)
+                .sha256(optionalSha256)
+                .build();
+
+        log.info(String.format("Sent [%s] to [%s] via %s, %.2f MB in %d ms (%.2f MB/s)%s",
+                localFilename,
+                remoteFilename,
+                fileTransferOptions.getMode(),
+                fileTransferResult.getMegabytes(),
+                TimeUnit.NANOSECONDS.toMillis(fileTransferResult.getDurationNanos()),
+                fileTransferResult.getMegabytesPerSecond(),
+                bytesResumed == 0 ? "" : ", resumed after " + bytesResumed + " bytes"));
+
+        return fileTransferResult;
+    }
+
+    private long sendFileWithSftp(Session session, File localFile, String remoteFilename, Optional<String> optionalSha256) throws JSchException, IOException {
+        // Upload to a partial file first so an interrupted transfer never leaves a truncated file behind and can be resumed.
+        //   The partial file is named after the hash of the local file so only a transfer of the same content is resumed.
+        String localSha256 = optionalSha256.orElseGet(() -> calcSHA256(localFile));
+        String partialFilename = String.join(".", remoteFilename, localSha256) + PARTIAL_FILE_SUFFIX;
+
+        ChannelSftp channelSftp = (ChannelSftp) session.openChannel("sftp");
+
+        try {
+            channelSftp.connect();
+            channelSftp.setBulkRequests(SFTP_BULK_REQUESTS);
+
+            long bytesResumed = Try.of(() -> channelSftp.stat(partialFilename).getSize())
+                    .getOrElse(0L);
+
+            if (bytesResumed > localFile.length()) {
+                // Can't be a prefix of this file, start again
+                removeQuietly(channelSftp, partialFilename);
+                bytesResumed = 0;
+            }
+
+            Try.run(() -> channelSftp.put(localFile.getAbsolutePath(), partialFilename, ChannelSftp.RESUME)).get();
+
+            if (optionalSha256.isPresent()) {
+                Try.run(() -> verifyRemoteFile(session, partialFilename, optionalSha256.get()))
+                        // Don't resume from a bad partial file next time
+                        .onFailure(throwable -> removeQuietly(channelSftp, partialFilename))
+                        .get();
+            }
+
+            // SFTP renames fail if the destination exists
+            removeQuietly(channelSftp, remoteFilename);
+            Try.run(() -> channelSftp.rename(partialFilename, remoteFilename)).get();
+
+            return bytesResumed;
+        } finally {
+            channelSftp.disconnect();
+        }
+    }
+
+    private void removeQuietly(ChannelSftp channelSftp, String remoteFilename) {
+        Try.run(() -> channelSftp.rm(remoteFilename));
+    }
+
+    private void sendFileCompressed(Session session, File localFile, String remoteFilename) throws JSchException, IOException {
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        channel.setCommand("gzip -dc > " + quoteRemoteFilename(remoteFilename));
+
+        try {
+            try (OutputStream outputStream = new GZIPOutputStream(channel.getOutputStream(), FILE_TRANSFER_BUFFER_SIZE)) {
+                channel.connect();
+                Files.copy(localFile.toPath(), outputStream);
+            }
+
+            int exitStatus = waitForExitStatus(channel);
+
+            if (exitStatus != 0) {
+                throw new RuntimeException("Decompressing [" + remoteFilename + "] on the remote host failed with exit status [" + exitStatus + "]");
+            }
+        } finally {
+            channel.disconnect();
+        }
+    }
+
+    private void verifyRemoteFile(Session session, String remoteFilename, String localSha256) throws JSchException, IOException {
+        CommandResult commandResult = runCommand(session, "sha256sum " + quoteRemoteFilename(remoteFilename), line -> {
+        }, 1);
+
+        if (!commandResult.isSuccessful() || commandResult.getTail().isEmpty()) {
+            throw new RuntimeException("Could not calculate the SHA-256 hash of [" + remoteFilename + "] on the remote host, exit status [" + commandResult.getExitStatus() + "]");
+        }
+
+        // sha256sum prints the hash followed by the filename
+        String remoteSha256 = commandResult.getTail().get(0).split(" ", 2)[0];
+
+        if (!localSha256.equalsIgnoreCase(remoteSha256)) {
+            throw new RuntimeException("SHA-256 hash of [" + remoteFilename + "] on the remote host [" + remoteSha256 + "] does not match the local file [" + localSha256 + "]");
+        }
+    }
+
+    private String quoteRemoteFilename(String remoteFilename) {
+        return "'" + remoteFilename.replace("'", "'\"'\"'") + "'";
+    }
+
+    private Void sendFileWithScp(Session session, String localFilename, String remoteFilename) throws JSchException, IOException {
         boolean preserveTimestamp = false;
 
         // exec 'scp -t rfile' remotely
-        remoteFilename = remoteFilename.replace("'", "'\"'\"'");
-        remoteFilename = "'" + remoteFilename + "'";
+        remoteFilename = quoteRemoteFilename(remoteFilename);
 
         String command = "scp " + (preserveTimestamp ? "-p" : "") + " -t " + remoteFilename;
 
@@ -306,7 +868,7 @@ public class BasicIoHelper implements IoHelper {
                 throw new RuntimeException("Failure when calling checkAck in sendFile [2]");
             }
 
-            byte[] bytes = new byte[1024];
+            byte[] bytes = new byte[FILE_TRANSFER_BUFFER_SIZE];
 
             // send a content of localFilename
             try (FileInputStream fileInputStream = new FileInputStream(localFilename)) {
@@ -366,4 +928,38 @@ public class BasicIoHelper implements IoHelper {
 
         return statusByte;
     }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+
+            if (value != -1) {
+                count++;
+            }
+
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int bytesRead = super.read(bytes, offset, length);
+
+            if (bytesRead > 0) {
+                count += bytesRead;
+            }
+
+            return bytesRead;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
 }
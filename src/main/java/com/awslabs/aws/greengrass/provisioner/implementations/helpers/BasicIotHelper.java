@@ -1,22 +1,39 @@
 package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 
 import com.awslabs.aws.greengrass.provisioner.data.KeysAndCertificate;
+import com.awslabs.aws.greengrass.provisioner.data.ThingProvisioningRequest;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.*;
 import io.vavr.control.Try;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
 import software.amazon.awssdk.services.iam.model.Role;
+import software.amazon.awssdk.services.iot.IotAsyncClient;
 import software.amazon.awssdk.services.iot.IotClient;
 import software.amazon.awssdk.services.iot.model.*;
 
 import javax.inject.Inject;
-import java.util.List;
+import javax.inject.Provider;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 public class BasicIotHelper implements IotHelper {
     public static final String CREDENTIALS = "credentials/";
+    // AWS IoT control plane APIs are throttled at 10-15 TPS, more requests than this in flight only adds retries
+    private static final int MAX_CONCURRENT_REQUESTS = 8;
+    // These are memoized until the operation finishes, this helper is a singleton so they must be cleared after each one
+    private final Map<String, CompletableFuture<KeysAndCertificate>> keysAndCertificates = new ConcurrentHashMap<>();
+    private final Map<String, String> thingArns = new ConcurrentHashMap<>();
+    private final Set<String> existingPolicies = ConcurrentHashMap.newKeySet();
     @Inject
-    IotClient iotClient;
+    Provider<IotClient> iotClientProvider;
+    @Inject
+    Provider<IotAsyncClient> iotAsyncClientProvider;
+    @Inject
+    AsyncSdkHelper asyncSdkHelper;
     @Getter(lazy = true)
     private final String endpoint = describeEndpoint();
     @Inject
@@ -25,34 +42,48 @@ public class BasicIotHelper implements IotHelper {
     GGConstants ggConstants;
     @Inject
     JsonHelper jsonHelper;
+    @Inject
+    LoggingHelper loggingHelper;
 
     @Inject
     public BasicIotHelper() {
     }
 
     private String describeEndpoint() {
-        return iotClient.describeEndpoint().endpointAddress();
+        return iotClientProvider.get().describeEndpoint().endpointAddress();
     }
 
     @Override
     public String createThing(String name) {
+        return asyncSdkHelper.join(createThingAsync(name));
+    }
+
+    @Override
+    public CompletableFuture<String> createThingAsync(String name) {
         CreateThingRequest createThingRequest = CreateThingRequest.builder()
                 .thingName(name)
                 .build();
 
-        return Try.of(() -> iotClient.createThing(createThingRequest).thingArn())
-                .recover(ResourceAlreadyExistsException.class, throwable -> recoverFromResourceAlreadyExistsException(name, throwable))
-                .get();
+        CompletableFuture<String> thingArnFuture = asyncSdkHelper.call(createThingRequest, request -> iotClientProvider.get().createThing(request), request -> iotAsyncClientProvider.get().createThing(request))
+                .thenApply(CreateThingResponse::thingArn);
+
+        return asyncSdkHelper.recover(thingArnFuture, ResourceAlreadyExistsException.class, throwable -> recoverFromResourceAlreadyExistsException(name, throwable))
+                .thenApply(thingArn -> {
+                    thingArns.put(name, thingArn);
+                    return thingArn;
+                });
     }
 
-    private String recoverFromResourceAlreadyExistsException(String name, ResourceAlreadyExistsException throwable) {
+    private CompletableFuture<String> recoverFromResourceAlreadyExistsException(String name, ResourceAlreadyExistsException throwable) {
         if (throwable.getMessage().contains("with different tags")) {
             log.info("The thing [" + name + "] already exists with different tags/attributes (e.g. immutable or other attributes)");
 
             DescribeThingRequest describeThingRequest = DescribeThingRequest.builder()
                     .thingName(name)
                     .build();
-            return iotClient.describeThing(describeThingRequest).thingArn();
+
+            return asyncSdkHelper.call(describeThingRequest, request -> iotClientProvider.get().describeThing(request), request -> iotAsyncClientProvider.get().describeThing(request))
+                    .thenApply(DescribeThingResponse::thingArn);
         }
 
         throw new RuntimeException(throwable);
@@ -66,103 +97,255 @@ public class BasicIotHelper implements IotHelper {
         return credentialDirectoryForGroupId(groupId) + "/" + subName + ".createKeysAndCertificate.serialized";
     }
 
-    private boolean certificateExists(String certificateId) {
+    private CompletableFuture<Boolean> certificateExistsAsync(String certificateId) {
         DescribeCertificateRequest describeCertificateRequest = DescribeCertificateRequest.builder()
                 .certificateId(certificateId)
                 .build();
 
-        return Try.of(() -> iotClient.describeCertificate(describeCertificateRequest) != null)
-                .recover(ResourceNotFoundException.class, throwable -> false)
-                .get();
+        CompletableFuture<Boolean> certificateExistsFuture = asyncSdkHelper.call(describeCertificateRequest, request -> iotClientProvider.get().describeCertificate(request), request -> iotAsyncClientProvider.get().describeCertificate(request))
+                .thenApply(describeCertificateResponse -> describeCertificateResponse != null);
+
+        return asyncSdkHelper.recover(certificateExistsFuture, ResourceNotFoundException.class, throwable -> CompletableFuture.completedFuture(false));
     }
 
     @Override
     public KeysAndCertificate createOrLoadKeysAndCertificate(String groupId, String subName) {
+        return asyncSdkHelper.join(createOrLoadKeysAndCertificateAsync(groupId, subName));
+    }
+
+    @Override
+    public CompletableFuture<KeysAndCertificate> createOrLoadKeysAndCertificateAsync(String groupId, String subName) {
+        // The filename is unique per group and sub name so it doubles as the memoization key
+        String key = createKeysandCertificateFilenameForGroupId(groupId, subName);
+
+        CompletableFuture<KeysAndCertificate> future = new CompletableFuture<>();
+        CompletableFuture<KeysAndCertificate> existingFuture = keysAndCertificates.putIfAbsent(key, future);
+
+        if (existingFuture != null) {
+            // Another caller already loaded these keys or is loading them right now
+            return existingFuture;
+        }
+
+        Try.of(() -> innerCreateOrLoadKeysAndCertificate(groupId, subName))
+                .getOrElseGet(AsyncSdkHelper::failed)
+                .whenComplete((keysAndCertificate, throwable) -> {
+                    if (throwable == null) {
+                        future.complete(keysAndCertificate);
+                        return;
+                    }
+
+                    // Don't memoize failures so the next caller can try again
+                    keysAndCertificates.remove(key, future);
+                    future.completeExceptionally(AsyncSdkHelper.unwrap(throwable));
+                });
+
+        return future;
+    }
+
+    private CompletableFuture<KeysAndCertificate> innerCreateOrLoadKeysAndCertificate(String groupId, String subName) {
         String credentialsDirectory = credentialDirectoryForGroupId(groupId);
 
         ioHelper.createDirectoryIfNecessary(credentialsDirectory);
 
         String createKeysAndCertificateFilename = createKeysandCertificateFilenameForGroupId(groupId, subName);
 
-        if (ioHelper.exists(createKeysAndCertificateFilename)) {
-            log.info("- Attempting to reuse existing keys.");
+        if (!ioHelper.exists(createKeysAndCertificateFilename)) {
+            return createKeysAndCertificate(groupId, subName, createKeysAndCertificateFilename);
+        }
 
-            KeysAndCertificate keysAndCertificate = ioHelper.deserializeKeys(ioHelper.readFile(createKeysAndCertificateFilename), jsonHelper);
+        loggingHelper.logInfoWithName(log, subName, "Attempting to reuse existing keys.");
 
-            if (certificateExists(keysAndCertificate.getCertificateId())) {
-                log.info("- Reusing existing keys.");
-                return keysAndCertificate;
-            } else {
-                log.warn("- Existing certificate is not in AWS IoT.  It may have been deleted.");
-            }
-        }
+        KeysAndCertificate keysAndCertificate = ioHelper.deserializeKeys(ioHelper.readFile(createKeysAndCertificateFilename), jsonHelper);
+
+        return certificateExistsAsync(keysAndCertificate.getCertificateId())
+                .thenCompose(certificateExists -> {
+                    if (certificateExists) {
+                        loggingHelper.logInfoWithName(log, subName, "Reusing existing keys.");
+                        return CompletableFuture.completedFuture(keysAndCertificate);
+                    }
+
+                    log.warn("- [" + subName + "] - Existing certificate is not in AWS IoT.  It may have been deleted.");
+
+                    return createKeysAndCertificate(groupId, subName, createKeysAndCertificateFilename);
+                });
+    }
 
+    private CompletableFuture<KeysAndCertificate> createKeysAndCertificate(String groupId, String subName, String createKeysAndCertificateFilename) {
         // Let them know that they'll need to re-run the bootstrap script because the core's keys changed
         boolean isCore = subName.equals(DeploymentHelper.CORE_SUB_NAME);
         String supplementalMessage = isCore ? "  If you have an existing deployment for this group you'll need to re-run the bootstrap script since the core certificate ARN will change." : "";
-        log.info("- Keys not found, creating new keys." + supplementalMessage);
+        loggingHelper.logInfoWithName(log, subName, "Keys not found, creating new keys." + supplementalMessage);
         CreateKeysAndCertificateRequest createKeysAndCertificateRequest = CreateKeysAndCertificateRequest.builder()
                 .setAsActive(true)
                 .build();
 
-        CreateKeysAndCertificateResponse createKeysAndCertificateResponse = iotClient.createKeysAndCertificate(createKeysAndCertificateRequest);
-
-        ioHelper.writeFile(createKeysAndCertificateFilename, ioHelper.serializeKeys(createKeysAndCertificateResponse, jsonHelper).getBytes());
+        return asyncSdkHelper.call(createKeysAndCertificateRequest, request -> iotClientProvider.get().createKeysAndCertificate(request), request -> iotAsyncClientProvider.get().createKeysAndCertificate(request))
+                .thenApply(createKeysAndCertificateResponse -> {
+                    ioHelper.writeFile(createKeysAndCertificateFilename, ioHelper.serializeKeys(createKeysAndCertificateResponse, jsonHelper).getBytes());
 
-        String deviceName = isCore ? groupId : ggConstants.trimGgdPrefix(subName);
-        String privateKeyFilename = "build/" + String.join(".", deviceName, "pem", "key");
-        String publicSignedCertificateFilename = "build/" + String.join(".", deviceName, "pem", "crt");
+                    String deviceName = isCore ? groupId : ggConstants.trimGgdPrefix(subName);
+                    String privateKeyFilename = "build/" + String.join(".", deviceName, "pem", "key");
+                    String publicSignedCertificateFilename = "build/" + String.join(".", deviceName, "pem", "crt");
 
-        ioHelper.writeFile(privateKeyFilename, createKeysAndCertificateResponse.keyPair().privateKey().getBytes());
-        log.info("Device private key written to [" + privateKeyFilename + "]");
-        ioHelper.writeFile(publicSignedCertificateFilename, createKeysAndCertificateResponse.certificatePem().getBytes());
-        log.info("Device public signed certificate key written to [" + publicSignedCertificateFilename + "]");
+                    ioHelper.writeFile(privateKeyFilename, createKeysAndCertificateResponse.keyPair().privateKey().getBytes());
+                    log.info("Device private key written to [" + privateKeyFilename + "]");
+                    ioHelper.writeFile(publicSignedCertificateFilename, createKeysAndCertificateResponse.certificatePem().getBytes());
+                    log.info("Device public signed certificate key written to [" + publicSignedCertificateFilename + "]");
 
-        return KeysAndCertificate.from(createKeysAndCertificateResponse);
+                    return KeysAndCertificate.from(createKeysAndCertificateResponse);
+                });
     }
 
-    private boolean policyExists(String name) {
+    private CompletableFuture<Boolean> policyExistsAsync(String name) {
         GetPolicyRequest getPolicyRequest = GetPolicyRequest.builder()
                 .policyName(name)
                 .build();
 
-        return Try.of(() -> iotClient.getPolicy(getPolicyRequest) != null)
-                .recover(ResourceNotFoundException.class, throwable -> false)
-                .get();
+        CompletableFuture<Boolean> policyExistsFuture = asyncSdkHelper.call(getPolicyRequest, request -> iotClientProvider.get().getPolicy(request), request -> iotAsyncClientProvider.get().getPolicy(request))
+                .thenApply(getPolicyResponse -> getPolicyResponse != null);
+
+        return asyncSdkHelper.recover(policyExistsFuture, ResourceNotFoundException.class, throwable -> CompletableFuture.completedFuture(false));
     }
 
     @Override
     public void createPolicyIfNecessary(String name, String document) {
-        if (policyExists(name)) {
-            return;
+        asyncSdkHelper.join(createPolicyIfNecessaryAsync(name, document));
+    }
+
+    @Override
+    public CompletableFuture<Void> createPolicyIfNecessaryAsync(String name, String document) {
+        if (existingPolicies.contains(name)) {
+            return CompletableFuture.completedFuture(null);
         }
 
+        return policyExistsAsync(name)
+                .thenCompose(policyExists -> policyExists ? CompletableFuture.<Void>completedFuture(null) : createPolicy(name, document))
+                .thenApply(result -> {
+                    existingPolicies.add(name);
+                    return null;
+                });
+    }
+
+    private CompletableFuture<Void> createPolicy(String name, String document) {
         CreatePolicyRequest createPolicyRequest = CreatePolicyRequest.builder()
                 .policyName(name)
                 .policyDocument(document)
                 .build();
 
-        iotClient.createPolicy(createPolicyRequest);
+        CompletableFuture<Void> createPolicyFuture = asyncSdkHelper.call(createPolicyRequest, request -> iotClientProvider.get().createPolicy(request), request -> iotAsyncClientProvider.get().createPolicy(request))
+                .thenApply(createPolicyResponse -> null);
+
+        // Someone else created it between our check and our create
+        return asyncSdkHelper.recover(createPolicyFuture, ResourceAlreadyExistsException.class, throwable -> CompletableFuture.completedFuture(null));
     }
 
     @Override
     public void attachPrincipalPolicy(String policyName, String certificateArn) {
+        asyncSdkHelper.join(attachPrincipalPolicyAsync(policyName, certificateArn));
+    }
+
+    @Override
+    public CompletableFuture<Void> attachPrincipalPolicyAsync(String policyName, String certificateArn) {
         AttachPolicyRequest attachPolicyRequest = AttachPolicyRequest.builder()
                 .policyName(policyName)
                 .target(certificateArn)
                 .build();
 
-        iotClient.attachPolicy(attachPolicyRequest);
+        return asyncSdkHelper.call(attachPolicyRequest, request -> iotClientProvider.get().attachPolicy(request), request -> iotAsyncClientProvider.get().attachPolicy(request))
+                .thenApply(attachPolicyResponse -> null);
     }
 
     @Override
     public void attachThingPrincipal(String thingName, String certificateArn) {
+        asyncSdkHelper.join(attachThingPrincipalAsync(thingName, certificateArn));
+    }
+
+    @Override
+    public CompletableFuture<Void> attachThingPrincipalAsync(String thingName, String certificateArn) {
         AttachThingPrincipalRequest attachThingPrincipalRequest = AttachThingPrincipalRequest.builder()
                 .thingName(thingName)
                 .principal(certificateArn)
                 .build();
 
-        iotClient.attachThingPrincipal(attachThingPrincipalRequest);
+        return asyncSdkHelper.call(attachThingPrincipalRequest, request -> iotClientProvider.get().attachThingPrincipal(request), request -> iotAsyncClientProvider.get().attachThingPrincipal(request))
+                .thenApply(attachThingPrincipalResponse -> null);
+    }
+
+    @Override
+    public Map<String, KeysAndCertificate> provisionThings(String groupId, List<ThingProvisioningRequest> thingProvisioningRequests) {
+        if (thingProvisioningRequests.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        // In async mode nothing blocks so every request is started right away and the connection limit on the client
+        //   bounds how many are on the wire. Otherwise a small pool of threads overlaps the blocking calls.
+        Optional<ExecutorService> optionalExecutorService = asyncSdkHelper.isAsync() ?
+                Optional.empty() :
+                Optional.of(Executors.newFixedThreadPool(Math.min(MAX_CONCURRENT_REQUESTS, thingProvisioningRequests.size() * 2), new ThreadFactoryImpl(BasicIotHelper.class.getSimpleName())));
+
+        Executor executor = optionalExecutorService.map(executorService -> (Executor) executorService).orElse(Runnable::run);
+
+        try {
+            Map<String, CompletableFuture<KeysAndCertificate>> futures = new LinkedHashMap<>();
+
+            for (ThingProvisioningRequest thingProvisioningRequest : thingProvisioningRequests) {
+                futures.put(thingProvisioningRequest.getThingName(), provisionThing(groupId, thingProvisioningRequest, executor));
+            }
+
+            Map<String, KeysAndCertificate> results = new LinkedHashMap<>();
+
+            for (Map.Entry<String, CompletableFuture<KeysAndCertificate>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), Try.of(() -> entry.getValue().join())
+                        .recover(CompletionException.class, throwable -> rethrowCause(entry.getKey(), throwable))
+                        .get());
+            }
+
+            return results;
+        } finally {
+            optionalExecutorService.ifPresent(ExecutorService::shutdownNow);
+        }
+    }
+
+    private CompletableFuture<KeysAndCertificate> provisionThing(String groupId, ThingProvisioningRequest thingProvisioningRequest, Executor executor) {
+        String thingName = thingProvisioningRequest.getThingName();
+        String policyName = thingProvisioningRequest.getPolicyName();
+        String subName = thingProvisioningRequest.getSubName();
+
+        // The thing and the keys don't depend on each other so they are created at the same time
+        CompletableFuture<String> thingArnFuture = start(() -> createThingAsync(thingName), executor);
+        CompletableFuture<String> certificateArnFuture = start(() -> createOrLoadKeysAndCertificateAsync(groupId, subName), executor)
+                .thenApply(KeysAndCertificate::getCertificateArn);
+
+        CompletableFuture<Void> policyFuture = thingArnFuture.thenComposeAsync(thingArn -> createPolicyIfNecessaryAsync(policyName, thingProvisioningRequest.getPolicyDocumentBuilder().apply(thingArn)), executor);
+
+        CompletableFuture<Void> attachPolicyFuture = policyFuture.thenCombine(certificateArnFuture, (result, certificateArn) -> certificateArn)
+                .thenComposeAsync(certificateArn -> attachPrincipalPolicyAsync(policyName, certificateArn), executor);
+        CompletableFuture<Void> attachThingFuture = thingArnFuture.thenCombine(certificateArnFuture, (thingArn, certificateArn) -> certificateArn)
+                .thenComposeAsync(certificateArn -> attachThingPrincipalAsync(thingName, certificateArn), executor);
+
+        return CompletableFuture.allOf(attachPolicyFuture, attachThingFuture)
+                .thenCompose(result -> {
+                    loggingHelper.logInfoWithName(log, thingName, "Thing, keys, and policy provisioned");
+                    // Already loaded, this comes from the memoized keys
+                    return createOrLoadKeysAndCertificateAsync(groupId, subName);
+                });
+    }
+
+    private <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> request, Executor executor) {
+        return CompletableFuture.supplyAsync(request, executor)
+                .thenCompose(Function.identity());
+    }
+
+    private KeysAndCertificate rethrowCause(String thingName, CompletionException completionException) {
+        Throwable cause = completionException.getCause();
+
+        log.error("- [" + thingName + "] - Provisioning failed [" + cause.getMessage() + "]");
+
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+
+        throw new RuntimeException(cause);
     }
 
     @Override
@@ -171,7 +354,7 @@ public class BasicIotHelper implements IotHelper {
                 .thingName(thingName)
                 .build();
 
-        ListThingPrincipalsResponse listThingPrincipalsResponse = iotClient.listThingPrincipals(listThingPrincipalsRequest);
+        ListThingPrincipalsResponse listThingPrincipalsResponse = iotClientProvider.get().listThingPrincipals(listThingPrincipalsRequest);
 
         List<String> principals = listThingPrincipalsResponse.principals();
 
@@ -184,11 +367,17 @@ public class BasicIotHelper implements IotHelper {
 
     @Override
     public String getThingArn(String thingName) {
+        String thingArn = thingArns.get(thingName);
+
+        if (thingArn != null) {
+            return thingArn;
+        }
+
         DescribeThingRequest describeThingRequest = DescribeThingRequest.builder()
                 .thingName(thingName)
                 .build();
 
-        DescribeThingResponse describeThingResponse = iotClient.describeThing(describeThingRequest);
+        DescribeThingResponse describeThingResponse = iotClientProvider.get().describeThing(describeThingRequest);
 
         if (describeThingResponse == null) {
             return null;
@@ -197,13 +386,20 @@ public class BasicIotHelper implements IotHelper {
         return describeThingResponse.thingArn();
     }
 
+    @Override
+    public void clearCache() {
+        keysAndCertificates.values().removeIf(CompletableFuture::isDone);
+        thingArns.clear();
+        existingPolicies.clear();
+    }
+
     @Override
     public String getCredentialProviderUrl() {
         DescribeEndpointRequest describeEndpointRequest = DescribeEndpointRequest.builder()
                 .endpointType("iot:CredentialProvider")
                 .build();
 
-        return iotClient.describeEndpoint(describeEndpointRequest).endpointAddress();
+        return iotClientProvider.get().describeEndpoint(describeEndpointRequest).endpointAddress();
     }
 
     @Override
@@ -213,7 +409,7 @@ public class BasicIotHelper implements IotHelper {
                 .roleAlias(roleAlias)
                 .build();
 
-        return Try.of(() -> iotClient.createRoleAlias(createRoleAliasRequest))
+        return Try.of(() -> iotClientProvider.get().createRoleAlias(createRoleAliasRequest))
                 .recover(ResourceAlreadyExistsException.class, throwable -> deleteAndRecreateRoleAlias(roleAlias, createRoleAliasRequest))
                 .get();
     }
@@ -223,8 +419,8 @@ public class BasicIotHelper implements IotHelper {
         DeleteRoleAliasRequest deleteRoleAliasRequest = DeleteRoleAliasRequest.builder()
                 .roleAlias(roleAlias)
                 .build();
-        iotClient.deleteRoleAlias(deleteRoleAliasRequest);
+        iotClientProvider.get().deleteRoleAlias(deleteRoleAliasRequest);
 
-        return iotClient.createRoleAlias(createRoleAliasRequest);
+        return iotClientProvider.get().createRoleAlias(createRoleAliasRequest);
     }
 }
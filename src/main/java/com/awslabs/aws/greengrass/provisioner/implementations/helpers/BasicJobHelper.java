@@ -0,0 +1,217 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.AwsGreengrassProvisioner;
+import com.awslabs.aws.greengrass.provisioner.data.ProvisionerJob;
+import com.awslabs.aws.greengrass.provisioner.data.arguments.ServerArguments;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.JobHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.Operation;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class BasicJobHelper implements JobHelper {
+    private static final String JOB_LOG_PATTERN = "[%p] %c{1}: %m";
+    // Finished jobs and their logs are kept for clients that poll for the result, the oldest ones are dropped first
+    private static final int MAX_FINISHED_JOBS = 100;
+    // Log events are routed to the job running on the current thread. Threads started by a job inherit it so the
+    //   output of its thread pools ends up in the right place too. Threads shared by all jobs use withoutJob and
+    //   withCurrentJob instead.
+    private static final InheritableThreadLocal<ProvisionerJob> currentJob = new InheritableThreadLocal<>();
+
+    // A new provisioner for each job, only the operation that matches the arguments gets created
+    @Inject
+    Provider<AwsGreengrassProvisioner> awsGreengrassProvisionerProvider;
+    @Inject
+    Map<String, Provider<Operation<?>>> operations;
+
+    private final Map<String, ProvisionerJob> jobs = new LinkedHashMap<>();
+    private final AtomicInteger jobCounter = new AtomicInteger();
+    private final JobLogAppender jobLogAppender = new JobLogAppender();
+    // Jobs queue up here until a worker is free
+    private volatile Optional<ExecutorService> optionalExecutorService = Optional.empty();
+    private volatile int concurrency;
+
+    @Inject
+    public BasicJobHelper() {
+    }
+
+    @Override
+    public synchronized void start(int concurrency) {
+        if (optionalExecutorService.isPresent()) {
+            throw new IllegalStateException("The job workers are already running");
+        }
+
+        this.concurrency = concurrency;
+        optionalExecutorService = Optional.of(Executors.newFixedThreadPool(concurrency, new ThreadFactoryImpl(BasicJobHelper.class.getSimpleName())));
+        Logger.getRootLogger().addAppender(jobLogAppender);
+    }
+
+    @Override
+    public synchronized void stop() {
+        optionalExecutorService.ifPresent(ExecutorService::shutdownNow);
+        optionalExecutorService = Optional.empty();
+        Logger.getRootLogger().removeAppender(jobLogAppender);
+    }
+
+    @Override
+    public ProvisionerJob submit(List<String> arguments) {
+        ExecutorService executorService = optionalExecutorService
+                .orElseThrow(() -> new IllegalStateException("The job workers have not been started"));
+
+        String[] args = arguments.toArray(new String[arguments.size()]);
+
+        if (Operation.matches(args, new ServerArguments().getRequiredOptionName())) {
+            throw new IllegalArgumentException("Server mode can not be started from a job");
+        }
+
+        if (operations.keySet().stream().noneMatch(requiredOptionName -> Operation.matches(args, requiredOptionName))) {
+            throw new IllegalArgumentException("No operation specified in " + Arrays.toString(args));
+        }
+
+        ProvisionerJob provisionerJob = new ProvisionerJob(String.valueOf(jobCounter.incrementAndGet()), arguments);
+
+        synchronized (jobs) {
+            jobs.put(provisionerJob.getId(), provisionerJob);
+        }
+
+        executorService.execute(() -> runJob(provisionerJob));
+
+        return provisionerJob;
+    }
+
+    private void runJob(ProvisionerJob provisionerJob) {
+        currentJob.set(provisionerJob);
+        provisionerJob.started();
+        log.info("Job [" + provisionerJob.getId() + "] started " + provisionerJob.getArguments());
+
+        Try.run(() -> runProvisioner(provisionerJob))
+                .onSuccess(success -> provisionerJob.succeeded())
+                .onFailure(throwable -> provisionerJob.failed(String.valueOf(throwable.getMessage())))
+                .andFinally(currentJob::remove);
+
+        log.info("Job [" + provisionerJob.getId() + "] " + provisionerJob.getStatus() + " in " + provisionerJob.getRunMillis() + " ms");
+
+        evictFinishedJobs();
+    }
+
+    private void evictFinishedJobs() {
+        synchronized (jobs) {
+            long finishedJobs = jobs.values().stream()
+                    .filter(ProvisionerJob::isFinished)
+                    .count();
+
+            // Jobs are in submission order so the oldest finished jobs are removed first
+            Iterator<ProvisionerJob> iterator = jobs.values().iterator();
+
+            while ((finishedJobs > MAX_FINISHED_JOBS) && iterator.hasNext()) {
+                if (iterator.next().isFinished()) {
+                    iterator.remove();
+                    finishedJobs--;
+                }
+            }
+        }
+    }
+
+    private void runProvisioner(ProvisionerJob provisionerJob) {
+        AwsGreengrassProvisioner awsGreengrassProvisioner = awsGreengrassProvisionerProvider.get();
+        awsGreengrassProvisioner.setArgs(provisionerJob.getArguments().toArray(new String[0]));
+        awsGreengrassProvisioner.run();
+    }
+
+    @Override
+    public Optional<ProvisionerJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    @Override
+    public List<ProvisionerJob> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    @Override
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public Runnable withCurrentJob(Runnable runnable) {
+        return withJob(Optional.ofNullable(currentJob.get()), runnable);
+    }
+
+    @Override
+    public Runnable withoutJob(Runnable runnable) {
+        return withJob(Optional.empty(), runnable);
+    }
+
+    private Runnable withJob(Optional<ProvisionerJob> optionalProvisionerJob, Runnable runnable) {
+        return () -> {
+            Optional<ProvisionerJob> previousProvisionerJob = Optional.ofNullable(currentJob.get());
+            setCurrentJob(optionalProvisionerJob);
+
+            try {
+                runnable.run();
+            } finally {
+                setCurrentJob(previousProvisionerJob);
+            }
+        };
+    }
+
+    private void setCurrentJob(Optional<ProvisionerJob> optionalProvisionerJob) {
+        if (optionalProvisionerJob.isPresent()) {
+            currentJob.set(optionalProvisionerJob.get());
+        } else {
+            currentJob.remove();
+        }
+    }
+
+    private static class JobLogAppender extends AppenderSkeleton {
+        JobLogAppender() {
+            setLayout(new PatternLayout(JOB_LOG_PATTERN));
+        }
+
+        @Override
+        protected void append(LoggingEvent loggingEvent) {
+            ProvisionerJob provisionerJob = currentJob.get();
+
+            if (provisionerJob == null) {
+                return;
+            }
+
+            provisionerJob.addLogLine(getLayout().format(loggingEvent));
+
+            Optional.ofNullable(loggingEvent.getThrowableStrRep())
+                    .ifPresent(lines -> Arrays.stream(lines).forEach(provisionerJob::addLogLine));
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean requiresLayout() {
+            return false;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.awslabs.aws.greengrass.provisioner.interfaces.builders.GradleBuilder;
 import com.awslabs.aws.greengrass.provisioner.interfaces.builders.MavenBuilder;
 import com.awslabs.aws.greengrass.provisioner.interfaces.builders.NodeBuilder;
 import com.awslabs.aws.greengrass.provisioner.interfaces.builders.PythonBuilder;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.AsyncSdkHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.BuildCacheHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.LambdaHelper;
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.LoggingHelper;
@@ -13,18 +15,38 @@ import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.services.iam.model.Role;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
 import software.amazon.awssdk.services.lambda.LambdaClient;
 import software.amazon.awssdk.services.lambda.model.Runtime;
 import software.amazon.awssdk.services.lambda.model.*;
+import software.amazon.awssdk.services.lambda.waiters.LambdaWaiter;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 @Slf4j
 public class BasicLambdaHelper implements LambdaHelper {
     @Inject
-    LambdaClient lambdaClient;
+    Provider<LambdaClient> lambdaClientProvider;
+    @Inject
+    Provider<LambdaAsyncClient> lambdaAsyncClientProvider;
+    @Inject
+    AsyncSdkHelper asyncSdkHelper;
     @Inject
     IoHelper ioHelper;
     @Inject
@@ -37,19 +59,15 @@ public class BasicLambdaHelper implements LambdaHelper {
     NodeBuilder nodeBuilder;
     @Inject
     LoggingHelper loggingHelper;
-
     @Inject
-    public BasicLambdaHelper() {
-    }
+    BuildCacheHelper buildCacheHelper;
 
-    private boolean functionExists(String functionName) {
-        GetFunctionRequest getFunctionRequest = GetFunctionRequest.builder()
-                .functionName(functionName)
-                .build();
+    private final AtomicInteger functionsSkipped = new AtomicInteger();
+    private final AtomicLong bytesUploaded = new AtomicLong();
+    private final Object iamRoleLock = new Object();
 
-        return Try.of(() -> lambdaClient.getFunction(getFunctionRequest) != null)
-                .recover(ResourceNotFoundException.class, throwable -> false)
-                .get();
+    @Inject
+    public BasicLambdaHelper() {
     }
 
     @Override
@@ -64,14 +82,13 @@ public class BasicLambdaHelper implements LambdaHelper {
             */
             throw new RuntimeException("This function [" + functionConf.getFunctionName() + "] is a Maven project but Maven support is currently disabled.  If you need this feature please file a Github issue.");
         } else if (gradleBuilder.isGradleFunction(functionConf)) {
-            gradleBuilder.buildJavaFunctionIfNecessary(functionConf);
-
-            zipFilePath = gradleBuilder.getArchivePath(functionConf);
+            zipFilePath = buildCacheHelper.buildIfNecessary(functionConf, Runtime.JAVA8, Optional.empty(), gradleBuilder.getIncludedProjectDirectories(functionConf), gradleBuilder.getArchivePath(functionConf),
+                    () -> gradleBuilder.buildJavaFunctionIfNecessary(functionConf));
         } else {
             throw new RuntimeException("This function [" + functionConf.getFunctionName() + "] is neither a Maven project nor a Gradle project.  It cannot be built automatically.");
         }
 
-        return createFunctionIfNecessary(functionConf, Runtime.JAVA8, role, zipFilePath);
+        return createFunctionAndDeletePackage(functionConf, Runtime.JAVA8, role, zipFilePath);
     }
 
     @Override
@@ -83,10 +100,9 @@ public class BasicLambdaHelper implements LambdaHelper {
                     .error(error).build();
         }
 
-        pythonBuilder.buildFunctionIfNecessary(functionConf);
-
-        String zipFilePath = pythonBuilder.getArchivePath(functionConf);
-        LambdaFunctionArnInfo result = createFunctionIfNecessary(functionConf, Runtime.PYTHON2_7, role, zipFilePath);
+        String zipFilePath = buildCacheHelper.buildIfNecessary(functionConf, Runtime.PYTHON2_7, Optional.of(pythonBuilder.getSdk()), Collections.emptySet(), pythonBuilder.getArchivePath(functionConf),
+                () -> pythonBuilder.buildFunctionIfNecessary(functionConf));
+        LambdaFunctionArnInfo result = createFunctionAndDeletePackage(functionConf, Runtime.PYTHON2_7, role, zipFilePath);
         return result;
     }
 
@@ -99,72 +115,182 @@ public class BasicLambdaHelper implements LambdaHelper {
                     .error(error).build();
         }
 
-        nodeBuilder.buildFunctionIfNecessary(functionConf);
-
-        String zipFilePath = nodeBuilder.getArchivePath(functionConf);
-        LambdaFunctionArnInfo result = createFunctionIfNecessary(functionConf, Runtime.NODEJS6_10, role, zipFilePath);
+        String zipFilePath = buildCacheHelper.buildIfNecessary(functionConf, Runtime.NODEJS6_10, Optional.of(nodeBuilder.getSdk()), Collections.emptySet(), nodeBuilder.getArchivePath(functionConf),
+                () -> nodeBuilder.buildFunctionIfNecessary(functionConf));
+        LambdaFunctionArnInfo result = createFunctionAndDeletePackage(functionConf, Runtime.NODEJS6_10, role, zipFilePath);
         return result;
     }
 
+    private LambdaFunctionArnInfo createFunctionAndDeletePackage(FunctionConf functionConf, Runtime runtime, Role role, String zipFilePath) {
+        try {
+            return createFunctionIfNecessary(functionConf, runtime, role, zipFilePath);
+        } finally {
+            // The build cache hands out a copy of the deployment package for each upload
+            Try.of(() -> Files.deleteIfExists(Paths.get(zipFilePath)));
+        }
+    }
+
     @Override
     public LambdaFunctionArnInfo createFunctionIfNecessary(FunctionConf functionConf, Runtime runtime, Role role, String zipFilePath) {
         String baseFunctionName = functionConf.getFunctionName();
         String groupFunctionName = getFunctionName(functionConf);
+        String codeSha256 = getCodeSha256(zipFilePath);
 
-        if (functionExists(groupFunctionName)) {
-            loggingHelper.logInfoWithName(log, baseFunctionName, "Deleting existing Lambda function");
-            DeleteFunctionRequest deleteFunctionRequest = DeleteFunctionRequest.builder()
-                    .functionName(groupFunctionName)
-                    .build();
+        Optional<FunctionConfiguration> existingFunctionConfiguration = getFunction(groupFunctionName)
+                .map(GetFunctionResponse::configuration);
 
-            lambdaClient.deleteFunction(deleteFunctionRequest);
+        if (!existingFunctionConfiguration.isPresent()) {
+            createFunction(functionConf, runtime, role, zipFilePath, groupFunctionName);
+        } else {
+            updateFunctionIfNecessary(functionConf, runtime, role, zipFilePath, groupFunctionName, codeSha256, existingFunctionConfiguration.get());
         }
 
-        FunctionCode functionCode = FunctionCode.builder()
-                .zipFile(SdkBytes.fromByteBuffer(ByteBuffer.wrap(ioHelper.readFile(zipFilePath))))
+        // Publishing is a no-op that returns the latest version when nothing changed since it was published
+        loggingHelper.logInfoWithName(log, baseFunctionName, "Publishing Lambda function version");
+        PublishVersionResponse publishVersionResponse = publishFunctionVersion(groupFunctionName);
+
+        String qualifier = publishVersionResponse.version();
+        String qualifiedArn = publishVersionResponse.functionArn();
+        String baseArn = qualifiedArn.replaceAll(":" + qualifier + "$", "");
+
+        LambdaFunctionArnInfo lambdaFunctionArnInfo = LambdaFunctionArnInfo.builder()
+                .qualifier(qualifier)
+                .qualifiedArn(qualifiedArn)
+                .baseArn(baseArn)
                 .build();
 
-        loggingHelper.logInfoWithName(log, baseFunctionName, "Creating new Lambda function");
+        return lambdaFunctionArnInfo;
+    }
+
+    private void createFunction(FunctionConf functionConf, Runtime runtime, Role role, String zipFilePath, String groupFunctionName) {
+        loggingHelper.logInfoWithName(log, functionConf.getFunctionName(), "Creating new Lambda function");
         CreateFunctionRequest createFunctionRequest = CreateFunctionRequest.builder()
                 .functionName(groupFunctionName)
                 .runtime(runtime)
                 .role(role.arn())
                 .handler(functionConf.getHandlerName())
-                .code(functionCode)
+                .code(getFunctionCode(zipFilePath))
                 .build();
 
-        boolean created = false;
-        int counter = 0;
+        runWhenIamRoleIsAvailable(() -> lambdaClientProvider.get().createFunction(createFunctionRequest));
+
+        // New functions can't be published until Lambda has finished creating them
+        try (LambdaWaiter lambdaWaiter = getLambdaWaiter()) {
+            lambdaWaiter.waitUntilFunctionActive(getFunctionConfigurationRequest(groupFunctionName));
+        }
+    }
 
-        // Make sure multiple threads don't do this at the same time
-        synchronized (this) {
-            while (!created) {
-                counter++;
+    private void updateFunctionIfNecessary(FunctionConf functionConf, Runtime runtime, Role role, String zipFilePath, String groupFunctionName, String codeSha256, FunctionConfiguration existingFunctionConfiguration) {
+        String baseFunctionName = functionConf.getFunctionName();
 
-                if (counter > 10) {
-                    throw new RuntimeException("Something went wrong with the Lambda IAM role, try again later");
-                }
+        boolean configurationChanged = !runtime.equals(existingFunctionConfiguration.runtime()) ||
+                !role.arn().equals(existingFunctionConfiguration.role()) ||
+                !functionConf.getHandlerName().equals(existingFunctionConfiguration.handler());
 
-                created = Try.of(() -> lambdaClient.createFunction(createFunctionRequest) != null)
-                        .recover(InvalidParameterValueException.class, this::waitForIamRoleToBeAvailableToLambda)
-                        .get();
-            }
+        boolean codeChanged = !codeSha256.equals(existingFunctionConfiguration.codeSha256());
+
+        if (!configurationChanged && !codeChanged) {
+            functionsSkipped.incrementAndGet();
+            loggingHelper.logInfoWithName(log, baseFunctionName, "Lambda function code and configuration are unchanged, skipping update");
+            return;
         }
 
-        loggingHelper.logInfoWithName(log, baseFunctionName, "Publishing Lambda function version");
-        PublishVersionResponse publishVersionResponse = publishFunctionVersion(groupFunctionName);
+        if (configurationChanged) {
+            loggingHelper.logInfoWithName(log, baseFunctionName, "Updating Lambda function configuration");
+            UpdateFunctionConfigurationRequest updateFunctionConfigurationRequest = UpdateFunctionConfigurationRequest.builder()
+                    .functionName(groupFunctionName)
+                    .runtime(runtime)
+                    .role(role.arn())
+                    .handler(functionConf.getHandlerName())
+                    .build();
 
-        String qualifier = publishVersionResponse.version();
-        String qualifiedArn = publishVersionResponse.functionArn();
-        String baseArn = qualifiedArn.replaceAll(":" + qualifier + "$", "");
+            runWhenIamRoleIsAvailable(() -> lambdaClientProvider.get().updateFunctionConfiguration(updateFunctionConfigurationRequest));
+            waitForFunctionUpdate(groupFunctionName);
+        }
 
-        LambdaFunctionArnInfo lambdaFunctionArnInfo = LambdaFunctionArnInfo.builder()
-                .qualifier(qualifier)
-                .qualifiedArn(qualifiedArn)
-                .baseArn(baseArn)
+        if (codeChanged) {
+            loggingHelper.logInfoWithName(log, baseFunctionName, "Updating Lambda function code");
+            FunctionCode functionCode = getFunctionCode(zipFilePath);
+            UpdateFunctionCodeRequest updateFunctionCodeRequest = UpdateFunctionCodeRequest.builder()
+                    .functionName(groupFunctionName)
+                    .zipFile(functionCode.zipFile())
+                    .build();
+
+            lambdaClientProvider.get().updateFunctionCode(updateFunctionCodeRequest);
+            waitForFunctionUpdate(groupFunctionName);
+        }
+    }
+
+    private void waitForFunctionUpdate(String groupFunctionName) {
+        // Lambda rejects further changes and publishing while the last update is still in progress
+        try (LambdaWaiter lambdaWaiter = getLambdaWaiter()) {
+            lambdaWaiter.waitUntilFunctionUpdated(getFunctionConfigurationRequest(groupFunctionName));
+        }
+    }
+
+    private LambdaWaiter getLambdaWaiter() {
+        return LambdaWaiter.builder()
+                .client(lambdaClientProvider.get())
+                .build();
+    }
+
+    private GetFunctionConfigurationRequest getFunctionConfigurationRequest(String groupFunctionName) {
+        return GetFunctionConfigurationRequest.builder()
+                .functionName(groupFunctionName)
                 .build();
+    }
 
-        return lambdaFunctionArnInfo;
+    private FunctionCode getFunctionCode(String zipFilePath) {
+        byte[] zipFile = ioHelper.readFile(zipFilePath);
+        bytesUploaded.addAndGet(zipFile.length);
+
+        return FunctionCode.builder()
+                .zipFile(SdkBytes.fromByteBuffer(ByteBuffer.wrap(zipFile)))
+                .build();
+    }
+
+    private String getCodeSha256(String zipFilePath) {
+        return Try.of(() -> innerGetCodeSha256(zipFilePath)).get();
+    }
+
+    private String innerGetCodeSha256(String zipFilePath) throws IOException, NoSuchAlgorithmException {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+        try (InputStream inputStream = new FileInputStream(zipFilePath)) {
+            byte[] buffer = new byte[65536];
+            int length;
+
+            while ((length = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, length);
+            }
+        }
+
+        // Lambda reports the hash of the deployment package base64 encoded
+        return Base64.getEncoder().encodeToString(messageDigest.digest());
+    }
+
+    private void runWhenIamRoleIsAvailable(Supplier<?> lambdaCall) {
+        if (tryLambdaCall(lambdaCall)) {
+            return;
+        }
+
+        // Only one thread at a time waits for a new role to be available, other Lambda calls aren't held up
+        synchronized (iamRoleLock) {
+            // The first attempt has already failed
+            for (int attempt = 2; attempt <= 10; attempt++) {
+                if (tryLambdaCall(lambdaCall)) {
+                    return;
+                }
+            }
+        }
+
+        throw new RuntimeException("Something went wrong with the Lambda IAM role, try again later");
+    }
+
+    private boolean tryLambdaCall(Supplier<?> lambdaCall) {
+        return Try.of(() -> lambdaCall.get() != null)
+                .recover(InvalidParameterValueException.class, this::waitForIamRoleToBeAvailableToLambda)
+                .get();
     }
 
     public Boolean waitForIamRoleToBeAvailableToLambda(InvalidParameterValueException throwable) {
@@ -181,15 +307,16 @@ public class BasicLambdaHelper implements LambdaHelper {
 
     @Override
     public PublishVersionResponse publishFunctionVersion(String groupFunctionName) {
+        return asyncSdkHelper.join(publishFunctionVersionAsync(groupFunctionName));
+    }
+
+    @Override
+    public CompletableFuture<PublishVersionResponse> publishFunctionVersionAsync(String groupFunctionName) {
         PublishVersionRequest publishVersionRequest = PublishVersionRequest.builder()
                 .functionName(groupFunctionName)
                 .build();
 
-        return lambdaClient.publishVersion(publishVersionRequest);
-    }
-
-    private boolean aliasExists(FunctionConf functionConf) {
-        return aliasExists(getFunctionName(functionConf), functionConf.getAliasName());
+        return asyncSdkHelper.call(publishVersionRequest, request -> lambdaClientProvider.get().publishVersion(request), request -> lambdaAsyncClientProvider.get().publishVersion(request));
     }
 
     @Override
@@ -199,8 +326,12 @@ public class BasicLambdaHelper implements LambdaHelper {
                 .name(aliasName)
                 .build();
 
-        return Try.of(() -> lambdaClient.getAlias(getAliasRequest) != null)
-                .recover(ResourceNotFoundException.class, throwable -> false)
+        return getAlias(getAliasRequest).isPresent();
+    }
+
+    private Optional<GetAliasResponse> getAlias(GetAliasRequest getAliasRequest) {
+        return Try.of(() -> Optional.of(lambdaClientProvider.get().getAlias(getAliasRequest)))
+                .recover(ResourceNotFoundException.class, throwable -> Optional.empty())
                 .get();
     }
 
@@ -220,15 +351,28 @@ public class BasicLambdaHelper implements LambdaHelper {
             groupFunctionName = getFunctionName(groupName.get(), baseFunctionName);
         }
 
-        if (aliasExists(groupFunctionName, aliasName)) {
-            loggingHelper.logInfoWithName(log, baseFunctionName, "Deleting existing alias");
+        GetAliasRequest getAliasRequest = GetAliasRequest.builder()
+                .functionName(groupFunctionName)
+                .name(aliasName)
+                .build();
+
+        Optional<GetAliasResponse> existingAlias = getAlias(getAliasRequest);
+
+        if (existingAlias.isPresent()) {
+            if (functionVersion.equals(existingAlias.get().functionVersion())) {
+                loggingHelper.logInfoWithName(log, baseFunctionName, "Alias already points to version [" + functionVersion + "], skipping update");
+                return existingAlias.get().aliasArn();
+            }
 
-            DeleteAliasRequest deleteAliasRequest = DeleteAliasRequest.builder()
+            loggingHelper.logInfoWithName(log, baseFunctionName, "Updating alias to version [" + functionVersion + "]");
+
+            UpdateAliasRequest updateAliasRequest = UpdateAliasRequest.builder()
                     .functionName(groupFunctionName)
                     .name(aliasName)
+                    .functionVersion(functionVersion)
                     .build();
 
-            lambdaClient.deleteAlias(deleteAliasRequest);
+            return lambdaClientProvider.get().updateAlias(updateAliasRequest).aliasArn();
         }
 
         loggingHelper.logInfoWithName(log, baseFunctionName, "Creating new alias");
@@ -239,7 +383,7 @@ public class BasicLambdaHelper implements LambdaHelper {
                 .functionVersion(functionVersion)
                 .build();
 
-        CreateAliasResponse createAliasResponse = lambdaClient.createAlias(createAliasRequest);
+        CreateAliasResponse createAliasResponse = lambdaClientProvider.get().createAlias(createAliasRequest);
 
         return createAliasResponse.aliasArn();
     }
@@ -255,7 +399,7 @@ public class BasicLambdaHelper implements LambdaHelper {
                 .functionName(functionName)
                 .build();
 
-        return Try.of(() -> Optional.of(lambdaClient.getFunction(getFunctionRequest)))
+        return Try.of(() -> Optional.of(lambdaClientProvider.get().getFunction(getFunctionRequest)))
                 .recover(ResourceNotFoundException.class, throwable -> Optional.empty())
                 .get();
     }
@@ -271,6 +415,16 @@ public class BasicLambdaHelper implements LambdaHelper {
                 .name(aliasName)
                 .build();
 
-        lambdaClient.deleteAlias(deleteAliasRequest);
+        lambdaClientProvider.get().deleteAlias(deleteAliasRequest);
+    }
+
+    @Override
+    public int getFunctionsSkipped() {
+        return functionsSkipped.get();
+    }
+
+    @Override
+    public long getBytesUploaded() {
+        return bytesUploaded.get();
     }
 }
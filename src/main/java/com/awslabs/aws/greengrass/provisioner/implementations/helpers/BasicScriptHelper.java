@@ -170,7 +170,7 @@ public class BasicScriptHelper implements ScriptHelper {
         variablesBuilder.put(GGD_PIP_DEPENDENCIES, String.join(" ", list));
     }
 
-    private String replaceVariables(ImmutableMap<String, String> variables, String input) {
+    String replaceVariables(ImmutableMap<String, String> variables, String input) {
         String output = input;
 
         for (Map.Entry<String, String> entry : variables.entrySet()) {
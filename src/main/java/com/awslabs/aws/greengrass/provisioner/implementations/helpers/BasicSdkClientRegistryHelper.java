@@ -0,0 +1,155 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkClientRegistryHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkMetricsHelper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.awscore.client.builder.AwsSyncClientBuilder;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.regions.providers.AwsRegionProviderChain;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Slf4j
+public class BasicSdkClientRegistryHelper implements SdkClientRegistryHelper {
+    // Enough for fleet mode to keep every group and the thing provisioning pool busy
+    private static final int MAX_CONNECTIONS = 64;
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(10);
+    // Function code uploads can take a while on slow links
+    private static final Duration SOCKET_TIMEOUT = Duration.ofSeconds(120);
+    // Keep connections warm between the steps of a deployment
+    private static final Duration CONNECTION_MAX_IDLE_TIME = Duration.ofMinutes(2);
+
+    @Inject
+    AwsRegionProviderChain awsRegionProviderChain;
+    @Inject
+    SdkMetricsHelper sdkMetricsHelper;
+
+    private final Map<String, SdkClient> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger clientsCreated = new AtomicInteger();
+    private final AtomicInteger connectionsOpened = new AtomicInteger();
+    private final AtomicInteger tlsHandshakes = new AtomicInteger();
+    @Getter(lazy = true)
+    private final SdkHttpClient httpClient = createHttpClient();
+    // Resolves the credential chain once and then keeps using the provider that worked
+    @Getter(lazy = true)
+    private final AwsCredentialsProvider credentialsProvider = DefaultCredentialsProvider.builder()
+            .reuseLastProviderEnabled(true)
+            .build();
+
+    @Inject
+    public BasicSdkClientRegistryHelper() {
+    }
+
+    private SdkHttpClient createHttpClient() {
+        return ApacheHttpClient.builder()
+                .maxConnections(MAX_CONNECTIONS)
+                .connectionTimeout(CONNECTION_TIMEOUT)
+                .socketTimeout(SOCKET_TIMEOUT)
+                .connectionMaxIdleTime(CONNECTION_MAX_IDLE_TIME)
+                .tcpKeepAlive(true)
+                .socketFactory(new CountingSSLConnectionSocketFactory())
+                .build();
+    }
+
+    @Override
+    public <C extends SdkClient, B extends AwsClientBuilder<B, C>> C getClient(Class<C> clientClass, Region region, Supplier<B> builderSupplier) {
+        String key = String.join("/", clientClass.getName(), region.id());
+
+        return clientClass.cast(clients.computeIfAbsent(key, unused -> createClient(clientClass, region, builderSupplier)));
+    }
+
+    @Override
+    public <C extends SdkClient, B extends AwsClientBuilder<B, C>> C getClient(Class<C> clientClass, Supplier<B> builderSupplier) {
+        return getClient(clientClass, awsRegionProviderChain.getRegion(), builderSupplier);
+    }
+
+    private <C extends SdkClient, B extends AwsClientBuilder<B, C>> C createClient(Class<C> clientClass, Region region, Supplier<B> builderSupplier) {
+        log.debug("Creating a [" + clientClass.getSimpleName() + "] for [" + region.id() + "]");
+
+        B builder = builderSupplier.get()
+                .region(region)
+                .credentialsProvider(getCredentialsProvider())
+                // Every call is timed, none of the client suppliers set their own override configuration
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(sdkMetricsHelper)
+                        .build());
+
+        // Asynchronous clients bring their own HTTP client
+        if (builder instanceof AwsSyncClientBuilder) {
+            ((AwsSyncClientBuilder<?, ?>) builder).httpClient(getHttpClient());
+        }
+
+        C client = builder.build();
+        clientsCreated.incrementAndGet();
+
+        return client;
+    }
+
+    @Override
+    public int getClientsCreated() {
+        return clientsCreated.get();
+    }
+
+    @Override
+    public int getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    @Override
+    public int getTlsHandshakes() {
+        return tlsHandshakes.get();
+    }
+
+    /**
+     * Counts the connections and TLS handshakes made by the shared HTTP client so we can see that requests are reusing
+     * warm connections
+     */
+    private class CountingSSLConnectionSocketFactory extends SSLConnectionSocketFactory {
+        CountingSSLConnectionSocketFactory() {
+            super(SSLContexts.createDefault(), SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+        }
+
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            Socket socket = super.createSocket(context);
+            // Requests are small, don't let Nagle's algorithm hold them back
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress, InetSocketAddress localAddress, HttpContext context) throws IOException {
+            Socket connectedSocket = super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            connectionsOpened.incrementAndGet();
+            return connectedSocket;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            // The handshake has completed by the time this returns
+            Socket layeredSocket = super.createLayeredSocket(socket, target, port, context);
+            tlsHandshakes.incrementAndGet();
+            return layeredSocket;
+        }
+    }
+}
@@ -63,11 +63,9 @@ public class BasicSdkErrorHandler implements SdkErrorHandler {
         if (errors.size() != 0) {
             errors.stream()
                     .forEach(s -> log.error(s));
-            System.exit(1);
-        } else {
-            throw e;
+            throw new RuntimeException(errors.get(0), e);
         }
 
-        return null;
+        throw e;
     }
 }
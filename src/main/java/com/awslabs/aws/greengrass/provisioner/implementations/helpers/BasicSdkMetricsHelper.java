@@ -0,0 +1,331 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.SdkCallMetrics;
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.JsonHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SdkMetricsHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.TraceHelper;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.SdkHttpHeaders;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class BasicSdkMetricsHelper implements SdkMetricsHelper {
+    private static final ExecutionAttribute<CallState> CALL_STATE = new ExecutionAttribute<>(BasicSdkMetricsHelper.class.getSimpleName());
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final String METRICS_DIRECTORY = "sdk-metrics";
+    private static final int SLOWEST_CALLS_TO_LOG = 10;
+    private static final String PROMETHEUS_PREFIX = "ggp_sdk_";
+
+    @Inject
+    GGConstants ggConstants;
+    @Inject
+    IoHelper ioHelper;
+    @Inject
+    JsonHelper jsonHelper;
+    @Inject
+    TraceHelper traceHelper;
+
+    private final Map<String, SdkCallMetrics> sdkCallMetrics = new ConcurrentHashMap<>();
+    // The calls made under each trace, so the report for an operation doesn't include other jobs running at the same time
+    private final Map<String, Map<String, SdkCallMetrics>> traceSdkCallMetrics = new ConcurrentHashMap<>();
+    private volatile boolean prometheus = false;
+
+    @Inject
+    public BasicSdkMetricsHelper() {
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        String name = String.join(".", executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME), executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME));
+
+        // Runs on the calling thread, even for asynchronous clients, so the call is traced under the phase that made it
+        executionAttributes.putAttribute(CALL_STATE, new CallState(traceHelper.startLeafSpan(name, TraceSpan.SDK)));
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        // Called once for each attempt, including retries
+        CallState callState = executionAttributes.getAttribute(CALL_STATE);
+        callState.attempts++;
+
+        Optional<Long> contentLength = context.requestBody().flatMap(RequestBody::optionalContentLength);
+
+        if (!contentLength.isPresent()) {
+            contentLength = context.asyncRequestBody().flatMap(AsyncRequestBody::contentLength);
+        }
+
+        if (!contentLength.isPresent()) {
+            contentLength = getContentLength(context.httpRequest());
+        }
+
+        callState.bytesSent += contentLength.orElse(0L);
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        CallState callState = executionAttributes.getAttribute(CALL_STATE);
+
+        if (context.httpResponse().statusCode() == TOO_MANY_REQUESTS) {
+            callState.throttledAttempts++;
+        }
+
+        // Chunked responses don't have a length so they aren't counted
+        callState.bytesReceived += getContentLength(context.httpResponse()).orElse(0L);
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, metrics -> {
+        });
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        Throwable throwable = context.exception();
+        boolean throttled = (throwable instanceof SdkServiceException) && ((SdkServiceException) throwable).isThrottlingException();
+
+        Optional.ofNullable(executionAttributes.getAttribute(CALL_STATE))
+                .flatMap(callState -> callState.traceSpan)
+                .ifPresent(traceSpan -> traceSpan.failed(throwable.getMessage()));
+
+        record(executionAttributes, metrics -> metrics.recordFailure(throttled));
+    }
+
+    private void record(ExecutionAttributes executionAttributes, Consumer<SdkCallMetrics> failure) {
+        String service = executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+
+        // Failures before the first interceptor ran won't have any state
+        Optional<CallState> optionalCallState = Optional.ofNullable(executionAttributes.getAttribute(CALL_STATE))
+                .map(this::closeSpan);
+
+        // Every call goes into the totals, calls made while a span was open also go into the metrics for its trace
+        List<Map<String, SdkCallMetrics>> metricsMaps = new ArrayList<>();
+        metricsMaps.add(sdkCallMetrics);
+        optionalCallState.flatMap(callState -> callState.traceSpan)
+                .map(traceSpan -> traceSdkCallMetrics.computeIfAbsent(traceSpan.getTraceId(), unused -> new ConcurrentHashMap<>()))
+                .ifPresent(metricsMaps::add);
+
+        for (Map<String, SdkCallMetrics> metricsMap : metricsMaps) {
+            SdkCallMetrics metrics = metricsMap.computeIfAbsent(String.join(".", service, operation), unused -> new SdkCallMetrics(service, operation));
+
+            optionalCallState.ifPresent(callState -> metrics.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - callState.startNanos),
+                    callState.attempts,
+                    callState.throttledAttempts,
+                    callState.bytesSent,
+                    callState.bytesReceived));
+
+            failure.accept(metrics);
+        }
+    }
+
+    private CallState closeSpan(CallState callState) {
+        callState.traceSpan.ifPresent(TraceSpan::close);
+
+        return callState;
+    }
+
+    private Optional<Long> getContentLength(SdkHttpHeaders sdkHttpHeaders) {
+        return sdkHttpHeaders.firstMatchingHeader(CONTENT_LENGTH)
+                .map(Long::parseLong);
+    }
+
+    @Override
+    public Map<String, SdkCallMetrics> getSnapshot() {
+        return sdkCallMetrics.values().stream()
+                .map(SdkCallMetrics::copy)
+                .collect(Collectors.toMap(SdkCallMetrics::getName, metrics -> metrics));
+    }
+
+    @Override
+    public Optional<String> writeReport(String operationName, TraceSpan root) {
+        List<SdkCallMetrics> calls = Optional.ofNullable(traceSdkCallMetrics.remove(root.getTraceId()))
+                .map(Map::values)
+                .orElseGet(Collections::emptyList)
+                .stream()
+                .filter(metrics -> metrics.getCalls() > 0)
+                .sorted(Comparator.comparingLong(SdkCallMetrics::getTotalLatencyMillis).reversed())
+                .collect(Collectors.toList());
+
+        if (calls.isEmpty()) {
+            return Optional.empty();
+        }
+
+        logSlowestCalls(operationName, calls);
+
+        File metricsDirectory = new File(String.join("/", ggConstants.getBuildDirectory(), METRICS_DIRECTORY));
+        metricsDirectory.mkdirs();
+        String baseFilename = String.join("/", metricsDirectory.getPath(), String.join("-", operationName, String.valueOf(System.currentTimeMillis())));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("operation", operationName);
+        report.put("calls", calls.stream().map(this::toMap).collect(Collectors.toList()));
+
+        String jsonFilename = baseFilename + ".json";
+        ioHelper.writeFile(jsonFilename, jsonHelper.toJson(report).getBytes(StandardCharsets.UTF_8));
+
+        if (prometheus) {
+            ioHelper.writeFile(baseFilename + ".prom", toPrometheus(calls.stream()
+                    .collect(Collectors.toMap(SdkCallMetrics::getName, metrics -> metrics)))
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        log.info("SDK metrics for [" + operationName + "] written to [" + jsonFilename + "]");
+
+        return Optional.of(jsonFilename);
+    }
+
+    private void logSlowestCalls(String operationName, List<SdkCallMetrics> calls) {
+        log.info("Slowest SDK calls in [" + operationName + "]:");
+
+        calls.stream()
+                .limit(SLOWEST_CALLS_TO_LOG)
+                .forEach(metrics -> log.info(String.format("  %-45s %5d calls %8d ms total %6d ms avg %6s ms p95 %4d retries %4d throttled %4d failed",
+                        metrics.getName(),
+                        metrics.getCalls(),
+                        metrics.getTotalLatencyMillis(),
+                        metrics.getAverageLatencyMillis(),
+                        formatPercentile(metrics.getLatencyPercentileMillis(95)),
+                        metrics.getRetries(),
+                        metrics.getThrottledAttempts(),
+                        metrics.getFailures())));
+    }
+
+    private String formatPercentile(long percentileMillis) {
+        if (percentileMillis < 0) {
+            return ">" + SdkCallMetrics.LATENCY_BUCKET_MILLIS[SdkCallMetrics.LATENCY_BUCKET_MILLIS.length - 1];
+        }
+
+        return String.valueOf(percentileMillis);
+    }
+
+    private Map<String, Object> toMap(SdkCallMetrics metrics) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", metrics.getName());
+        map.put("calls", metrics.getCalls());
+        map.put("failures", metrics.getFailures());
+        map.put("retries", metrics.getRetries());
+        map.put("throttledAttempts", metrics.getThrottledAttempts());
+        map.put("throttlingFailures", metrics.getThrottlingFailures());
+        map.put("bytesSent", metrics.getBytesSent());
+        map.put("bytesReceived", metrics.getBytesReceived());
+        map.put("totalLatencyMillis", metrics.getTotalLatencyMillis());
+        map.put("averageLatencyMillis", metrics.getAverageLatencyMillis());
+        map.put("p50LatencyMillis", formatPercentile(metrics.getLatencyPercentileMillis(50)));
+        map.put("p95LatencyMillis", formatPercentile(metrics.getLatencyPercentileMillis(95)));
+        map.put("p99LatencyMillis", formatPercentile(metrics.getLatencyPercentileMillis(99)));
+
+        Map<String, Long> latencyBuckets = new LinkedHashMap<>();
+        long[] counts = metrics.getLatencyBuckets();
+
+        for (int loop = 0; loop < SdkCallMetrics.LATENCY_BUCKET_MILLIS.length; loop++) {
+            latencyBuckets.put("<=" + SdkCallMetrics.LATENCY_BUCKET_MILLIS[loop], counts[loop]);
+        }
+
+        latencyBuckets.put(formatPercentile(-1), counts[counts.length - 1]);
+        map.put("latencyBucketsMillis", latencyBuckets);
+
+        return map;
+    }
+
+    @Override
+    public void setPrometheus(boolean prometheus) {
+        this.prometheus = prometheus;
+    }
+
+    @Override
+    public String toPrometheus(Map<String, SdkCallMetrics> sdkCallMetrics) {
+        List<SdkCallMetrics> calls = sdkCallMetrics.values().stream()
+                .sorted(Comparator.comparing(SdkCallMetrics::getName))
+                .collect(Collectors.toList());
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        appendCounter(stringBuilder, calls, "calls_total", "SDK calls", SdkCallMetrics::getCalls);
+        appendCounter(stringBuilder, calls, "call_failures_total", "SDK calls that failed after all retries", SdkCallMetrics::getFailures);
+        appendCounter(stringBuilder, calls, "call_retries_total", "SDK call attempts that were retries", SdkCallMetrics::getRetries);
+        appendCounter(stringBuilder, calls, "throttled_attempts_total", "SDK call attempts rejected with HTTP 429", SdkCallMetrics::getThrottledAttempts);
+        appendCounter(stringBuilder, calls, "throttling_failures_total", "SDK calls that failed because they were throttled", SdkCallMetrics::getThrottlingFailures);
+        appendCounter(stringBuilder, calls, "bytes_sent_total", "SDK request bytes", SdkCallMetrics::getBytesSent);
+        appendCounter(stringBuilder, calls, "bytes_received_total", "SDK response bytes", SdkCallMetrics::getBytesReceived);
+
+        String histogramName = PROMETHEUS_PREFIX + "call_duration_seconds";
+        stringBuilder.append("# HELP ").append(histogramName).append(" SDK call latency including retries\n");
+        stringBuilder.append("# TYPE ").append(histogramName).append(" histogram\n");
+
+        for (SdkCallMetrics metrics : calls) {
+            long[] counts = metrics.getLatencyBuckets();
+            long cumulativeCount = 0;
+
+            for (int loop = 0; loop < SdkCallMetrics.LATENCY_BUCKET_MILLIS.length; loop++) {
+                cumulativeCount += counts[loop];
+                appendSample(stringBuilder, histogramName + "_bucket", metrics, ",le=\"" + (SdkCallMetrics.LATENCY_BUCKET_MILLIS[loop] / 1000.0) + "\"", String.valueOf(cumulativeCount));
+            }
+
+            appendSample(stringBuilder, histogramName + "_bucket", metrics, ",le=\"+Inf\"", String.valueOf(metrics.getCalls()));
+            appendSample(stringBuilder, histogramName + "_sum", metrics, "", String.valueOf(metrics.getTotalLatencyMillis() / 1000.0));
+            appendSample(stringBuilder, histogramName + "_count", metrics, "", String.valueOf(metrics.getCalls()));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    private void appendCounter(StringBuilder stringBuilder, List<SdkCallMetrics> calls, String name, String help, ToLongFunction<SdkCallMetrics> value) {
+        String metricName = PROMETHEUS_PREFIX + name;
+        stringBuilder.append("# HELP ").append(metricName).append(" ").append(help).append("\n");
+        stringBuilder.append("# TYPE ").append(metricName).append(" counter\n");
+
+        calls.forEach(metrics -> appendSample(stringBuilder, metricName, metrics, "", String.valueOf(value.applyAsLong(metrics))));
+    }
+
+    private void appendSample(StringBuilder stringBuilder, String metricName, SdkCallMetrics metrics, String extraLabels, String value) {
+        stringBuilder.append(metricName)
+                .append("{service=\"").append(metrics.getService())
+                .append("\",operation=\"").append(metrics.getOperation())
+                .append("\"").append(extraLabels).append("} ")
+                .append(value)
+                .append("\n");
+    }
+
+    /**
+     * Tracks one call across its attempts, the SDK keeps it in the execution attributes
+     */
+    private static class CallState {
+        private final long startNanos = System.nanoTime();
+        private final Optional<TraceSpan> traceSpan;
+        private int attempts;
+        private int throttledAttempts;
+        private long bytesSent;
+        private long bytesReceived;
+
+        CallState(Optional<TraceSpan> traceSpan) {
+            this.traceSpan = traceSpan;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.arguments.ServerArguments;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ServerArgumentHelper;
+import com.beust.jcommander.JCommander;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+
+@Slf4j
+public class BasicServerArgumentHelper implements ServerArgumentHelper {
+    @Inject
+    public BasicServerArgumentHelper() {
+    }
+
+    @Override
+    public void displayUsage() {
+        ServerArguments serverArguments = new ServerArguments();
+
+        JCommander.newBuilder()
+                .addObject(serverArguments)
+                .build()
+                .usage();
+    }
+
+    @Override
+    public ServerArguments parseArguments(String[] args) {
+        ServerArguments serverArguments = new ServerArguments();
+
+        JCommander.newBuilder()
+                .addObject(serverArguments)
+                .build()
+                .parse(args);
+
+        if (!serverArguments.isRequiredOptionSet()) {
+            throw new RuntimeException("This is not a server request");
+        }
+
+        if (serverArguments.help) {
+            return serverArguments;
+        }
+
+        if ((serverArguments.port < 0) || (serverArguments.port > 65535)) {
+            throw new RuntimeException("The port must be between 0 and 65535");
+        }
+
+        if (serverArguments.concurrency < 1) {
+            throw new RuntimeException("The concurrency must be at least 1");
+        }
+
+        return serverArguments;
+    }
+}
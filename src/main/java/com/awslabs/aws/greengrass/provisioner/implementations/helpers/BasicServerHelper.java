@@ -0,0 +1,273 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.JobStatus;
+import com.awslabs.aws.greengrass.provisioner.data.ProvisionerJob;
+import com.awslabs.aws.greengrass.provisioner.data.arguments.ServerArguments;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ArgumentHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.JobHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.JsonHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ServerArgumentHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ServerHelper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * A local HTTP API for running jobs in a warm JVM
+ * <p>
+ * POST /jobs               - body is a JSON array of command line arguments, returns the queued job
+ * GET  /jobs               - all jobs
+ * GET  /jobs/{id}          - status and timing of one job
+ * GET  /jobs/{id}/logs     - streams the log of one job until it finishes
+ * GET  /status             - job counts and server uptime
+ */
+@Slf4j
+public class BasicServerHelper implements ServerHelper {
+    private static final String JOBS_PATH = "/jobs";
+    private static final String STATUS_PATH = "/status";
+    private static final String LOGS_SUFFIX = "/logs";
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String TEXT_PLAIN = "text/plain; charset=utf-8";
+    private static final long LOG_POLL_MILLISECONDS = 1000;
+
+    @Inject
+    ServerArgumentHelper serverArgumentHelper;
+    @Inject
+    JobHelper jobHelper;
+    @Inject
+    JsonHelper jsonHelper;
+
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile Optional<HttpServer> optionalHttpServer = Optional.empty();
+    private volatile Optional<ExecutorService> optionalExecutorService = Optional.empty();
+    private volatile long startedMillis;
+
+    @Inject
+    public BasicServerHelper() {
+    }
+
+    @Override
+    public Void execute(ServerArguments serverArguments) {
+        int port = start(serverArguments.port, serverArguments.concurrency);
+
+        log.info("Accepting jobs on http://localhost:" + port + JOBS_PATH + ", up to [" + serverArguments.concurrency + "] at a time");
+
+        Try.run(stopped::await).get();
+
+        return null;
+    }
+
+    @Override
+    public synchronized int start(int port, int concurrency) {
+        if (optionalHttpServer.isPresent()) {
+            throw new IllegalStateException("The server is already running");
+        }
+
+        // Only local clients, the API can deploy to the account
+        HttpServer httpServer = Try.of(() -> HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0)).get();
+
+        // Log streams hold their thread until the job finishes so the request threads can't be a small fixed pool
+        ExecutorService executorService = Executors.newCachedThreadPool(new ThreadFactoryImpl(BasicServerHelper.class.getSimpleName()));
+        httpServer.setExecutor(executorService);
+        httpServer.createContext(JOBS_PATH, this::handleJobs);
+        httpServer.createContext(STATUS_PATH, this::handleStatus);
+
+        jobHelper.start(concurrency);
+        httpServer.start();
+        startedMillis = System.currentTimeMillis();
+
+        optionalHttpServer = Optional.of(httpServer);
+        optionalExecutorService = Optional.of(executorService);
+
+        return httpServer.getAddress().getPort();
+    }
+
+    @Override
+    public synchronized void stop() {
+        optionalHttpServer.ifPresent(httpServer -> httpServer.stop(0));
+        optionalExecutorService.ifPresent(ExecutorService::shutdownNow);
+        jobHelper.stop();
+
+        optionalHttpServer = Optional.empty();
+        optionalExecutorService = Optional.empty();
+        stopped.countDown();
+    }
+
+    private void handleJobs(HttpExchange httpExchange) throws IOException {
+        try {
+            String path = httpExchange.getRequestURI().getPath();
+            String method = httpExchange.getRequestMethod();
+
+            if (path.equals(JOBS_PATH) || path.equals(JOBS_PATH + "/")) {
+                if (method.equals("POST")) {
+                    submitJob(httpExchange);
+                } else if (method.equals("GET")) {
+                    sendJson(httpExchange, 200, jobHelper.getJobs().stream()
+                            .map(this::toMap)
+                            .collect(Collectors.toList()));
+                } else {
+                    sendText(httpExchange, 405, "Method not allowed");
+                }
+
+                return;
+            }
+
+            if (!method.equals("GET")) {
+                sendText(httpExchange, 405, "Method not allowed");
+                return;
+            }
+
+            String id = path.substring(JOBS_PATH.length() + 1);
+            boolean logs = id.endsWith(LOGS_SUFFIX);
+
+            if (logs) {
+                id = id.substring(0, id.length() - LOGS_SUFFIX.length());
+            }
+
+            Optional<ProvisionerJob> optionalProvisionerJob = jobHelper.getJob(id);
+
+            if (!optionalProvisionerJob.isPresent()) {
+                sendText(httpExchange, 404, "Job [" + id + "] not found");
+                return;
+            }
+
+            if (logs) {
+                streamLogs(httpExchange, optionalProvisionerJob.get());
+            } else {
+                sendJson(httpExchange, 200, toMap(optionalProvisionerJob.get()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Server request failed [" + e.getMessage() + "]");
+            sendText(httpExchange, 500, String.valueOf(e.getMessage()));
+        } finally {
+            httpExchange.close();
+        }
+    }
+
+    private void submitJob(HttpExchange httpExchange) throws IOException {
+        byte[] body = IOUtils.toByteArray(httpExchange.getRequestBody());
+        Try<String[]> arguments = Try.of(() -> jsonHelper.fromJson(String[].class, body));
+
+        if (arguments.isFailure() || (arguments.get() == null)) {
+            sendText(httpExchange, 400, "The request body must be a JSON array of command line arguments");
+            return;
+        }
+
+        Try<ProvisionerJob> provisionerJob = Try.of(() -> jobHelper.submit(Arrays.asList(arguments.get())));
+
+        if (provisionerJob.isFailure() && (provisionerJob.getCause() instanceof IllegalArgumentException)) {
+            sendText(httpExchange, 400, provisionerJob.getCause().getMessage());
+            return;
+        }
+
+        sendJson(httpExchange, 202, toMap(provisionerJob.get()));
+    }
+
+    private void streamLogs(HttpExchange httpExchange, ProvisionerJob provisionerJob) throws IOException {
+        httpExchange.getResponseHeaders().add("Content-Type", TEXT_PLAIN);
+        // Zero length means chunked, lines are sent as they are logged
+        httpExchange.sendResponseHeaders(200, 0);
+
+        try (OutputStream outputStream = httpExchange.getResponseBody()) {
+            int index = 0;
+
+            while (true) {
+                boolean finished = provisionerJob.isFinished();
+                int fromIndex = index;
+                List<String> newLogLines = Try.of(() -> provisionerJob.getLogLines(fromIndex, LOG_POLL_MILLISECONDS)).get();
+
+                for (String logLine : newLogLines) {
+                    outputStream.write((logLine + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+
+                outputStream.flush();
+                index += newLogLines.size();
+
+                // Check that the job was finished before reading the lines so the last lines aren't missed
+                if (finished) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handleStatus(HttpExchange httpExchange) throws IOException {
+        try {
+            List<ProvisionerJob> provisionerJobs = jobHelper.getJobs();
+
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("uptimeMillis", System.currentTimeMillis() - startedMillis);
+            status.put("concurrency", jobHelper.getConcurrency());
+            Arrays.stream(JobStatus.values())
+                    .forEach(jobStatus -> status.put(jobStatus.name().toLowerCase(), provisionerJobs.stream()
+                            .filter(provisionerJob -> provisionerJob.getStatus() == jobStatus)
+                            .count()));
+
+            sendJson(httpExchange, 200, status);
+        } finally {
+            httpExchange.close();
+        }
+    }
+
+    private Map<String, Object> toMap(ProvisionerJob provisionerJob) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", provisionerJob.getId());
+        map.put("arguments", provisionerJob.getArguments());
+        map.put("status", provisionerJob.getStatus().name());
+        provisionerJob.getError().ifPresent(error -> map.put("error", error));
+        map.put("submitted", Instant.ofEpochMilli(provisionerJob.getSubmittedMillis()).toString());
+        map.put("queuedMillis", provisionerJob.getQueuedMillis());
+        map.put("runMillis", provisionerJob.getRunMillis());
+
+        return map;
+    }
+
+    private void sendJson(HttpExchange httpExchange, int statusCode, Object object) throws IOException {
+        send(httpExchange, statusCode, APPLICATION_JSON, jsonHelper.toJson(object));
+    }
+
+    private void sendText(HttpExchange httpExchange, int statusCode, String text) throws IOException {
+        send(httpExchange, statusCode, TEXT_PLAIN, text + "\n");
+    }
+
+    private void send(HttpExchange httpExchange, int statusCode, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        httpExchange.getResponseHeaders().add("Content-Type", contentType);
+        httpExchange.sendResponseHeaders(statusCode, bytes.length);
+
+        try (OutputStream outputStream = httpExchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    @Override
+    public ArgumentHelper<ServerArguments> getArgumentHelper() {
+        return serverArgumentHelper;
+    }
+
+    @Override
+    public ServerArguments getArguments() {
+        return new ServerArguments();
+    }
+}
@@ -0,0 +1,84 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.SshSessionPoolHelper;
+import com.jcraft.jsch.Session;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class BasicSshSessionPoolHelper implements SshSessionPoolHelper {
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // Connecting can take minutes while a device boots, only callers for the same key wait on each other
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+    private final AtomicLong sessionsReused = new AtomicLong();
+
+    @Inject
+    public BasicSshSessionPoolHelper() {
+    }
+
+    @Override
+    public Session getSession(String hostname, String user, Callable<Session> sessionCallable) {
+        String key = String.join("@", user, hostname);
+
+        synchronized (locks.computeIfAbsent(key, lockKey -> new Object())) {
+            Session session = sessions.get(key);
+
+            if ((session != null) && session.isConnected()) {
+                sessionsReused.incrementAndGet();
+                return session;
+            }
+
+            if (session != null) {
+                log.debug("Pooled SSH session for [" + key + "] was disconnected, reconnecting");
+            }
+
+            session = Try.of(sessionCallable::call).get();
+            sessionsCreated.incrementAndGet();
+            sessions.put(key, session);
+
+            return session;
+        }
+    }
+
+    @Override
+    public void close(Session session) {
+        if (session == null) {
+            return;
+        }
+
+        sessions.values().remove(session);
+        disconnectQuietly(session);
+    }
+
+    @Override
+    public void closeAll() {
+        sessions.keySet().forEach(key -> {
+            Session session = sessions.remove(key);
+
+            if (session != null) {
+                disconnectQuietly(session);
+            }
+        });
+    }
+
+    private void disconnectQuietly(Session session) {
+        Try.run(session::disconnect);
+    }
+
+    @Override
+    public long getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    @Override
+    public long getSessionsReused() {
+        return sessionsReused.get();
+    }
+}
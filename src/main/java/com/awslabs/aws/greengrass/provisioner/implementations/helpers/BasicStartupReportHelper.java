@@ -0,0 +1,58 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.StartupReportHelper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class BasicStartupReportHelper implements StartupReportHelper {
+    private final AtomicInteger instancesCreated = new AtomicInteger();
+    private final Set<Class<?>> classesCreated = ConcurrentHashMap.newKeySet();
+    private volatile long injectorCreationNanos;
+
+    // Created by the module, before there is an injector to create it
+    public BasicStartupReportHelper() {
+    }
+
+    @Override
+    public <T> void onProvision(ProvisionInvocation<T> provision) {
+        provision.provision();
+
+        instancesCreated.incrementAndGet();
+        // Listeners see the binding of the implementation, not the scoped interface binding, so duplicates are counted
+        //   by class instead
+        classesCreated.add(provision.getBinding().getKey().getTypeLiteral().getRawType());
+    }
+
+    @Override
+    public void setInjectorCreationNanos(long injectorCreationNanos) {
+        this.injectorCreationNanos = injectorCreationNanos;
+    }
+
+    @Override
+    public long getInjectorCreationNanos() {
+        return injectorCreationNanos;
+    }
+
+    @Override
+    public int getInstancesCreated() {
+        return instancesCreated.get();
+    }
+
+    @Override
+    public int getClassesCreated() {
+        return classesCreated.size();
+    }
+
+    @Override
+    public void logStartupReport(String operationName) {
+        log.info("Starting [" + operationName + "] after " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms, " +
+                "injector created in " + TimeUnit.NANOSECONDS.toMillis(injectorCreationNanos) + " ms, " +
+                "[" + instancesCreated.get() + "] instances of [" + classesCreated.size() + "] classes created");
+    }
+}
@@ -0,0 +1,332 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.JsonHelper;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.TraceHelper;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class BasicTraceHelper implements TraceHelper {
+    private static final String TRACES_DIRECTORY = "traces";
+    private static final String SERVICE_NAME = "aws-greengrass-provisioner";
+    // OTLP status codes
+    private static final int STATUS_OK = 1;
+    private static final int STATUS_ERROR = 2;
+    // OTLP span kinds
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_CLIENT = 3;
+    private static final List<String> SUPPORTED_FORMATS = Arrays.asList(CHROME_FORMAT, OTLP_FORMAT);
+
+    @Inject
+    GGConstants ggConstants;
+    @Inject
+    IoHelper ioHelper;
+    @Inject
+    JsonHelper jsonHelper;
+
+    private final ThreadLocal<TraceSpan> currentSpan = new ThreadLocal<>();
+    private final Map<String, Queue<TraceSpan>> finishedSpans = new ConcurrentHashMap<>();
+    private volatile List<String> formats = Collections.emptyList();
+
+    @Inject
+    public BasicTraceHelper() {
+    }
+
+    @Override
+    public TraceSpan startSpan(String name) {
+        return startSpan(name, getCurrentSpan());
+    }
+
+    @Override
+    public TraceSpan startSpan(String name, Optional<TraceSpan> parent) {
+        TraceSpan previousSpan = currentSpan.get();
+
+        TraceSpan traceSpan = createSpan(name, TraceSpan.PHASE, parent, finishedSpan -> {
+            finish(finishedSpan);
+
+            // Restore the span that was open before this one, if this span is closed on the thread that opened it
+            if (currentSpan.get() == finishedSpan) {
+                if (previousSpan == null) {
+                    currentSpan.remove();
+                } else {
+                    currentSpan.set(previousSpan);
+                }
+            }
+        });
+
+        currentSpan.set(traceSpan);
+
+        return traceSpan;
+    }
+
+    @Override
+    public Optional<TraceSpan> startLeafSpan(String name, String category) {
+        // Calls made outside of an operation aren't traced, they would never be written
+        return getCurrentSpan()
+                .map(parent -> createSpan(name, category, Optional.of(parent), this::finish));
+    }
+
+    private TraceSpan createSpan(String name, String category, Optional<TraceSpan> parent, Consumer<TraceSpan> onClose) {
+        String traceId = parent.map(TraceSpan::getTraceId).orElseGet(() -> randomHex(16));
+
+        return new TraceSpan(name, category, traceId, randomHex(8), parent.map(TraceSpan::getSpanId), onClose);
+    }
+
+    private void finish(TraceSpan traceSpan) {
+        finishedSpans.computeIfAbsent(traceSpan.getTraceId(), unused -> new ConcurrentLinkedQueue<>()).add(traceSpan);
+    }
+
+    private String randomHex(int bytes) {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int loop = 0; loop < bytes; loop++) {
+            stringBuilder.append(String.format("%02x", ThreadLocalRandom.current().nextInt(256)));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public Optional<TraceSpan> getCurrentSpan() {
+        return Optional.ofNullable(currentSpan.get());
+    }
+
+    @Override
+    public List<TraceSpan> removeTrace(TraceSpan root) {
+        return Optional.ofNullable(finishedSpans.remove(root.getTraceId()))
+                .map(ArrayList::new)
+                .orElseGet(ArrayList::new)
+                .stream()
+                .sorted(Comparator.comparingLong(TraceSpan::getStartNanos))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> writeTrace(TraceSpan root) {
+        List<TraceSpan> traceSpans = removeTrace(root);
+
+        if (formats.isEmpty() || traceSpans.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        logCriticalPath(root, traceSpans);
+
+        File tracesDirectory = new File(String.join("/", ggConstants.getBuildDirectory(), TRACES_DIRECTORY));
+        tracesDirectory.mkdirs();
+        String baseFilename = String.join("/", tracesDirectory.getPath(), String.join("-", root.getName(), String.valueOf(System.currentTimeMillis())));
+
+        List<String> filenames = new ArrayList<>();
+
+        if (formats.contains(CHROME_FORMAT)) {
+            String filename = baseFilename + ".trace.json";
+            ioHelper.writeFile(filename, toChromeTrace(traceSpans).getBytes(StandardCharsets.UTF_8));
+            filenames.add(filename);
+        }
+
+        if (formats.contains(OTLP_FORMAT)) {
+            String filename = baseFilename + ".otlp.json";
+            ioHelper.writeFile(filename, toOtlpJson(traceSpans).getBytes(StandardCharsets.UTF_8));
+            filenames.add(filename);
+        }
+
+        filenames.forEach(filename -> log.info("Trace for [" + root.getName() + "] written to [" + filename + "]"));
+
+        return filenames;
+    }
+
+    private void logCriticalPath(TraceSpan root, List<TraceSpan> traceSpans) {
+        Map<String, TraceSpan> spansById = traceSpans.stream()
+                .collect(Collectors.toMap(TraceSpan::getSpanId, traceSpan -> traceSpan));
+
+        log.info("Critical path of [" + root.getName() + "]:");
+
+        getCriticalPath(root, traceSpans)
+                .forEach(traceSpan -> log.info(String.format("  %-50s start +%6d ms, took %6d ms",
+                        indent(traceSpan, spansById) + traceSpan.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(traceSpan.getStartNanos() - root.getStartNanos()),
+                        TimeUnit.NANOSECONDS.toMillis(traceSpan.getDurationNanos()))));
+    }
+
+    private String indent(TraceSpan traceSpan, Map<String, TraceSpan> spansById) {
+        StringBuilder stringBuilder = new StringBuilder();
+        Optional<TraceSpan> parent = traceSpan.getParentSpanId().map(spansById::get);
+
+        while (parent.isPresent()) {
+            stringBuilder.append("  ");
+            parent = parent.get().getParentSpanId().map(spansById::get);
+        }
+
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public void setFormats(List<String> formats) {
+        List<String> normalizedFormats = formats.stream()
+                .map(String::trim)
+                .map(String::toLowerCase)
+                .collect(Collectors.toList());
+
+        normalizedFormats.stream()
+                .filter(format -> !SUPPORTED_FORMATS.contains(format))
+                .findFirst()
+                .ifPresent(format -> {
+                    throw new RuntimeException("Unknown trace format [" + format + "], the supported formats are " + SUPPORTED_FORMATS);
+                });
+
+        this.formats = normalizedFormats;
+    }
+
+    @Override
+    public List<TraceSpan> getCriticalPath(TraceSpan root, List<TraceSpan> traceSpans) {
+        Map<String, List<TraceSpan>> children = traceSpans.stream()
+                .filter(traceSpan -> traceSpan.getCategory().equals(TraceSpan.PHASE))
+                .filter(traceSpan -> traceSpan.getParentSpanId().isPresent())
+                .collect(Collectors.groupingBy(traceSpan -> traceSpan.getParentSpanId().get()));
+
+        List<TraceSpan> criticalPath = new ArrayList<>();
+        addCriticalPath(root, children, criticalPath);
+
+        return criticalPath;
+    }
+
+    private void addCriticalPath(TraceSpan traceSpan, Map<String, List<TraceSpan>> children, List<TraceSpan> criticalPath) {
+        criticalPath.add(traceSpan);
+
+        // Work back from the child that finished last, each earlier child on the path must have finished before the
+        //   next one started, otherwise it wasn't holding anything up
+        List<TraceSpan> childrenByEnd = children.getOrDefault(traceSpan.getSpanId(), Collections.emptyList()).stream()
+                .sorted(Comparator.comparingLong(TraceSpan::getEndNanos).reversed())
+                .collect(Collectors.toList());
+
+        List<TraceSpan> pathChildren = new ArrayList<>();
+        long cursor = traceSpan.getEndNanos();
+
+        for (TraceSpan child : childrenByEnd) {
+            if (child.getEndNanos() <= cursor) {
+                pathChildren.add(child);
+                cursor = child.getStartNanos();
+            }
+        }
+
+        Collections.reverse(pathChildren);
+        pathChildren.forEach(child -> addCriticalPath(child, children, criticalPath));
+    }
+
+    @Override
+    public String toChromeTrace(List<TraceSpan> traceSpans) {
+        long traceStartNanos = traceSpans.stream()
+                .mapToLong(TraceSpan::getStartNanos)
+                .min()
+                .orElse(0);
+
+        List<Map<String, Object>> traceEvents = new ArrayList<>();
+
+        // Name the rows after the threads
+        traceSpans.stream()
+                .collect(Collectors.toMap(TraceSpan::getThreadId, TraceSpan::getThreadName, (first, second) -> first, LinkedHashMap::new))
+                .forEach((threadId, threadName) -> {
+                    Map<String, Object> threadNameEvent = new LinkedHashMap<>();
+                    threadNameEvent.put("name", "thread_name");
+                    threadNameEvent.put("ph", "M");
+                    threadNameEvent.put("pid", 1);
+                    threadNameEvent.put("tid", threadId);
+                    threadNameEvent.put("args", Collections.singletonMap("name", threadName));
+                    traceEvents.add(threadNameEvent);
+                });
+
+        for (TraceSpan traceSpan : traceSpans) {
+            Map<String, Object> args = new LinkedHashMap<>();
+            args.put("spanId", traceSpan.getSpanId());
+            traceSpan.getParentSpanId().ifPresent(parentSpanId -> args.put("parentSpanId", parentSpanId));
+            traceSpan.getError().ifPresent(error -> args.put("error", error));
+
+            // Complete events, timestamps are in microseconds
+            Map<String, Object> traceEvent = new LinkedHashMap<>();
+            traceEvent.put("name", traceSpan.getName());
+            traceEvent.put("cat", traceSpan.getCategory());
+            traceEvent.put("ph", "X");
+            traceEvent.put("ts", (traceSpan.getStartNanos() - traceStartNanos) / 1000.0);
+            traceEvent.put("dur", traceSpan.getDurationNanos() / 1000.0);
+            traceEvent.put("pid", 1);
+            traceEvent.put("tid", traceSpan.getThreadId());
+            traceEvent.put("args", args);
+            traceEvents.add(traceEvent);
+        }
+
+        Map<String, Object> chromeTrace = new LinkedHashMap<>();
+        chromeTrace.put("traceEvents", traceEvents);
+        chromeTrace.put("displayTimeUnit", "ms");
+
+        return jsonHelper.toJson(chromeTrace);
+    }
+
+    @Override
+    public String toOtlpJson(List<TraceSpan> traceSpans) {
+        List<Map<String, Object>> spans = traceSpans.stream()
+                .map(this::toOtlpSpan)
+                .collect(Collectors.toList());
+
+        Map<String, Object> scopeSpans = new LinkedHashMap<>();
+        scopeSpans.put("scope", Collections.singletonMap("name", SERVICE_NAME));
+        scopeSpans.put("spans", spans);
+
+        Map<String, Object> resourceSpans = new LinkedHashMap<>();
+        resourceSpans.put("resource", Collections.singletonMap("attributes", Collections.singletonList(toOtlpAttribute("service.name", SERVICE_NAME))));
+        resourceSpans.put("scopeSpans", Collections.singletonList(scopeSpans));
+
+        return jsonHelper.toJson(Collections.singletonMap("resourceSpans", Collections.singletonList(resourceSpans)));
+    }
+
+    private Map<String, Object> toOtlpSpan(TraceSpan traceSpan) {
+        List<Map<String, Object>> attributes = new ArrayList<>();
+        attributes.add(toOtlpAttribute("thread.name", traceSpan.getThreadName()));
+        attributes.add(toOtlpAttribute("category", traceSpan.getCategory()));
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("code", traceSpan.getError().isPresent() ? STATUS_ERROR : STATUS_OK);
+        traceSpan.getError().ifPresent(error -> status.put("message", error));
+
+        // 64-bit integers are strings in the protobuf JSON mapping
+        Map<String, Object> span = new LinkedHashMap<>();
+        span.put("traceId", traceSpan.getTraceId());
+        span.put("spanId", traceSpan.getSpanId());
+        traceSpan.getParentSpanId().ifPresent(parentSpanId -> span.put("parentSpanId", parentSpanId));
+        span.put("name", traceSpan.getName());
+        span.put("kind", traceSpan.getCategory().equals(TraceSpan.SDK) ? SPAN_KIND_CLIENT : SPAN_KIND_INTERNAL);
+        span.put("startTimeUnixNano", String.valueOf(traceSpan.getStartEpochNanos()));
+        span.put("endTimeUnixNano", String.valueOf(traceSpan.getEndEpochNanos()));
+        span.put("attributes", attributes);
+        span.put("status", status);
+
+        return span;
+    }
+
+    private Map<String, Object> toOtlpAttribute(String key, String value) {
+        Map<String, Object> attribute = new LinkedHashMap<>();
+        attribute.put("key", key);
+        attribute.put("value", Collections.singletonMap("stringValue", value));
+
+        return attribute;
+    }
+}
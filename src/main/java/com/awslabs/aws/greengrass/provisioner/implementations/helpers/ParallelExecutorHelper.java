@@ -2,12 +2,13 @@ package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
 
 import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.ExecutorHelper;
 import lombok.extern.slf4j.Slf4j;
+import org.gradle.internal.concurrent.ThreadFactoryImpl;
 
 import javax.inject.Inject;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
-// NOTE: This fails if multiple Gradle projects are trying to build a dependent project at the same time!
+// NOTE: Builds that share a Gradle or Maven project are serialized by the BuildLockHelper, everything else runs in parallel
 
 @Slf4j
 public class ParallelExecutorHelper implements ExecutorHelper {
@@ -17,6 +18,9 @@ public class ParallelExecutorHelper implements ExecutorHelper {
 
     @Override
     public ExecutorService getExecutor() {
-        return Executors.newCachedThreadPool();
+        // Builds are mostly CPU bound so more threads than processors just makes them all slower
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        return Executors.newFixedThreadPool(threads, new ThreadFactoryImpl(ParallelExecutorHelper.class.getSimpleName()));
     }
 }
@@ -5,6 +5,7 @@ import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.Set;
 
 public interface GradleBuilder extends FunctionBuilder {
     String getArchivePath(FunctionConf functionConf);
@@ -15,6 +16,15 @@ public interface GradleBuilder extends FunctionBuilder {
 
     boolean isGradleFunction(Path path);
 
+    /**
+     * Finds the projects outside of the function directory that settings.gradle pulls into the build, these are built
+     * along with the function so functions that share them can't be built at the same time
+     *
+     * @param functionConf
+     * @return
+     */
+    Set<Path> getIncludedProjectDirectories(FunctionConf functionConf);
+
     void buildJavaFunctionIfNecessary(FunctionConf functionConf);
 
     void runGradle(Optional<File> gradleBuildPath, Optional<String> functionName);
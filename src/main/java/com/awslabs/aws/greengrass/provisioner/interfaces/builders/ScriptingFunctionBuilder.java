@@ -40,8 +40,7 @@ public interface ScriptingFunctionBuilder extends FunctionBuilder {
             // Couldn't find the SDK inside the JAR.  Try to get it on the local file system.
             if (!new File(sdkFullPath).exists()) {
                 // Couldn't find it on the local file system, give up
-                log.error("The SDK [" + getSdk().getFullSdkFilename() + "] is missing, please download it from the Greengrass console and put it in the [" + getSdk().getFOUNDATION() + "] directory");
-                System.exit(1);
+                throw new RuntimeException("The SDK [" + getSdk().getFullSdkFilename() + "] is missing, please download it from the Greengrass console and put it in the [" + getSdk().getFOUNDATION() + "] directory");
             }
 
             // Get the inner SDK ZIP file from the full SDK
@@ -49,8 +48,7 @@ public interface ScriptingFunctionBuilder extends FunctionBuilder {
         }
 
         if (!optionalInputStream.isPresent()) {
-            log.error("The SDK ZIP file [" + sdkInnerZipPath + "] is missing in the SDK.  This should never happen.  Please report this bug.");
-            System.exit(1);
+            throw new RuntimeException("The SDK ZIP file [" + sdkInnerZipPath + "] is missing in the SDK.  This should never happen.  Please report this bug.");
         }
 
         File destinationPath = new File(String.join("/", buildDirectory, getSdkDestinationPath()));
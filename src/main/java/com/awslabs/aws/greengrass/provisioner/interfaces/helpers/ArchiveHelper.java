@@ -2,15 +2,28 @@ package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
 
 import com.awslabs.aws.greengrass.provisioner.data.VirtualTarEntry;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
 public interface ArchiveHelper {
     void addVirtualTarEntry(Optional<List<VirtualTarEntry>> virtualTarEntries, String filename, byte[] content, int permissions);
 
+    void addVirtualTarEntry(Optional<List<VirtualTarEntry>> virtualTarEntries, String filename, Path path, int permissions);
+
     VirtualTarEntry createVirtualTarEntry(String filename, byte[] content, int permissions);
 
-    Optional<ByteArrayOutputStream> tar(Optional<List<VirtualTarEntry>> virtualTarEntryList) throws IOException;
+    VirtualTarEntry createVirtualTarEntry(String filename, Path path, int permissions);
+
+    /**
+     * Streams a tar archive to the channel without building it in memory
+     *
+     * @param virtualTarEntries   the entries to write, in order
+     * @param writableByteChannel the destination, file backed entries are transferred directly when this is a file channel
+     * @return the number of bytes written
+     * @throws IOException
+     */
+    long tar(List<VirtualTarEntry> virtualTarEntries, WritableByteChannel writableByteChannel) throws IOException;
 }
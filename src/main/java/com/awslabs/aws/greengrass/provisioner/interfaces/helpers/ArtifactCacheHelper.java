@@ -0,0 +1,39 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface ArtifactCacheHelper {
+    /**
+     * Returns the path of a local copy of the artifact at this URL. The first request for a URL in this process
+     * revalidates the cached copy with the server (ETag/Last-Modified) and downloads it only if it changed. Later
+     * requests are served from the cache without any network traffic until the copy is older than the maximum age,
+     * then it is revalidated again. Concurrent requests for the same URL share a single download.
+     *
+     * @param url
+     * @param optionalReferer some CDNs require the referer to be filled in
+     * @return
+     */
+    Path get(String url, Optional<String> optionalReferer);
+
+    default Path get(String url) {
+        return get(url, Optional.empty());
+    }
+
+    byte[] getBytes(String url);
+
+    boolean isOffline();
+
+    /**
+     * Set from the --offline option to only serve artifacts that are already cached
+     *
+     * @param offline
+     */
+    void setOffline(boolean offline);
+
+    int getDownloads();
+
+    int getRevalidations();
+
+    int getHits();
+}
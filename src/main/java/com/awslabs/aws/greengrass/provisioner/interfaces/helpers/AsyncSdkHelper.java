@@ -0,0 +1,107 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+public interface AsyncSdkHelper {
+    boolean isAsync();
+
+    /**
+     * Set from the --async-sdk option to send requests with the asynchronous SDK clients
+     *
+     * @param async
+     */
+    void setAsync(boolean async);
+
+    /**
+     * Returns a builder for an HTTP client that runs on the event loop shared by all of the asynchronous clients. Each
+     * client gets its own connection limit, requests over the limit wait for a connection without holding a thread.
+     *
+     * @param maxConcurrency the maximum number of connections
+     * @return
+     */
+    SdkAsyncHttpClient.Builder<?> getHttpClientBuilder(int maxConcurrency);
+
+    /**
+     * Sends a request with the asynchronous client in async mode. Otherwise the blocking client is called on the
+     * current thread and the result is returned as a completed future.
+     *
+     * @param request
+     * @param blockingCall
+     * @param asyncCall
+     * @return
+     */
+    default <Q, R> CompletableFuture<R> call(Q request, Function<Q, R> blockingCall, Function<Q, CompletableFuture<R>> asyncCall) {
+        if (isAsync()) {
+            return asyncCall.apply(request);
+        }
+
+        try {
+            return CompletableFuture.completedFuture(blockingCall.apply(request));
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * Replaces a failure of the specified type with the result of the recovery function, like Try.recover
+     *
+     * @param future
+     * @param exceptionType
+     * @param recovery
+     * @return
+     */
+    default <T, X extends Throwable> CompletableFuture<T> recover(CompletableFuture<T> future, Class<X> exceptionType, Function<X, CompletableFuture<T>> recovery) {
+        return future.handle((result, throwable) -> {
+            if (throwable == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+
+            Throwable cause = unwrap(throwable);
+
+            if (exceptionType.isInstance(cause)) {
+                return recovery.apply(exceptionType.cast(cause));
+            }
+
+            return AsyncSdkHelper.<T>failed(cause);
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Waits for the future and throws the same exception the blocking client would have thrown
+     *
+     * @param future
+     * @return
+     */
+    default <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new RuntimeException(cause);
+        }
+    }
+
+    static <T> CompletableFuture<T> failed(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    static Throwable unwrap(Throwable throwable) {
+        while (((throwable instanceof CompletionException) || (throwable instanceof ExecutionException)) && (throwable.getCause() != null)) {
+            throwable = throwable.getCause();
+        }
+
+        return throwable;
+    }
+}
@@ -0,0 +1,48 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.SDK;
+import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
+import software.amazon.awssdk.services.lambda.model.Runtime;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+
+public interface BuildCacheHelper {
+    /**
+     * Hashes everything that goes into a function's deployment package. The function source tree (without build
+     * output and function.conf), the dependencies listed in function.conf, the runtime and the Greengrass SDK.
+     *
+     * @param functionConf
+     * @param runtime
+     * @param sdk
+     * @param sharedProjectDirectories projects outside of the function directory that are built into the function
+     * @return
+     */
+    String getCacheKey(FunctionConf functionConf, Runtime runtime, Optional<SDK> sdk, Set<Path> sharedProjectDirectories);
+
+    Optional<Path> getCachedArchive(String cacheKey);
+
+    void putArchive(String cacheKey, Path archivePath);
+
+    /**
+     * Puts a previously built deployment package at the archive path if one exists for these inputs, otherwise runs
+     * the build and caches its output. The function directory and the shared project directories are locked until the
+     * deployment package has been copied out of the build directory.
+     *
+     * @param functionConf
+     * @param runtime
+     * @param sdk
+     * @param sharedProjectDirectories projects outside of the function directory that are built into the function
+     * @param archivePath              where the builder leaves the deployment package
+     * @param build                    builds the deployment package
+     * @return the path of a copy of the deployment package that only belongs to the caller, the caller deletes it
+     */
+    String buildIfNecessary(FunctionConf functionConf, Runtime runtime, Optional<SDK> sdk, Set<Path> sharedProjectDirectories, String archivePath, Runnable build);
+
+    int getHits();
+
+    int getMisses();
+
+    int getEvictions();
+}
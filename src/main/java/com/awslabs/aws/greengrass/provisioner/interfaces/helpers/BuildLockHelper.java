@@ -0,0 +1,32 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public interface BuildLockHelper {
+    /**
+     * Runs a build while holding a lock on each of the directories it writes to. Builds that share any directory run
+     * one at a time, all other builds can run concurrently.
+     *
+     * @param name        the name used in log messages
+     * @param directories the directories the build writes to
+     * @param build       the build to run
+     */
+    default void runLocked(String name, Set<Path> directories, Runnable build) {
+        runLocked(name, directories, () -> {
+            build.run();
+            return null;
+        });
+    }
+
+    /**
+     * Same as runLocked(String, Set, Runnable) for work that returns a result
+     *
+     * @param name        the name used in log messages
+     * @param directories the directories the build writes to
+     * @param build       the build to run
+     * @return the result of the build
+     */
+    <T> T runLocked(String name, Set<Path> directories, Supplier<T> build);
+}
@@ -0,0 +1,24 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface CoreArtifactStoreHelper {
+    /**
+     * Returns a local file with the contents of a Greengrass core release so it can be transferred straight from disk
+     * into an archive. Releases packaged inside the JAR are copied out once. The hash of each file is recorded in a
+     * sidecar next to it and is only recalculated when the file changes, it is checked the first time the file is
+     * used in this process.
+     *
+     * @param filename             the release filename, this includes the version and architecture
+     * @param url                  where the release can be found, a file or a resource in the JAR
+     * @param optionalExpectedSha1 the SHA-1 the release must have
+     * @return the path of the verified file
+     */
+    Path get(String filename, URL url, Optional<String> optionalExpectedSha1);
+
+    int getHashesCalculated();
+
+    int getHashesReused();
+}
@@ -1,5 +1,6 @@
 package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
 
+import com.awslabs.aws.greengrass.provisioner.data.BackoffPolicy;
 import com.awslabs.aws.greengrass.provisioner.data.arguments.DeploymentArguments;
 import com.awslabs.aws.greengrass.provisioner.data.conf.DeploymentConf;
 import software.amazon.awssdk.services.iam.model.Role;
@@ -12,7 +13,21 @@ public interface DeploymentHelper extends Operation<DeploymentArguments> {
 
     DeploymentConf getDeploymentConf(String deploymentConfigFilename, String groupName);
 
-    Void createAndWaitForDeployment(Optional<Role> greengrassServiceRole, Optional<Role> greengrassRole, String groupId, String groupVersionId);
+    default Void createAndWaitForDeployment(Optional<Role> greengrassServiceRole, Optional<Role> greengrassRole, String groupId, String groupVersionId) {
+        return createAndWaitForDeployment(greengrassServiceRole, greengrassRole, groupId, groupVersionId, BackoffPolicy.builder().build());
+    }
+
+    /**
+     * Creates a deployment and waits for it to finish
+     *
+     * @param greengrassServiceRole
+     * @param greengrassRole
+     * @param groupId
+     * @param groupVersionId
+     * @param deploymentStatusBackoff how often the deployment status is checked
+     * @return
+     */
+    Void createAndWaitForDeployment(Optional<Role> greengrassServiceRole, Optional<Role> greengrassRole, String groupId, String groupVersionId, BackoffPolicy deploymentStatusBackoff);
 
     void associateRoleToGroup(Role greengrassRole, String groupId);
 
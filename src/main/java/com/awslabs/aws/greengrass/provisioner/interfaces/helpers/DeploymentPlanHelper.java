@@ -0,0 +1,17 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStep;
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStepContext;
+
+import java.util.List;
+
+public interface DeploymentPlanHelper {
+    /**
+     * Runs the steps in dependency order, running steps concurrently when none of their inputs are outstanding
+     *
+     * @param deploymentStepContext the context, pre-populated with any values that are available before the plan starts
+     * @param deploymentSteps       the steps to run
+     * @return the context with all of the step outputs added
+     */
+    DeploymentStepContext run(DeploymentStepContext deploymentStepContext, List<DeploymentStep> deploymentSteps);
+}
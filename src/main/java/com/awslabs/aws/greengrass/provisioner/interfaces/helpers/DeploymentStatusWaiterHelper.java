@@ -0,0 +1,36 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.BackoffPolicy;
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStatus;
+import com.awslabs.aws.greengrass.provisioner.data.GroupDeployment;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface DeploymentStatusWaiterHelper {
+    /**
+     * Starts watching a deployment. All watched deployments share one polling loop, each one is polled with its own
+     * jittered exponential backoff until it reaches a final status or its deadline passes.
+     *
+     * @param groupDeployment    the group and deployment to watch
+     * @param backoffPolicy      the delays used between polls of this deployment
+     * @param deadlineNanoTime   the System.nanoTime() after which the deployment is reported as TIMED_OUT
+     * @return a future that completes with SUCCESSFUL, FAILED, NEEDS_NEW_DEPLOYMENT or TIMED_OUT
+     */
+    CompletableFuture<DeploymentStatus> watch(GroupDeployment groupDeployment, BackoffPolicy backoffPolicy, long deadlineNanoTime);
+
+    Map<GroupDeployment, DeploymentStatus> waitForAll(Collection<GroupDeployment> groupDeployments, BackoffPolicy backoffPolicy, long deadlineNanoTime);
+
+    default DeploymentStatus waitFor(GroupDeployment groupDeployment, BackoffPolicy backoffPolicy, long deadlineNanoTime) {
+        return watch(groupDeployment, backoffPolicy, deadlineNanoTime).join();
+    }
+
+    /**
+     * @param attempt the zero based attempt number
+     * @return the jittered delay before the next attempt, never more than the policy's maximum delay
+     */
+    long getDelayMillis(BackoffPolicy backoffPolicy, int attempt);
+
+    long getPolls();
+}
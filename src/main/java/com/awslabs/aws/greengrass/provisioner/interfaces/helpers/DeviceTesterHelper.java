@@ -1,5 +1,6 @@
 package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
 
+import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogEvent;
 import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogMessageType;
 import io.vavr.collection.Map;
 import io.vavr.control.Option;
@@ -8,20 +9,39 @@ public interface DeviceTesterHelper {
     String MESSAGE_FIELD_NAME = "msg";
     String TEST_CASE_ID = "testCaseId";
 
+    /**
+     * Tokenizes and classifies a log message in a single pass
+     *
+     * @param logMessage
+     * @return
+     */
+    DeviceTesterLogEvent parse(String logMessage);
+
     /**
      * Determines the type of a log message
      *
      * @param logMessage
      * @return
      */
-    DeviceTesterLogMessageType getLogMessageType(String logMessage);
+    default DeviceTesterLogMessageType getLogMessageType(String logMessage) {
+        return parse(logMessage).getType();
+    }
 
     /**
      * Filters, reformats, and prints log messages from Device Tester
      *
      * @param logMessage
      */
-    void log(String logMessage);
+    default void log(String logMessage) {
+        log(parse(logMessage));
+    }
+
+    /**
+     * Filters, reformats, and prints a log message from Device Tester that has already been parsed
+     *
+     * @param deviceTesterLogEvent
+     */
+    void log(DeviceTesterLogEvent deviceTesterLogEvent);
 
     /**
      * Extracts the test case ID, if present, from a log message that has been converted to a map
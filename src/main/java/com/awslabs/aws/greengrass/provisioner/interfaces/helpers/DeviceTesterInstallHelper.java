@@ -0,0 +1,23 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import java.io.File;
+
+public interface DeviceTesterInstallHelper {
+    /**
+     * Returns a new working directory for a single Device Tester run. The archive is only extracted the first time a
+     * version is seen, later runs link to the same immutable install. Only the configs and results directories belong
+     * to the run so they can be changed without affecting other runs.
+     *
+     * @param deviceTesterZip the Device Tester archive
+     * @return the working directory, with the same layout as the extracted archive
+     */
+    File getWorkingDirectory(File deviceTesterZip);
+
+    /**
+     * Deletes a working directory once its run is finished. Links are removed without touching the shared install
+     * they point to.
+     *
+     * @param workingDirectory a directory returned by getWorkingDirectory
+     */
+    void deleteWorkingDirectory(File workingDirectory);
+}
@@ -0,0 +1,13 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.FleetGroupResult;
+import com.awslabs.aws.greengrass.provisioner.data.arguments.FleetArguments;
+import com.awslabs.aws.greengrass.provisioner.data.conf.FleetGroupConf;
+
+import java.util.List;
+
+public interface FleetHelper extends Operation<FleetArguments> {
+    List<FleetGroupConf> getFleetGroupConfs(String manifestFilename);
+
+    List<FleetGroupResult> deployFleet(List<FleetGroupConf> fleetGroupConfs, int maxConcurrentGroups);
+}
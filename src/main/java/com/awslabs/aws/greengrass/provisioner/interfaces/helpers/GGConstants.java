@@ -33,6 +33,16 @@ public interface GGConstants {
 
     String getBuildDirectory();
 
+    String getFunctionCacheDirectory();
+
+    long getFunctionCacheMaxSizeInBytes();
+
+    String getArtifactCacheDirectory();
+
+    String getDeviceTesterInstallDirectory();
+
+    String getCoreArtifactStoreDirectory();
+
     String getCertsDirectoryPrefix();
 
     String getConfigDirectoryPrefix();
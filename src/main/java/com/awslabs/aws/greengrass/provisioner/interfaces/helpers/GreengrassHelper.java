@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public interface GreengrassHelper {
     void associateServiceRoleToAccount(Role role);
@@ -24,6 +25,8 @@ public interface GreengrassHelper {
 
     String createCoreDefinitionAndVersion(String coreDefinitionName, String coreCertificateArn, String coreThingArn);
 
+    CompletableFuture<String> createCoreDefinitionAndVersionAsync(String coreDefinitionName, String coreCertificateArn, String coreThingArn);
+
     /**
      * Build a Function object for a new function
      *
@@ -47,20 +50,32 @@ public interface GreengrassHelper {
 
     String createFunctionDefinitionVersion(Set<Function> functions);
 
+    CompletableFuture<String> createFunctionDefinitionVersionAsync(Set<Function> functions);
+
     String createDeviceDefinitionAndVersion(String deviceDefinitionName, List<Device> devices);
 
+    CompletableFuture<String> createDeviceDefinitionAndVersionAsync(String deviceDefinitionName, List<Device> devices);
+
     String createGroupVersion(String groupId, GroupVersion newGroupVersion);
 
     String createDeployment(String groupId, String groupVersionId);
 
+    CompletableFuture<String> createDeploymentAsync(String groupId, String groupVersionId);
+
     String createSubscriptionDefinitionAndVersion(List<Subscription> subscriptions);
 
+    CompletableFuture<String> createSubscriptionDefinitionAndVersionAsync(List<Subscription> subscriptions);
+
     String createDefaultLoggerDefinitionAndVersion();
 
-    DeploymentStatus waitForDeploymentStatusToChange(String groupId, String deploymentId);
+    CompletableFuture<String> createDefaultLoggerDefinitionAndVersionAsync();
+
+    DeploymentStatus getDeploymentStatus(String groupId, String deploymentId);
 
     String createResourceDefinitionVersion(List<FunctionConf> functionConfs);
 
+    CompletableFuture<String> createResourceDefinitionVersionAsync(List<FunctionConf> functionConfs);
+
     Device getDevice(String thingName);
 
     void disassociateServiceRoleFromAccount();
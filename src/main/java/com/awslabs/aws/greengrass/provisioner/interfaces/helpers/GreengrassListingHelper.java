@@ -0,0 +1,40 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import software.amazon.awssdk.services.greengrass.model.DefinitionInformation;
+import software.amazon.awssdk.services.greengrass.model.GroupInformation;
+
+import java.util.Optional;
+
+/**
+ * Indexes the Greengrass group and definition listings by name and ID so repeated lookups in a run don't walk every
+ * page again.  Pages are only fetched until the requested entry is found.  A lookup that misses a complete index, or
+ * any lookup once the index is a few minutes old, rebuilds it from the first page so deleted entries drop out.
+ */
+public interface GreengrassListingHelper {
+    Optional<GroupInformation> getGroupInformation(String groupNameOrGroupId);
+
+    Optional<DefinitionInformation> getCoreDefinitionInformation(String coreDefinitionName);
+
+    Optional<DefinitionInformation> getDeviceDefinitionInformation(String deviceDefinitionName);
+
+    /**
+     * Adds or replaces a group the provisioner created or changed so it can be found without listing the groups again
+     *
+     * @param groupInformation
+     */
+    void putGroupInformation(GroupInformation groupInformation);
+
+    void putCoreDefinitionInformation(DefinitionInformation definitionInformation);
+
+    void putDeviceDefinitionInformation(DefinitionInformation definitionInformation);
+
+    void invalidateGroups();
+
+    void invalidateCoreDefinitions();
+
+    void invalidateDeviceDefinitions();
+
+    int getPagesFetched();
+
+    int getIndexHits();
+}
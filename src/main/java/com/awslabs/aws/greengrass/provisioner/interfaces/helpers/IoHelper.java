@@ -1,5 +1,9 @@
 package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
 
+import com.awslabs.aws.greengrass.provisioner.data.CommandResult;
+import com.awslabs.aws.greengrass.provisioner.data.DownloadOptions;
+import com.awslabs.aws.greengrass.provisioner.data.FileTransferOptions;
+import com.awslabs.aws.greengrass.provisioner.data.FileTransferResult;
 import com.awslabs.aws.greengrass.provisioner.data.KeysAndCertificate;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
@@ -154,6 +158,23 @@ public interface IoHelper {
         }
     }
 
+    default String calcSHA256(File file) {
+        try (InputStream input = new FileInputStream(file)) {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[65536];
+            int len = input.read(buffer);
+
+            while (len != -1) {
+                sha256.update(buffer, 0, len);
+                len = input.read(buffer);
+            }
+
+            return Hex.encodeHexString(sha256.digest()).toLowerCase();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     default String serializeKeys(CreateKeysAndCertificateResponse createKeysAndCertificateResponse, JsonHelper jsonHelper) {
         KeysAndCertificate keysAndCertificate = KeysAndCertificate.builder()
                 .certificateArn(createKeysAndCertificateResponse.certificateArn())
@@ -199,13 +220,13 @@ public interface IoHelper {
     }
 
     default Optional<InputStream> getInputStreamFromTar(TarArchiveInputStream tarIn, String filenameToExtract) throws IOException {
-        TarArchiveEntry tarEntry = tarIn.getNextTarEntry();
+        TarArchiveEntry tarEntry = tarIn.getNextEntry();
 
         while (tarEntry != null) {
             String currentFileName = tarEntry.getName();
 
             if (!currentFileName.endsWith(filenameToExtract)) {
-                tarEntry = tarIn.getNextTarEntry();
+                tarEntry = tarIn.getNextEntry();
                 continue;
             }
 
@@ -263,6 +284,12 @@ public interface IoHelper {
 
     Void download(String url, File file, Optional<String> optionalReferer) throws IOException;
 
+    /**
+     * Downloads large objects as concurrent HTTP range requests when the server supports them. An interrupted
+     * download resumes from the ranges it already finished the next time it is started with the same file.
+     */
+    Void download(String url, File file, DownloadOptions downloadOptions) throws IOException;
+
     JSch getJschWithPrivateKeysLoaded();
 
     Callable<Session> getSshSessionTask(String hostname,
@@ -276,6 +303,22 @@ public interface IoHelper {
 
     String runCommand(Session session, String command, Optional<Consumer<String>> optionalStringConsumer) throws JSchException, IOException;
 
+    /**
+     * Runs a command and streams its output to the line consumer without keeping it in memory, other than the last
+     * tailLines lines which are returned in the result
+     */
+    CommandResult runCommand(Session session, String command, Consumer<String> lineConsumer, int tailLines) throws JSchException, IOException;
+
+    /**
+     * Runs the commands one after another in a single shell on the remote host, later commands run even if earlier
+     * ones fail
+     *
+     * @return the exit status of each command in the same order as the commands, -1 if a command didn't report one
+     */
+    List<Integer> runCommands(Session session, List<String> commands) throws JSchException, IOException;
+
     Void sendFile(Session session, String localFilename, String remoteFilename) throws JSchException, IOException;
+
+    FileTransferResult sendFile(Session session, String localFilename, String remoteFilename, FileTransferOptions fileTransferOptions) throws JSchException, IOException;
 }
 
@@ -1,22 +1,54 @@
 package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
 
 import com.awslabs.aws.greengrass.provisioner.data.KeysAndCertificate;
+import com.awslabs.aws.greengrass.provisioner.data.ThingProvisioningRequest;
 import software.amazon.awssdk.services.iam.model.Role;
 import software.amazon.awssdk.services.iot.model.CreateRoleAliasResponse;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 public interface IotHelper {
     String getEndpoint();
 
     String createThing(String name);
 
+    /**
+     * Same as createThing. In async mode the request is sent with the asynchronous client and no thread waits for it.
+     *
+     * @param name
+     * @return the thing ARN
+     */
+    CompletableFuture<String> createThingAsync(String name);
+
     KeysAndCertificate createOrLoadKeysAndCertificate(String groupId, String subName);
 
+    CompletableFuture<KeysAndCertificate> createOrLoadKeysAndCertificateAsync(String groupId, String subName);
+
     void createPolicyIfNecessary(String name, String document);
 
+    CompletableFuture<Void> createPolicyIfNecessaryAsync(String name, String document);
+
     void attachPrincipalPolicy(String policyName, String certificateArn);
 
+    CompletableFuture<Void> attachPrincipalPolicyAsync(String policyName, String certificateArn);
+
     void attachThingPrincipal(String thingName, String certificateArn);
 
+    CompletableFuture<Void> attachThingPrincipalAsync(String thingName, String certificateArn);
+
+    /**
+     * Creates the things, keys and certificates, and policies for many things at once and attaches them to each
+     * other. Independent calls for the same thing and calls for different things are overlapped, with a bounded
+     * number of requests in flight.
+     *
+     * @param groupId
+     * @param thingProvisioningRequests
+     * @return the keys and certificate for each thing, by thing name
+     */
+    Map<String, KeysAndCertificate> provisionThings(String groupId, List<ThingProvisioningRequest> thingProvisioningRequests);
+
     /**
      * Returns the ARN of the principal attached to the specified thing if there is exactly one principal attached.
      * Otherwise it returns null.
@@ -28,6 +60,13 @@ public interface IotHelper {
 
     String getThingArn(String thingName);
 
+    /**
+     * Forgets the things, keys, and policies that were looked up or created so far so that changes made outside of
+     * this process since then are seen. Lookups that are still in flight are kept so concurrent operations don't
+     * create the same keys twice.
+     */
+    void clearCache();
+
     String getCredentialProviderUrl();
 
     CreateRoleAliasResponse createRoleAliasIfNecessary(Role serviceRole, String roleAlias);
@@ -0,0 +1,56 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.ProvisionerJob;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs operations as queued jobs inside one long running JVM so the helpers, SDK clients and caches stay warm between
+ * jobs. This is also the entry point for embedding the provisioner in another application.
+ */
+public interface JobHelper {
+    /**
+     * Starts the workers, jobs can only be submitted after this is called
+     *
+     * @param concurrency the maximum number of jobs to run at the same time
+     */
+    void start(int concurrency);
+
+    /**
+     * Stops the workers, running jobs are interrupted
+     */
+    void stop();
+
+    /**
+     * Queues a job
+     *
+     * @param arguments the same arguments that would be used on the command line
+     * @return
+     * @throws IllegalArgumentException if the arguments don't select an operation that can run as a job
+     */
+    ProvisionerJob submit(List<String> arguments);
+
+    Optional<ProvisionerJob> getJob(String id);
+
+    List<ProvisionerJob> getJobs();
+
+    int getConcurrency();
+
+    /**
+     * Wraps work that the current job hands to a thread that is shared by all jobs (e.g. the deployment status poller)
+     * so its log output still goes to the job. Other threads only inherit the job that was running when they started.
+     *
+     * @param runnable
+     * @return
+     */
+    Runnable withCurrentJob(Runnable runnable);
+
+    /**
+     * Wraps the body of a thread that is shared by all jobs so it doesn't inherit the job that happened to start it
+     *
+     * @param runnable
+     * @return
+     */
+    Runnable withoutJob(Runnable runnable);
+}
@@ -8,6 +8,7 @@ import software.amazon.awssdk.services.lambda.model.PublishVersionResponse;
 import software.amazon.awssdk.services.lambda.model.Runtime;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface LambdaHelper {
     LambdaFunctionArnInfo buildAndCreateJavaFunctionIfNecessary(FunctionConf functionConf, Role role);
@@ -20,6 +21,8 @@ public interface LambdaHelper {
 
     PublishVersionResponse publishFunctionVersion(String groupFunctionName);
 
+    CompletableFuture<PublishVersionResponse> publishFunctionVersionAsync(String groupFunctionName);
+
     boolean aliasExists(String functionName, String aliasName);
 
     String createAlias(Optional<String> groupName, String baseFunctionName, String functionVersion, String aliasName);
@@ -29,4 +32,11 @@ public interface LambdaHelper {
     Optional<GetFunctionResponse> getFunction(String functionName);
 
     void deleteAlias(String functionArn);
+
+    /**
+     * @return the number of functions whose code and configuration already matched what was deployed
+     */
+    int getFunctionsSkipped();
+
+    long getBytesUploaded();
 }
@@ -14,7 +14,11 @@ public interface Operation<T extends Arguments> {
     T getArguments();
 
     default boolean matches(String[] args) {
-        return Arrays.stream(args).anyMatch(arg -> arg.equals(getArguments().getRequiredOptionName()));
+        return matches(args, getArguments().getRequiredOptionName());
+    }
+
+    static boolean matches(String[] args, String requiredOptionName) {
+        return Arrays.stream(args).anyMatch(arg -> arg.equals(requiredOptionName));
     }
 
     default boolean execute(String[] args) {
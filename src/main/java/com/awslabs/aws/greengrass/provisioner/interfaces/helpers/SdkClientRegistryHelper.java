@@ -0,0 +1,42 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.function.Supplier;
+
+public interface SdkClientRegistryHelper {
+    /**
+     * Returns the client for this service in this region, creating it the first time it is requested. Every client
+     * uses the same credentials provider and the synchronous clients share one HTTP connection pool.
+     *
+     * @param clientClass
+     * @param region
+     * @param builderSupplier creates a builder with any service specific settings, the region, credentials and HTTP
+     *                        client are filled in by the registry
+     * @return
+     */
+    <C extends SdkClient, B extends AwsClientBuilder<B, C>> C getClient(Class<C> clientClass, Region region, Supplier<B> builderSupplier);
+
+    /**
+     * Returns the client for this service in the current region
+     *
+     * @param clientClass
+     * @param builderSupplier
+     * @return
+     */
+    <C extends SdkClient, B extends AwsClientBuilder<B, C>> C getClient(Class<C> clientClass, Supplier<B> builderSupplier);
+
+    SdkHttpClient getHttpClient();
+
+    AwsCredentialsProvider getCredentialsProvider();
+
+    int getClientsCreated();
+
+    int getConnectionsOpened();
+
+    int getTlsHandshakes();
+}
@@ -0,0 +1,42 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.SdkCallMetrics;
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Records the latency, retries, throttling and payload sizes of every call made by the SDK clients in the registry so
+ * the slowest calls of an operation can be found
+ */
+public interface SdkMetricsHelper extends ExecutionInterceptor {
+    /**
+     * Copies the metrics recorded so far
+     *
+     * @return the metrics keyed by service and operation, e.g. Iot.CreateKeysAndCertificate
+     */
+    Map<String, SdkCallMetrics> getSnapshot();
+
+    /**
+     * Logs the slowest calls made under an operation's trace and writes all of them to a JSON file, and a Prometheus
+     * file if that is enabled, in the build directory. Calls are attributed by the span that was open on the calling
+     * thread so jobs running at the same time don't show up in each other's reports. Calls made on threads without an
+     * open span are only in the snapshot.
+     *
+     * @param operationName the operation that made the calls
+     * @param root          the root span of the operation
+     * @return the JSON file, empty if no calls were made
+     */
+    Optional<String> writeReport(String operationName, TraceSpan root);
+
+    String toPrometheus(Map<String, SdkCallMetrics> sdkCallMetrics);
+
+    /**
+     * Set from the --sdk-metrics-prometheus option to also write the reports in the Prometheus text format
+     *
+     * @param prometheus
+     */
+    void setPrometheus(boolean prometheus);
+}
@@ -0,0 +1,6 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.arguments.ServerArguments;
+
+public interface ServerArgumentHelper extends ArgumentHelper<ServerArguments> {
+}
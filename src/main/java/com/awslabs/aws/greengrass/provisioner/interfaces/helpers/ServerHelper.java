@@ -0,0 +1,16 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.arguments.ServerArguments;
+
+public interface ServerHelper extends Operation<ServerArguments> {
+    /**
+     * Starts the HTTP API and the job workers without blocking
+     *
+     * @param port        the port to listen on, 0 picks a free port
+     * @param concurrency the maximum number of jobs to run at the same time
+     * @return the port the server is listening on
+     */
+    int start(int port, int concurrency);
+
+    void stop();
+}
@@ -0,0 +1,32 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.jcraft.jsch.Session;
+
+import java.util.concurrent.Callable;
+
+public interface SshSessionPoolHelper {
+    /**
+     * Returns the pooled session for this user and host if it is still connected, otherwise connects a new one with
+     * the session callable and pools it. Sessions can run several channels at once so they are shared, not checked
+     * out.
+     *
+     * @param hostname        the host to connect to
+     * @param user            the user to connect as
+     * @param sessionCallable connects a new session, only called when there is no usable pooled session
+     */
+    Session getSession(String hostname, String user, Callable<Session> sessionCallable);
+
+    /**
+     * Removes the session from the pool and disconnects it
+     */
+    void close(Session session);
+
+    /**
+     * Disconnects every pooled session, called once the operation the provisioner was started with has finished
+     */
+    void closeAll();
+
+    long getSessionsCreated();
+
+    long getSessionsReused();
+}
@@ -0,0 +1,23 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.google.inject.spi.ProvisionListener;
+
+/**
+ * Tracks how much work happens before an operation starts so the cold start time of the CLI can be watched
+ */
+public interface StartupReportHelper extends ProvisionListener {
+    void setInjectorCreationNanos(long injectorCreationNanos);
+
+    long getInjectorCreationNanos();
+
+    int getInstancesCreated();
+
+    int getClassesCreated();
+
+    /**
+     * Logs the JVM uptime, the injector creation time and the number of objects created so far
+     *
+     * @param operationName the operation that is about to start
+     */
+    void logStartupReport(String operationName);
+}
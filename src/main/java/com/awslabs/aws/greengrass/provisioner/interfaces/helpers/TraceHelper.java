@@ -0,0 +1,102 @@
+package com.awslabs.aws.greengrass.provisioner.interfaces.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Records the phases of an operation as a tree of spans so the critical path can be found once work runs in parallel
+ */
+public interface TraceHelper {
+    // chrome://tracing
+    String CHROME_FORMAT = "chrome";
+    // OpenTelemetry JSON
+    String OTLP_FORMAT = "otlp";
+
+    /**
+     * Starts a span under the span that is open on this thread, it is the open span on this thread until it is closed
+     *
+     * @param name
+     * @return
+     */
+    TraceSpan startSpan(String name);
+
+    /**
+     * Starts a span under a span from another thread, for work that has been handed to a thread pool
+     *
+     * @param name
+     * @param parent the span that was open when the work was submitted
+     * @return
+     */
+    TraceSpan startSpan(String name, Optional<TraceSpan> parent);
+
+    /**
+     * Starts a span under the span that is open on this thread without making it the open span. It can be closed from
+     * any thread.
+     *
+     * @param name
+     * @param category
+     * @return empty if there is no open span on this thread
+     */
+    Optional<TraceSpan> startLeafSpan(String name, String category);
+
+    /**
+     * Runs work in a span under the span that is open on this thread, the span is marked as failed if the work throws
+     *
+     * @param name
+     * @param work
+     * @return the result of the work
+     */
+    default <T> T trace(String name, Supplier<T> work) {
+        TraceSpan traceSpan = startSpan(name);
+
+        try {
+            return work.get();
+        } catch (Throwable throwable) {
+            traceSpan.failed(throwable.getMessage());
+            throw throwable;
+        } finally {
+            traceSpan.close();
+        }
+    }
+
+    default void trace(String name, Runnable work) {
+        trace(name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    Optional<TraceSpan> getCurrentSpan();
+
+    /**
+     * Removes the finished spans of a trace so they can be written
+     *
+     * @param root
+     * @return the spans ordered by start time
+     */
+    List<TraceSpan> removeTrace(TraceSpan root);
+
+    /**
+     * Logs the critical path of a finished root span and writes its trace in the selected formats
+     *
+     * @param root
+     * @return the files that were written
+     */
+    List<String> writeTrace(TraceSpan root);
+
+    /**
+     * Set from the --trace option to select the formats the trace of each operation is written in
+     *
+     * @param formats {@link #CHROME_FORMAT} and/or {@link #OTLP_FORMAT}, empty to not write traces
+     */
+    void setFormats(List<String> formats);
+
+    List<TraceSpan> getCriticalPath(TraceSpan root, List<TraceSpan> traceSpans);
+
+    String toChromeTrace(List<TraceSpan> traceSpans);
+
+    String toOtlpJson(List<TraceSpan> traceSpans);
+}
@@ -1,3 +1,4 @@
+import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogEvent;
 import com.awslabs.aws.greengrass.provisioner.data.DeviceTesterLogMessageType;
 import com.awslabs.aws.greengrass.provisioner.implementations.helpers.BasicDeviceTesterHelper;
 import io.vavr.collection.List;
@@ -208,6 +209,25 @@ public class DeviceTesterMessageParsingTest {
                 .forEach(map -> Assert.assertTrue(map.size() != 0));
     }
 
+    @Test
+    public void shouldKeepTheLastFieldAndUnquoteValues() {
+        DeviceTesterLogEvent deviceTesterLogEvent = basicDeviceTesterHelper.parse(trimJavaLoggerInfo(PASS_1));
+
+        Assert.assertEquals(DeviceTesterLogMessageType.PASS, deviceTesterLogEvent.getType());
+        Assert.assertEquals("ggc_version_check_test_1", deviceTesterLogEvent.getTestCaseId().get());
+        Assert.assertEquals("2019-01-10T08:55:02-05:00", deviceTesterLogEvent.getValues().get("time"));
+    }
+
+    @Test
+    public void shouldClassifyTheSameAsMatching() {
+        ALL_STRINGS.toStream()
+                .map(this::trimJavaLoggerInfo)
+                .map(basicDeviceTesterHelper::parse)
+                .forEach(deviceTesterLogEvent -> Assert.assertEquals(
+                        List.of(DeviceTesterLogMessageType.values()).find(type -> type.matches(deviceTesterLogEvent.getMessage())).get(),
+                        deviceTesterLogEvent.getType()));
+    }
+
     private String trimJavaLoggerInfo(String string) {
         return string.replaceFirst("\\[INFO\\] BasicGroupTestHelper: ", "");
     }
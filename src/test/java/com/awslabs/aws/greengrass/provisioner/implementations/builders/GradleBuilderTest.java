@@ -0,0 +1,43 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.builders;
+
+import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+
+public class GradleBuilderTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldFindSharedProjectsInSettingsGradle() throws IOException {
+        temporaryFolder.newFolder("functions");
+        Path function = temporaryFolder.newFolder("functions", "Function").toPath();
+        Path flat = temporaryFolder.newFolder("functions", "Flat").toPath();
+        Path baseline = temporaryFolder.newFolder("foundation", "CDDBaselineJava").toPath();
+        temporaryFolder.newFolder("functions", "Function", "inner");
+
+        String settings = "rootProject.name = 'Function'\n" +
+                "include ':CDDBaselineJava'\n" +
+                "project(':CDDBaselineJava').projectDir = new File(settingsDir, '../../foundation/CDDBaselineJava')\n" +
+                "includeFlat 'Flat'\n" +
+                "includeBuild('inner')\n";
+        Files.write(function.resolve(BasicGradleBuilder.SETTINGS_GRADLE), settings.getBytes());
+
+        FunctionConf functionConf = FunctionConf.builder()
+                .functionName("Function")
+                .buildDirectory(function)
+                .build();
+
+        // The project inside the function directory isn't shared with anything else
+        assertEquals(new HashSet<>(Arrays.asList(baseline, flat)), new BasicGradleBuilder().getIncludedProjectDirectories(functionConf));
+    }
+}
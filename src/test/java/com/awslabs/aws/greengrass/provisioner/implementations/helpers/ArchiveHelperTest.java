@@ -0,0 +1,96 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.VirtualTarEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ArchiveHelperTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BasicArchiveHelper basicArchiveHelper;
+
+    @Before
+    public void setup() {
+        basicArchiveHelper = new BasicArchiveHelper();
+    }
+
+    @Test
+    public void shouldWriteInMemoryAndFileBackedEntries() throws IOException {
+        // Larger than a block and not a multiple of it so the padding is exercised
+        byte[] fileContent = new byte[70000];
+        Arrays.fill(fileContent, (byte) 'x');
+        File sourceFile = temporaryFolder.newFile("source.bin");
+        Files.write(sourceFile.toPath(), fileContent);
+
+        List<VirtualTarEntry> virtualTarEntries = new ArrayList<>();
+        virtualTarEntries.add(basicArchiveHelper.createVirtualTarEntry("config.json", "{}".getBytes(), 0644));
+        virtualTarEntries.add(basicArchiveHelper.createVirtualTarEntry("dist/source.bin", sourceFile.toPath(), 0755));
+
+        File archive = temporaryFolder.newFile("archive.tar");
+
+        long bytesWritten;
+
+        try (FileChannel fileChannel = FileChannel.open(archive.toPath(), StandardOpenOption.WRITE)) {
+            bytesWritten = basicArchiveHelper.tar(virtualTarEntries, fileChannel);
+        }
+
+        assertEquals(archive.length(), bytesWritten);
+        assertEquals(0, bytesWritten % 512);
+
+        try (TarArchiveInputStream tarArchiveInputStream = new TarArchiveInputStream(new FileInputStream(archive))) {
+            TarArchiveEntry first = tarArchiveInputStream.getNextEntry();
+            assertEquals("config.json", first.getName());
+            assertEquals(0644, first.getMode() & 0777);
+            assertArrayEquals("{}".getBytes(), readEntry(tarArchiveInputStream));
+
+            TarArchiveEntry second = tarArchiveInputStream.getNextEntry();
+            assertEquals("dist/source.bin", second.getName());
+            assertEquals(0755, second.getMode() & 0777);
+            assertArrayEquals(fileContent, readEntry(tarArchiveInputStream));
+
+            assertNull(tarArchiveInputStream.getNextEntry());
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldFailWhenAFileShrinksAfterItWasAdded() throws IOException {
+        File sourceFile = temporaryFolder.newFile("source.bin");
+        Files.write(sourceFile.toPath(), new byte[1000]);
+
+        VirtualTarEntry virtualTarEntry = basicArchiveHelper.createVirtualTarEntry("source.bin", sourceFile.toPath(), 0644);
+        Files.write(sourceFile.toPath(), new byte[10]);
+
+        basicArchiveHelper.tar(Arrays.asList(virtualTarEntry), Channels.newChannel(new ByteArrayOutputStream()));
+    }
+
+    private byte[] readEntry(TarArchiveInputStream tarArchiveInputStream) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+
+        while ((length = tarArchiveInputStream.read(buffer)) != -1) {
+            byteArrayOutputStream.write(buffer, 0, length);
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+}
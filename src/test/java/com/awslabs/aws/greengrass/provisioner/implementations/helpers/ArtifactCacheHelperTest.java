@@ -0,0 +1,119 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ArtifactCacheHelperTest {
+    private static final String ETAG = "\"v1\"";
+    private static final byte[] CONTENT = "root CA".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private HttpServer httpServer;
+    private AtomicInteger fullResponses;
+    private AtomicInteger notModifiedResponses;
+    private GGConstants ggConstants;
+    private String url;
+
+    @Before
+    public void setup() throws IOException {
+        fullResponses = new AtomicInteger();
+        notModifiedResponses = new AtomicInteger();
+
+        httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.createContext("/root.ca.pem", httpExchange -> {
+            if (ETAG.equals(httpExchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                httpExchange.sendResponseHeaders(304, -1);
+                httpExchange.close();
+                return;
+            }
+
+            fullResponses.incrementAndGet();
+            httpExchange.getResponseHeaders().add("ETag", ETAG);
+            httpExchange.sendResponseHeaders(200, CONTENT.length);
+
+            try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                outputStream.write(CONTENT);
+            }
+        });
+        httpServer.start();
+
+        url = "http://127.0.0.1:" + httpServer.getAddress().getPort() + "/root.ca.pem";
+
+        ggConstants = mock(GGConstants.class);
+        when(ggConstants.getArtifactCacheDirectory()).thenReturn(temporaryFolder.newFolder("artifacts").getPath());
+    }
+
+    @After
+    public void tearDown() {
+        httpServer.stop(0);
+    }
+
+    private BasicArtifactCacheHelper newArtifactCacheHelper() {
+        // A new instance behaves like a new process sharing the same cache directory
+        BasicArtifactCacheHelper basicArtifactCacheHelper = new BasicArtifactCacheHelper();
+        basicArtifactCacheHelper.ggConstants = ggConstants;
+        basicArtifactCacheHelper.ioHelper = new BasicIoHelper();
+        return basicArtifactCacheHelper;
+    }
+
+    @Test
+    public void shouldDownloadOnceAndRevalidateOncePerProcess() {
+        BasicArtifactCacheHelper first = newArtifactCacheHelper();
+
+        for (int loop = 0; loop < 3; loop++) {
+            assertEquals(new String(CONTENT, StandardCharsets.UTF_8), new String(first.getBytes(url), StandardCharsets.UTF_8));
+        }
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(2, first.getHits());
+
+        BasicArtifactCacheHelper second = newArtifactCacheHelper();
+        second.getBytes(url);
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+
+        // No network access at all when offline
+        BasicArtifactCacheHelper offline = newArtifactCacheHelper();
+        offline.setOffline(true);
+        offline.getBytes(url);
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+    }
+
+    @Test
+    public void shouldRevalidateAfterTheMaximumAge() {
+        BasicArtifactCacheHelper basicArtifactCacheHelper = newArtifactCacheHelper();
+        basicArtifactCacheHelper.getBytes(url);
+        basicArtifactCacheHelper.getBytes(url);
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(0, notModifiedResponses.get());
+
+        basicArtifactCacheHelper.maxAgeMilliseconds = 0;
+        basicArtifactCacheHelper.getBytes(url);
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+        assertEquals(1, basicArtifactCacheHelper.getRevalidations());
+    }
+}
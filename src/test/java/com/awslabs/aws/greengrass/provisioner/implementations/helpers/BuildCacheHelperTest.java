@@ -0,0 +1,155 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.SDK;
+import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.services.lambda.model.Runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BuildCacheHelperTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BasicBuildCacheHelper basicBuildCacheHelper;
+    private GGConstants ggConstants;
+    private Path functionDirectory;
+    private FunctionConf functionConf;
+
+    @Before
+    public void setup() throws IOException {
+        ggConstants = mock(GGConstants.class);
+        when(ggConstants.getFunctionCacheDirectory()).thenReturn(temporaryFolder.newFolder("cache").getPath());
+        when(ggConstants.getFunctionCacheMaxSizeInBytes()).thenReturn(1024L * 1024L);
+
+        BasicBuildLockHelper basicBuildLockHelper = new BasicBuildLockHelper();
+        basicBuildLockHelper.loggingHelper = new BasicLoggingHelper();
+
+        basicBuildCacheHelper = new BasicBuildCacheHelper();
+        basicBuildCacheHelper.ggConstants = ggConstants;
+        basicBuildCacheHelper.loggingHelper = new BasicLoggingHelper();
+        basicBuildCacheHelper.ioHelper = new BasicIoHelper();
+        basicBuildCacheHelper.buildLockHelper = basicBuildLockHelper;
+
+        functionDirectory = temporaryFolder.newFolder("function").toPath();
+        Files.write(functionDirectory.resolve("handler.py"), "def function_handler(event, context):\n    pass\n".getBytes());
+
+        functionConf = FunctionConf.builder()
+                .functionName("TestFunction")
+                .buildDirectory(functionDirectory)
+                .dependencies(Collections.singletonList("requests"))
+                .build();
+    }
+
+    @Test
+    public void shouldOnlyBuildOnceWhenInputsDoNotChange() throws IOException {
+        AtomicInteger builds = new AtomicInteger();
+        String archivePath = functionDirectory.resolve("TestFunction.zip").toString();
+
+        String first = basicBuildCacheHelper.buildIfNecessary(functionConf, Runtime.PYTHON2_7, Optional.of(SDK.PYTHON), Collections.emptySet(), archivePath, () -> build(archivePath, builds));
+
+        // The deployment package lands in the build directory, it must not change the key for the next run
+        new File(archivePath).delete();
+        String second = basicBuildCacheHelper.buildIfNecessary(functionConf, Runtime.PYTHON2_7, Optional.of(SDK.PYTHON), Collections.emptySet(), archivePath, () -> build(archivePath, builds));
+
+        // Each caller gets its own copy of the deployment package
+        assertNotEquals(first, second);
+        assertNotEquals(archivePath, first);
+        assertArrayEquals(Files.readAllBytes(new File(first).toPath()), Files.readAllBytes(new File(second).toPath()));
+        assertEquals(1, builds.get());
+        assertTrue(new File(archivePath).exists());
+        assertEquals(1, basicBuildCacheHelper.getHits());
+        assertEquals(1, basicBuildCacheHelper.getMisses());
+    }
+
+    @Test
+    public void shouldIgnoreFilesTheBuildWritesToTheFunctionDirectory() throws IOException {
+        AtomicInteger builds = new AtomicInteger();
+        String archivePath = functionDirectory.resolve("TestFunction.zip").toString();
+
+        // Like the Python builder, the SDK and the dependencies end up next to the source
+        Runnable build = () -> {
+            build(archivePath, builds);
+            write(functionDirectory.resolve("greengrasssdk").resolve("__init__.py"), "sdk");
+            write(functionDirectory.resolve("requests").resolve("__init__.py"), "dependency");
+        };
+
+        basicBuildCacheHelper.buildIfNecessary(functionConf, Runtime.PYTHON2_7, Optional.of(SDK.PYTHON), Collections.emptySet(), archivePath, build);
+        basicBuildCacheHelper.buildIfNecessary(functionConf, Runtime.PYTHON2_7, Optional.of(SDK.PYTHON), Collections.emptySet(), archivePath, build);
+
+        assertEquals(1, builds.get());
+        assertEquals(1, basicBuildCacheHelper.getHits());
+
+        // Source changes still cause a build
+        write(functionDirectory.resolve("handler.py"), "def function_handler(event, context):\n    return 1\n");
+        basicBuildCacheHelper.buildIfNecessary(functionConf, Runtime.PYTHON2_7, Optional.of(SDK.PYTHON), Collections.emptySet(), archivePath, build);
+
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    public void shouldChangeKeyWhenSourceDependenciesOrRuntimeChange() throws IOException {
+        String original = basicBuildCacheHelper.getCacheKey(functionConf, Runtime.PYTHON2_7, Optional.of(SDK.PYTHON), Collections.emptySet());
+
+        assertNotEquals(original, basicBuildCacheHelper.getCacheKey(functionConf, Runtime.NODEJS6_10, Optional.of(SDK.PYTHON), Collections.emptySet()));
+
+        functionConf.setDependencies(Collections.singletonList("requests==2.21.0"));
+        String withNewDependencies = basicBuildCacheHelper.getCacheKey(functionConf, Runtime.PYTHON2_7, Optional.of(SDK.PYTHON), Collections.emptySet());
+        assertNotEquals(original, withNewDependencies);
+
+        Files.write(functionDirectory.resolve("handler.py"), "def function_handler(event, context):\n    return 1\n".getBytes());
+        assertNotEquals(withNewDependencies, basicBuildCacheHelper.getCacheKey(functionConf, Runtime.PYTHON2_7, Optional.of(SDK.PYTHON), Collections.emptySet()));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntriesWhenOverTheSizeLimit() throws IOException {
+        when(ggConstants.getFunctionCacheMaxSizeInBytes()).thenReturn(2500L);
+
+        Path archive = temporaryFolder.newFile("archive.zip").toPath();
+        Files.write(archive, new byte[1000]);
+
+        basicBuildCacheHelper.putArchive("a", archive);
+        basicBuildCacheHelper.putArchive("b", archive);
+        Files.setLastModifiedTime(basicBuildCacheHelper.getCachedArchive("a").get(), FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        basicBuildCacheHelper.putArchive("c", archive);
+
+        assertTrue(basicBuildCacheHelper.getCachedArchive("a").isPresent());
+        assertFalse(basicBuildCacheHelper.getCachedArchive("b").isPresent());
+        assertTrue(basicBuildCacheHelper.getCachedArchive("c").isPresent());
+        assertEquals(1, basicBuildCacheHelper.getEvictions());
+    }
+
+    private void write(Path path, String content) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, content.getBytes());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void build(String archivePath, AtomicInteger builds) {
+        builds.incrementAndGet();
+
+        try {
+            Files.write(new File(archivePath).toPath(), "zip".getBytes());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
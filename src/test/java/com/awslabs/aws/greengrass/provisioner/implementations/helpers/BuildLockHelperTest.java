@@ -0,0 +1,89 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BuildLockHelperTest {
+    private BasicBuildLockHelper basicBuildLockHelper;
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() {
+        basicBuildLockHelper = new BasicBuildLockHelper();
+        basicBuildLockHelper.loggingHelper = new BasicLoggingHelper();
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @Test
+    public void shouldNotOverlapBuildsThatShareADirectory() throws Exception {
+        Path shared = Paths.get("shared");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        Callable<Void> first = () -> runBuild(new HashSet<>(Arrays.asList(Paths.get("a"), shared)), running, maxRunning);
+        Callable<Void> second = () -> runBuild(new HashSet<>(Arrays.asList(shared, Paths.get("b"))), running, maxRunning);
+
+        for (Future<Void> future : executorService.invokeAll(Arrays.asList(first, second, first, second))) {
+            future.get();
+        }
+
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void shouldRunBuildsInDifferentDirectoriesConcurrently() throws Exception {
+        // Each build waits for the other one to start, this only finishes if they run at the same time
+        CountDownLatch countDownLatch = new CountDownLatch(2);
+
+        Callable<Boolean> first = () -> awaitOther("a", countDownLatch);
+        Callable<Boolean> second = () -> awaitOther("b", countDownLatch);
+
+        for (Future<Boolean> future : executorService.invokeAll(Arrays.asList(first, second))) {
+            assertTrue(future.get());
+        }
+    }
+
+    private Void runBuild(HashSet<Path> directories, AtomicInteger running, AtomicInteger maxRunning) {
+        basicBuildLockHelper.runLocked("test", directories, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+        });
+
+        return null;
+    }
+
+    private boolean awaitOther(String directory, CountDownLatch countDownLatch) {
+        boolean[] result = new boolean[1];
+
+        basicBuildLockHelper.runLocked(directory, new HashSet<>(Arrays.asList(Paths.get(directory))), () -> {
+            countDownLatch.countDown();
+
+            try {
+                result[0] = countDownLatch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        return result[0];
+    }
+
+    private void sleep(int milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
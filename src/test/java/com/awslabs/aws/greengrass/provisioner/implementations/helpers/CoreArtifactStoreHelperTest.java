@@ -0,0 +1,83 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CoreArtifactStoreHelperTest {
+    private static final String FILENAME = "greengrass-linux-x86-64-1.7.0.tar.gz";
+    private static final byte[] CONTENT = "greengrass".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private GGConstants ggConstants;
+    private File coreArtifact;
+    private URL coreArtifactUrl;
+
+    @Before
+    public void setup() throws IOException {
+        ggConstants = mock(GGConstants.class);
+        when(ggConstants.getCoreArtifactStoreDirectory()).thenReturn(temporaryFolder.newFolder("core-artifacts").getPath());
+
+        coreArtifact = temporaryFolder.newFile(FILENAME);
+        Files.write(coreArtifact.toPath(), CONTENT);
+        coreArtifactUrl = coreArtifact.toURI().toURL();
+    }
+
+    private BasicCoreArtifactStoreHelper newCoreArtifactStoreHelper() {
+        // A new instance behaves like a new process sharing the same store
+        BasicCoreArtifactStoreHelper basicCoreArtifactStoreHelper = new BasicCoreArtifactStoreHelper();
+        basicCoreArtifactStoreHelper.ggConstants = ggConstants;
+        return basicCoreArtifactStoreHelper;
+    }
+
+    @Test
+    public void shouldHashOnceAndReuseTheStoredHash() {
+        Optional<String> expectedSha1 = Optional.of(DigestUtils.sha1Hex(CONTENT));
+
+        BasicCoreArtifactStoreHelper first = newCoreArtifactStoreHelper();
+        assertEquals(coreArtifact.toPath(), first.get(FILENAME, coreArtifactUrl, expectedSha1));
+        first.get(FILENAME, coreArtifactUrl, expectedSha1);
+        assertEquals(1, first.getHashesCalculated());
+        assertEquals(0, first.getHashesReused());
+
+        BasicCoreArtifactStoreHelper second = newCoreArtifactStoreHelper();
+        second.get(FILENAME, coreArtifactUrl, expectedSha1);
+        assertEquals(0, second.getHashesCalculated());
+        assertEquals(1, second.getHashesReused());
+    }
+
+    @Test
+    public void shouldRejectAFileThatChanged() throws IOException {
+        Optional<String> expectedSha1 = Optional.of(DigestUtils.sha1Hex(CONTENT));
+
+        newCoreArtifactStoreHelper().get(FILENAME, coreArtifactUrl, expectedSha1);
+
+        Files.write(coreArtifact.toPath(), "corrupted".getBytes(StandardCharsets.UTF_8));
+
+        BasicCoreArtifactStoreHelper basicCoreArtifactStoreHelper = newCoreArtifactStoreHelper();
+
+        try {
+            basicCoreArtifactStoreHelper.get(FILENAME, coreArtifactUrl, expectedSha1);
+            fail("The changed file should not be used");
+        } catch (RuntimeException e) {
+            assertEquals(1, basicCoreArtifactStoreHelper.getHashesCalculated());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStep;
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStepContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeploymentPlanHelperTest {
+    private BasicDeploymentPlanHelper basicDeploymentPlanHelper;
+
+    @Before
+    public void setup() {
+        basicDeploymentPlanHelper = new BasicDeploymentPlanHelper();
+        basicDeploymentPlanHelper.loggingHelper = new BasicLoggingHelper();
+        basicDeploymentPlanHelper.traceHelper = new BasicTraceHelper();
+    }
+
+    @Test
+    public void shouldRunDependentStepsAfterTheirInputsAreProduced() {
+        List<DeploymentStep> deploymentSteps = Arrays.asList(
+                DeploymentStep.builder().name("sum").input("a").input("b").output("sum")
+                        .action(context -> context.put("sum", (Integer) context.get("a") + (Integer) context.get("b")))
+                        .build(),
+                DeploymentStep.builder().name("a").output("a").action(context -> context.put("a", 1)).build(),
+                DeploymentStep.builder().name("b").output("b").action(context -> context.put("b", 2)).build());
+
+        DeploymentStepContext deploymentStepContext = basicDeploymentPlanHelper.run(new DeploymentStepContext(), deploymentSteps);
+
+        assertEquals(3, (int) deploymentStepContext.get("sum"));
+    }
+
+    @Test
+    public void shouldRunIndependentStepsConcurrently() {
+        // Each step waits for the other one to start, this only finishes if they run at the same time
+        CountDownLatch countDownLatch = new CountDownLatch(2);
+
+        List<DeploymentStep> deploymentSteps = Arrays.asList(
+                DeploymentStep.builder().name("first").output("first").action(context -> context.put("first", awaitOther(countDownLatch))).build(),
+                DeploymentStep.builder().name("second").output("second").action(context -> context.put("second", awaitOther(countDownLatch))).build());
+
+        DeploymentStepContext deploymentStepContext = basicDeploymentPlanHelper.run(new DeploymentStepContext(), deploymentSteps);
+
+        assertTrue(deploymentStepContext.get("first"));
+        assertTrue(deploymentStepContext.get("second"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldFailOnCircularDependencies() {
+        List<DeploymentStep> deploymentSteps = Arrays.asList(
+                DeploymentStep.builder().name("a").input("b").output("a").action(context -> context.put("a", 1)).build(),
+                DeploymentStep.builder().name("b").input("a").output("b").action(context -> context.put("b", 2)).build());
+
+        basicDeploymentPlanHelper.run(new DeploymentStepContext(), deploymentSteps);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldFailWhenAStepReadsAnUndeclaredInput() {
+        List<DeploymentStep> deploymentSteps = Arrays.asList(
+                DeploymentStep.builder().name("a").output("a").action(context -> context.put("a", 1)).build(),
+                DeploymentStep.builder().name("b").output("b").action(context -> context.put("b", context.get("a"))).build());
+
+        basicDeploymentPlanHelper.run(new DeploymentStepContext(), deploymentSteps);
+    }
+
+    private boolean awaitOther(CountDownLatch countDownLatch) {
+        countDownLatch.countDown();
+
+        try {
+            return countDownLatch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
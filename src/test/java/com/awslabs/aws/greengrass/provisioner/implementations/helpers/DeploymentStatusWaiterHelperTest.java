@@ -0,0 +1,84 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.BackoffPolicy;
+import com.awslabs.aws.greengrass.provisioner.data.DeploymentStatus;
+import com.awslabs.aws.greengrass.provisioner.data.GroupDeployment;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GreengrassHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeploymentStatusWaiterHelperTest {
+    private static final BackoffPolicy FAST_BACKOFF = BackoffPolicy.builder()
+            .initialDelayMillis(1)
+            .maxDelayMillis(5)
+            .build();
+
+    private BasicDeploymentStatusWaiterHelper basicDeploymentStatusWaiterHelper;
+    private GreengrassHelper greengrassHelper;
+
+    @Before
+    public void setup() {
+        greengrassHelper = mock(GreengrassHelper.class);
+
+        basicDeploymentStatusWaiterHelper = new BasicDeploymentStatusWaiterHelper();
+        basicDeploymentStatusWaiterHelper.greengrassHelper = greengrassHelper;
+        basicDeploymentStatusWaiterHelper.loggingHelper = new BasicLoggingHelper();
+        basicDeploymentStatusWaiterHelper.jobHelper = new BasicJobHelper();
+    }
+
+    @Test
+    public void shouldWaitForManyDeploymentsInOneLoop() {
+        when(greengrassHelper.getDeploymentStatus("group1", "deployment1"))
+                .thenReturn(DeploymentStatus.BUILDING, DeploymentStatus.BUILDING, DeploymentStatus.SUCCESSFUL);
+        when(greengrassHelper.getDeploymentStatus("group2", "deployment2"))
+                .thenReturn(DeploymentStatus.BUILDING, DeploymentStatus.FAILED);
+        when(greengrassHelper.getDeploymentStatus("group3", "deployment3"))
+                .thenReturn(DeploymentStatus.BUILDING);
+
+        GroupDeployment first = groupDeployment("group1", "deployment1");
+        GroupDeployment second = groupDeployment("group2", "deployment2");
+        GroupDeployment third = groupDeployment("group3", "deployment3");
+
+        Map<GroupDeployment, DeploymentStatus> results = basicDeploymentStatusWaiterHelper.waitForAll(Arrays.asList(first, second, third),
+                FAST_BACKOFF,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertEquals(DeploymentStatus.SUCCESSFUL, results.get(first));
+        assertEquals(DeploymentStatus.FAILED, results.get(second));
+        assertEquals(DeploymentStatus.TIMED_OUT, results.get(third));
+        assertTrue(basicDeploymentStatusWaiterHelper.getPolls() >= 5);
+    }
+
+    @Test
+    public void shouldCapAndJitterDelays() {
+        BackoffPolicy backoffPolicy = BackoffPolicy.builder()
+                .initialDelayMillis(1000)
+                .maxDelayMillis(10000)
+                .jitter(0.5)
+                .build();
+
+        for (int attempt = 0; attempt < 10; attempt++) {
+            long expected = Math.min(10000, 1000L << attempt);
+            long delayMillis = basicDeploymentStatusWaiterHelper.getDelayMillis(backoffPolicy, attempt);
+
+            assertTrue(delayMillis <= expected);
+            assertTrue(delayMillis >= expected / 2);
+        }
+    }
+
+    private GroupDeployment groupDeployment(String groupId, String deploymentId) {
+        return GroupDeployment.builder()
+                .groupId(groupId)
+                .deploymentId(deploymentId)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeviceTesterInstallHelperTest {
+    private static final String TOP_LEVEL_DIRECTORY = "devicetester_greengrass_linux";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BasicDeviceTesterInstallHelper basicDeviceTesterInstallHelper;
+    private File installDirectory;
+    private File deviceTesterZip;
+
+    @Before
+    public void setup() throws IOException {
+        installDirectory = temporaryFolder.newFolder("device-tester");
+
+        GGConstants ggConstants = mock(GGConstants.class);
+        when(ggConstants.getDeviceTesterInstallDirectory()).thenReturn(installDirectory.getPath());
+
+        basicDeviceTesterInstallHelper = new BasicDeviceTesterInstallHelper();
+        basicDeviceTesterInstallHelper.ggConstants = ggConstants;
+        basicDeviceTesterInstallHelper.ioHelper = new BasicIoHelper();
+
+        deviceTesterZip = temporaryFolder.newFile("devicetester.zip");
+
+        try (ZipArchiveOutputStream zipArchiveOutputStream = new ZipArchiveOutputStream(deviceTesterZip)) {
+            addEntry(zipArchiveOutputStream, "bin/devicetester_linux_x86-64", 0755);
+            addEntry(zipArchiveOutputStream, "configs/config.json", 0644);
+            addEntry(zipArchiveOutputStream, "tests/GGQ_1/suite.json", 0644);
+            addEntry(zipArchiveOutputStream, "results/README.md", 0644);
+        }
+    }
+
+    private void addEntry(ZipArchiveOutputStream zipArchiveOutputStream, String name, int mode) throws IOException {
+        ZipArchiveEntry zipArchiveEntry = new ZipArchiveEntry(TOP_LEVEL_DIRECTORY + "/" + name);
+        zipArchiveEntry.setUnixMode(mode);
+        zipArchiveOutputStream.putArchiveEntry(zipArchiveEntry);
+        zipArchiveOutputStream.write(name.getBytes(StandardCharsets.UTF_8));
+        zipArchiveOutputStream.closeArchiveEntry();
+    }
+
+    @Test
+    public void shouldInstallOnceAndGiveEachRunItsOwnConfigsAndResults() throws IOException {
+        Path firstRun = basicDeviceTesterInstallHelper.getWorkingDirectory(deviceTesterZip).toPath().resolve(TOP_LEVEL_DIRECTORY);
+        Path secondRun = basicDeviceTesterInstallHelper.getWorkingDirectory(deviceTesterZip).toPath().resolve(TOP_LEVEL_DIRECTORY);
+
+        assertNotEquals(firstRun, secondRun);
+        assertEquals(1, installDirectory.listFiles().length);
+
+        assertTrue(firstRun.resolve("bin/devicetester_linux_x86-64").toFile().canExecute());
+        assertEquals("tests/GGQ_1/suite.json", new String(Files.readAllBytes(secondRun.resolve("tests/GGQ_1/suite.json")), StandardCharsets.UTF_8));
+        assertFalse(firstRun.resolve("results/README.md").toFile().exists());
+
+        // Changing the configs for one run doesn't change them for any other run
+        Files.write(firstRun.resolve("configs/config.json"), "changed".getBytes(StandardCharsets.UTF_8));
+        assertEquals("configs/config.json", new String(Files.readAllBytes(secondRun.resolve("configs/config.json")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldDeleteTheWorkingDirectoryWithoutChangingTheInstall() throws IOException {
+        File workingDirectory = basicDeviceTesterInstallHelper.getWorkingDirectory(deviceTesterZip);
+
+        basicDeviceTesterInstallHelper.deleteWorkingDirectory(workingDirectory);
+
+        assertFalse(workingDirectory.exists());
+
+        // The next run links to the same install, the linked files are still there
+        Path nextRun = basicDeviceTesterInstallHelper.getWorkingDirectory(deviceTesterZip).toPath().resolve(TOP_LEVEL_DIRECTORY);
+        assertEquals(1, installDirectory.listFiles().length);
+        assertTrue(nextRun.resolve("bin/devicetester_linux_x86-64").toFile().canExecute());
+        assertEquals("tests/GGQ_1/suite.json", new String(Files.readAllBytes(nextRun.resolve("tests/GGQ_1/suite.json")), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,127 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.services.greengrass.GreengrassClient;
+import software.amazon.awssdk.services.greengrass.model.GroupInformation;
+import software.amazon.awssdk.services.greengrass.model.ListGroupsRequest;
+import software.amazon.awssdk.services.greengrass.model.ListGroupsResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GreengrassListingHelperTest {
+    private BasicGreengrassListingHelper basicGreengrassListingHelper;
+    private GreengrassClient greengrassClient;
+    private ListGroupsResponse firstPage;
+
+    @Before
+    public void setup() {
+        greengrassClient = mock(GreengrassClient.class);
+
+        firstPage = ListGroupsResponse.builder()
+                .groups(group("a", "1"), group("b", "2"))
+                .nextToken("page2")
+                .build();
+
+        ListGroupsResponse secondPage = ListGroupsResponse.builder()
+                .groups(group("c", "3"))
+                .build();
+
+        when(greengrassClient.listGroups(any(ListGroupsRequest.class)))
+                .thenAnswer(invocation -> ((ListGroupsRequest) invocation.getArguments()[0]).nextToken() == null ? firstPage : secondPage);
+
+        basicGreengrassListingHelper = new BasicGreengrassListingHelper();
+        basicGreengrassListingHelper.greengrassClientProvider = () -> greengrassClient;
+    }
+
+    @Test
+    public void shouldOnlyFetchEachPageOnce() {
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("a").isPresent());
+        assertEquals(1, basicGreengrassListingHelper.getPagesFetched());
+
+        assertEquals("c", basicGreengrassListingHelper.getGroupInformation("3").get().name());
+        assertEquals(2, basicGreengrassListingHelper.getPagesFetched());
+
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("b").isPresent());
+        assertEquals(2, basicGreengrassListingHelper.getPagesFetched());
+        assertEquals(1, basicGreengrassListingHelper.getIndexHits());
+    }
+
+    @Test
+    public void shouldListAgainWhenAnEntryIsMissing() {
+        assertFalse(basicGreengrassListingHelper.getGroupInformation("d").isPresent());
+        assertEquals(2, basicGreengrassListingHelper.getPagesFetched());
+
+        // Created by something other than the provisioner after the listing was read
+        ListGroupsResponse updatedPage = ListGroupsResponse.builder()
+                .groups(group("c", "3"), group("d", "4"))
+                .build();
+        doAnswer(invocation -> ((ListGroupsRequest) invocation.getArguments()[0]).nextToken() == null ? firstPage : updatedPage)
+                .when(greengrassClient).listGroups(any(ListGroupsRequest.class));
+
+        assertEquals("4", basicGreengrassListingHelper.getGroupInformation("d").get().id());
+        assertEquals(4, basicGreengrassListingHelper.getPagesFetched());
+
+        // Found entries are still served from the index
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("d").isPresent());
+        assertEquals(4, basicGreengrassListingHelper.getPagesFetched());
+    }
+
+    @Test
+    public void shouldDropEntriesThatDisappearWhenListingAgain() {
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("a").isPresent());
+        assertEquals("c", basicGreengrassListingHelper.getGroupInformation("3").get().name());
+
+        // Group "a" is deleted, group "c" is renamed to "e"
+        ListGroupsResponse updatedFirstPage = ListGroupsResponse.builder()
+                .groups(group("b", "2"), group("e", "3"))
+                .build();
+        doAnswer(invocation -> updatedFirstPage)
+                .when(greengrassClient).listGroups(any(ListGroupsRequest.class));
+
+        // A miss rebuilds the whole index
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("e").isPresent());
+        assertFalse(basicGreengrassListingHelper.getGroupInformation("a").isPresent());
+        assertFalse(basicGreengrassListingHelper.getGroupInformation("c").isPresent());
+    }
+
+    @Test
+    public void shouldListAgainOnceTheIndexIsTooOld() {
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("a").isPresent());
+        assertEquals(1, basicGreengrassListingHelper.getPagesFetched());
+
+        // Hits are served from the index even if the group has been deleted since
+        doAnswer(invocation -> ListGroupsResponse.builder().groups(group("b", "2")).build())
+                .when(greengrassClient).listGroups(any(ListGroupsRequest.class));
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("a").isPresent());
+
+        basicGreengrassListingHelper.maxAgeMilliseconds = 0;
+        assertFalse(basicGreengrassListingHelper.getGroupInformation("a").isPresent());
+    }
+
+    @Test
+    public void shouldFindPutEntriesAndRefetchAfterInvalidation() {
+        assertFalse(basicGreengrassListingHelper.getGroupInformation("d").isPresent());
+
+        basicGreengrassListingHelper.putGroupInformation(group("d", "4"));
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("d").isPresent());
+        assertEquals(2, basicGreengrassListingHelper.getPagesFetched());
+
+        basicGreengrassListingHelper.invalidateGroups();
+        assertTrue(basicGreengrassListingHelper.getGroupInformation("a").isPresent());
+        assertEquals(3, basicGreengrassListingHelper.getPagesFetched());
+    }
+
+    private GroupInformation group(String name, String id) {
+        return GroupInformation.builder()
+                .name(name)
+                .id(id)
+                .build();
+    }
+}
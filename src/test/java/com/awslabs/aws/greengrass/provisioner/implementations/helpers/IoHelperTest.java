@@ -0,0 +1,185 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.DownloadOptions;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class IoHelperTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BasicIoHelper basicIoHelper;
+
+    @Before
+    public void setup() {
+        basicIoHelper = new BasicIoHelper();
+    }
+
+    @Test
+    public void shouldSplitLinesAndDecodeCharactersSplitAcrossReads() throws IOException {
+        byte[] bytes = "first\r\nsecond \u2713\nno newline".getBytes(StandardCharsets.UTF_8);
+
+        // Hand out one byte at a time so multi-byte characters arrive in pieces
+        InputStream inputStream = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+
+        List<String> lines = new ArrayList<>();
+
+        assertEquals(3, basicIoHelper.readLines(inputStream, lines::add));
+        assertEquals(Arrays.asList("first", "second \u2713", "no newline"), lines);
+    }
+
+    @Test
+    public void shouldReportTheExitStatusOfEachBatchedCommand() throws IOException, InterruptedException {
+        String script = basicIoHelper.getBatchScript(Arrays.asList("true", "false", "exit_status_test() { return 3; }; exit_status_test"), "MARKER");
+
+        Process process = new ProcessBuilder("sh", "-s").start();
+        process.getOutputStream().write(script.getBytes(StandardCharsets.UTF_8));
+        process.getOutputStream().close();
+
+        List<String> lines = new ArrayList<>();
+        basicIoHelper.readLines(process.getInputStream(), lines::add);
+        process.waitFor();
+
+        assertEquals(Arrays.asList("MARKER 0", "MARKER 1", "MARKER 3"), lines);
+    }
+
+    @Test
+    public void shouldDownloadRangesAndResumeAfterAFailure() throws IOException {
+        byte[] content = new byte[10000];
+        new Random(1).nextBytes(content);
+
+        AtomicBoolean failLastRange = new AtomicBoolean(true);
+        AtomicInteger rangeRequests = new AtomicInteger();
+
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.createContext("/core.tar.gz", httpExchange -> {
+            httpExchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+            httpExchange.getResponseHeaders().add("ETag", "\"v1\"");
+            String range = httpExchange.getRequestHeaders().getFirst("Range");
+
+            if (httpExchange.getRequestMethod().equals("HEAD") || (range == null)) {
+                httpExchange.getResponseHeaders().add("Content-Length", String.valueOf(content.length));
+                httpExchange.sendResponseHeaders(200, -1);
+                httpExchange.close();
+                return;
+            }
+
+            rangeRequests.incrementAndGet();
+            String[] startAndEnd = range.substring("bytes=".length()).split("-");
+            int start = Integer.parseInt(startAndEnd[0]);
+            int end = Integer.parseInt(startAndEnd[1]);
+
+            if ((end == content.length - 1) && failLastRange.get()) {
+                httpExchange.sendResponseHeaders(500, -1);
+                httpExchange.close();
+                return;
+            }
+
+            httpExchange.sendResponseHeaders(206, end - start + 1);
+
+            try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                outputStream.write(content, start, end - start + 1);
+            }
+        });
+        httpServer.start();
+
+        try {
+            String url = "http://127.0.0.1:" + httpServer.getAddress().getPort() + "/core.tar.gz";
+            File file = temporaryFolder.newFile();
+            DownloadOptions downloadOptions = DownloadOptions.builder()
+                    .rangeSizeBytes(1000)
+                    .minimumRangedSizeBytes(1)
+                    .maxAttemptsPerRange(1)
+                    .build();
+
+            try {
+                basicIoHelper.download(url, file, downloadOptions);
+                fail("The last range should have failed");
+            } catch (RuntimeException e) {
+                // Expected
+            }
+
+            assertEquals(10, rangeRequests.get());
+
+            failLastRange.set(false);
+            basicIoHelper.download(url, file, downloadOptions);
+
+            // Only the range that failed is fetched again
+            assertEquals(11, rangeRequests.get());
+            assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+            assertFalse(new File(file.getPath() + ".download").exists());
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldExtractInParallelKeepExecutableBitsAndSkipUnchangedFiles() throws IOException {
+        File zipFile = temporaryFolder.newFile("devicetester.zip");
+
+        try (ZipArchiveOutputStream zipArchiveOutputStream = new ZipArchiveOutputStream(zipFile)) {
+            ZipArchiveEntry directoryEntry = new ZipArchiveEntry("devicetester/bin/");
+            zipArchiveOutputStream.putArchiveEntry(directoryEntry);
+            zipArchiveOutputStream.closeArchiveEntry();
+
+            for (int loop = 0; loop < 20; loop++) {
+                ZipArchiveEntry fileEntry = new ZipArchiveEntry("devicetester/tests/test" + loop + ".txt");
+                fileEntry.setUnixMode(0644);
+                zipArchiveOutputStream.putArchiveEntry(fileEntry);
+                zipArchiveOutputStream.write(("test " + loop).getBytes(StandardCharsets.UTF_8));
+                zipArchiveOutputStream.closeArchiveEntry();
+            }
+
+            ZipArchiveEntry binaryEntry = new ZipArchiveEntry("devicetester/bin/devicetester_linux_x86-64");
+            binaryEntry.setUnixMode(0755);
+            zipArchiveOutputStream.putArchiveEntry(binaryEntry);
+            zipArchiveOutputStream.write("#!/bin/sh".getBytes(StandardCharsets.UTF_8));
+            zipArchiveOutputStream.closeArchiveEntry();
+        }
+
+        Path destinationPath = temporaryFolder.newFolder("extracted").toPath();
+        basicIoHelper.extractZip(zipFile, destinationPath, filename -> filename);
+
+        File binary = destinationPath.resolve("devicetester/bin/devicetester_linux_x86-64").toFile();
+        File unchanged = destinationPath.resolve("devicetester/tests/test3.txt").toFile();
+        File modified = destinationPath.resolve("devicetester/tests/test4.txt").toFile();
+
+        assertTrue(binary.canExecute());
+        assertFalse(unchanged.canExecute());
+        assertEquals("test 19", new String(Files.readAllBytes(destinationPath.resolve("devicetester/tests/test19.txt")), StandardCharsets.UTF_8));
+
+        assertTrue(unchanged.setLastModified(0));
+        Files.write(modified.toPath(), "tset 4".getBytes(StandardCharsets.UTF_8));
+        assertTrue(modified.setLastModified(0));
+
+        basicIoHelper.extractZip(zipFile, destinationPath, filename -> filename);
+
+        // Same size and CRC means the file is left alone, anything else is written again
+        assertEquals(0, unchanged.lastModified());
+        assertEquals("test 4", new String(Files.readAllBytes(modified.toPath()), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,138 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.KeysAndCertificate;
+import com.awslabs.aws.greengrass.provisioner.data.ThingProvisioningRequest;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.IoHelper;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.services.iot.IotAsyncClient;
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.iot.model.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class IotHelperTest {
+    private BasicIotHelper basicIotHelper;
+    private IotClient iotClient;
+
+    @Before
+    public void setup() {
+        iotClient = mock(IotClient.class);
+        IoHelper ioHelper = mock(IoHelper.class);
+        AtomicInteger certificateCount = new AtomicInteger();
+
+        when(iotClient.createThing(any(CreateThingRequest.class)))
+                .thenAnswer(invocation -> CreateThingResponse.builder()
+                        .thingArn("arn:thing/" + ((CreateThingRequest) invocation.getArguments()[0]).thingName())
+                        .build());
+        when(iotClient.createKeysAndCertificate(any(CreateKeysAndCertificateRequest.class)))
+                .thenAnswer(invocation -> CreateKeysAndCertificateResponse.builder()
+                        .certificateArn("arn:cert/" + certificateCount.incrementAndGet())
+                        .certificatePem("pem")
+                        .keyPair(KeyPair.builder().privateKey("private").publicKey("public").build())
+                        .build());
+        when(iotClient.getPolicy(any(GetPolicyRequest.class))).thenThrow(ResourceNotFoundException.builder().build());
+        when(ioHelper.serializeKeys(any(CreateKeysAndCertificateResponse.class), any())).thenReturn("{}");
+
+        basicIotHelper = new BasicIotHelper();
+        basicIotHelper.iotClientProvider = () -> iotClient;
+        basicIotHelper.ioHelper = ioHelper;
+        basicIotHelper.ggConstants = mock(GGConstants.class);
+        basicIotHelper.loggingHelper = new BasicLoggingHelper();
+        basicIotHelper.asyncSdkHelper = new BasicAsyncSdkHelper();
+    }
+
+    @Test
+    public void shouldProvisionEachThingOnceAndReuseItsKeys() {
+        List<ThingProvisioningRequest> thingProvisioningRequests = Arrays.asList(request("a"), request("b"), request("c"));
+
+        Map<String, KeysAndCertificate> keysAndCertificates = basicIotHelper.provisionThings("group", thingProvisioningRequests);
+
+        assertEquals(3, keysAndCertificates.size());
+        verify(iotClient, times(3)).createKeysAndCertificate(any(CreateKeysAndCertificateRequest.class));
+        verify(iotClient, times(3)).attachPolicy(any(AttachPolicyRequest.class));
+        verify(iotClient, times(3)).attachThingPrincipal(any(AttachThingPrincipalRequest.class));
+
+        // Later lookups, like when the output files are built, come from the memoized values
+        assertEquals(keysAndCertificates.get("b"), basicIotHelper.createOrLoadKeysAndCertificate("group", "GGD_b"));
+        assertEquals("arn:thing/c", basicIotHelper.getThingArn("c"));
+        basicIotHelper.createPolicyIfNecessary("GGD_a_Policy", "{}");
+
+        verify(iotClient, times(3)).createKeysAndCertificate(any(CreateKeysAndCertificateRequest.class));
+        verify(iotClient, times(3)).getPolicy(any(GetPolicyRequest.class));
+        verify(iotClient, never()).describeThing(any(DescribeThingRequest.class));
+    }
+
+    @Test
+    public void shouldLookEverythingUpAgainAfterTheCacheIsCleared() {
+        when(iotClient.describeThing(any(DescribeThingRequest.class))).thenReturn(DescribeThingResponse.builder().thingArn("arn:thing/recreated").build());
+
+        basicIotHelper.provisionThings("group", Arrays.asList(request("a")));
+        basicIotHelper.clearCache();
+
+        // The thing may have been recreated and the policy and certificate deleted by then
+        assertEquals("arn:thing/recreated", basicIotHelper.getThingArn("a"));
+        basicIotHelper.createPolicyIfNecessary("GGD_a_Policy", "{}");
+        basicIotHelper.createOrLoadKeysAndCertificate("group", "GGD_a");
+
+        verify(iotClient, times(1)).describeThing(any(DescribeThingRequest.class));
+        verify(iotClient, times(2)).getPolicy(any(GetPolicyRequest.class));
+        verify(iotClient, times(2)).createKeysAndCertificate(any(CreateKeysAndCertificateRequest.class));
+    }
+
+    @Test
+    public void shouldProvisionWithTheAsyncClientInAsyncMode() {
+        IotAsyncClient iotAsyncClient = mock(IotAsyncClient.class);
+        AtomicInteger certificateCount = new AtomicInteger();
+
+        when(iotAsyncClient.createThing(any(CreateThingRequest.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(CreateThingResponse.builder()
+                        .thingArn("arn:thing/" + ((CreateThingRequest) invocation.getArguments()[0]).thingName())
+                        .build()));
+        when(iotAsyncClient.createKeysAndCertificate(any(CreateKeysAndCertificateRequest.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(CreateKeysAndCertificateResponse.builder()
+                        .certificateArn("arn:cert/" + certificateCount.incrementAndGet())
+                        .certificatePem("pem")
+                        .keyPair(KeyPair.builder().privateKey("private").publicKey("public").build())
+                        .build()));
+
+        // Failures arrive in the future, not as exceptions from the call
+        CompletableFuture<GetPolicyResponse> policyNotFound = new CompletableFuture<>();
+        policyNotFound.completeExceptionally(ResourceNotFoundException.builder().build());
+        when(iotAsyncClient.getPolicy(any(GetPolicyRequest.class))).thenReturn(policyNotFound);
+        when(iotAsyncClient.createPolicy(any(CreatePolicyRequest.class))).thenReturn(CompletableFuture.completedFuture(CreatePolicyResponse.builder().build()));
+        when(iotAsyncClient.attachPolicy(any(AttachPolicyRequest.class))).thenReturn(CompletableFuture.completedFuture(AttachPolicyResponse.builder().build()));
+        when(iotAsyncClient.attachThingPrincipal(any(AttachThingPrincipalRequest.class))).thenReturn(CompletableFuture.completedFuture(AttachThingPrincipalResponse.builder().build()));
+
+        basicIotHelper.iotAsyncClientProvider = () -> iotAsyncClient;
+        basicIotHelper.asyncSdkHelper.setAsync(true);
+
+        Map<String, KeysAndCertificate> keysAndCertificates = basicIotHelper.provisionThings("group", Arrays.asList(request("a"), request("b")));
+
+        assertEquals(2, keysAndCertificates.size());
+        verify(iotAsyncClient, times(2)).createPolicy(any(CreatePolicyRequest.class));
+        verify(iotAsyncClient, times(2)).attachThingPrincipal(any(AttachThingPrincipalRequest.class));
+        verifyZeroInteractions(iotClient);
+
+        // The blocking methods work on top of the async ones
+        assertEquals("arn:thing/c", basicIotHelper.createThing("c"));
+    }
+
+    private ThingProvisioningRequest request(String thingName) {
+        return ThingProvisioningRequest.builder()
+                .thingName(thingName)
+                .subName("GGD_" + thingName)
+                .policyName("GGD_" + thingName + "_Policy")
+                .policyDocumentBuilder(thingArn -> "{\"thing\":\"" + thingArn + "\"}")
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.LambdaFunctionArnInfo;
+import com.awslabs.aws.greengrass.provisioner.data.conf.FunctionConf;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InOrder;
+import software.amazon.awssdk.services.iam.model.Role;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.model.Runtime;
+import software.amazon.awssdk.services.lambda.model.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class LambdaHelperTest {
+    private static final String FUNCTION_NAME = "group-function";
+    private static final String ROLE_ARN = "arn:aws:iam::123456789012:role/lambda";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BasicLambdaHelper basicLambdaHelper;
+    private LambdaClient lambdaClient;
+    private FunctionConf functionConf;
+    private Role role;
+    private File zipFile;
+    private String codeSha256;
+
+    @Before
+    public void setup() throws Exception {
+        lambdaClient = mock(LambdaClient.class);
+
+        basicLambdaHelper = new BasicLambdaHelper();
+        basicLambdaHelper.lambdaClientProvider = () -> lambdaClient;
+        basicLambdaHelper.ioHelper = new BasicIoHelper();
+        basicLambdaHelper.loggingHelper = new BasicLoggingHelper();
+        basicLambdaHelper.asyncSdkHelper = new BasicAsyncSdkHelper();
+
+        zipFile = temporaryFolder.newFile("function.zip");
+        Files.write(zipFile.toPath(), "deployment package".getBytes());
+        codeSha256 = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(zipFile.toPath())));
+
+        functionConf = FunctionConf.builder()
+                .groupName("group")
+                .functionName("function")
+                .handlerName("handler.function_handler")
+                .aliasName("PROD")
+                .build();
+
+        role = Role.builder().arn(ROLE_ARN).build();
+
+        when(lambdaClient.publishVersion(any(PublishVersionRequest.class)))
+                .thenReturn(PublishVersionResponse.builder().version("3").functionArn("arn:aws:lambda:us-east-1:123456789012:function:" + FUNCTION_NAME + ":3").build());
+    }
+
+    @Test
+    public void shouldSkipUnchangedFunctionsAndAliases() throws IOException {
+        mockExistingFunction(codeSha256);
+        when(lambdaClient.getAlias(any(GetAliasRequest.class)))
+                .thenReturn(GetAliasResponse.builder().functionVersion("3").aliasArn("alias-arn").build());
+
+        LambdaFunctionArnInfo lambdaFunctionArnInfo = basicLambdaHelper.createFunctionIfNecessary(functionConf, Runtime.PYTHON2_7, role, zipFile.getPath());
+
+        assertEquals("alias-arn", basicLambdaHelper.createAlias(functionConf, lambdaFunctionArnInfo.getQualifier()));
+        assertEquals(1, basicLambdaHelper.getFunctionsSkipped());
+        assertEquals(0, basicLambdaHelper.getBytesUploaded());
+
+        verify(lambdaClient, never()).deleteFunction(any(DeleteFunctionRequest.class));
+        verify(lambdaClient, never()).createFunction(any(CreateFunctionRequest.class));
+        verify(lambdaClient, never()).updateFunctionCode(any(UpdateFunctionCodeRequest.class));
+        verify(lambdaClient, never()).updateFunctionConfiguration(any(UpdateFunctionConfigurationRequest.class));
+        verify(lambdaClient, never()).updateAlias(any(UpdateAliasRequest.class));
+    }
+
+    @Test
+    public void shouldOnlyUploadCodeWhenTheHashDiffers() throws IOException {
+        mockExistingFunction("somethingElse");
+        when(lambdaClient.updateFunctionCode(any(UpdateFunctionCodeRequest.class)))
+                .thenReturn(UpdateFunctionCodeResponse.builder().build());
+        when(lambdaClient.getFunctionConfiguration(any(GetFunctionConfigurationRequest.class)))
+                .thenReturn(GetFunctionConfigurationResponse.builder().lastUpdateStatus(LastUpdateStatus.SUCCESSFUL).build());
+
+        basicLambdaHelper.createFunctionIfNecessary(functionConf, Runtime.PYTHON2_7, role, zipFile.getPath());
+
+        assertEquals(0, basicLambdaHelper.getFunctionsSkipped());
+        assertEquals(zipFile.length(), basicLambdaHelper.getBytesUploaded());
+
+        verify(lambdaClient, never()).updateFunctionConfiguration(any(UpdateFunctionConfigurationRequest.class));
+        verify(lambdaClient, never()).deleteFunction(any(DeleteFunctionRequest.class));
+
+        // The new code must be in place before the version is published
+        InOrder inOrder = inOrder(lambdaClient);
+        inOrder.verify(lambdaClient).updateFunctionCode(any(UpdateFunctionCodeRequest.class));
+        inOrder.verify(lambdaClient).getFunctionConfiguration(any(GetFunctionConfigurationRequest.class));
+        inOrder.verify(lambdaClient).publishVersion(any(PublishVersionRequest.class));
+    }
+
+    private void mockExistingFunction(String existingCodeSha256) {
+        FunctionConfiguration functionConfiguration = FunctionConfiguration.builder()
+                .functionName(FUNCTION_NAME)
+                .runtime(Runtime.PYTHON2_7)
+                .role(ROLE_ARN)
+                .handler("handler.function_handler")
+                .codeSha256(existingCodeSha256)
+                .build();
+
+        when(lambdaClient.getFunction(any(GetFunctionRequest.class)))
+                .thenReturn(GetFunctionResponse.builder().configuration(functionConfiguration).build());
+    }
+}
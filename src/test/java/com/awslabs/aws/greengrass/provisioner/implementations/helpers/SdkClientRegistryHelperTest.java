@@ -0,0 +1,48 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.regions.providers.AwsRegionProviderChain;
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SdkClientRegistryHelperTest {
+    private BasicSdkClientRegistryHelper basicSdkClientRegistryHelper;
+
+    @Before
+    public void setup() {
+        AwsRegionProviderChain awsRegionProviderChain = mock(AwsRegionProviderChain.class);
+        when(awsRegionProviderChain.getRegion()).thenReturn(Region.US_EAST_1);
+
+        basicSdkClientRegistryHelper = new BasicSdkClientRegistryHelper();
+        basicSdkClientRegistryHelper.awsRegionProviderChain = awsRegionProviderChain;
+        basicSdkClientRegistryHelper.sdkMetricsHelper = new BasicSdkMetricsHelper();
+    }
+
+    @Test
+    public void shouldCreateOneClientPerServiceAndRegion() {
+        IotClient first = basicSdkClientRegistryHelper.getClient(IotClient.class, IotClient::builder);
+        IotClient second = basicSdkClientRegistryHelper.getClient(IotClient.class, Region.US_EAST_1, IotClient::builder);
+
+        assertSame(first, second);
+        assertEquals(1, basicSdkClientRegistryHelper.getClientsCreated());
+
+        IotClient otherRegion = basicSdkClientRegistryHelper.getClient(IotClient.class, Region.EU_WEST_1, IotClient::builder);
+        LambdaClient otherService = basicSdkClientRegistryHelper.getClient(LambdaClient.class, LambdaClient::builder);
+
+        assertNotSame(first, otherRegion);
+        assertSame(otherService, basicSdkClientRegistryHelper.getClient(LambdaClient.class, LambdaClient::builder));
+        assertEquals(3, basicSdkClientRegistryHelper.getClientsCreated());
+
+        // Nothing has been sent yet
+        assertEquals(0, basicSdkClientRegistryHelper.getConnectionsOpened());
+        assertEquals(0, basicSdkClientRegistryHelper.getTlsHandshakes());
+    }
+}
@@ -0,0 +1,133 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.SdkCallMetrics;
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+import com.awslabs.aws.greengrass.provisioner.interfaces.helpers.GGConstants;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.SdkHttpFullResponse;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SdkMetricsHelperTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BasicSdkMetricsHelper basicSdkMetricsHelper;
+    private BasicTraceHelper basicTraceHelper;
+
+    @Before
+    public void setup() {
+        GGConstants ggConstants = mock(GGConstants.class);
+        when(ggConstants.getBuildDirectory()).thenReturn(temporaryFolder.getRoot().getPath());
+
+        basicTraceHelper = new BasicTraceHelper();
+        basicTraceHelper.jsonHelper = new BasicJsonHelper();
+
+        basicSdkMetricsHelper = new BasicSdkMetricsHelper();
+        basicSdkMetricsHelper.ggConstants = ggConstants;
+        basicSdkMetricsHelper.ioHelper = new BasicIoHelper();
+        basicSdkMetricsHelper.jsonHelper = new BasicJsonHelper();
+        basicSdkMetricsHelper.traceHelper = basicTraceHelper;
+    }
+
+    @Test
+    public void shouldRecordRetriesThrottlingAndPayloadSizes() {
+        // Throttled on the first attempt, succeeded on the retry
+        ExecutionAttributes executionAttributes = startCall("Greengrass", "ListGroups");
+        transmit(executionAttributes, 429, 10);
+        transmit(executionAttributes, 200, 20);
+        basicSdkMetricsHelper.afterExecution(mock(Context.AfterExecution.class), executionAttributes);
+
+        SdkCallMetrics metrics = basicSdkMetricsHelper.getSnapshot().get("Greengrass.ListGroups");
+        assertEquals(1, metrics.getCalls());
+        assertEquals(1, metrics.getRetries());
+        assertEquals(1, metrics.getThrottledAttempts());
+        assertEquals(10, metrics.getBytesSent());
+        assertEquals(30, metrics.getBytesReceived());
+        assertEquals(0, metrics.getFailures());
+    }
+
+    @Test
+    public void shouldOnlyReportCallsMadeUnderTheTrace() throws Exception {
+        TraceSpan otherJob = basicTraceHelper.startSpan("FleetHelper");
+        ExecutionAttributes other = startCall("Iot", "CreateKeysAndCertificate");
+        otherJob.close();
+        transmit(other, 200, 100);
+        basicSdkMetricsHelper.afterExecution(mock(Context.AfterExecution.class), other);
+
+        TraceSpan root = basicTraceHelper.startSpan("DeploymentHelper");
+        ExecutionAttributes throttled = startCall("Iot", "CreateKeysAndCertificate");
+        transmit(throttled, 429, 0);
+        Context.FailedExecution failedExecution = mock(Context.FailedExecution.class);
+        when(failedExecution.exception()).thenReturn(SdkServiceException.builder().statusCode(429).build());
+        basicSdkMetricsHelper.onExecutionFailure(failedExecution, throttled);
+        root.close();
+
+        Optional<String> report = basicSdkMetricsHelper.writeReport("DeploymentHelper", root);
+        String json = new String(Files.readAllBytes(new File(report.get()).toPath()), StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"name\": \"Iot.CreateKeysAndCertificate\""));
+        assertTrue(json.contains("\"calls\": 1,"));
+        assertTrue(json.contains("\"throttlingFailures\": 1"));
+
+        // Both calls are in the totals
+        assertEquals(2, basicSdkMetricsHelper.getSnapshot().get("Iot.CreateKeysAndCertificate").getCalls());
+
+        // The trace is removed once it has been reported
+        assertFalse(basicSdkMetricsHelper.writeReport("DeploymentHelper", root).isPresent());
+    }
+
+    @Test
+    public void shouldWritePrometheusHistograms() {
+        ExecutionAttributes executionAttributes = startCall("Lambda", "CreateFunction");
+        transmit(executionAttributes, 200, 0);
+        basicSdkMetricsHelper.afterExecution(mock(Context.AfterExecution.class), executionAttributes);
+
+        String prometheus = basicSdkMetricsHelper.toPrometheus(basicSdkMetricsHelper.getSnapshot());
+
+        assertTrue(prometheus.contains("# TYPE ggp_sdk_calls_total counter\n"));
+        assertTrue(prometheus.contains("ggp_sdk_calls_total{service=\"Lambda\",operation=\"CreateFunction\"} 1\n"));
+        assertTrue(prometheus.contains("ggp_sdk_call_duration_seconds_bucket{service=\"Lambda\",operation=\"CreateFunction\",le=\"+Inf\"} 1\n"));
+        assertTrue(prometheus.contains("ggp_sdk_call_duration_seconds_count{service=\"Lambda\",operation=\"CreateFunction\"} 1\n"));
+    }
+
+    private ExecutionAttributes startCall(String service, String operation) {
+        ExecutionAttributes executionAttributes = new ExecutionAttributes();
+        executionAttributes.putAttribute(SdkExecutionAttribute.SERVICE_NAME, service);
+        executionAttributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, operation);
+
+        basicSdkMetricsHelper.beforeExecution(mock(Context.BeforeExecution.class), executionAttributes);
+
+        return executionAttributes;
+    }
+
+    private void transmit(ExecutionAttributes executionAttributes, int statusCode, int responseLength) {
+        Context.BeforeTransmission beforeTransmission = mock(Context.BeforeTransmission.class);
+        when(beforeTransmission.requestBody()).thenReturn(Optional.of(RequestBody.fromString("12345")));
+        basicSdkMetricsHelper.beforeTransmission(beforeTransmission, executionAttributes);
+
+        Context.AfterTransmission afterTransmission = mock(Context.AfterTransmission.class);
+        when(afterTransmission.httpResponse()).thenReturn(SdkHttpFullResponse.builder()
+                .statusCode(statusCode)
+                .putHeader("Content-Length", String.valueOf(responseLength))
+                .build());
+        basicSdkMetricsHelper.afterTransmission(afterTransmission, executionAttributes);
+    }
+}
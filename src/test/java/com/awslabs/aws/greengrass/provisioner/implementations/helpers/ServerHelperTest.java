@@ -0,0 +1,173 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.AwsGreengrassProvisioner;
+import com.awslabs.aws.greengrass.provisioner.data.JobStatus;
+import com.awslabs.aws.greengrass.provisioner.data.ProvisionerJob;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class ServerHelperTest {
+    private static final String QUERY_GROUP_OPTION = "--query-group";
+
+    private BasicServerHelper basicServerHelper;
+    private BasicJobHelper basicJobHelper;
+    private CountDownLatch release;
+    private String baseUrl;
+
+    @Before
+    public void setup() {
+        release = new CountDownLatch(1);
+
+        basicJobHelper = new BasicJobHelper();
+        basicJobHelper.operations = Collections.singletonMap(QUERY_GROUP_OPTION, () -> null);
+        basicJobHelper.awsGreengrassProvisionerProvider = () -> new AwsGreengrassProvisioner() {
+            private String[] args;
+
+            @Override
+            public void setArgs(String[] args) {
+                this.args = args;
+            }
+
+            @Override
+            public void run() {
+                log.info("Querying " + args[2]);
+                Thread thread = new Thread(() -> log.info("Logged from a thread started by the job"));
+                thread.start();
+                Try.run(thread::join).get();
+
+                if (args[2].equals("missing")) {
+                    throw new RuntimeException("Group not found");
+                }
+
+                if (args[2].equals("shared")) {
+                    // A thread that outlives the job, like the deployment status poller
+                    ExecutorService sharedExecutorService = Executors.newSingleThreadExecutor(runnable -> new Thread(basicJobHelper.withoutJob(runnable)));
+                    Try.run(() -> sharedExecutorService.submit(() -> log.info("Logged by a shared thread")).get()).get();
+                    Try.run(() -> sharedExecutorService.submit(basicJobHelper.withCurrentJob(() -> log.info("Handed over to a shared thread"))).get()).get();
+                    sharedExecutorService.shutdown();
+                    return;
+                }
+
+                Try.run(release::await).get();
+            }
+        };
+
+        basicServerHelper = new BasicServerHelper();
+        basicServerHelper.jobHelper = basicJobHelper;
+        basicServerHelper.jsonHelper = new BasicJsonHelper();
+
+        baseUrl = "http://localhost:" + basicServerHelper.start(0, 1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        basicServerHelper.stop();
+    }
+
+    @Test
+    public void shouldQueueJobsAndStreamTheirLogs() throws Exception {
+        assertTrue(request("POST", "/jobs", "[\"--query-group\", \"-g\", \"first\"]", 202).contains("\"id\": \"1\""));
+        assertTrue(request("POST", "/jobs", "[\"--query-group\", \"-g\", \"missing\"]", 202).contains("\"status\": \"QUEUED\""));
+
+        // Only one job runs at a time, the second one waits for the first
+        ProvisionerJob first = basicJobHelper.getJob("1").get();
+        ProvisionerJob second = basicJobHelper.getJob("2").get();
+        waitFor(first, JobStatus.RUNNING);
+        assertEquals(JobStatus.QUEUED, second.getStatus());
+
+        release.countDown();
+
+        // The log stream ends when the job finishes
+        String logs = request("GET", "/jobs/2/logs", null, 200);
+        assertTrue(logs.contains("Querying missing"));
+        assertTrue(logs.contains("Logged from a thread started by the job"));
+
+        assertEquals(JobStatus.SUCCEEDED, first.getStatus());
+        assertTrue(request("GET", "/jobs/2", null, 200).contains("\"error\": \"Group not found\""));
+        assertTrue(request("GET", "/status", null, 200).contains("\"failed\": 1"));
+    }
+
+    @Test
+    public void shouldOnlyLogWorkHandedOverToSharedThreads() throws Exception {
+        request("POST", "/jobs", "[\"--query-group\", \"-g\", \"shared\"]", 202);
+
+        String logs = request("GET", "/jobs/1/logs", null, 200);
+        assertTrue(logs.contains("Handed over to a shared thread"));
+        assertFalse(logs.contains("Logged by a shared thread"));
+    }
+
+    @Test
+    public void shouldDropTheOldestFinishedJobs() throws Exception {
+        for (int loop = 0; loop < 105; loop++) {
+            request("POST", "/jobs", "[\"--query-group\", \"-g\", \"missing\"]", 202);
+        }
+
+        for (int loop = 0; (loop < 100) && (basicJobHelper.getJobs().size() > 100); loop++) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(100, basicJobHelper.getJobs().size());
+        assertFalse(basicJobHelper.getJob("5").isPresent());
+        assertTrue(basicJobHelper.getJob("6").isPresent());
+    }
+
+    @Test
+    public void shouldRejectRequestsThatAreNotJobs() throws Exception {
+        request("POST", "/jobs", "[\"--server\"]", 400);
+        request("POST", "/jobs", "[\"-g\", \"first\"]", 400);
+        request("POST", "/jobs", "not json", 400);
+        request("GET", "/jobs/99", null, 404);
+
+        assertEquals(0, basicJobHelper.getJobs().size());
+    }
+
+    private void waitFor(ProvisionerJob provisionerJob, JobStatus jobStatus) throws InterruptedException {
+        for (int loop = 0; (loop < 100) && (provisionerJob.getStatus() != jobStatus); loop++) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(jobStatus, provisionerJob.getStatus());
+    }
+
+    private String request(String method, String path, String body, int expectedStatusCode) throws IOException {
+        HttpURLConnection httpURLConnection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        httpURLConnection.setRequestMethod(method);
+
+        if (body != null) {
+            httpURLConnection.setDoOutput(true);
+
+            try (OutputStream outputStream = httpURLConnection.getOutputStream()) {
+                outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(expectedStatusCode, httpURLConnection.getResponseCode());
+
+        InputStream inputStream = expectedStatusCode < 400 ? httpURLConnection.getInputStream() : httpURLConnection.getErrorStream();
+
+        try (InputStream closeable = inputStream) {
+            return IOUtils.toString(closeable, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.jcraft.jsch.Session;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SshSessionPoolHelperTest {
+    private BasicSshSessionPoolHelper basicSshSessionPoolHelper;
+
+    @Before
+    public void setup() {
+        basicSshSessionPoolHelper = new BasicSshSessionPoolHelper();
+    }
+
+    @Test
+    public void shouldReuseConnectedSessionsAndReplaceDisconnectedOnes() {
+        Session first = connectedSession();
+
+        assertSame(first, basicSshSessionPoolHelper.getSession("device", "pi", () -> first));
+        assertSame(first, basicSshSessionPoolHelper.getSession("device", "pi", () -> connectedSession()));
+        assertNotSame(first, basicSshSessionPoolHelper.getSession("device", "root", () -> connectedSession()));
+
+        when(first.isConnected()).thenReturn(false);
+        Session second = connectedSession();
+
+        assertSame(second, basicSshSessionPoolHelper.getSession("device", "pi", () -> second));
+        assertEquals(3, basicSshSessionPoolHelper.getSessionsCreated());
+        assertEquals(1, basicSshSessionPoolHelper.getSessionsReused());
+
+        basicSshSessionPoolHelper.close(second);
+        verify(second).disconnect();
+    }
+
+    private Session connectedSession() {
+        Session session = mock(Session.class);
+        when(session.isConnected()).thenReturn(true);
+        return session;
+    }
+}
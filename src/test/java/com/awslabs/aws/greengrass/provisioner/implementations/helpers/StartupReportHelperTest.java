@@ -0,0 +1,44 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Singleton;
+import com.google.inject.matcher.Matchers;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StartupReportHelperTest {
+    static class Shared {
+    }
+
+    static class Unshared {
+    }
+
+    @Test
+    public void shouldCountInstancesAndClasses() {
+        BasicStartupReportHelper basicStartupReportHelper = new BasicStartupReportHelper();
+
+        Injector injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindListener(Matchers.any(), basicStartupReportHelper);
+                bind(Shared.class).in(Singleton.class);
+                bind(Unshared.class);
+            }
+        });
+
+        int instancesBaseline = basicStartupReportHelper.getInstancesCreated();
+        int classesBaseline = basicStartupReportHelper.getClassesCreated();
+
+        for (int loop = 0; loop < 3; loop++) {
+            injector.getInstance(Shared.class);
+            injector.getInstance(Unshared.class);
+        }
+
+        // One shared instance and three unshared ones
+        assertEquals(instancesBaseline + 4, basicStartupReportHelper.getInstancesCreated());
+        assertEquals(classesBaseline + 2, basicStartupReportHelper.getClassesCreated());
+    }
+}
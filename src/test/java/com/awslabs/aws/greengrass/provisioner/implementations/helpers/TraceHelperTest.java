@@ -0,0 +1,145 @@
+package com.awslabs.aws.greengrass.provisioner.implementations.helpers;
+
+import com.awslabs.aws.greengrass.provisioner.data.TraceSpan;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TraceHelperTest {
+    private BasicTraceHelper basicTraceHelper;
+
+    @Before
+    public void setup() {
+        basicTraceHelper = new BasicTraceHelper();
+        basicTraceHelper.jsonHelper = new BasicJsonHelper();
+    }
+
+    @Test
+    public void shouldNestSpansAcrossThreads() throws Exception {
+        TraceSpan root = basicTraceHelper.startSpan("DeploymentHelper");
+        Optional<TraceSpan> parentSpan = basicTraceHelper.getCurrentSpan();
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.submit(() -> {
+            try (TraceSpan step = basicTraceHelper.startSpan("Core thing", parentSpan)) {
+                // A span started from a parent on another thread is the open span on this one
+                assertSame(step, basicTraceHelper.getCurrentSpan().get());
+                basicTraceHelper.startLeafSpan("Iot.CreateThing", TraceSpan.SDK).ifPresent(TraceSpan::close);
+            }
+        }).get();
+        executorService.shutdown();
+
+        root.close();
+
+        // Closing the root restores the empty state and leaf spans need an open span
+        assertFalse(basicTraceHelper.getCurrentSpan().isPresent());
+        assertFalse(basicTraceHelper.startLeafSpan("Iot.ListThings", TraceSpan.SDK).isPresent());
+
+        List<TraceSpan> traceSpans = basicTraceHelper.removeTrace(root);
+        assertEquals(3, traceSpans.size());
+
+        TraceSpan step = find(traceSpans, "Core thing");
+        TraceSpan sdkCall = find(traceSpans, "Iot.CreateThing");
+
+        assertEquals(root.getSpanId(), step.getParentSpanId().get());
+        assertEquals(step.getSpanId(), sdkCall.getParentSpanId().get());
+        assertTrue(traceSpans.stream().allMatch(traceSpan -> traceSpan.getTraceId().equals(root.getTraceId())));
+
+        // Removed once it has been read
+        assertTrue(basicTraceHelper.removeTrace(root).isEmpty());
+    }
+
+    @Test
+    public void shouldFollowTheCriticalPath() throws Exception {
+        TraceSpan root = basicTraceHelper.startSpan("DeploymentHelper");
+        Optional<TraceSpan> parentSpan = basicTraceHelper.getCurrentSpan();
+
+        // Two steps that run together, only the slower one holds up the next step
+        CountDownLatch slowStepStarted = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Future<?> slowStep = executorService.submit(() -> sleepInSpan("Greengrass role", parentSpan, 100, slowStepStarted));
+        slowStepStarted.await();
+        executorService.submit(() -> sleepInSpan("Logger definition", parentSpan, 10)).get();
+        slowStep.get();
+        executorService.shutdown();
+
+        sleepInSpan("Group version", parentSpan, 10);
+        root.close();
+
+        List<TraceSpan> traceSpans = basicTraceHelper.removeTrace(root);
+        List<String> criticalPath = basicTraceHelper.getCriticalPath(root, traceSpans).stream()
+                .map(TraceSpan::getName)
+                .collect(Collectors.toList());
+
+        assertEquals(3, criticalPath.size());
+        assertEquals("DeploymentHelper", criticalPath.get(0));
+        assertEquals("Greengrass role", criticalPath.get(1));
+        assertEquals("Group version", criticalPath.get(2));
+
+        String chromeTrace = basicTraceHelper.toChromeTrace(traceSpans);
+        assertTrue(chromeTrace.contains("\"ph\": \"X\""));
+        assertTrue(chromeTrace.contains("\"name\": \"Greengrass role\""));
+
+        String otlpJson = basicTraceHelper.toOtlpJson(traceSpans);
+        assertTrue(otlpJson.contains("\"traceId\": \"" + root.getTraceId() + "\""));
+        assertTrue(otlpJson.contains("\"startTimeUnixNano\": \"" + root.getStartEpochNanos() + "\""));
+    }
+
+    @Test
+    public void shouldMarkSpansThatThrowAsFailed() {
+        TraceSpan root = basicTraceHelper.startSpan("DeploymentHelper");
+
+        assertEquals("done", basicTraceHelper.trace("Output files", () -> "done"));
+
+        try {
+            basicTraceHelper.trace("Deployment", () -> {
+                throw new RuntimeException("Deployment failed");
+            });
+            fail("The exception should be rethrown");
+        } catch (RuntimeException e) {
+            assertEquals("Deployment failed", e.getMessage());
+        }
+
+        // The failed span is closed and the root is the open span again
+        assertEquals(root, basicTraceHelper.getCurrentSpan().get());
+        root.close();
+
+        List<TraceSpan> traceSpans = basicTraceHelper.removeTrace(root);
+        assertFalse(find(traceSpans, "Output files").getError().isPresent());
+        assertEquals("Deployment failed", find(traceSpans, "Deployment").getError().get());
+    }
+
+    private void sleepInSpan(String name, Optional<TraceSpan> parentSpan, long milliseconds) {
+        sleepInSpan(name, parentSpan, milliseconds, new CountDownLatch(1));
+    }
+
+    private void sleepInSpan(String name, Optional<TraceSpan> parentSpan, long milliseconds, CountDownLatch started) {
+        try (TraceSpan traceSpan = basicTraceHelper.startSpan(name, parentSpan)) {
+            assertEquals(name, traceSpan.getName());
+            started.countDown();
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private TraceSpan find(List<TraceSpan> traceSpans, String name) {
+        return traceSpans.stream()
+                .filter(traceSpan -> traceSpan.getName().equals(name))
+                .findFirst()
+                .get();
+    }
+}